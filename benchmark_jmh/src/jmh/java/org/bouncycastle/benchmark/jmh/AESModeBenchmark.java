@@ -0,0 +1,135 @@
+package org.bouncycastle.benchmark.jmh;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.MultiBlockCipher;
+import org.bouncycastle.crypto.StreamCipher;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.AEADBlockCipher;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.modes.CCMBlockCipher;
+import org.bouncycastle.crypto.modes.CFBBlockCipher;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.GCMSIVBlockCipher;
+import org.bouncycastle.crypto.modes.SICBlockCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.util.Pack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Streaming AES modes, each created through the same newInstance() factory used by the provider.
+ */
+public abstract class AESModeBenchmark
+    extends NativeBenchmark
+{
+    @Param({"ECB", "CBC", "CFB", "CTR", "GCM", "GCM-SIV", "CCM"})
+    String mode;
+
+    @Param({"128", "256"})
+    int keySize;
+
+    @Param({"16", "256", "1024", "8192", "65536"})
+    int size;
+
+    private KeyParameter key;
+    private byte[] nonce;
+    private byte[] input;
+    private byte[] output;
+
+    private MultiBlockCipher blockCipher;
+    private StreamCipher streamCipher;
+    private AEADBlockCipher aeadCipher;
+
+    protected String getFeature()
+    {
+        return "AES/" + mode;
+    }
+
+    @Setup
+    public void setup()
+    {
+        checkImplementation();
+
+        key = new KeyParameter(new byte[keySize / 8]);
+        input = new byte[size];
+        // CCM has a 13 byte nonce limit, the others are happy with 12
+        nonce = new byte["CCM".equals(mode) ? 13 : 12];
+
+        if ("ECB".equals(mode))
+        {
+            blockCipher = AESEngine.newInstance();
+            blockCipher.init(true, key);
+        }
+        else if ("CBC".equals(mode))
+        {
+            blockCipher = CBCBlockCipher.newInstance(AESEngine.newInstance());
+            blockCipher.init(true, new ParametersWithIV(key, new byte[16]));
+        }
+        else if ("CFB".equals(mode))
+        {
+            streamCipher = CFBBlockCipher.newInstance(AESEngine.newInstance(), 128);
+            streamCipher.init(true, new ParametersWithIV(key, new byte[16]));
+        }
+        else if ("CTR".equals(mode))
+        {
+            streamCipher = SICBlockCipher.newInstance(AESEngine.newInstance());
+            streamCipher.init(true, new ParametersWithIV(key, new byte[16]));
+        }
+        else if ("GCM".equals(mode))
+        {
+            aeadCipher = GCMBlockCipher.newInstance(AESEngine.newInstance());
+        }
+        else if ("GCM-SIV".equals(mode))
+        {
+            aeadCipher = GCMSIVBlockCipher.newInstance(AESEngine.newInstance());
+        }
+        else if ("CCM".equals(mode))
+        {
+            aeadCipher = CCMBlockCipher.newInstance(AESEngine.newInstance());
+        }
+        else
+        {
+            throw new IllegalArgumentException("unknown mode: " + mode);
+        }
+
+        output = new byte[aeadCipher != null ? size + 16 : size];
+    }
+
+    @Benchmark
+    public byte[] encrypt()
+        throws InvalidCipherTextException
+    {
+        if (blockCipher != null)
+        {
+            blockCipher.processBlocks(input, 0, size / 16, output, 0);
+        }
+        else if (streamCipher != null)
+        {
+            streamCipher.processBytes(input, 0, size, output, 0);
+        }
+        else
+        {
+            // GCM rejects nonce reuse on encryption, so step the nonce for every message.
+            Pack.intToBigEndian(Pack.bigEndianToInt(nonce, 0) + 1, nonce, 0);
+            aeadCipher.init(true, new AEADParameters(key, 128, nonce));
+            int len = aeadCipher.processBytes(input, 0, size, output, 0);
+            aeadCipher.doFinal(output, len);
+        }
+        return output;
+    }
+
+    public static class Native
+        extends AESModeBenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = JAVA_ONLY)
+    public static class Java
+        extends AESModeBenchmark
+    {
+    }
+}
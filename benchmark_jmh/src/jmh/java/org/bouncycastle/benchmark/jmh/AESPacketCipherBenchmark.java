@@ -0,0 +1,150 @@
+package org.bouncycastle.benchmark.jmh;
+
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.PacketCipher;
+import org.bouncycastle.crypto.PacketCipherException;
+import org.bouncycastle.crypto.modes.AESCBCPacketCipher;
+import org.bouncycastle.crypto.modes.AESCCMPacketCipher;
+import org.bouncycastle.crypto.modes.AESCFBPacketCipher;
+import org.bouncycastle.crypto.modes.AESCTRPacketCipher;
+import org.bouncycastle.crypto.modes.AESGCMPacketCipher;
+import org.bouncycastle.crypto.modes.AESGCMSIVPacketCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.util.Pack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * One shot AES packet ciphers (the "-PC" features), as used by the TLS record layer.
+ */
+public abstract class AESPacketCipherBenchmark
+    extends NativeBenchmark
+{
+    @Param({"CBC", "CFB", "CTR", "GCM", "GCM-SIV", "CCM"})
+    String mode;
+
+    @Param({"128", "256"})
+    int keySize;
+
+    @Param({"16", "256", "1024", "8192", "65536"})
+    int size;
+
+    private PacketCipher cipher;
+    private KeyParameter key;
+    private byte[] iv;
+    private boolean aead;
+    private byte[] input;
+    private byte[] output;
+
+    protected String getFeature()
+    {
+        if ("CBC".equals(mode))
+        {
+            return NativeServices.AES_CBC_PC;
+        }
+        if ("CFB".equals(mode))
+        {
+            return NativeServices.AES_CFB_PC;
+        }
+        if ("CTR".equals(mode))
+        {
+            return NativeServices.AES_CTR_PC;
+        }
+        if ("GCM".equals(mode))
+        {
+            return NativeServices.AES_GCM_PC;
+        }
+        if ("GCM-SIV".equals(mode))
+        {
+            return NativeServices.AES_GCMSIV_PC;
+        }
+        if ("CCM".equals(mode))
+        {
+            return NativeServices.AES_CCM_PC;
+        }
+        throw new IllegalArgumentException("unknown mode: " + mode);
+    }
+
+    @Setup
+    public void setup()
+    {
+        checkImplementation();
+
+        key = new KeyParameter(new byte[keySize / 8]);
+        input = new byte[size];
+
+        if ("CBC".equals(mode))
+        {
+            cipher = AESCBCPacketCipher.newInstance();
+            iv = new byte[16];
+        }
+        else if ("CFB".equals(mode))
+        {
+            cipher = AESCFBPacketCipher.newInstance();
+            iv = new byte[16];
+        }
+        else if ("CTR".equals(mode))
+        {
+            cipher = AESCTRPacketCipher.newInstance();
+            iv = new byte[16];
+        }
+        else if ("GCM".equals(mode))
+        {
+            cipher = AESGCMPacketCipher.newInstance();
+            iv = new byte[12];
+            aead = true;
+        }
+        else if ("GCM-SIV".equals(mode))
+        {
+            cipher = AESGCMSIVPacketCipher.newInstance();
+            iv = new byte[12];
+            aead = true;
+        }
+        else
+        {
+            cipher = AESCCMPacketCipher.newInstance();
+            iv = new byte[13];
+            aead = true;
+        }
+
+        output = new byte[cipher.getOutputSize(true, parameters(), size)];
+    }
+
+    private CipherParameters parameters()
+    {
+        if (aead)
+        {
+            return new AEADParameters(key, 128, iv);
+        }
+        return new ParametersWithIV(key, iv);
+    }
+
+    @Benchmark
+    public byte[] encrypt()
+        throws PacketCipherException
+    {
+        if (aead)
+        {
+            // GCM rejects nonce reuse on encryption, so step the nonce for every packet.
+            Pack.intToBigEndian(Pack.bigEndianToInt(iv, 0) + 1, iv, 0);
+        }
+        cipher.processPacket(true, parameters(), input, 0, size, output, 0);
+        return output;
+    }
+
+    public static class Native
+        extends AESPacketCipherBenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = JAVA_ONLY)
+    public static class Java
+        extends AESPacketCipherBenchmark
+    {
+    }
+}
@@ -0,0 +1,80 @@
+package org.bouncycastle.benchmark.jmh;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The provider's SecureRandoms shared by every thread, as a server would use them for nonces, IVs and
+ * ephemeral keys. Each is run from one thread and from one thread per core, against the single shared
+ * DRBG and against a pool of DRBGs ("org.bouncycastle.drbg.pool_size"). With the pool the all-threads
+ * score should be close to the single-thread score times the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+public abstract class DRBGContentionBenchmark
+{
+    static final String POOLED = "-Dorg.bouncycastle.drbg.pool_size=64";
+
+    @Param({"DEFAULT", "NONCEANDIV"})
+    String algorithm;
+
+    private SecureRandom random;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        random = SecureRandom.getInstance(algorithm, new BouncyCastleProvider());
+    }
+
+    @State(Scope.Thread)
+    public static class Output
+    {
+        final byte[] bytes = new byte[32];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] oneThread(Output output)
+    {
+        random.nextBytes(output.bytes);
+        return output.bytes;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] allThreads(Output output)
+    {
+        random.nextBytes(output.bytes);
+        return output.bytes;
+    }
+
+    @Fork(value = 1)
+    public static class Shared
+        extends DRBGContentionBenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = POOLED)
+    public static class Pooled
+        extends DRBGContentionBenchmark
+    {
+    }
+}
@@ -0,0 +1,117 @@
+package org.bouncycastle.benchmark.jmh;
+
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.digests.SHA224Digest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SHA384Digest;
+import org.bouncycastle.crypto.digests.SHA3Digest;
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * SHA-2, SHA-3 and SHAKE digests, each created through its newInstance() factory.
+ */
+public abstract class DigestBenchmark
+    extends NativeBenchmark
+{
+    @Param({"SHA-224", "SHA-256", "SHA-384", "SHA-512", "SHA3-256", "SHAKE128", "SHAKE256"})
+    String algorithm;
+
+    @Param({"16", "256", "1024", "8192", "65536"})
+    int size;
+
+    private Digest digest;
+    private byte[] input;
+    private byte[] output;
+
+    protected String getFeature()
+    {
+        if ("SHA-224".equals(algorithm))
+        {
+            return NativeServices.SHA224;
+        }
+        if ("SHA-256".equals(algorithm))
+        {
+            return NativeServices.SHA256;
+        }
+        if ("SHA-384".equals(algorithm))
+        {
+            return NativeServices.SHA384;
+        }
+        if ("SHA-512".equals(algorithm))
+        {
+            return NativeServices.SHA512;
+        }
+        if ("SHA3-256".equals(algorithm))
+        {
+            return NativeServices.SHA3;
+        }
+        if (algorithm.startsWith("SHAKE"))
+        {
+            return NativeServices.SHAKE;
+        }
+        throw new IllegalArgumentException("unknown algorithm: " + algorithm);
+    }
+
+    @Setup
+    public void setup()
+    {
+        checkImplementation();
+
+        if ("SHA-224".equals(algorithm))
+        {
+            digest = SHA224Digest.newInstance();
+        }
+        else if ("SHA-256".equals(algorithm))
+        {
+            digest = SHA256Digest.newInstance();
+        }
+        else if ("SHA-384".equals(algorithm))
+        {
+            digest = SHA384Digest.newInstance();
+        }
+        else if ("SHA-512".equals(algorithm))
+        {
+            digest = SHA512Digest.newInstance();
+        }
+        else if ("SHA3-256".equals(algorithm))
+        {
+            digest = SHA3Digest.newInstance(256);
+        }
+        else if ("SHAKE128".equals(algorithm))
+        {
+            digest = SHAKEDigest.newInstance(128);
+        }
+        else
+        {
+            digest = SHAKEDigest.newInstance(256);
+        }
+
+        input = new byte[size];
+        output = new byte[digest.getDigestSize()];
+    }
+
+    @Benchmark
+    public byte[] hash()
+    {
+        digest.update(input, 0, size);
+        digest.doFinal(output, 0);
+        return output;
+    }
+
+    public static class Native
+        extends DigestBenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = JAVA_ONLY)
+    public static class Java
+        extends DigestBenchmark
+    {
+    }
+}
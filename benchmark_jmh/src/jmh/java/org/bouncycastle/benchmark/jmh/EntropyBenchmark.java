@@ -0,0 +1,57 @@
+package org.bouncycastle.benchmark.jmh;
+
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.prng.EntropySource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * The default entropy source, which is backed by RDSEED/RDRAND (NRBG/DRBG) when the native
+ * library is available and by the JVM's SecureRandom otherwise.
+ */
+public abstract class EntropyBenchmark
+    extends NativeBenchmark
+{
+    @Param({"128", "256", "1024"})
+    int bits;
+
+    private EntropySource entropySource;
+
+    protected String getFeature()
+    {
+        // the native entropy source prefers the NRBG, but will use the DRBG on its own.
+        if (CryptoServicesRegistrar.hasEnabledService(NativeServices.NRBG))
+        {
+            return NativeServices.NRBG;
+        }
+        return NativeServices.DRBG;
+    }
+
+    @Setup
+    public void setup()
+    {
+        checkImplementation();
+
+        entropySource = CryptoServicesRegistrar.getDefaultEntropySourceProvider().get(bits);
+    }
+
+    @Benchmark
+    public byte[] getEntropy()
+    {
+        return entropySource.getEntropy();
+    }
+
+    public static class Native
+        extends EntropyBenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = JAVA_ONLY)
+    public static class Java
+        extends EntropyBenchmark
+    {
+    }
+}
@@ -0,0 +1,104 @@
+package org.bouncycastle.benchmark.jmh;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.SecretWithEncapsulation;
+import org.bouncycastle.crypto.generators.MLKEMKeyPairGenerator;
+import org.bouncycastle.crypto.kems.MLKEMExtractor;
+import org.bouncycastle.crypto.kems.MLKEMGenerator;
+import org.bouncycastle.crypto.params.MLKEMKeyGenerationParameters;
+import org.bouncycastle.crypto.params.MLKEMParameters;
+import org.bouncycastle.crypto.params.MLKEMPrivateKeyParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * ML-KEM key generation, encapsulation and decapsulation, all three are dominated by SHAKE
+ * through matrix expansion and noise sampling.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public abstract class MLKEMBenchmark
+    extends NativeBenchmark
+{
+    @Param({"ML-KEM-512", "ML-KEM-768", "ML-KEM-1024"})
+    String parameterSet;
+
+    private MLKEMKeyPairGenerator kpg;
+    private AsymmetricCipherKeyPair kp;
+    private MLKEMGenerator generator;
+    private MLKEMExtractor extractor;
+    private byte[] encapsulation;
+
+    protected String getFeature()
+    {
+        return NativeServices.SHAKE;
+    }
+
+    @Setup
+    public void setup()
+    {
+        checkImplementation();
+
+        MLKEMParameters parameters;
+        if (MLKEMParameters.ml_kem_512.getName().equals(parameterSet))
+        {
+            parameters = MLKEMParameters.ml_kem_512;
+        }
+        else if (MLKEMParameters.ml_kem_768.getName().equals(parameterSet))
+        {
+            parameters = MLKEMParameters.ml_kem_768;
+        }
+        else
+        {
+            parameters = MLKEMParameters.ml_kem_1024;
+        }
+
+        SecureRandom random = new SecureRandom();
+
+        kpg = new MLKEMKeyPairGenerator();
+        kpg.init(new MLKEMKeyGenerationParameters(random, parameters));
+        kp = kpg.generateKeyPair();
+
+        generator = new MLKEMGenerator(random);
+        extractor = new MLKEMExtractor((MLKEMPrivateKeyParameters)kp.getPrivate());
+        encapsulation = generator.generateEncapsulated(kp.getPublic()).getEncapsulation();
+    }
+
+    @Benchmark
+    public AsymmetricCipherKeyPair keyGen()
+    {
+        return kpg.generateKeyPair();
+    }
+
+    @Benchmark
+    public SecretWithEncapsulation encapsulate()
+    {
+        return generator.generateEncapsulated(kp.getPublic());
+    }
+
+    @Benchmark
+    public byte[] decapsulate()
+    {
+        return extractor.extractSecret(encapsulation);
+    }
+
+    public static class Native
+        extends MLKEMBenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = JAVA_ONLY)
+    public static class Java
+        extends MLKEMBenchmark
+    {
+    }
+}
@@ -0,0 +1,95 @@
+package org.bouncycastle.benchmark.jmh;
+
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.math.raw.Mul;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Carry-less multiply accumulate over long arrays.
+ * <p>
+ * The library has no Java version of {@link Mul#multiplyAcc}, so the Java fork measures the constant
+ * time schoolbook reference in this class, which matches the vectors in MulTest.
+ * </p>
+ */
+public abstract class MulAccBenchmark
+    extends NativeBenchmark
+{
+    @Param({"1", "2", "4", "8", "16"})
+    int limbs;
+
+    private boolean nativeMul;
+    private long[] x;
+    private long[] y;
+    private long[] z;
+
+    protected String getFeature()
+    {
+        return NativeServices.MULACC;
+    }
+
+    @Setup
+    public void setup()
+    {
+        checkImplementation();
+
+        nativeMul = CryptoServicesRegistrar.hasEnabledService(NativeServices.MULACC);
+
+        x = new long[limbs];
+        y = new long[limbs];
+        z = new long[limbs * 2];
+        for (int i = 0; i < limbs; i++)
+        {
+            x[i] = 0x2F61DD5526E17E73L * (i + 1);
+            y[i] = 0x1F1D290518101D43L * (i + 1);
+        }
+    }
+
+    @Benchmark
+    public long[] multiplyAcc()
+    {
+        if (nativeMul)
+        {
+            Mul.multiplyAcc(x, 0, y, 0, z);
+        }
+        else
+        {
+            multiplyAcc(x, y, z);
+        }
+        return z;
+    }
+
+    static void multiplyAcc(long[] x, long[] y, long[] z)
+    {
+        for (int i = 0; i < x.length; i++)
+        {
+            for (int j = 0; j < y.length; j++)
+            {
+                long xi = x[i], yj = y[j];
+                long lo = xi & -(yj & 1L), hi = 0;
+                for (int k = 1; k < 64; k++)
+                {
+                    long m = -((yj >>> k) & 1L);
+                    lo ^= (xi << k) & m;
+                    hi ^= (xi >>> (64 - k)) & m;
+                }
+                z[i + j] ^= lo;
+                z[i + j + 1] ^= hi;
+            }
+        }
+    }
+
+    public static class Native
+        extends MulAccBenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = JAVA_ONLY)
+    public static class Java
+        extends MulAccBenchmark
+    {
+    }
+}
@@ -0,0 +1,69 @@
+package org.bouncycastle.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class for benchmarks comparing a native feature against its Java implementation.
+ * <p>
+ * The native loader selects between the native and Java implementations once per JVM, so each
+ * benchmark family declares two concrete subclasses: a "Native" one which runs in a default fork and
+ * a "Java" one whose fork is started with {@link #JAVA_ONLY}. The setup check makes sure a native
+ * result is never quietly produced by the Java fallback.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+public abstract class NativeBenchmark
+{
+    static final String CPU_VARIANT = "org.bouncycastle.native.cpu_variant";
+
+    /**
+     * JVM argument that restricts a fork to the Java implementations.
+     */
+    static final String JAVA_ONLY = "-D" + CPU_VARIANT + "=java";
+
+    /**
+     * Return the NativeServices feature string this benchmark exercises.
+     *
+     * @return the feature string.
+     */
+    protected abstract String getFeature();
+
+    /**
+     * Confirm the implementation in use matches the fork we are in.
+     *
+     * @throws IllegalStateException if a native run has no native support for the feature, or a
+     *                               Java run unexpectedly has it.
+     */
+    protected void checkImplementation()
+    {
+        boolean javaFork = "java".equals(System.getProperty(CPU_VARIANT));
+        boolean nativeEnabled = CryptoServicesRegistrar.hasEnabledService(getFeature());
+
+        if (javaFork && nativeEnabled)
+        {
+            throw new IllegalStateException("native " + getFeature() + " enabled in java fork");
+        }
+
+        if (!javaFork && !nativeEnabled)
+        {
+            throw new IllegalStateException("native " + getFeature() + " not available, variant "
+                + CryptoServicesRegistrar.getNativeServices().getVariant() + ": "
+                + CryptoServicesRegistrar.getNativeServices().getStatusMessage());
+        }
+    }
+}
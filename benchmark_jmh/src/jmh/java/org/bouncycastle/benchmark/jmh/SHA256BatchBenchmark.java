@@ -0,0 +1,62 @@
+package org.bouncycastle.benchmark.jmh;
+
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Batched SHA-256 over many short independent messages, the shape of Merkle tree and certificate
+ * transparency workloads. Scores are per message.
+ */
+public abstract class SHA256BatchBenchmark
+    extends NativeBenchmark
+{
+    private static final int BATCH = 1024;
+
+    @Param({"32", "64", "128", "512"})
+    int size;
+
+    private byte[][] msgs;
+    private byte[][] outs;
+
+    protected String getFeature()
+    {
+        return NativeServices.SHA256;
+    }
+
+    @Setup
+    public void setup()
+    {
+        checkImplementation();
+
+        msgs = new byte[BATCH][size];
+        outs = new byte[BATCH][32];
+        for (int i = 0; i < BATCH; i++)
+        {
+            msgs[i][0] = (byte)i;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public byte[][] hashBatch()
+    {
+        SHA256Digest.hashBatch(msgs, outs);
+        return outs;
+    }
+
+    public static class Native
+        extends SHA256BatchBenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = JAVA_ONLY)
+    public static class Java
+        extends SHA256BatchBenchmark
+    {
+    }
+}
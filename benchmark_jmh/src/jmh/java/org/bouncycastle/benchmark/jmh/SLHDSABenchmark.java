@@ -0,0 +1,86 @@
+package org.bouncycastle.benchmark.jmh;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.pqc.crypto.slhdsa.SLHDSAKeyGenerationParameters;
+import org.bouncycastle.pqc.crypto.slhdsa.SLHDSAKeyPairGenerator;
+import org.bouncycastle.pqc.crypto.slhdsa.SLHDSAParameters;
+import org.bouncycastle.pqc.crypto.slhdsa.SLHDSASigner;
+import org.bouncycastle.util.Strings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * SLH-DSA signing and verification for the parameter sets backed by the native SHA-256 engine (n = 16).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public abstract class SLHDSABenchmark
+    extends NativeBenchmark
+{
+    @Param({"sha2_128f", "sha2_128s"})
+    String parameterSet;
+
+    private final byte[] message = Strings.toByteArray("SLH-DSA benchmark message");
+
+    private SLHDSASigner signer;
+    private SLHDSASigner verifier;
+    private byte[] signature;
+
+    protected String getFeature()
+    {
+        return NativeServices.SLHDSA_SHA256;
+    }
+
+    @Setup
+    public void setup()
+    {
+        checkImplementation();
+
+        SLHDSAParameters parameters = "sha2_128f".equals(parameterSet)
+            ? SLHDSAParameters.sha2_128f : SLHDSAParameters.sha2_128s;
+
+        SLHDSAKeyPairGenerator kpg = new SLHDSAKeyPairGenerator();
+        kpg.init(new SLHDSAKeyGenerationParameters(new SecureRandom(), parameters));
+        AsymmetricCipherKeyPair kp = kpg.generateKeyPair();
+
+        signer = new SLHDSASigner();
+        signer.init(true, kp.getPrivate());
+
+        verifier = new SLHDSASigner();
+        verifier.init(false, kp.getPublic());
+
+        signature = signer.generateSignature(message);
+    }
+
+    @Benchmark
+    public byte[] sign()
+    {
+        return signer.generateSignature(message);
+    }
+
+    @Benchmark
+    public boolean verify()
+    {
+        return verifier.verifySignature(message, signature);
+    }
+
+    public static class Native
+        extends SLHDSABenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = JAVA_ONLY)
+    public static class Java
+        extends SLHDSABenchmark
+    {
+    }
+}
@@ -0,0 +1,87 @@
+package org.bouncycastle.benchmark.jmh;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.generators.SLHDSAKeyPairGenerator;
+import org.bouncycastle.crypto.params.SLHDSAKeyGenerationParameters;
+import org.bouncycastle.crypto.params.SLHDSAParameters;
+import org.bouncycastle.crypto.signers.SLHDSASigner;
+import org.bouncycastle.util.Strings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * SLH-DSA signing and verification for the SHAKE parameter sets, which hash WOTS+ chains and FORS
+ * leaves four lanes at a time when the native engine is available.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public abstract class SLHDSAShakeBenchmark
+    extends NativeBenchmark
+{
+    @Param({"shake_128f", "shake_128s", "shake_256f"})
+    String parameterSet;
+
+    private final byte[] message = Strings.toByteArray("SLH-DSA benchmark message");
+
+    private SLHDSASigner signer;
+    private SLHDSASigner verifier;
+    private byte[] signature;
+
+    protected String getFeature()
+    {
+        return NativeServices.SLHDSA_SHAKE;
+    }
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        checkImplementation();
+
+        SLHDSAParameters parameters = (SLHDSAParameters)SLHDSAParameters.class.getField(parameterSet).get(null);
+
+        SLHDSAKeyPairGenerator kpg = new SLHDSAKeyPairGenerator();
+        kpg.init(new SLHDSAKeyGenerationParameters(new SecureRandom(), parameters));
+        AsymmetricCipherKeyPair kp = kpg.generateKeyPair();
+
+        signer = new SLHDSASigner();
+        signer.init(true, kp.getPrivate());
+
+        verifier = new SLHDSASigner();
+        verifier.init(false, kp.getPublic());
+
+        signature = signer.generateSignature(message);
+    }
+
+    @Benchmark
+    public byte[] sign()
+    {
+        return signer.generateSignature(message);
+    }
+
+    @Benchmark
+    public boolean verify()
+    {
+        return verifier.verifySignature(message, signature);
+    }
+
+    public static class Native
+        extends SLHDSAShakeBenchmark
+    {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = JAVA_ONLY)
+    public static class Java
+        extends SLHDSAShakeBenchmark
+    {
+    }
+}
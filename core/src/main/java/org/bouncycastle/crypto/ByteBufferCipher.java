@@ -0,0 +1,28 @@
+package org.bouncycastle.crypto;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for ciphers that can process the contents of ByteBuffers without first copying them into
+ * byte arrays. Native implementations pass the addresses of direct buffers straight to the native code,
+ * so no copying takes place and no Java arrays are pinned while the data is being processed.
+ */
+public interface ByteBufferCipher
+{
+    /**
+     * Process the remaining bytes in the input buffer and write the result to the output buffer.
+     * <p>
+     * On return the position of in will have moved to its limit and the position of out will have moved
+     * forward by the number of bytes written. The input and output may be the same buffer.
+     * </p>
+     *
+     * @param in  the input buffer.
+     * @param out the output buffer.
+     * @return the number of bytes written to out.
+     * @throws DataLengthException   if the input length is not valid for the cipher.
+     * @throws OutputLengthException if out does not have enough space remaining.
+     * @throws IllegalStateException if the cipher is not initialised.
+     */
+    int processBuffers(ByteBuffer in, ByteBuffer out)
+        throws DataLengthException, IllegalStateException;
+}
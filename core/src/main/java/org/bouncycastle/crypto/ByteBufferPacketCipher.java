@@ -0,0 +1,75 @@
+package org.bouncycastle.crypto;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+/**
+ * A packet cipher that can also process the contents of ByteBuffers. Native implementations pass the
+ * addresses of direct buffers straight to the native code, so a packet can be transformed in place in
+ * off-heap memory without copying or pinning Java arrays.
+ */
+public interface ByteBufferPacketCipher
+    extends PacketCipher
+{
+    /**
+     * Process a packet held in the remaining bytes of input.
+     * <p>
+     * On success the position of input will have moved to its limit and the position of output will have
+     * moved forward by the number of bytes written. Input and output must be separate ByteBuffer objects,
+     * although they may be views of the same memory.
+     * </p>
+     * <p>
+     * The default implementation works through the backing arrays of heap buffers, or copies the data
+     * when they are not available.
+     * </p>
+     *
+     * @param encryption encryption if true
+     * @param parameters The key parameters
+     * @param input      The input buffer, the packet is from position to limit.
+     * @param output     The output buffer, the result is written from its position.
+     * @return the number of bytes written to output.
+     * @throws PacketCipherException if the transformation encounters an error.
+     */
+    default int processPacket(boolean encryption, CipherParameters parameters, ByteBuffer input, ByteBuffer output)
+        throws PacketCipherException
+    {
+        int len = input.remaining();
+        int outLen;
+        try
+        {
+            if (output.isReadOnly())
+            {
+                throw new ReadOnlyBufferException();
+            }
+            outLen = getOutputSize(encryption, parameters, len);
+            if (output.remaining() < outLen)
+            {
+                throw new OutputLengthException(ExceptionMessages.OUTPUT_LENGTH);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            throw PacketCipherException.from(e);
+        }
+
+        int written;
+        if (input.hasArray() && output.hasArray())
+        {
+            written = processPacket(encryption, parameters, input.array(), input.arrayOffset() + input.position(),
+                len, output.array(), output.arrayOffset() + output.position());
+        }
+        else
+        {
+            byte[] in = new byte[len];
+            input.duplicate().get(in);
+            byte[] out = new byte[outLen];
+            written = processPacket(encryption, parameters, in, 0, len, out, 0);
+            output.duplicate().put(out, 0, written);
+        }
+
+        input.position(input.position() + len);
+        output.position(output.position() + written);
+
+        return written;
+    }
+}
@@ -206,6 +206,11 @@ class DefaultNativeServices
                 set.add(MULACC);
             }
 
+            if (NativeFeatures.hasModExp())
+            {
+                set.add(MODEXP);
+            }
+
             if (NativeFeatures.hasSHA3())
             {
                 set.add(SHA3);
@@ -220,6 +225,11 @@ class DefaultNativeServices
             {
                 set.add(SLHDSA_SHA256);
             }
+
+            if (NativeFeatures.hasSlhDSAShake())
+            {
+                set.add(SLHDSA_SHAKE);
+            }
         }
 
         if (set.isEmpty())
@@ -0,0 +1,31 @@
+package org.bouncycastle.crypto;
+
+/**
+ * A packet cipher that can take its associated data and input as lists of segments, so callers such as
+ * a record layer do not have to assemble a header and payload into a temporary array first.
+ */
+public interface GatheringPacketCipher
+    extends PacketCipher
+{
+    /**
+     * Process a packet whose associated data and input are each the concatenation of a list of
+     * (array, offset, length) segments. Any associated text in the parameters comes before the
+     * associated data segments.
+     *
+     * @param encryption encryption if true
+     * @param parameters The key parameters
+     * @param aad        The associated data segments, may be null.
+     * @param aadOff     The offset of each associated data segment.
+     * @param aadLen     The length of each associated data segment.
+     * @param input      The input segments.
+     * @param inOff      The offset of each input segment.
+     * @param inLen      The length of each input segment.
+     * @param output     The output array
+     * @param outOff     the offset within the output array to start writing output.
+     * @return the number of bytes written to output.
+     * @throws PacketCipherException if the transformation encounters an error.
+     */
+    int processPacket(boolean encryption, CipherParameters parameters, byte[][] aad, int[] aadOff, int[] aadLen,
+                      byte[][] input, int[] inOff, int[] inLen, byte[] output, int outOff)
+        throws PacketCipherException;
+}
@@ -368,6 +368,22 @@ class NativeFeatures
     }
 
 
+    static boolean hasModExp()
+    {
+        try
+        {
+            return nativeModExp();
+        }
+        catch (UnsatisfiedLinkError ule)
+        {
+            if (LOG.isLoggable(Level.FINE))
+            {
+                LOG.log(Level.FINE, "native modular exponentiation exception: " + ule.getMessage(), ule);
+            }
+            return false;
+        }
+    }
+
     static boolean hasSHA3()
     {
         try
@@ -416,6 +432,22 @@ class NativeFeatures
         }
     }
 
+    static boolean hasSlhDSAShake()
+    {
+        try
+        {
+            return nativeSlhDSAShake();
+        }
+        catch (UnsatisfiedLinkError ule)
+        {
+            if (LOG.isLoggable(Level.FINE))
+            {
+                LOG.log(Level.FINE, "native slhdsa shake exception: " + ule.getMessage(), ule);
+            }
+            return false;
+        }
+    }
+
 
     private static native boolean nativeSHAKE();
 
@@ -431,7 +463,11 @@ class NativeFeatures
 
     private static native boolean nativeMulAcc();
 
+    private static native boolean nativeModExp();
+
     private static native boolean nativeRSA();
 
     private static native boolean nativeSlhDSASha256();
+
+    private static native boolean nativeSlhDSAShake();
 }
\ No newline at end of file
@@ -36,8 +36,12 @@ public interface NativeServices
     String SHAKE = "SHAKE";
     String MULACC = "MULACC";
 
+    String MODEXP = "MODEXP";
+
     String SLHDSA_SHA256 = "SLHDSA_SHA256";
 
+    String SLHDSA_SHAKE = "SLHDSA_SHAKE";
+
     String NONE = "NONE";
 
     String getStatusMessage();
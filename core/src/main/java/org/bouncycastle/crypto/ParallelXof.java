@@ -0,0 +1,53 @@
+package org.bouncycastle.crypto;
+
+/**
+ * An extendable output function running several independent instances in lockstep. Each lane absorbs
+ * an input of the same length and all lanes are squeezed together in whole blocks, which suits callers
+ * such as lattice based schemes that expand one seed into many short streams.
+ */
+public interface ParallelXof
+{
+    /**
+     * Return the algorithm name.
+     *
+     * @return the algorithm name
+     */
+    String getAlgorithmName();
+
+    /**
+     * Return the number of independent instances.
+     *
+     * @return the lane count.
+     */
+    int getLaneCount();
+
+    /**
+     * Return the number of bytes produced by each lane per squeezed block.
+     *
+     * @return the block size in bytes.
+     */
+    int getBlockSize();
+
+    /**
+     * Reset every lane and absorb one complete input into each, after this call only output may be requested.
+     *
+     * @param inputs one input array per lane.
+     * @param inOff  the offset of the input in each array.
+     * @param inLen  the length of the input in each array.
+     */
+    void absorb(byte[][] inputs, int inOff, int inLen);
+
+    /**
+     * Squeeze whole blocks from every lane.
+     *
+     * @param outputs    one output array per lane.
+     * @param outOff     the offset to start writing at in each array.
+     * @param blockCount the number of blocks to write to each array.
+     */
+    void squeezeBlocks(byte[][] outputs, int outOff, int blockCount);
+
+    /**
+     * Reset every lane to its initial state.
+     */
+    void reset();
+}
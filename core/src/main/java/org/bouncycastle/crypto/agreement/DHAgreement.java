@@ -13,6 +13,7 @@ import org.bouncycastle.crypto.params.DHParameters;
 import org.bouncycastle.crypto.params.DHPrivateKeyParameters;
 import org.bouncycastle.crypto.params.DHPublicKeyParameters;
 import org.bouncycastle.crypto.params.ParametersWithRandom;
+import org.bouncycastle.math.raw.ModExp;
 
 /**
  * a Diffie-Hellman key exchange engine.
@@ -114,12 +115,12 @@ public class DHAgreement
             ? pub.getY()
             : new DHPublicKeyParameters(pub.getY(), dhParams).getY();
 
-        BigInteger result = peerY.modPow(privateValue, p);
+        BigInteger result = ModExp.modPow(peerY, privateValue, p);
         if (result.equals(ONE))
         {
             throw new IllegalStateException("Shared key can't be 1");
         }
 
-        return peerMessage.modPow(key.getX(), p).multiply(result).mod(p);
+        return ModExp.modPow(peerMessage, key.getX(), p).multiply(result).mod(p);
     }
 }
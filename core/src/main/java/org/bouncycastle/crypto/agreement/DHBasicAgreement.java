@@ -10,6 +10,7 @@ import org.bouncycastle.crypto.params.DHParameters;
 import org.bouncycastle.crypto.params.DHPrivateKeyParameters;
 import org.bouncycastle.crypto.params.DHPublicKeyParameters;
 import org.bouncycastle.crypto.params.ParametersWithRandom;
+import org.bouncycastle.math.raw.ModExp;
 
 /**
  * a Diffie-Hellman key agreement class.
@@ -79,7 +80,7 @@ public class DHBasicAgreement
             throw new IllegalArgumentException("Diffie-Hellman public key is weak");
         }
 
-        BigInteger result = peerY.modPow(key.getX(), p);
+        BigInteger result = ModExp.modPow(peerY, key.getX(), p);
         if (result.equals(ONE))
         {
             throw new IllegalStateException("Shared key can't be 1");
@@ -70,7 +70,7 @@ public class ECDHBasicAgreement
             Q = ECAlgorithms.referenceMultiply(Q, h);
         }
 
-        ECPoint P = Q.multiply(d).normalize();
+        ECPoint P = Utils.multiplySecret(Q, d).normalize();
         if (P.isInfinity())
         {
             throw new IllegalStateException("Infinity is not a valid agreement value for ECDH");
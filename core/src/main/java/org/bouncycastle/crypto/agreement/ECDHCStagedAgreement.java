@@ -64,7 +64,7 @@ public class ECDHCStagedAgreement
             throw new IllegalStateException("Infinity is not a valid public key for ECDHC");
         }
 
-        ECPoint P = pubPoint.multiply(hd).normalize();
+        ECPoint P = Utils.multiplySecret(pubPoint, hd).normalize();
 
         if (P.isInfinity())
         {
@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.agreement;
 
+import java.math.BigInteger;
+
 import org.bouncycastle.crypto.CryptoServiceProperties;
 import org.bouncycastle.crypto.CryptoServicePurpose;
 import org.bouncycastle.crypto.constraints.ConstraintUtils;
@@ -8,6 +10,9 @@ import org.bouncycastle.crypto.params.DHKeyParameters;
 import org.bouncycastle.crypto.params.ECKeyParameters;
 import org.bouncycastle.crypto.params.X25519PrivateKeyParameters;
 import org.bouncycastle.crypto.params.X448PrivateKeyParameters;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.custom.sec.SecPR1Multiplier;
 
 class Utils
 {
@@ -30,4 +35,18 @@ class Utils
     {
         return new DefaultServiceProperties(algorithm, 128, k, CryptoServicePurpose.AGREEMENT);
     }
+
+    /**
+     * Multiply a peer's point by a secret scalar, using the constant-time multiplier for P-256 and P-384.
+     */
+    static ECPoint multiplySecret(ECPoint p, BigInteger k)
+    {
+        ECMultiplier multiplier = SecPR1Multiplier.getInstance(p.getCurve());
+        if (multiplier != null)
+        {
+            return multiplier.multiply(p, k);
+        }
+
+        return p.multiply(k);
+    }
 }
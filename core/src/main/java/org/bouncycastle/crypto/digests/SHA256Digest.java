@@ -6,6 +6,7 @@ import org.bouncycastle.crypto.CryptoServicePurpose;
 import org.bouncycastle.crypto.CryptoServicesRegistrar;
 import org.bouncycastle.crypto.Digest;
 import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.OutputLengthException;
 import org.bouncycastle.crypto.SavableDigest;
 import org.bouncycastle.util.Memoable;
 import org.bouncycastle.util.Pack;
@@ -89,6 +90,57 @@ public class SHA256Digest
         return new SHA256Digest(encoded);
     }
 
+    /**
+     * Hash a batch of independent messages, writing the digest of msgs[i] to the start of outs[i].
+     * <p>
+     * With native support the batch crosses into the native layer once and the messages are hashed
+     * several at a time in parallel lanes, otherwise they are hashed in turn. An output array should
+     * not also be one of the messages.
+     * </p>
+     *
+     * @param msgs the messages to hash.
+     * @param outs the output arrays, one per message, each at least 32 bytes long.
+     */
+    public static void hashBatch(byte[][] msgs, byte[][] outs)
+    {
+        if (msgs == null || outs == null)
+        {
+            throw new NullPointerException("messages or outputs were null");
+        }
+        if (msgs.length != outs.length)
+        {
+            throw new IllegalArgumentException("messages and outputs differ in length");
+        }
+        for (int i = 0; i != msgs.length; i++)
+        {
+            if (msgs[i] == null)
+            {
+                throw new NullPointerException("input was null");
+            }
+            if (outs[i] == null)
+            {
+                throw new NullPointerException("output was null");
+            }
+            if (outs[i].length < DIGEST_LENGTH)
+            {
+                throw new OutputLengthException("output buffer too short");
+            }
+        }
+
+        if (CryptoServicesRegistrar.hasEnabledService(NativeServices.SHA256))
+        {
+            SHA256NativeDigest.hashBatch(msgs, outs);
+            return;
+        }
+
+        SHA256Digest digest = new SHA256Digest();
+        for (int i = 0; i != msgs.length; i++)
+        {
+            digest.update(msgs[i], 0, msgs[i].length);
+            digest.doFinal(outs[i], 0);
+        }
+    }
+
     /**
      * Standard constructor
      */
@@ -0,0 +1,341 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.OutputLengthException;
+import org.bouncycastle.crypto.ParallelXof;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Pack;
+
+/**
+ * Four SHAKE instances run in lockstep. The Keccak states are interleaved a word at a time, word i
+ * of lane j is held at state[4 * i + j], which is the layout the native implementation uses as well.
+ */
+public class SHAKEx4Digest
+    implements ParallelXof
+{
+    static final int LANES = 4;
+
+    private static final long[] ROUND_CONSTANTS = new long[]{ 0x0000000000000001L, 0x0000000000008082L,
+        0x800000000000808aL, 0x8000000080008000L, 0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L,
+        0x8000000000008009L, 0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+        0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L, 0x8000000000008002L,
+        0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL, 0x8000000080008081L, 0x8000000000008080L,
+        0x0000000080000001L, 0x8000000080008008L };
+
+    private final long[] state = new long[25 * LANES];
+    private final int bitStrength;
+    private final int rate;
+
+    private boolean absorbed;
+
+    /**
+     * Return a four lane SHAKE, native if it is available.
+     *
+     * @param bitStrength the security strength in bits of the XOF, 128 or 256.
+     * @return a parallel XOF.
+     */
+    public static ParallelXof newInstance(int bitStrength)
+    {
+        if (CryptoServicesRegistrar.hasEnabledService(NativeServices.SHAKE))
+        {
+            return new SHAKEx4NativeDigest(bitStrength);
+        }
+        return new SHAKEx4Digest(bitStrength);
+    }
+
+    /**
+     * Base constructor.
+     *
+     * @param bitStrength the security strength in bits of the XOF, 128 or 256.
+     */
+    public SHAKEx4Digest(int bitStrength)
+    {
+        this.bitStrength = checkBitStrength(bitStrength);
+        this.rate = getRate(bitStrength);
+    }
+
+    public String getAlgorithmName()
+    {
+        return "SHAKE" + bitStrength + "x4";
+    }
+
+    public int getLaneCount()
+    {
+        return LANES;
+    }
+
+    public int getBlockSize()
+    {
+        return rate;
+    }
+
+    public void absorb(byte[][] inputs, int inOff, int inLen)
+    {
+        checkInputs(inputs, inOff, inLen);
+
+        Arrays.fill(state, 0L);
+
+        int rateWords = rate >>> 3;
+        int off = inOff;
+        int end = inOff + inLen;
+
+        while (end - off >= rate)
+        {
+            for (int j = 0; j < LANES; j++)
+            {
+                byte[] in = inputs[j];
+                for (int i = 0; i < rateWords; i++)
+                {
+                    state[4 * i + j] ^= Pack.littleEndianToLong(in, off + 8 * i);
+                }
+            }
+            permute(state);
+            off += rate;
+        }
+
+        byte[] block = new byte[rate];
+        int rem = end - off;
+
+        for (int j = 0; j < LANES; j++)
+        {
+            Arrays.fill(block, (byte)0);
+            System.arraycopy(inputs[j], off, block, 0, rem);
+            block[rem] = 0x1F;
+            block[rate - 1] |= (byte)0x80;
+
+            for (int i = 0; i < rateWords; i++)
+            {
+                state[4 * i + j] ^= Pack.littleEndianToLong(block, 8 * i);
+            }
+        }
+
+        absorbed = true;
+    }
+
+    public void squeezeBlocks(byte[][] outputs, int outOff, int blockCount)
+    {
+        if (!absorbed)
+        {
+            throw new IllegalStateException("no input absorbed");
+        }
+        checkOutputs(outputs, outOff, blockCount, rate);
+
+        int rateWords = rate >>> 3;
+
+        for (int b = 0; b < blockCount; b++)
+        {
+            permute(state);
+
+            int off = outOff + b * rate;
+            for (int j = 0; j < LANES; j++)
+            {
+                byte[] out = outputs[j];
+                for (int i = 0; i < rateWords; i++)
+                {
+                    Pack.longToLittleEndian(state[4 * i + j], out, off + 8 * i);
+                }
+            }
+        }
+    }
+
+    public void reset()
+    {
+        Arrays.fill(state, 0L);
+        absorbed = false;
+    }
+
+    public String toString()
+    {
+        return "SHAKEx4[Java](" + bitStrength + ")";
+    }
+
+    static int checkBitStrength(int bitStrength)
+    {
+        switch (bitStrength)
+        {
+        case 128:
+        case 256:
+            return bitStrength;
+        default:
+            throw new IllegalArgumentException("'bitStrength' " + bitStrength + " not supported for SHAKE");
+        }
+    }
+
+    static int getRate(int bitStrength)
+    {
+        return (1600 - (bitStrength << 1)) >>> 3;
+    }
+
+    static void checkInputs(byte[][] inputs, int inOff, int inLen)
+    {
+        if (inputs == null)
+        {
+            throw new NullPointerException("inputs were null");
+        }
+        if (inputs.length != LANES)
+        {
+            throw new IllegalArgumentException("expected " + LANES + " inputs");
+        }
+        if (inOff < 0 || inLen < 0)
+        {
+            throw new IllegalArgumentException("input offset or length is negative");
+        }
+        for (int j = 0; j < LANES; j++)
+        {
+            if (inputs[j] == null)
+            {
+                throw new NullPointerException("input was null");
+            }
+            if (inOff > inputs[j].length - inLen)
+            {
+                throw new DataLengthException("input buffer too short");
+            }
+        }
+    }
+
+    static void checkOutputs(byte[][] outputs, int outOff, int blockCount, int rate)
+    {
+        if (outputs == null)
+        {
+            throw new NullPointerException("outputs were null");
+        }
+        if (outputs.length != LANES)
+        {
+            throw new IllegalArgumentException("expected " + LANES + " outputs");
+        }
+        if (outOff < 0 || blockCount < 0)
+        {
+            throw new IllegalArgumentException("output offset or block count is negative");
+        }
+        for (int j = 0; j < LANES; j++)
+        {
+            if (outputs[j] == null)
+            {
+                throw new NullPointerException("output was null");
+            }
+            if (blockCount > (outputs[j].length - outOff) / rate || outOff > outputs[j].length)
+            {
+                throw new OutputLengthException("output buffer too short");
+            }
+        }
+    }
+
+    private static void permute(long[] A)
+    {
+        for (int lane = 0; lane < LANES; lane++)
+        {
+            permute(A, lane);
+        }
+    }
+
+    private static void permute(long[] A, int lane)
+    {
+
+        long a00 = A[lane], a01 = A[4 + lane], a02 = A[8 + lane], a03 = A[12 + lane], a04 = A[16 + lane];
+        long a05 = A[20 + lane], a06 = A[24 + lane], a07 = A[28 + lane], a08 = A[32 + lane], a09 = A[36 + lane];
+        long a10 = A[40 + lane], a11 = A[44 + lane], a12 = A[48 + lane], a13 = A[52 + lane], a14 = A[56 + lane];
+        long a15 = A[60 + lane], a16 = A[64 + lane], a17 = A[68 + lane], a18 = A[72 + lane], a19 = A[76 + lane];
+        long a20 = A[80 + lane], a21 = A[84 + lane], a22 = A[88 + lane], a23 = A[92 + lane], a24 = A[96 + lane];
+
+        for (int i = 0; i < 24; i++)
+        {
+            // theta
+            long c0 = a00 ^ a05 ^ a10 ^ a15 ^ a20;
+            long c1 = a01 ^ a06 ^ a11 ^ a16 ^ a21;
+            long c2 = a02 ^ a07 ^ a12 ^ a17 ^ a22;
+            long c3 = a03 ^ a08 ^ a13 ^ a18 ^ a23;
+            long c4 = a04 ^ a09 ^ a14 ^ a19 ^ a24;
+
+            long d1 = (c1 << 1 | c1 >>> -1) ^ c4;
+            long d2 = (c2 << 1 | c2 >>> -1) ^ c0;
+            long d3 = (c3 << 1 | c3 >>> -1) ^ c1;
+            long d4 = (c4 << 1 | c4 >>> -1) ^ c2;
+            long d0 = (c0 << 1 | c0 >>> -1) ^ c3;
+
+            a00 ^= d1; a05 ^= d1; a10 ^= d1; a15 ^= d1; a20 ^= d1;
+            a01 ^= d2; a06 ^= d2; a11 ^= d2; a16 ^= d2; a21 ^= d2;
+            a02 ^= d3; a07 ^= d3; a12 ^= d3; a17 ^= d3; a22 ^= d3;
+            a03 ^= d4; a08 ^= d4; a13 ^= d4; a18 ^= d4; a23 ^= d4;
+            a04 ^= d0; a09 ^= d0; a14 ^= d0; a19 ^= d0; a24 ^= d0;
+
+            // rho/pi
+            c1  = a01 <<  1 | a01 >>> 63;
+            a01 = a06 << 44 | a06 >>> 20;
+            a06 = a09 << 20 | a09 >>> 44;
+            a09 = a22 << 61 | a22 >>>  3;
+            a22 = a14 << 39 | a14 >>> 25;
+            a14 = a20 << 18 | a20 >>> 46;
+            a20 = a02 << 62 | a02 >>>  2;
+            a02 = a12 << 43 | a12 >>> 21;
+            a12 = a13 << 25 | a13 >>> 39;
+            a13 = a19 <<  8 | a19 >>> 56;
+            a19 = a23 << 56 | a23 >>>  8;
+            a23 = a15 << 41 | a15 >>> 23;
+            a15 = a04 << 27 | a04 >>> 37;
+            a04 = a24 << 14 | a24 >>> 50;
+            a24 = a21 <<  2 | a21 >>> 62;
+            a21 = a08 << 55 | a08 >>>  9;
+            a08 = a16 << 45 | a16 >>> 19;
+            a16 = a05 << 36 | a05 >>> 28;
+            a05 = a03 << 28 | a03 >>> 36;
+            a03 = a18 << 21 | a18 >>> 43;
+            a18 = a17 << 15 | a17 >>> 49;
+            a17 = a11 << 10 | a11 >>> 54;
+            a11 = a07 <<  6 | a07 >>> 58;
+            a07 = a10 <<  3 | a10 >>> 61;
+            a10 = c1;
+
+            // chi
+            c0 = a00 ^ (~a01 & a02);
+            c1 = a01 ^ (~a02 & a03);
+            a02 ^= ~a03 & a04;
+            a03 ^= ~a04 & a00;
+            a04 ^= ~a00 & a01;
+            a00 = c0;
+            a01 = c1;
+
+            c0 = a05 ^ (~a06 & a07);
+            c1 = a06 ^ (~a07 & a08);
+            a07 ^= ~a08 & a09;
+            a08 ^= ~a09 & a05;
+            a09 ^= ~a05 & a06;
+            a05 = c0;
+            a06 = c1;
+
+            c0 = a10 ^ (~a11 & a12);
+            c1 = a11 ^ (~a12 & a13);
+            a12 ^= ~a13 & a14;
+            a13 ^= ~a14 & a10;
+            a14 ^= ~a10 & a11;
+            a10 = c0;
+            a11 = c1;
+
+            c0 = a15 ^ (~a16 & a17);
+            c1 = a16 ^ (~a17 & a18);
+            a17 ^= ~a18 & a19;
+            a18 ^= ~a19 & a15;
+            a19 ^= ~a15 & a16;
+            a15 = c0;
+            a16 = c1;
+
+            c0 = a20 ^ (~a21 & a22);
+            c1 = a21 ^ (~a22 & a23);
+            a22 ^= ~a23 & a24;
+            a23 ^= ~a24 & a20;
+            a24 ^= ~a20 & a21;
+            a20 = c0;
+            a21 = c1;
+
+            // iota
+            a00 ^= ROUND_CONSTANTS[i];
+        }
+
+        A[lane] = a00; A[4 + lane] = a01; A[8 + lane] = a02; A[12 + lane] = a03; A[16 + lane] = a04;
+        A[20 + lane] = a05; A[24 + lane] = a06; A[28 + lane] = a07; A[32 + lane] = a08; A[36 + lane] = a09;
+        A[40 + lane] = a10; A[44 + lane] = a11; A[48 + lane] = a12; A[52 + lane] = a13; A[56 + lane] = a14;
+        A[60 + lane] = a15; A[64 + lane] = a16; A[68 + lane] = a17; A[72 + lane] = a18; A[76 + lane] = a19;
+        A[80 + lane] = a20; A[84 + lane] = a21; A[88 + lane] = a22; A[92 + lane] = a23; A[96 + lane] = a24;
+    }
+}
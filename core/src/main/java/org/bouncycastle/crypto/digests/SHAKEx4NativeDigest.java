@@ -0,0 +1,80 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.ParallelXof;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Four lane SHAKE using the native parallel Keccak permutation, the interleaved state is held on the
+ * Java side in the same layout as {@link SHAKEx4Digest} so no native reference needs to be managed.
+ */
+class SHAKEx4NativeDigest
+    implements ParallelXof
+{
+    private final long[] state = new long[25 * SHAKEx4Digest.LANES];
+    private final int bitStrength;
+    private final int rate;
+
+    private boolean absorbed;
+
+    SHAKEx4NativeDigest(int bitStrength)
+    {
+        if (!CryptoServicesRegistrar.hasEnabledService(NativeServices.SHAKE))
+        {
+            throw new IllegalStateException("no native SHAKE support");
+        }
+
+        this.bitStrength = SHAKEx4Digest.checkBitStrength(bitStrength);
+        this.rate = SHAKEx4Digest.getRate(bitStrength);
+    }
+
+    public String getAlgorithmName()
+    {
+        return "SHAKE" + bitStrength + "x4";
+    }
+
+    public int getLaneCount()
+    {
+        return SHAKEx4Digest.LANES;
+    }
+
+    public int getBlockSize()
+    {
+        return rate;
+    }
+
+    public void absorb(byte[][] inputs, int inOff, int inLen)
+    {
+        SHAKEx4Digest.checkInputs(inputs, inOff, inLen);
+
+        absorb(state, rate, inputs[0], inputs[1], inputs[2], inputs[3], inOff, inLen);
+        absorbed = true;
+    }
+
+    public void squeezeBlocks(byte[][] outputs, int outOff, int blockCount)
+    {
+        if (!absorbed)
+        {
+            throw new IllegalStateException("no input absorbed");
+        }
+        SHAKEx4Digest.checkOutputs(outputs, outOff, blockCount, rate);
+
+        squeezeBlocks(state, rate, outputs[0], outputs[1], outputs[2], outputs[3], outOff, blockCount);
+    }
+
+    public void reset()
+    {
+        Arrays.fill(state, 0L);
+        absorbed = false;
+    }
+
+    public String toString()
+    {
+        return "SHAKEx4[Native](" + bitStrength + ")";
+    }
+
+    static native void absorb(long[] state, int rate, byte[] in0, byte[] in1, byte[] in2, byte[] in3, int inOff, int inLen);
+
+    static native void squeezeBlocks(long[] state, int rate, byte[] out0, byte[] out1, byte[] out2, byte[] out3, int outOff, int blockCount);
+}
@@ -1,6 +1,9 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
 import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.ByteBufferCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.MultiBlockCipher;
@@ -12,7 +15,7 @@ import org.bouncycastle.util.dispose.NativeDisposer;
 import org.bouncycastle.util.dispose.NativeReference;
 
 class AESNativeCBC
-    implements CBCModeCipher
+    implements CBCModeCipher, ByteBufferCipher
 {
     private CBCRefWrapper referenceWrapper;
 
@@ -202,8 +205,55 @@ class AESNativeCBC
         }
     }
 
+    @Override
+    public int processBuffers(ByteBuffer in, ByteBuffer out)
+        throws DataLengthException, IllegalStateException
+    {
+        int len = in.remaining();
+        if (len % 16 != 0)
+        {
+            throw new DataLengthException("input must be a multiple of blocksize");
+        }
+        NativeBuffers.checkOutput(out, len);
+
+        synchronized (this)
+        {
+            if (referenceWrapper == null)
+            {
+                throw new IllegalStateException("not initialized");
+            }
+
+            long ref = referenceWrapper.getReference();
+            int blocks = len / 16;
+            int written;
+
+            if (NativeBuffers.isDirect(in, out))
+            {
+                written = processDirect(ref, in, in.position(), blocks, out, out.position());
+            }
+            else if (NativeBuffers.hasArray(in, out))
+            {
+                written = process(ref, in.array(), in.arrayOffset() + in.position(), blocks,
+                    out.array(), out.arrayOffset() + out.position());
+            }
+            else
+            {
+                byte[] data = NativeBuffers.remaining(in);
+                written = process(ref, data, 0, blocks, data, 0);
+                out.duplicate().put(data, 0, written);
+            }
+
+            NativeBuffers.advance(in, len, out, written);
+
+            return written;
+        }
+    }
+
     private static native int process(long ref, byte[] in, int inOff, int blockCount, byte[] out, int outOff);
 
+    private static native int processDirect(long ref, ByteBuffer in, int inOff, int blockCount, ByteBuffer out,
+        int outOff);
+
     private static native int getMultiBlockSize(long ref);
 
     private static native int getBlockSize(long ref);
@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.ExceptionMessages;
 import org.bouncycastle.crypto.PacketCipher;
@@ -35,24 +37,67 @@ public class AESNativeCBCPacketCipher
                              byte[] output, int outOff)
     throws PacketCipherException
     {
-        byte[] iv;
-        byte[] key;
+        ParametersWithIV ivParam = getIVParameters(parameters);
+        byte[] iv = ivParam.getIV().clone();
+        byte[] key = ((KeyParameter) ivParam.getParameters()).getKey();
+
+        int outLen = output != null ? output.length - outOff : 0;
+        int result;
+        try
+        {
+            result = processPacket(encryption, key, iv, input, inOff, len, output, outOff,
+                    outLen);
+        }
+        catch (Exception e)
+        {
+            throw PacketCipherException.from(e);
+        }
+        return result;
+    }
+
+    @Override
+    public int processPacket(boolean encryption, CipherParameters parameters, ByteBuffer input, ByteBuffer output)
+    throws PacketCipherException
+    {
+        if (!NativeBuffers.isDirect(input, output))
+        {
+            return AESCBCModePacketCipher.super.processPacket(encryption, parameters, input, output);
+        }
+
+        ParametersWithIV ivParam = getIVParameters(parameters);
+        byte[] iv = ivParam.getIV().clone();
+        byte[] key = ((KeyParameter) ivParam.getParameters()).getKey();
+
+        int len = input.remaining();
+        int result;
+        try
+        {
+            NativeBuffers.checkWritable(output);
+            result = processPacketDirect(encryption, key, iv, input, input.position(), len, output,
+                    output.position(), output.remaining());
+        }
+        catch (Exception e)
+        {
+            throw PacketCipherException.from(e);
+        }
+        NativeBuffers.advance(input, len, output, result);
+        return result;
+    }
+
+    private static ParametersWithIV getIVParameters(CipherParameters parameters)
+    throws PacketCipherException
+    {
         try
         {
             if (parameters instanceof ParametersWithIV)
             {
                 ParametersWithIV ivParam = (ParametersWithIV) parameters;
-                iv = ivParam.getIV().clone();
-                KeyParameter params = (KeyParameter) ivParam.getParameters();
                 // if null it's an IV changed only.
-                if (params != null)
-                {
-                    key = params.getKey();
-                }
-                else
+                if (ivParam.getParameters() == null)
                 {
                     throw new IllegalArgumentException(ExceptionMessages.CBC_CIPHER_UNITIALIZED);
                 }
+                return ivParam;
             }
             else
             {
@@ -63,19 +108,6 @@ public class AESNativeCBCPacketCipher
         {
             throw PacketCipherException.from(e);
         }
-
-        int outLen = output != null ? output.length - outOff : 0;
-        int result;
-        try
-        {
-            result = processPacket(encryption, key, iv, input, inOff, len, output, outOff,
-                    outLen);
-        }
-        catch (Exception e)
-        {
-            throw PacketCipherException.from(e);
-        }
-        return result;
     }
 
     static native int getOutputSize(int len);
@@ -83,6 +115,9 @@ public class AESNativeCBCPacketCipher
     static native int processPacket(boolean encryption, byte[] key, byte[] nonce, byte[] in,
                                     int inOff, int inLen, byte[] out, int outOff, int outLen);
 
+    static native int processPacketDirect(boolean encryption, byte[] key, byte[] nonce, ByteBuffer in,
+                                          int inOff, int inLen, ByteBuffer out, int outOff, int outLen);
+
     @Override
     public String toString()
     {
@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
 import org.bouncycastle.crypto.*;
 import org.bouncycastle.crypto.modes.AESCCMModePacketCipher;
 import org.bouncycastle.crypto.modes.PacketCipherChecks;
@@ -25,6 +27,41 @@ public class AESNativeCCMPacketCipher
     @Override
     public int processPacket(boolean forEncryption, CipherParameters params, byte[] input, int inOff, int len, byte[] output, int outOff)
         throws PacketCipherException
+    {
+        final int outLen = output != null ? output.length-outOff : 0;
+        return processPacket(forEncryption, params, input, inOff, len, output, outOff, outLen);
+    }
+
+    @Override
+    public int processPacket(boolean forEncryption, CipherParameters params, ByteBuffer input, ByteBuffer output)
+        throws PacketCipherException
+    {
+        if (!NativeBuffers.isDirect(input, output))
+        {
+            return AESCCMModePacketCipher.super.processPacket(forEncryption, params, input, output);
+        }
+
+        try
+        {
+            NativeBuffers.checkWritable(output);
+        }
+        catch (Exception e)
+        {
+            throw PacketCipherException.from(e);
+        }
+
+        int len = input.remaining();
+        int result = processPacket(forEncryption, params, input, input.position(), len, output, output.position(),
+            output.remaining());
+        NativeBuffers.advance(input, len, output, result);
+        return result;
+    }
+
+    /**
+     * Input and output are either both byte arrays or both direct ByteBuffers.
+     */
+    private int processPacket(boolean forEncryption, CipherParameters params, Object input, int inOff, int len, Object output, int outOff, int outLen)
+        throws PacketCipherException
     {
         int macSize;
         byte[] nonce;
@@ -61,18 +98,25 @@ public class AESNativeCCMPacketCipher
             throw PacketCipherException.from(e);
         }
         key = keyParam.getKey();
-        return processAEADPacketCipher(forEncryption, input, inOff, len, output, outOff, initialAssociatedText, key, nonce, macSize);
+        return processAEADPacketCipher(forEncryption, input, inOff, len, output, outOff, outLen, initialAssociatedText, key, nonce, macSize);
     }
 
-    private static int processAEADPacketCipher(boolean forEncryption, byte[] input, int inOff, int len, byte[] output, int outOff, byte[] initialAssociatedText, byte[] key, byte[] nonce, int macSize)
+    private static int processAEADPacketCipher(boolean forEncryption, Object input, int inOff, int len, Object output, int outOff, int outLen, byte[] initialAssociatedText, byte[] key, byte[] nonce, int macSize)
         throws PacketCipherException
     {
-        final int outLen = output != null ? output.length-outOff : 0;
         int result;
         try
         {
-            result = processPacket(forEncryption, key,  nonce,  initialAssociatedText,
-                macSize, input, inOff, len, output, outOff, outLen);
+            if (input instanceof ByteBuffer)
+            {
+                result = processPacketDirect(forEncryption, key, nonce, initialAssociatedText,
+                    macSize, (ByteBuffer)input, inOff, len, (ByteBuffer)output, outOff, outLen);
+            }
+            else
+            {
+                result = processPacket(forEncryption, key,  nonce,  initialAssociatedText,
+                    macSize, (byte[])input, inOff, len, (byte[])output, outOff, outLen);
+            }
         }
         catch (Exception e)
         {
@@ -86,6 +130,9 @@ public class AESNativeCCMPacketCipher
     static native int processPacket(boolean encryption, byte[] key, byte[] nonce, byte[] aad,
                                     int macSize, byte[] in, int inOff, int inLen, byte[] out, int outOff, int outLen);
 
+    static native int processPacketDirect(boolean encryption, byte[] key, byte[] nonce, byte[] aad,
+                                          int macSize, ByteBuffer in, int inOff, int inLen, ByteBuffer out, int outOff, int outLen);
+
     @Override
     public String toString()
     {
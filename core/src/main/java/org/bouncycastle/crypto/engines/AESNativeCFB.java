@@ -1,5 +1,8 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
+import org.bouncycastle.crypto.ByteBufferCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.modes.CFBModeCipher;
@@ -10,7 +13,7 @@ import org.bouncycastle.util.dispose.NativeDisposer;
 import org.bouncycastle.util.dispose.NativeReference;
 
 class AESNativeCFB
-        implements CFBModeCipher
+        implements CFBModeCipher, ByteBufferCipher
 {
     private final int bitSize;
     private CFBRefWrapper referenceWrapper;
@@ -208,11 +211,53 @@ class AESNativeCFB
     }
 
 
+    @Override
+    public int processBuffers(ByteBuffer in, ByteBuffer out)
+        throws DataLengthException, IllegalStateException
+    {
+        int len = in.remaining();
+        NativeBuffers.checkOutput(out, len);
+
+        synchronized (this)
+        {
+            if (referenceWrapper == null)
+            {
+                throw new IllegalStateException("not initialized");
+            }
+
+            long ref = referenceWrapper.getReference();
+            int written;
+
+            if (NativeBuffers.isDirect(in, out))
+            {
+                written = processDirect(ref, in, in.position(), len, out, out.position());
+            }
+            else if (NativeBuffers.hasArray(in, out))
+            {
+                written = processBytes(ref, in.array(), in.arrayOffset() + in.position(), len,
+                    out.array(), out.arrayOffset() + out.position());
+            }
+            else
+            {
+                byte[] data = NativeBuffers.remaining(in);
+                written = processBytes(ref, data, 0, len, data, 0);
+                out.duplicate().put(data, 0, written);
+            }
+
+            NativeBuffers.advance(in, len, out, written);
+
+            return written;
+        }
+    }
+
     private static native byte processByte(long ref, byte in);
 
     private static native int processBytes(long ref, byte[] in, int inOff, int len, byte[] out, int outOff)
             throws DataLengthException;
 
+    private static native int processDirect(long ref, ByteBuffer in, int inOff, int len, ByteBuffer out, int outOff)
+            throws DataLengthException;
+
     static native long makeNative(boolean encrypting, int keyLen);
 
     native void init(long nativeRef, byte[] key, byte[] iv);
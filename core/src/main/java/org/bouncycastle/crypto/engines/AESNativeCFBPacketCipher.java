@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.ExceptionMessages;
 import org.bouncycastle.crypto.PacketCipherException;
@@ -28,42 +30,76 @@ public class AESNativeCFBPacketCipher
                              byte[] output, int outOff)
             throws PacketCipherException
     {
-        byte[] iv, key;
-        if (parameters instanceof ParametersWithIV)
+        ParametersWithIV ivParam = getIVParameters(parameters);
+        byte[] key = ((KeyParameter) ivParam.getParameters()).getKey();
+        byte[] iv = ivParam.getIV().clone();
+        int result;
+        try
         {
-            ParametersWithIV ivParam = (ParametersWithIV) parameters;
-            // if null it's an IV changed only.
-            if (ivParam.getParameters() != null)
-            {
-                key = ((KeyParameter) ivParam.getParameters()).getKey();
-            }
-            else
-            {
-                throw new IllegalArgumentException(ExceptionMessages.CFB_CIPHER_UNITIALIZED);
-            }
-            iv = ivParam.getIV().clone();
+            result = processPacket(encryption, key,  iv,  input, inOff, len, output, outOff, output.length-outOff);
         }
-        else
+        catch (Exception e)
         {
-            throw new IllegalArgumentException(ExceptionMessages.CFB_CIPHER_UNITIALIZED);
+            throw PacketCipherException.from(e);
         }
+        return result;
+    }
+
+    @Override
+    public int processPacket(boolean encryption, CipherParameters parameters, ByteBuffer input, ByteBuffer output)
+            throws PacketCipherException
+    {
+        if (!NativeBuffers.isDirect(input, output))
+        {
+            return AESCFBModePacketCipher.super.processPacket(encryption, parameters, input, output);
+        }
+
+        ParametersWithIV ivParam = getIVParameters(parameters);
+        byte[] key = ((KeyParameter) ivParam.getParameters()).getKey();
+        byte[] iv = ivParam.getIV().clone();
+
+        int len = input.remaining();
         int result;
         try
         {
-            result = processPacket(encryption, key,  iv,  input, inOff, len, output, outOff, output.length-outOff);
+            NativeBuffers.checkWritable(output);
+            result = processPacketDirect(encryption, key, iv, input, input.position(), len, output,
+                    output.position(), output.remaining());
         }
         catch (Exception e)
         {
             throw PacketCipherException.from(e);
         }
+        NativeBuffers.advance(input, len, output, result);
         return result;
     }
 
+    private static ParametersWithIV getIVParameters(CipherParameters parameters)
+    {
+        if (parameters instanceof ParametersWithIV)
+        {
+            ParametersWithIV ivParam = (ParametersWithIV) parameters;
+            // if null it's an IV changed only.
+            if (ivParam.getParameters() == null)
+            {
+                throw new IllegalArgumentException(ExceptionMessages.CFB_CIPHER_UNITIALIZED);
+            }
+            return ivParam;
+        }
+        else
+        {
+            throw new IllegalArgumentException(ExceptionMessages.CFB_CIPHER_UNITIALIZED);
+        }
+    }
+
     static native int getOutputSize(int len);
 
     static native int processPacket(boolean encryption, byte[] key, byte[] nonce,  byte[] in,
                                     int inOff, int inLen, byte[] out, int outOff, int outLen);
 
+    static native int processPacketDirect(boolean encryption, byte[] key, byte[] nonce, ByteBuffer in,
+                                          int inOff, int inLen, ByteBuffer out, int outOff, int outLen);
+
     @Override
     public String toString()
     {
@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
 import org.bouncycastle.crypto.*;
 import org.bouncycastle.crypto.modes.AESCTRModePacketCipher;
 import org.bouncycastle.crypto.params.KeyParameter;
@@ -27,40 +29,76 @@ public class AESNativeCTRPacketCipher
                              byte[] output, int outOff)
     throws PacketCipherException
     {
-        byte[] iv;
-        byte[] key;
-        if (parameters instanceof ParametersWithIV)
+        ParametersWithIV ivParam = getIVParameters(parameters);
+        byte[] iv = Arrays.clone(ivParam.getIV());
+        byte[] key = ((KeyParameter) ivParam.getParameters()).getKey();
+        int result;
+        try
         {
-            ParametersWithIV ivParam = (ParametersWithIV) parameters;
-            iv = Arrays.clone(ivParam.getIV());
-            KeyParameter keyParameter = (KeyParameter) ivParam.getParameters();
-            if (keyParameter == null)
-            {
-                throw PacketCipherException.from(new IllegalStateException(ExceptionMessages.CTR_CIPHER_UNITIALIZED));
-            }
-            key = keyParameter.getKey();
+            result = processPacket(encryption, key, iv, input, inOff, len, output, outOff, output.length - outOff);
         }
-        else
+        catch (Exception e)
         {
-            throw new IllegalArgumentException(ExceptionMessages.CTR_INVALID_PARAMETER);
+            throw PacketCipherException.from(e);
+        }
+        return result;
+    }
+
+    @Override
+    public int processPacket(boolean encryption, CipherParameters parameters, ByteBuffer input, ByteBuffer output)
+    throws PacketCipherException
+    {
+        if (!NativeBuffers.isDirect(input, output))
+        {
+            return AESCTRModePacketCipher.super.processPacket(encryption, parameters, input, output);
         }
+
+        ParametersWithIV ivParam = getIVParameters(parameters);
+        byte[] iv = Arrays.clone(ivParam.getIV());
+        byte[] key = ((KeyParameter) ivParam.getParameters()).getKey();
+
+        int len = input.remaining();
         int result;
         try
         {
-            result = processPacket(encryption, key, iv, input, inOff, len, output, outOff, output.length - outOff);
+            NativeBuffers.checkWritable(output);
+            result = processPacketDirect(encryption, key, iv, input, input.position(), len, output,
+                    output.position(), output.remaining());
         }
         catch (Exception e)
         {
             throw PacketCipherException.from(e);
         }
+        NativeBuffers.advance(input, len, output, result);
         return result;
     }
 
+    private static ParametersWithIV getIVParameters(CipherParameters parameters)
+    throws PacketCipherException
+    {
+        if (parameters instanceof ParametersWithIV)
+        {
+            ParametersWithIV ivParam = (ParametersWithIV) parameters;
+            if (ivParam.getParameters() == null)
+            {
+                throw PacketCipherException.from(new IllegalStateException(ExceptionMessages.CTR_CIPHER_UNITIALIZED));
+            }
+            return ivParam;
+        }
+        else
+        {
+            throw new IllegalArgumentException(ExceptionMessages.CTR_INVALID_PARAMETER);
+        }
+    }
+
     static native int getOutputSize(int len);
 
     static native int processPacket(boolean encryption, byte[] key, byte[] nonce, byte[] in, int inOff, int inLen,
                                     byte[] out, int outOff, int outLen);
 
+    static native int processPacketDirect(boolean encryption, byte[] key, byte[] nonce, ByteBuffer in, int inOff,
+                                          int inLen, ByteBuffer out, int outOff, int outLen);
+
     @Override
     public String toString()
     {
@@ -1,5 +1,8 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
+import org.bouncycastle.crypto.ByteBufferCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.CryptoServicePurpose;
 import org.bouncycastle.crypto.CryptoServicesRegistrar;
@@ -35,7 +38,8 @@ import org.bouncycastle.util.dispose.NativeReference;
 
 class AESNativeEngine
     extends DefaultMultiBlockCipher
-    implements NativeBlockCipherProvider, NativeCCMProvider, NativeEAXProvider, NativeOCBProvider, NativeGCMSIVProvider, ECBModeCipher
+    implements NativeBlockCipherProvider, NativeCCMProvider, NativeEAXProvider, NativeOCBProvider, NativeGCMSIVProvider, ECBModeCipher,
+    ByteBufferCipher
 {
     protected NativeReference wrapper = null;
     private int keyLen = 0;
@@ -274,10 +278,57 @@ class AESNativeEngine
         return "AES[Native](" + keyLen + ")";
     }
 
+    @Override
+    public int processBuffers(ByteBuffer in, ByteBuffer out)
+        throws DataLengthException, IllegalStateException
+    {
+        int len = in.remaining();
+        if (len % 16 != 0)
+        {
+            throw new DataLengthException("input must be a multiple of blocksize");
+        }
+        NativeBuffers.checkOutput(out, len);
+
+        synchronized (this)
+        {
+            if (wrapper == null)
+            {
+                throw new IllegalStateException("not initialized");
+            }
+
+            long ref = wrapper.getReference();
+            int blocks = len / 16;
+            int written;
+
+            if (NativeBuffers.isDirect(in, out))
+            {
+                written = processDirect(ref, in, in.position(), blocks, out, out.position());
+            }
+            else if (NativeBuffers.hasArray(in, out))
+            {
+                written = process(ref, in.array(), in.arrayOffset() + in.position(), blocks,
+                    out.array(), out.arrayOffset() + out.position());
+            }
+            else
+            {
+                byte[] data = NativeBuffers.remaining(in);
+                written = process(ref, data, 0, blocks, data, 0);
+                out.duplicate().put(data, 0, written);
+            }
+
+            NativeBuffers.advance(in, len, out, written);
+
+            return written;
+        }
+    }
+
     private static native void reset(long ref);
 
     private static native int process(long ref, byte[] in, int inOff, int blocks, byte[] out, int outOff);
 
+    private static native int processDirect(long ref, ByteBuffer in, int inOff, int blocks, ByteBuffer out,
+        int outOff);
+
     private static native int getMultiBlockSize(long nativeRef);
 
     private static native int getBlockSize(long ref);
@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.ExceptionMessages;
 import org.bouncycastle.crypto.PacketCipherException;
@@ -34,81 +36,120 @@ public class AESNativeGCMPacketCipher
                              byte[] output, int outOff)
             throws PacketCipherException
     {
-        int macSize;
-        byte[] nonce;
-        byte[] initialAssociatedText;
-        byte[] key;
+        AEADParameters param = getAEADParameters(encryption, params);
+
+        int outLen = output != null ? output.length - outOff : 0;
+        int result;
+        try
+        {
+            result = processPacket(encryption, param.getKey().getKey(), param.getNonce(),
+                    param.getAssociatedText(), param.getMacSize() >> 3, input, inOff, len, output, outOff, outLen);
+        }
+        catch (Exception e)
+        {
+            throw PacketCipherException.from(e);
+        }
+        return result;
+    }
+
+    @Override
+    public int processPacket(boolean encryption, CipherParameters params, ByteBuffer input, ByteBuffer output)
+            throws PacketCipherException
+    {
+        if (!NativeBuffers.isDirect(input, output))
+        {
+            return AESGCMModePacketCipher.super.processPacket(encryption, params, input, output);
+        }
+
+        AEADParameters param = getAEADParameters(encryption, params);
+
+        int len = input.remaining();
+        int result;
+        try
+        {
+            NativeBuffers.checkWritable(output);
+            result = processPacketDirect(encryption, param.getKey().getKey(), param.getNonce(),
+                    param.getAssociatedText(), param.getMacSize() >> 3, input, input.position(), len, output,
+                    output.position(), output.remaining());
+        }
+        catch (Exception e)
+        {
+            throw PacketCipherException.from(e);
+        }
+        NativeBuffers.advance(input, len, output, result);
+        return result;
+    }
+
+    @Override
+    public int processPacket(boolean encryption, CipherParameters params, byte[][] aad, int[] aadOff, int[] aadLen,
+                             byte[][] input, int[] inOff, int[] inLen, byte[] output, int outOff)
+            throws PacketCipherException
+    {
+        AEADParameters param = getAEADParameters(encryption, params);
+
+        int outLen = output != null ? output.length - outOff : 0;
+        int result;
+        try
+        {
+            result = processPacketGather(encryption, param.getKey().getKey(), param.getNonce(),
+                    param.getAssociatedText(), param.getMacSize() >> 3, aad, aadOff, aadLen, input, inOff, inLen,
+                    output, outOff, outLen);
+        }
+        catch (Exception e)
+        {
+            throw PacketCipherException.from(e);
+        }
+        return result;
+    }
+
+    /**
+     * Check the parameters, and on encryption that the key and nonce have not just been used, returning them
+     * as AEADParameters.
+     */
+    private AEADParameters getAEADParameters(boolean encryption, CipherParameters params)
+            throws PacketCipherException
+    {
+        AEADParameters param;
         try
         {
             if (params instanceof AEADParameters)
             {
-                AEADParameters param = (AEADParameters) params;
-                nonce = param.getNonce();
-                initialAssociatedText = param.getAssociatedText();
+                param = (AEADParameters) params;
 
                 int macSizeBits = param.getMacSize();
                 if (macSizeBits < 32 || macSizeBits > 128 || (macSizeBits & 7) != 0)
                 {
                     throw new IllegalArgumentException(ExceptionMessages.GCM_INVALID_MAC_SIZE + macSizeBits);
                 }
-
-                macSize = macSizeBits >> 3;
-
-                key = param.getKey().getKey();
-
-                // This only works if you use the same instance of packet cipher
-                // It matches the existing behavior of the normal GCM implementation
-                if (encryption && Arrays.areEqual(key, lastKey) && Arrays.areEqual(nonce, lastNonce))
-                {
-                    throw new IllegalArgumentException("cannot reuse nonce for GCM encryption");
-                }
-
-                lastKey = Arrays.clone(key);
-                lastNonce = Arrays.clone(nonce);
             }
             else if (params instanceof ParametersWithIV)
             {
-                ParametersWithIV param = (ParametersWithIV) params;
-                nonce = param.getIV().clone();
-                initialAssociatedText = null;
-                macSize = 16;
-
-                key = ((KeyParameter) param.getParameters()).getKey();
-
-                // This only works if you use the same instance of packet cipher
-                // It matches the existing behavior of the normal GCM implementation
-                if (encryption && Arrays.areEqual(key, lastKey) && Arrays.areEqual(nonce, lastNonce))
-                {
-                    throw new IllegalArgumentException("cannot reuse nonce for GCM encryption");
-                }
-
-                lastKey = Arrays.clone(key);
-                lastNonce = Arrays.clone(nonce);
-
+                ParametersWithIV ivParam = (ParametersWithIV) params;
+                param = new AEADParameters((KeyParameter) ivParam.getParameters(), 128, ivParam.getIV());
             }
             else
             {
                 throw new IllegalArgumentException(ExceptionMessages.GCM_INVALID_PARAMETER);
             }
-        }
-        catch (Exception e)
-        {
-            throw PacketCipherException.from(e);
-        }
 
+            byte[] key = param.getKey().getKey();
+            byte[] nonce = param.getNonce();
 
-        int outLen = output != null ? output.length - outOff : 0;
-        int result;
-        try
-        {
-            result = processPacket(encryption, key,  nonce,  initialAssociatedText,
-                    macSize, input, inOff, len, output, outOff, outLen);
+            // This only works if you use the same instance of packet cipher
+            // It matches the existing behavior of the normal GCM implementation
+            if (encryption && Arrays.areEqual(key, lastKey) && Arrays.areEqual(nonce, lastNonce))
+            {
+                throw new IllegalArgumentException("cannot reuse nonce for GCM encryption");
+            }
+
+            lastKey = Arrays.clone(key);
+            lastNonce = nonce;
         }
         catch (Exception e)
         {
             throw PacketCipherException.from(e);
         }
-        return result;
+        return param;
     }
 
     static native int getOutputSize(boolean encryption, int len, int macSize);
@@ -117,6 +158,15 @@ public class AESNativeGCMPacketCipher
                                     int macSize, byte[] in, int inOff, int inLen, byte[] out, int outOff,
                                     int outLen);
 
+    static native int processPacketDirect(boolean encryption, byte[] key, byte[] nonce, byte[] aad,
+                                          int macSize, ByteBuffer in, int inOff, int inLen, ByteBuffer out,
+                                          int outOff, int outLen);
+
+    static native int processPacketGather(boolean encryption, byte[] key, byte[] nonce, byte[] aad,
+                                          int macSize, byte[][] aadSegs, int[] aadOffs, int[] aadLens,
+                                          byte[][] inSegs, int[] inOffs, int[] inLens, byte[] out, int outOff,
+                                          int outLen);
+
     @Override
     public String toString()
     {
@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.ExceptionMessages;
 import org.bouncycastle.crypto.PacketCipherException;
@@ -31,6 +33,42 @@ public class AESNativeGCMSIVPacketCipher
     public int processPacket(boolean encryption, CipherParameters params, byte[] input, int inOff, int len,
                              byte[] output, int outOff)
         throws PacketCipherException
+    {
+        int outLen = output != null ? output.length - outOff : 0;
+        return processAEADPacket(encryption, params, input, inOff, len, output, outOff, outLen);
+    }
+
+    @Override
+    public int processPacket(boolean encryption, CipherParameters params, ByteBuffer input, ByteBuffer output)
+        throws PacketCipherException
+    {
+        if (!NativeBuffers.isDirect(input, output))
+        {
+            return AESGCMSIVModePacketCipher.super.processPacket(encryption, params, input, output);
+        }
+
+        try
+        {
+            NativeBuffers.checkWritable(output);
+        }
+        catch (Exception e)
+        {
+            throw PacketCipherException.from(e);
+        }
+
+        int len = input.remaining();
+        int result = processAEADPacket(encryption, params, input, input.position(), len, output, output.position(),
+            output.remaining());
+        NativeBuffers.advance(input, len, output, result);
+        return result;
+    }
+
+    /**
+     * Input and output are either both byte arrays or both direct ByteBuffers.
+     */
+    private int processAEADPacket(boolean encryption, CipherParameters params, Object input, int inOff, int len,
+                                  Object output, int outOff, int outLen)
+        throws PacketCipherException
     {
         byte[] nonce;
         byte[] initialAssociatedText;
@@ -54,12 +92,19 @@ public class AESNativeGCMSIVPacketCipher
             throw PacketCipherException.from(new IllegalArgumentException(ExceptionMessages.GCM_SIV_INVALID_PARAMETER));
         }
 
-        int outLen = output != null ? output.length - outOff : 0;
         int result;
         try
         {
-            result = processPacket(encryption, key,  nonce,  initialAssociatedText,
-                input, inOff, len, output, outOff, outLen);
+            if (input instanceof ByteBuffer)
+            {
+                result = processPacketDirect(encryption, key, nonce, initialAssociatedText,
+                    (ByteBuffer)input, inOff, len, (ByteBuffer)output, outOff, outLen);
+            }
+            else
+            {
+                result = processPacket(encryption, key,  nonce,  initialAssociatedText,
+                    (byte[])input, inOff, len, (byte[])output, outOff, outLen);
+            }
         }
         catch (Exception e)
         {
@@ -77,6 +122,13 @@ public class AESNativeGCMSIVPacketCipher
                                     byte[] in, int inOff, int inLen,
                                     byte[] out, int outOff, int outLen);
 
+    static native int processPacketDirect(boolean encryption,
+                                          byte[] key,
+                                          byte[] nonce,
+                                          byte[] aad,
+                                          ByteBuffer in, int inOff, int inLen,
+                                          ByteBuffer out, int outOff, int outLen);
+
     @Override
     public String toString()
     {
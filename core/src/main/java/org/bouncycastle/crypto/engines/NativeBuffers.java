@@ -0,0 +1,73 @@
+package org.bouncycastle.crypto.engines;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import org.bouncycastle.crypto.OutputLengthException;
+
+/**
+ * Utility methods shared by the native ciphers for handling ByteBuffer arguments.
+ */
+final class NativeBuffers
+{
+    private NativeBuffers()
+    {
+    }
+
+    /**
+     * Return true if both buffers are direct, so their addresses can be passed to the native layer.
+     */
+    static boolean isDirect(ByteBuffer in, ByteBuffer out)
+    {
+        return in.isDirect() && out.isDirect();
+    }
+
+    /**
+     * Return true if both buffers expose a backing array.
+     */
+    static boolean hasArray(ByteBuffer in, ByteBuffer out)
+    {
+        return in.hasArray() && out.hasArray();
+    }
+
+    static void checkWritable(ByteBuffer out)
+    {
+        if (out.isReadOnly())
+        {
+            throw new ReadOnlyBufferException();
+        }
+    }
+
+    static void checkOutput(ByteBuffer out, int len)
+    {
+        checkWritable(out);
+
+        if (out.remaining() < len)
+        {
+            throw new OutputLengthException("output buffer too short");
+        }
+    }
+
+    /**
+     * Copy the remaining bytes in buf without moving its position.
+     */
+    static byte[] remaining(ByteBuffer buf)
+    {
+        byte[] data = new byte[buf.remaining()];
+        buf.duplicate().get(data);
+        return data;
+    }
+
+    /**
+     * Move the input past the bytes consumed and the output past the bytes written, taking care to only
+     * move the position once if in and out are the same buffer.
+     */
+    static void advance(ByteBuffer in, int inLen, ByteBuffer out, int outLen)
+    {
+        in.position(in.position() + inLen);
+        if (out != in)
+        {
+            out.position(out.position() + outLen);
+        }
+    }
+}
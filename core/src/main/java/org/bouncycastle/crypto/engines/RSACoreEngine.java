@@ -11,6 +11,7 @@ import org.bouncycastle.crypto.constraints.DefaultServiceProperties;
 import org.bouncycastle.crypto.params.ParametersWithRandom;
 import org.bouncycastle.crypto.params.RSAKeyParameters;
 import org.bouncycastle.crypto.params.RSAPrivateCrtKeyParameters;
+import org.bouncycastle.math.raw.ModExp;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Properties;
 
@@ -196,10 +197,10 @@ class RSACoreEngine
                 BigInteger mP, mQ, h, m;
 
                 // mP = ((input mod p) ^ dP)) mod p
-                mP = (input.remainder(p)).modPow(dP, p);
+                mP = ModExp.modPow(input.remainder(p), dP, p);
 
                 // mQ = ((input mod q) ^ dQ)) mod q
-                mQ = (input.remainder(q)).modPow(dQ, q);
+                mQ = ModExp.modPow(input.remainder(q), dQ, q);
 
                 // h = qInv * (mP - mQ) mod p
                 h = mP.subtract(mQ);
@@ -230,6 +231,11 @@ class RSACoreEngine
             }
         }
 
+        if (key.isPrivate())
+        {
+            return ModExp.modPow(input, key.getExponent(), key.getModulus());
+        }
+
         return input.modPow(key.getExponent(), key.getModulus());
     }
 
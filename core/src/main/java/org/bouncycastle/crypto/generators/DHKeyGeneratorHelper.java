@@ -5,6 +5,7 @@ import java.security.SecureRandom;
 
 import org.bouncycastle.crypto.params.DHParameters;
 import org.bouncycastle.math.ec.WNafUtil;
+import org.bouncycastle.math.raw.ModExp;
 import org.bouncycastle.util.BigIntegers;
 
 class DHKeyGeneratorHelper
@@ -62,6 +63,6 @@ class DHKeyGeneratorHelper
 
     BigInteger calculatePublic(DHParameters dhParams, BigInteger x)
     {
-        return dhParams.getG().modPow(x, dhParams.getP());
+        return ModExp.modPow(dhParams.getG(), x, dhParams.getP());
     }
 }
@@ -15,6 +15,7 @@ import org.bouncycastle.crypto.params.DSAParameters;
 import org.bouncycastle.crypto.params.DSAPrivateKeyParameters;
 import org.bouncycastle.crypto.params.DSAPublicKeyParameters;
 import org.bouncycastle.math.ec.WNafUtil;
+import org.bouncycastle.math.raw.ModExp;
 import org.bouncycastle.util.BigIntegers;
 
 /**
@@ -70,6 +71,6 @@ public class DSAKeyPairGenerator
 
     private static BigInteger calculatePublicKey(BigInteger p, BigInteger g, BigInteger x)
     {
-        return g.modPow(x, p);
+        return ModExp.modPow(g, x, p);
     }
 }
@@ -18,6 +18,7 @@ import org.bouncycastle.math.ec.ECConstants;
 import org.bouncycastle.math.ec.ECMultiplier;
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.custom.sec.SecPR1Multiplier;
 import org.bouncycastle.math.ec.WNafUtil;
 import org.bouncycastle.util.BigIntegers;
 
@@ -91,6 +92,13 @@ public class ECKeyPairGenerator
 
     protected ECMultiplier createBasePointMultiplier()
     {
+        // P-256 and P-384 have a dedicated constant-time multiplier
+        ECMultiplier multiplier = SecPR1Multiplier.getInstance(params.getCurve());
+        if (multiplier != null)
+        {
+            return multiplier;
+        }
+
         return new FixedPointCombMultiplier();
     }
 }
@@ -2,12 +2,14 @@ package org.bouncycastle.crypto.kems;
 
 import org.bouncycastle.crypto.EncapsulatedSecretExtractor;
 import org.bouncycastle.crypto.kems.mlkem.MLKEMEngine;
+import org.bouncycastle.crypto.params.MLKEMPrecomputedKey;
 import org.bouncycastle.crypto.params.MLKEMPrivateKeyParameters;
 
 public class MLKEMExtractor
     implements EncapsulatedSecretExtractor
 {
     private final MLKEMPrivateKeyParameters privateKey;
+    private final MLKEMPrecomputedKey precomputedKey;
     private final MLKEMEngine engine;
 
     public MLKEMExtractor(MLKEMPrivateKeyParameters privateKey)
@@ -18,6 +20,25 @@ public class MLKEMExtractor
         }
 
         this.privateKey = privateKey;
+        this.precomputedKey = null;
+        this.engine = MLKEMEngine.getInstance(privateKey.getParameters());
+    }
+
+    /**
+     * Base constructor for a key whose matrix and vectors have already been expanded, the
+     * precomputed key may be shared with other extractors.
+     *
+     * @param precomputedKey the precomputed private key.
+     */
+    public MLKEMExtractor(MLKEMPrecomputedKey precomputedKey)
+    {
+        if (precomputedKey == null)
+        {
+            throw new NullPointerException("'precomputedKey' cannot be null");
+        }
+
+        this.privateKey = precomputedKey.getPrivateKey();
+        this.precomputedKey = precomputedKey;
         this.engine = MLKEMEngine.getInstance(privateKey.getParameters());
     }
 
@@ -27,6 +48,10 @@ public class MLKEMExtractor
         {
             throw new IllegalArgumentException("encapsulation wrong length");
         }
+        if (precomputedKey != null)
+        {
+            return engine.kemDecrypt(precomputedKey.getExpandedKey(), encapsulation);
+        }
         return engine.kemDecrypt(privateKey, encapsulation);
     }
 
@@ -2,6 +2,8 @@ package org.bouncycastle.crypto.kems.mlkem;
 
 import java.security.SecureRandom;
 
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.Xof;
 import org.bouncycastle.crypto.digests.SHA3Digest;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
 import org.bouncycastle.crypto.params.MLKEMParameters;
@@ -185,15 +187,15 @@ public class MLKEMEngine
 
     static void hash_G(byte[] input, byte[] output)
     {
-        implDigest(new SHA3Digest(512), input, 0, input.length, output, 0);
+        implDigest(SHA3Digest.newInstance(512), input, 0, input.length, output, 0);
     }
 
     private static void hash_H(byte[] inBuf, int inOff, int inLen, byte[] outBuf, int outOff)
     {
-        implDigest(new SHA3Digest(256), inBuf, inOff, inLen, outBuf, outOff);
+        implDigest(SHA3Digest.newInstance(256), inBuf, inOff, inLen, outBuf, outOff);
     }
 
-    private static void implDigest(SHA3Digest digest, byte[] inBuf, int inOff, int inLen, byte[] outBuf, int outOff)
+    private static void implDigest(Digest digest, byte[] inBuf, int inOff, int inLen, byte[] outBuf, int outOff)
     {
         digest.update(inBuf, inOff, inLen);
         digest.doFinal(outBuf, outOff);
@@ -241,6 +243,37 @@ public class MLKEMEngine
         int pkOff = IndCpaSecretKeyBytes;
         byte[] cmp = indCpa.encrypt(decapKey, pkOff, buf, 0, kr, SymBytes);
 
+        return selectSecret(kr, cmp, cipherText, decapKey, SecretKeyBytes - SymBytes);
+    }
+
+    /**
+     * Decapsulate using a precomputed key, skipping the unpacking of the secret and public vectors
+     * and the expansion of the matrix that {@link #kemDecrypt(MLKEMPrivateKeyParameters, byte[])}
+     * performs on every call. The output is identical.
+     */
+    public byte[] kemDecrypt(MLKEMExpandedKey key, byte[] cipherText)
+    {
+        byte[] buf = new byte[2 * SymBytes];
+        indCpa.decrypt(key.skpv, cipherText, buf);
+        System.arraycopy(key.hpk, 0, buf, SymBytes, SymBytes);
+
+        byte[] kr = new byte[2 * SymBytes];
+        hash_G(buf, kr);
+
+        byte[] cmp = indCpa.encrypt(key.pkpv, key.matrixATransposed, buf, 0, kr, SymBytes);
+
+        return selectSecret(kr, cmp, cipherText, key.z, 0);
+    }
+
+    void expandPrivateKey(byte[] decapKey, PolyVec skpv, PolyVec pkpv, PolyVec[] matrixATransposed)
+    {
+        indCpa.unpackSecretKey(skpv, decapKey);
+        byte[] seed = indCpa.unpackPublicKey(pkpv, decapKey, IndCpaSecretKeyBytes);
+        indCpa.generateMatrixA(matrixATransposed, seed, true);
+    }
+
+    private byte[] selectSecret(byte[] kr, byte[] cmp, byte[] cipherText, byte[] z, int zOff)
+    {
         int fail = constantTimeZeroOnEqual(cipherText, cmp);
 
         // if ciphertexts do not match, “implicitly reject”
@@ -248,8 +281,8 @@ public class MLKEMEngine
             byte[] implicit_rejection = new byte[SharedSecretBytes];
 
             // J(z||c)
-            SHAKEDigest xof = new SHAKEDigest(256);
-            xof.update(decapKey, SecretKeyBytes - SymBytes, SymBytes);
+            Xof xof = SHAKEDigest.newInstance(256);
+            xof.update(z, zOff, SymBytes);
             xof.update(cipherText, 0, CipherTextBytes);
             xof.doFinal(implicit_rejection, 0, SharedSecretBytes);
 
@@ -0,0 +1,71 @@
+package org.bouncycastle.crypto.kems.mlkem;
+
+import org.bouncycastle.crypto.params.MLKEMPrivateKeyParameters;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * The expanded form of an ML-KEM private key held by {@link org.bouncycastle.crypto.params.MLKEMPrecomputedKey}:
+ * the secret vector, the public vector and the transposed matrix A in the NTT domain.
+ * <p>
+ * This is the engine's view of the key, exported so the KEM can hand it to {@link MLKEMEngine}; applications
+ * should use {@link org.bouncycastle.crypto.params.MLKEMPrecomputedKey} rather than creating one directly.
+ * </p>
+ */
+public final class MLKEMExpandedKey
+{
+    final PolyVec skpv;
+    final PolyVec pkpv;
+    final PolyVec[] matrixATransposed;
+    final byte[] hpk;
+    final byte[] z;
+
+    public MLKEMExpandedKey(MLKEMPrivateKeyParameters privateKey)
+    {
+        MLKEMEngine engine = MLKEMEngine.getInstance(privateKey.getParameters());
+        int K = engine.getK();
+
+        this.skpv = new PolyVec(K);
+        this.pkpv = new PolyVec(K);
+        this.matrixATransposed = new PolyVec[K];
+        for (int i = 0; i < K; i++)
+        {
+            matrixATransposed[i] = new PolyVec(K);
+        }
+
+        byte[] decapKey = privateKey.getEncoded();
+        int secretKeyBytes = engine.getSecretKeyBytes();
+
+        engine.expandPrivateKey(decapKey, skpv, pkpv, matrixATransposed);
+        this.hpk = Arrays.copyOfRange(decapKey, secretKeyBytes - 2 * MLKEMEngine.SymBytes, secretKeyBytes - MLKEMEngine.SymBytes);
+        this.z = Arrays.copyOfRange(decapKey, secretKeyBytes - MLKEMEngine.SymBytes, secretKeyBytes);
+
+        Arrays.clear(decapKey);
+    }
+
+    /**
+     * Return the approximate number of bytes of key material held, not counting object headers.
+     *
+     * @return the size of the expanded values in bytes.
+     */
+    public int getMemorySize()
+    {
+        int K = skpv.vec.length;
+
+        return (K * K + 2 * K) * MLKEMEngine.N * 2 + hpk.length + z.length;
+    }
+
+    /**
+     * Zeroize the expanded key material.
+     */
+    public void clear()
+    {
+        skpv.clear();
+        pkpv.clear();
+        for (int i = 0; i < matrixATransposed.length; i++)
+        {
+            matrixATransposed[i].clear();
+        }
+        Arrays.clear(hpk);
+        Arrays.clear(z);
+    }
+}
@@ -1,6 +1,9 @@
 package org.bouncycastle.crypto.kems.mlkem;
 
+import org.bouncycastle.crypto.ParallelXof;
+import org.bouncycastle.crypto.Xof;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.crypto.digests.SHAKEx4Digest;
 import org.bouncycastle.util.Arrays;
 
 class MLKEMIndCpa
@@ -41,7 +44,7 @@ class MLKEMIndCpa
         }
         generateMatrixA(matrixA, buf, false);
 
-        SHAKEDigest xof = new SHAKEDigest(256);
+        Xof xof = SHAKEDigest.newInstance(256);
 
         byte nonce = 0;
         if (engine.getEta1() == 2)
@@ -89,11 +92,24 @@ class MLKEMIndCpa
     {
         int K = engine.getK();
 
-        PolyVec bp = new PolyVec(K), skpv = new PolyVec(K);
+        PolyVec skpv = new PolyVec(K);
+
+        unpackSecretKey(skpv, secretKey);
+
+        decrypt(skpv, cipherText, m);
+    }
+
+    /**
+     * Decrypt using a secret vector already unpacked into the NTT domain.
+     */
+    void decrypt(PolyVec skpv, byte[] cipherText, byte[] m)
+    {
+        int K = engine.getK();
+
+        PolyVec bp = new PolyVec(K);
         Poly v = new Poly(), mp = new Poly();
 
         unpackCipherText(bp, v, cipherText, 0);
-        unpackSecretKey(skpv, secretKey);
 
         bp.polyVecNtt();
 
@@ -109,22 +125,35 @@ class MLKEMIndCpa
     {
         int K = engine.getK();
 
-        byte nonce = (byte)0;
-        PolyVec sp = new PolyVec(K), pkpv = new PolyVec(K), ep = new PolyVec(K), bp = new PolyVec(K);
-        Poly errorPoly = new Poly(), v = new Poly(), k = new Poly();
+        PolyVec pkpv = new PolyVec(K);
 
         byte[] seed = unpackPublicKey(pkpv, pk, pkOff);
 
-        k.fromMsg(msg, msgOff);
-
-        PolyVec[] matrixATransposed = new PolyVec[engine.getK()];
+        PolyVec[] matrixATransposed = new PolyVec[K];
         for (int i = 0; i < K; i++)
         {
             matrixATransposed[i] = new PolyVec(K);
         }
         generateMatrixA(matrixATransposed, seed, true);
 
-        SHAKEDigest xof = new SHAKEDigest(256);
+        return encrypt(pkpv, matrixATransposed, msg, msgOff, coins, coinsOff);
+    }
+
+    /**
+     * Encrypt using a public vector and transposed matrix that have already been unpacked and expanded,
+     * neither is modified so both may be shared between calls.
+     */
+    byte[] encrypt(PolyVec pkpv, PolyVec[] matrixATransposed, byte[] msg, int msgOff, byte[] coins, int coinsOff)
+    {
+        int K = engine.getK();
+
+        byte nonce = (byte)0;
+        PolyVec sp = new PolyVec(K), ep = new PolyVec(K), bp = new PolyVec(K);
+        Poly errorPoly = new Poly(), v = new Poly(), k = new Poly();
+
+        k.fromMsg(msg, msgOff);
+
+        Xof xof = SHAKEDigest.newInstance(256);
 
         if (engine.getEta1() == 2)
         {
@@ -243,45 +272,60 @@ class MLKEMIndCpa
     void generateMatrixA(PolyVec[] aMatrix, byte[] seed, boolean transpose)
     {
         int K = engine.getK();
-        SHAKEDigest xof = new SHAKEDigest(128);
+        ParallelXof xof = SHAKEx4Digest.newInstance(128);
+        int lanes = xof.getLaneCount();
 
-        byte[] buf = new byte[NUM_MATRIX_BLOCKS * SHAKE128_RATE + 2];
-        for (int i = 0; i < K; i++)
+        byte[][] xofSeed = new byte[lanes][MLKEMEngine.SymBytes + 2];
+        byte[][] buf = new byte[lanes][NUM_MATRIX_BLOCKS * SHAKE128_RATE + 2];
+        Poly[] entry = new Poly[lanes];
+        int[] ctr = new int[lanes];
+
+        // The K * K entries are expanded four at a time, unused lanes of the last group repeat its final entry.
+        for (int base = 0; base < K * K; base += lanes)
         {
-            for (int j = 0; j < K; j++)
+            int count = Math.min(lanes, K * K - base);
+            for (int l = 0; l < lanes; l++)
             {
-                xof.reset();
+                int e = base + Math.min(l, count - 1);
+                int i = e / K, j = e % K;
+
+                System.arraycopy(seed, 0, xofSeed[l], 0, MLKEMEngine.SymBytes);
+                xofSeed[l][MLKEMEngine.SymBytes] = (byte)(transpose ? i : j);
+                xofSeed[l][MLKEMEngine.SymBytes + 1] = (byte)(transpose ? j : i);
+                entry[l] = aMatrix[i].getVectorIndex(j);
+            }
 
-                xof.update(seed, 0, MLKEMEngine.SymBytes);
+            xof.absorb(xofSeed, 0, MLKEMEngine.SymBytes + 2);
 
-                if (transpose)
-                {
-                    xof.update((byte)i);
-                    xof.update((byte)j);
-                }
-                else
+            int buflen = NUM_MATRIX_BLOCKS * SHAKE128_RATE;
+            xof.squeezeBlocks(buf, 0, NUM_MATRIX_BLOCKS);
+
+            boolean done = true;
+            for (int l = 0; l < count; l++)
+            {
+                ctr[l] = rejectionSampling(entry[l], 0, MLKEMEngine.N, buf[l], buflen);
+                done &= ctr[l] >= MLKEMEngine.N;
+            }
+
+            while (!done)
+            {
+                int off = buflen % 3;
+                for (int l = 0; l < lanes; l++)
                 {
-                    xof.update((byte)j);
-                    xof.update((byte)i);
+                    System.arraycopy(buf[l], buflen - off, buf[l], 0, off);
                 }
 
-                int buflen = NUM_MATRIX_BLOCKS * SHAKE128_RATE;
-                xof.doOutput(buf, 0, buflen);
+                xof.squeezeBlocks(buf, off, 1);
+                buflen = off + SHAKE128_RATE;
 
-                int ctr = rejectionSampling(aMatrix[i].getVectorIndex(j), 0, MLKEMEngine.N, buf, buflen);
-                while (ctr < MLKEMEngine.N)
+                done = true;
+                for (int l = 0; l < count; l++)
                 {
-                    int off = buflen % 3;
-                    for (int k = 0; k < off; k++)
+                    if (ctr[l] < MLKEMEngine.N)
                     {
-                        buf[k] = buf[buflen - off + k];
+                        ctr[l] += rejectionSampling(entry[l], ctr[l], MLKEMEngine.N - ctr[l], buf[l], buflen);
+                        done &= ctr[l] >= MLKEMEngine.N;
                     }
-
-                    xof.doOutput(buf, off, SHAKE128_RATE * 2);
-
-                    buflen = off + SHAKE128_RATE;
-                    // Error in code Section Unsure
-                    ctr += rejectionSampling(aMatrix[i].getVectorIndex(j), ctr, MLKEMEngine.N - ctr, buf, buflen);
                 }
             }
         }
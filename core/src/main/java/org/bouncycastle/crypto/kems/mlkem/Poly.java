@@ -1,6 +1,7 @@
 package org.bouncycastle.crypto.kems.mlkem;
 
 import org.bouncycastle.crypto.Xof;
+import org.bouncycastle.util.Arrays;
 
 class Poly
 {
@@ -21,38 +22,30 @@ class Poly
         coeffs[i] = val;
     }
 
+    void clear()
+    {
+        Arrays.fill(coeffs, (short)0);
+    }
+
     void polyNtt()
     {
-        Ntt.ntt(coeffs);
+        PolyMath.ntt(coeffs);
         reduce();
     }
 
     void polyInverseNttToMont()
     {
-        Ntt.invNtt(coeffs);
+        PolyMath.invNtt(coeffs);
     }
 
     void reduce()
     {
-        for (int i = 0; i < MLKEMEngine.N; i++)
-        {
-            coeffs[i] = Reduce.barrettReduce(coeffs[i]);
-        }
+        PolyMath.barrettReduce(coeffs);
     }
 
     static void baseMultMontgomery(Poly r, Poly a, Poly b)
     {
-        for (int i = 0; i < MLKEMEngine.N / 4; i++)
-        {
-            Ntt.baseMult(r.coeffs, 4 * i,
-                a.getCoeffIndex(4 * i), a.getCoeffIndex(4 * i + 1),
-                b.getCoeffIndex(4 * i), b.getCoeffIndex(4 * i + 1),
-                Ntt.ZETAS[64 + i]);
-            Ntt.baseMult(r.coeffs, 4 * i + 2,
-                a.getCoeffIndex(4 * i + 2), a.getCoeffIndex(4 * i + 3),
-                b.getCoeffIndex(4 * i + 2), b.getCoeffIndex(4 * i + 3),
-                (short)(-1 * Ntt.ZETAS[64 + i]));
-        }
+        PolyMath.baseMultMontgomery(r.coeffs, a.coeffs, b.coeffs);
     }
 
     void add(Poly b)
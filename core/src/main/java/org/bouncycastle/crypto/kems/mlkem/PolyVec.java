@@ -211,6 +211,14 @@ class PolyVec
         }
     }
 
+    void clear()
+    {
+        for (int i = 0; i < vec.length; i++)
+        {
+            vec[i].clear();
+        }
+    }
+
     void fromBytes(byte[] buf, int off)
     {
         for (int i = 0; i < vec.length; i++)
@@ -6,7 +6,7 @@ import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 
 public interface AESCBCModePacketCipher
-        extends PacketCipher
+        extends ByteBufferPacketCipher
 {
 
     default void checkParameters(CipherParameters parameters) throws PacketCipherException
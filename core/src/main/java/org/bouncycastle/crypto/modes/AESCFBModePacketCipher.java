@@ -1,13 +1,13 @@
 package org.bouncycastle.crypto.modes;
 
+import org.bouncycastle.crypto.ByteBufferPacketCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.ExceptionMessages;
-import org.bouncycastle.crypto.PacketCipher;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 
 public interface AESCFBModePacketCipher
-    extends PacketCipher
+    extends ByteBufferPacketCipher
 {
     default void checkCFBParameter(CipherParameters parameters)
     {
@@ -1,8 +1,10 @@
 package org.bouncycastle.crypto.modes;
 
+import org.bouncycastle.crypto.ByteBufferPacketCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.ExceptionMessages;
-import org.bouncycastle.crypto.PacketCipher;
+import org.bouncycastle.crypto.GatheringPacketCipher;
+import org.bouncycastle.crypto.PacketCipherException;
 import org.bouncycastle.crypto.params.AEADParameters;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
@@ -10,7 +12,7 @@ import org.bouncycastle.crypto.params.ParametersWithIV;
 import javax.security.auth.Destroyable;
 
 public interface AESGCMModePacketCipher
-    extends PacketCipher, Destroyable
+    extends ByteBufferPacketCipher, GatheringPacketCipher, Destroyable
 {
     default int checkParameters(CipherParameters params)
     {
@@ -58,4 +60,32 @@ public interface AESGCMModePacketCipher
         }
         return macSize;
     }
+
+    /**
+     * Default gather implementation, the segments are copied into a single associated text and input
+     * before being passed to the array based processPacket().
+     */
+    default int processPacket(boolean encryption, CipherParameters parameters, byte[][] aad, int[] aadOff,
+                              int[] aadLen, byte[][] input, int[] inOff, int[] inLen, byte[] output, int outOff)
+        throws PacketCipherException
+    {
+        if (aad != null && aad.length > 0)
+        {
+            if (parameters instanceof AEADParameters)
+            {
+                AEADParameters param = (AEADParameters)parameters;
+                parameters = new AEADParameters(param.getKey(), param.getMacSize(), param.getNonce(),
+                    PacketCipherChecks.gatherSegments(param.getAssociatedText(), aad, aadOff, aadLen));
+            }
+            else if (parameters instanceof ParametersWithIV)
+            {
+                ParametersWithIV param = (ParametersWithIV)parameters;
+                parameters = new AEADParameters((KeyParameter)param.getParameters(), 128, param.getIV(),
+                    PacketCipherChecks.gatherSegments(null, aad, aadOff, aadLen));
+            }
+        }
+
+        byte[] in = PacketCipherChecks.gatherSegments(null, input, inOff, inLen);
+        return processPacket(encryption, parameters, in, 0, in.length, output, outOff);
+    }
 }
@@ -1,15 +1,15 @@
 package org.bouncycastle.crypto.modes;
 
+import org.bouncycastle.crypto.ByteBufferPacketCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.ExceptionMessages;
-import org.bouncycastle.crypto.PacketCipher;
 import org.bouncycastle.crypto.params.AEADParameters;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.bouncycastle.util.Arrays;
 
 public interface AESGCMSIVModePacketCipher
-    extends PacketCipher
+    extends ByteBufferPacketCipher
 {
     /**
      * The nonce length.
@@ -148,6 +148,55 @@ public class PacketCipherChecks
         }
     }
 
+    /**
+     * Concatenate an optional prefix and a list of (array, offset, length) segments.
+     */
+    static byte[] gatherSegments(byte[] prefix, byte[][] segs, int[] offs, int[] lens)
+            throws PacketCipherException
+    {
+        int count = segs != null ? segs.length : 0;
+        if (count > 0 && (offs == null || lens == null || offs.length != count || lens.length != count))
+        {
+            throw PacketCipherException.from(new IllegalArgumentException("segment offsets and lengths do not match segments"));
+        }
+
+        int total = prefix != null ? prefix.length : 0;
+        for (int i = 0; i < count; i++)
+        {
+            if (segs[i] == null)
+            {
+                throw PacketCipherException.from(new IllegalArgumentException(ExceptionMessages.INPUT_NULL));
+            }
+            if (offs[i] < 0)
+            {
+                throw PacketCipherException.from(new IllegalArgumentException(ExceptionMessages.INPUT_OFFSET_NEGATIVE));
+            }
+            if (lens[i] < 0)
+            {
+                throw PacketCipherException.from(new IllegalArgumentException(ExceptionMessages.LEN_NEGATIVE));
+            }
+            if (offs[i] > segs[i].length - lens[i])
+            {
+                throw PacketCipherException.from(new DataLengthException(ExceptionMessages.INPUT_TOO_SHORT));
+            }
+            total = addCheckInputOverflow(total, lens[i]);
+        }
+
+        byte[] result = new byte[total];
+        int pos = 0;
+        if (prefix != null)
+        {
+            System.arraycopy(prefix, 0, result, 0, prefix.length);
+            pos = prefix.length;
+        }
+        for (int i = 0; i < count; i++)
+        {
+            System.arraycopy(segs[i], offs[i], result, pos, lens[i]);
+            pos += lens[i];
+        }
+        return result;
+    }
+
     static int addCheckInputOverflow(int a, int b)
     {
 
@@ -0,0 +1,58 @@
+package org.bouncycastle.crypto.params;
+
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.bouncycastle.math.ec.WNafPreCompInfo;
+import org.bouncycastle.math.ec.WNafUtil;
+import org.bouncycastle.math.ec.endo.ECEndomorphism;
+import org.bouncycastle.math.ec.endo.EndoUtil;
+import org.bouncycastle.math.ec.endo.GLVEndomorphism;
+
+/**
+ * An EC public key prepared for repeated signature verification. The public point is configured like a curve
+ * base point, and the precomputation that {@link ECAlgorithms#sumOfTwoMultiplies} uses for it (a fixed-point
+ * comb, or wNAF tables for the point and its endomorphism image on GLV curves) is built up front and kept with
+ * the point. Verifications under the same instance then skip table construction entirely.
+ * <p>
+ * Intended for long-lived keys that verify many signatures (CA keys, OCSP responders); preparing a key costs
+ * several times as much as a single verification.
+ * </p>
+ */
+public class ECPreparedPublicKeyParameters
+    extends ECPublicKeyParameters
+{
+    public ECPreparedPublicKeyParameters(ECPublicKeyParameters key)
+    {
+        this(key.getQ(), key.getParameters());
+    }
+
+    public ECPreparedPublicKeyParameters(ECPoint q, ECDomainParameters parameters)
+    {
+        super(q, parameters);
+
+        prepare(getQ());
+    }
+
+    private static void prepare(ECPoint q)
+    {
+        ECCurve c = q.getCurve();
+
+        WNafUtil.configureBasepoint(q);
+
+        // NOTE: The configured width overrides the (minimum) width requested here
+        WNafPreCompInfo info = WNafUtil.precompute(q, 2, true);
+
+        ECEndomorphism endomorphism = c.getEndomorphism();
+        if (endomorphism instanceof GLVEndomorphism)
+        {
+            ECPoint mapped = EndoUtil.mapPoint(endomorphism, q);
+            WNafUtil.precomputeWithPointMap(mapped, endomorphism.getPointMap(), info, true);
+        }
+        else if (!(c instanceof ECCurve.AbstractF2m && ((ECCurve.AbstractF2m)c).isKoblitz()))
+        {
+            FixedPointUtil.precompute(q);
+        }
+    }
+}
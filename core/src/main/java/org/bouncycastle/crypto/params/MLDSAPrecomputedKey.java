@@ -0,0 +1,93 @@
+package org.bouncycastle.crypto.params;
+
+import javax.security.auth.Destroyable;
+
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.signers.mldsa.MLDSAExpandedKey;
+
+/**
+ * An ML-DSA private key with the matrix A expanded from rho and the secret vectors s1, s2 and t0
+ * unpacked and transformed into the NTT domain once, so repeated signing skips that work.
+ * <p>
+ * The precomputed values are only read during signing, an instance may be shared between threads.
+ * It holds its own copy of the key material and must be destroyed separately from the private key
+ * it was built from, destroying it while a signature is in progress on another thread gives an
+ * undefined result for that call.
+ */
+public final class MLDSAPrecomputedKey
+    implements CipherParameters, Destroyable
+{
+    private final MLDSAPrivateKeyParameters privateKey;
+    private final MLDSAExpandedKey expandedKey;
+
+    private volatile boolean destroyed;
+
+    public MLDSAPrecomputedKey(MLDSAPrivateKeyParameters privateKey)
+    {
+        if (privateKey == null)
+        {
+            throw new NullPointerException("'privateKey' cannot be null");
+        }
+
+        this.privateKey = privateKey;
+        this.expandedKey = new MLDSAExpandedKey(privateKey);
+    }
+
+    public MLDSAParameters getParameters()
+    {
+        return privateKey.getParameters();
+    }
+
+    /**
+     * Return the private key this precomputed key was built from.
+     *
+     * @return the source private key.
+     */
+    public MLDSAPrivateKeyParameters getPrivateKey()
+    {
+        return privateKey;
+    }
+
+    /**
+     * Return the expanded key material, for use by the engine.
+     *
+     * @return the expanded key.
+     * @throws IllegalStateException if the key has been destroyed.
+     */
+    public MLDSAExpandedKey getExpandedKey()
+    {
+        if (destroyed)
+        {
+            throw new IllegalStateException("key destroyed");
+        }
+        return expandedKey;
+    }
+
+    /**
+     * Return the approximate number of bytes of key material held by this object, not counting
+     * the source private key or object headers.
+     *
+     * @return the size of the precomputed values in bytes.
+     */
+    public int getMemorySize()
+    {
+        return expandedKey.getMemorySize();
+    }
+
+    /**
+     * Zeroize the precomputed key material, the source private key is not affected.
+     */
+    public synchronized void destroy()
+    {
+        if (!destroyed)
+        {
+            destroyed = true;
+            expandedKey.clear();
+        }
+    }
+
+    public boolean isDestroyed()
+    {
+        return destroyed;
+    }
+}
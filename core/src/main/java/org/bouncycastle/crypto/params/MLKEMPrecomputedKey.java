@@ -0,0 +1,93 @@
+package org.bouncycastle.crypto.params;
+
+import javax.security.auth.Destroyable;
+
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.kems.mlkem.MLKEMExpandedKey;
+
+/**
+ * An ML-KEM private key with the secret vector, the public vector and the transposed matrix A
+ * unpacked into the NTT domain once, so repeated decapsulations skip the matrix expansion.
+ * <p>
+ * The precomputed values are only read during decapsulation, an instance may be shared between threads.
+ * It holds its own copy of the key material and must be destroyed separately from the private key
+ * it was built from, destroying it while a decapsulation is in progress on another thread gives an
+ * undefined result for that call.
+ */
+public final class MLKEMPrecomputedKey
+    implements CipherParameters, Destroyable
+{
+    private final MLKEMPrivateKeyParameters privateKey;
+    private final MLKEMExpandedKey expandedKey;
+
+    private volatile boolean destroyed;
+
+    public MLKEMPrecomputedKey(MLKEMPrivateKeyParameters privateKey)
+    {
+        if (privateKey == null)
+        {
+            throw new NullPointerException("'privateKey' cannot be null");
+        }
+
+        this.privateKey = privateKey;
+        this.expandedKey = new MLKEMExpandedKey(privateKey);
+    }
+
+    public MLKEMParameters getParameters()
+    {
+        return privateKey.getParameters();
+    }
+
+    /**
+     * Return the private key this precomputed key was built from.
+     *
+     * @return the source private key.
+     */
+    public MLKEMPrivateKeyParameters getPrivateKey()
+    {
+        return privateKey;
+    }
+
+    /**
+     * Return the expanded key material, for use by the engine.
+     *
+     * @return the expanded key.
+     * @throws IllegalStateException if the key has been destroyed.
+     */
+    public MLKEMExpandedKey getExpandedKey()
+    {
+        if (destroyed)
+        {
+            throw new IllegalStateException("key destroyed");
+        }
+        return expandedKey;
+    }
+
+    /**
+     * Return the approximate number of bytes of key material held by this object, not counting
+     * the source private key or object headers.
+     *
+     * @return the size of the precomputed values in bytes.
+     */
+    public int getMemorySize()
+    {
+        return expandedKey.getMemorySize();
+    }
+
+    /**
+     * Zeroize the precomputed key material, the source private key is not affected.
+     */
+    public synchronized void destroy()
+    {
+        if (!destroyed)
+        {
+            destroyed = true;
+            expandedKey.clear();
+        }
+    }
+
+    public boolean isDestroyed()
+    {
+        return destroyed;
+    }
+}
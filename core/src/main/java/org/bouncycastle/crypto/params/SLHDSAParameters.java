@@ -1,6 +1,9 @@
 package org.bouncycastle.crypto.params;
 
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.NativeServices;
 import org.bouncycastle.crypto.signers.slhdsa.SLHDSAEngine;
+import org.bouncycastle.crypto.signers.slhdsa.SLHDSAShakeNativeEngine;
 
 public class SLHDSAParameters
 {
@@ -178,6 +181,10 @@ public class SLHDSAParameters
 
         public SLHDSAEngine get()
         {
+            if (CryptoServicesRegistrar.hasEnabledService(NativeServices.SLHDSA_SHAKE))
+            {
+                return new SLHDSAShakeNativeEngine(n, w, d, a, k, h);
+            }
             return new SLHDSAEngine.Shake256Engine(n, w, d, a, k, h);
         }
     }
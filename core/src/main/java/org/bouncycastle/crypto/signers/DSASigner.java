@@ -11,6 +11,7 @@ import org.bouncycastle.crypto.params.DSAParameters;
 import org.bouncycastle.crypto.params.DSAPrivateKeyParameters;
 import org.bouncycastle.crypto.params.DSAPublicKeyParameters;
 import org.bouncycastle.crypto.params.ParametersWithRandom;
+import org.bouncycastle.math.raw.ModExp;
 import org.bouncycastle.util.BigIntegers;
 
 /**
@@ -105,7 +106,7 @@ public class DSASigner
         BigInteger  k = kCalculator.nextK();
 
         // the randomizer is to conceal timing information related to k and x.
-        BigInteger  r = params.getG().modPow(k.add(getRandomizer(q, random)), params.getP()).mod(q);
+        BigInteger  r = ModExp.modPow(params.getG(), k.add(getRandomizer(q, random)), params.getP()).mod(q);
 
         k = BigIntegers.modOddInverse(q, k).multiply(m.add(x.multiply(r)));
 
@@ -18,6 +18,7 @@ import org.bouncycastle.math.ec.ECFieldElement;
 import org.bouncycastle.math.ec.ECMultiplier;
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.custom.sec.SecPR1Multiplier;
 import org.bouncycastle.util.BigIntegers;
 
 /**
@@ -234,6 +235,13 @@ public class ECDSASigner
 
     protected ECMultiplier createBasePointMultiplier()
     {
+        // P-256 and P-384 have a dedicated constant-time multiplier
+        ECMultiplier multiplier = SecPR1Multiplier.getInstance(key.getParameters().getCurve());
+        if (multiplier != null)
+        {
+            return multiplier;
+        }
+
         return new FixedPointCombMultiplier();
     }
 
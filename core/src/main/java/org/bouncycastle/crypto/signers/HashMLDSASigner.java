@@ -13,6 +13,7 @@ import org.bouncycastle.crypto.Signer;
 import org.bouncycastle.crypto.digests.SHA512Digest;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
 import org.bouncycastle.crypto.params.MLDSAParameters;
+import org.bouncycastle.crypto.params.MLDSAPrecomputedKey;
 import org.bouncycastle.crypto.params.MLDSAPrivateKeyParameters;
 import org.bouncycastle.crypto.params.MLDSAPublicKeyParameters;
 import org.bouncycastle.crypto.params.ParametersWithContext;
@@ -28,6 +29,7 @@ public class HashMLDSASigner
 
     private MLDSAPublicKeyParameters pubKey;
     private MLDSAPrivateKeyParameters privKey;
+    private MLDSAPrecomputedKey precomputedKey;
     private SecureRandom random;
 
     private MLDSAEngine engine;
@@ -66,23 +68,36 @@ public class HashMLDSASigner
             if (param instanceof ParametersWithRandom)
             {
                 ParametersWithRandom withRandom = (ParametersWithRandom)param;
-                privKey = (MLDSAPrivateKeyParameters)withRandom.getParameters();
+                param = withRandom.getParameters();
                 random = withRandom.getRandom();
             }
             else
             {
-                privKey = (MLDSAPrivateKeyParameters)param;
                 random = null;
             }
 
+            if (param instanceof MLDSAPrecomputedKey)
+            {
+                precomputedKey = (MLDSAPrecomputedKey)param;
+                privKey = precomputedKey.getPrivateKey();
+            }
+            else
+            {
+                precomputedKey = null;
+                privKey = (MLDSAPrivateKeyParameters)param;
+            }
+
             parameters = privKey.getParameters();
             engine = MLDSAEngine.getInstance(parameters, random);
 
-            this.rho = privKey.getRho();
-            this.t0 = privKey.getT0();
-            this.k = privKey.getK();
-            this.s1 = privKey.getS1();
-            this.s2 = privKey.getS2();
+            if (precomputedKey == null)
+            {
+                this.rho = privKey.getRho();
+                this.t0 = privKey.getT0();
+                this.k = privKey.getK();
+                this.s1 = privKey.getS1();
+                this.s2 = privKey.getS2();
+            }
 
             engine.initSign(privKey.getTr(), true, ctx);
         }
@@ -90,6 +105,7 @@ public class HashMLDSASigner
         {
             pubKey = (MLDSAPublicKeyParameters)param;
             privKey = null;
+            precomputedKey = null;
             random = null;
 
             parameters = pubKey.getParameters();
@@ -221,6 +237,15 @@ public class HashMLDSASigner
         }
         byte[] mu = engine.generateMu(msgDigest);
 
+        return generateSignature(mu, msgDigest, rnd);
+    }
+
+    private byte[] generateSignature(byte[] mu, SHAKEDigest msgDigest, byte[] rnd)
+    {
+        if (precomputedKey != null)
+        {
+            return engine.generateSignature(mu, msgDigest, precomputedKey.getExpandedKey(), rnd);
+        }
         return engine.generateSignature(mu, msgDigest, rho, k, t0, s1, s2, rnd);
     }
 
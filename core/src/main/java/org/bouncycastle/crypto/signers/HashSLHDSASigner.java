@@ -2,6 +2,8 @@ package org.bouncycastle.crypto.signers;
 
 import java.io.IOException;
 import java.security.SecureRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.bouncycastle.asn1.ASN1Encoding;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
@@ -37,8 +39,46 @@ public class HashSLHDSASigner
 
     private byte[] pkSeed, pkRoot, skSeed, skPrf;
 
+    private final Executor executor;
+    private final int parallelism;
+
     public HashSLHDSASigner()
     {
+        this.executor = null;
+        this.parallelism = 1;
+    }
+
+    /**
+     * Constructor for a signer which computes the FORS and hypertree authentication paths in parallel.
+     * The signatures produced are identical to those of a sequential signer.
+     *
+     * @param executor    the executor to run the parallel work on, for example a ForkJoinPool.
+     * @param parallelism the number of threads to use, including the thread calling generateSignature().
+     */
+    public HashSLHDSASigner(Executor executor, int parallelism)
+    {
+        if (executor == null)
+        {
+            throw new NullPointerException("'executor' cannot be null");
+        }
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("'parallelism' must be at least 1");
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Constructor for a signer which computes the FORS and hypertree authentication paths in parallel
+     * using up to the pool's parallelism level.
+     *
+     * @param pool the pool to run the parallel work on.
+     */
+    public HashSLHDSASigner(ForkJoinPool pool)
+    {
+        this(pool, pool.getParallelism());
     }
 
     public void init(boolean forSigning, CipherParameters param)
@@ -151,7 +191,8 @@ public class HashSLHDSASigner
             System.arraycopy(privKey.getPublicSeed(), 0, optRand, 0, optRand.length);
         }
 
-        return SLHDSAEngine.internalGenerateSignature(privKey.getParameters(), skSeed, skPrf, pkSeed, pkRoot, msgPrefix, hash, optRand);
+        return SLHDSAEngine.internalGenerateSignature(privKey.getParameters(), skSeed, skPrf, pkSeed, pkRoot, msgPrefix, hash, optRand,
+            executor, parallelism);
     }
 
     public boolean verifySignature(byte[] signature)
@@ -169,7 +210,8 @@ public class HashSLHDSASigner
 
     protected byte[] internalGenerateSignature(byte[] message, byte[] optRand)
     {
-        return SLHDSAEngine.internalGenerateSignature(privKey.getParameters(), skSeed, skPrf, pkSeed, pkRoot, null, message, optRand);
+        return SLHDSAEngine.internalGenerateSignature(privKey.getParameters(), skSeed, skPrf, pkSeed, pkRoot, null, message, optRand,
+            executor, parallelism);
     }
 
     protected boolean internalVerifySignature(byte[] message, byte[] signature)
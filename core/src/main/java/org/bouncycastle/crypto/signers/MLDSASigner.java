@@ -8,6 +8,7 @@ import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.Signer;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
 import org.bouncycastle.crypto.params.MLDSAParameters;
+import org.bouncycastle.crypto.params.MLDSAPrecomputedKey;
 import org.bouncycastle.crypto.params.MLDSAPrivateKeyParameters;
 import org.bouncycastle.crypto.params.MLDSAPublicKeyParameters;
 import org.bouncycastle.crypto.params.ParametersWithContext;
@@ -20,6 +21,7 @@ public class MLDSASigner
     private static final byte[] EMPTY_CONTEXT = new byte[0];
     private MLDSAPublicKeyParameters pubKey;
     private MLDSAPrivateKeyParameters privKey;
+    private MLDSAPrecomputedKey precomputedKey;
     private SecureRandom random;
     private MLDSAEngine engine;
     private SHAKEDigest msgDigest;
@@ -56,23 +58,36 @@ public class MLDSASigner
             if (param instanceof ParametersWithRandom)
             {
                 ParametersWithRandom withRandom = (ParametersWithRandom)param;
-                privKey = (MLDSAPrivateKeyParameters)withRandom.getParameters();
+                param = withRandom.getParameters();
                 random = withRandom.getRandom();
             }
             else
             {
-                privKey = (MLDSAPrivateKeyParameters)param;
                 random = null;
             }
 
+            if (param instanceof MLDSAPrecomputedKey)
+            {
+                precomputedKey = (MLDSAPrecomputedKey)param;
+                privKey = precomputedKey.getPrivateKey();
+            }
+            else
+            {
+                precomputedKey = null;
+                privKey = (MLDSAPrivateKeyParameters)param;
+            }
+
             parameters = privKey.getParameters();
             engine = MLDSAEngine.getInstance(parameters, random);
 
-            this.rho = privKey.getRho();
-            this.t0 = privKey.getT0();
-            this.k = privKey.getK();
-            this.s1 = privKey.getS1();
-            this.s2 = privKey.getS2();
+            if (precomputedKey == null)
+            {
+                this.rho = privKey.getRho();
+                this.t0 = privKey.getT0();
+                this.k = privKey.getK();
+                this.s1 = privKey.getS1();
+                this.s2 = privKey.getS2();
+            }
 
             engine.initSign(privKey.getTr(), false, ctx);
         }
@@ -80,6 +95,7 @@ public class MLDSASigner
         {
             pubKey = (MLDSAPublicKeyParameters)param;
             privKey = null;
+            precomputedKey = null;
             random = null;
 
             parameters = pubKey.getParameters();
@@ -134,7 +150,7 @@ public class MLDSASigner
 
         msgDigest.reset();
 
-        byte[] sig = engine.generateSignature(mu, msgDigest, rho, k, t0, s1, s2, rnd);
+        byte[] sig = generateSignature(mu, msgDigest, rnd);
 
         reset();
 
@@ -151,7 +167,7 @@ public class MLDSASigner
         }
 
         byte[] mu = engine.generateMu(msgDigest);
-        byte[] sig = engine.generateSignature(mu, msgDigest, rho, k, t0, s1, s2, rnd);
+        byte[] sig = generateSignature(mu, msgDigest, rnd);
 
         reset();
 
@@ -197,6 +213,15 @@ public class MLDSASigner
         return isTrue;
     }
 
+    private byte[] generateSignature(byte[] mu, SHAKEDigest msgDigest, byte[] rnd)
+    {
+        if (precomputedKey != null)
+        {
+            return engine.generateSignature(mu, msgDigest, precomputedKey.getExpandedKey(), rnd);
+        }
+        return engine.generateSignature(mu, msgDigest, rho, k, t0, s1, s2, rnd);
+    }
+
     public void reset()
     {
         msgDigest = engine.getShake256Digest();
@@ -1,6 +1,8 @@
 package org.bouncycastle.crypto.signers;
 
 import java.security.SecureRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.params.ParametersWithContext;
@@ -34,11 +36,49 @@ public class SLHDSASigner
 
     private byte[] pkSeed, pkRoot, skSeed, skPrf;
 
+    private final Executor executor;
+    private final int parallelism;
+
     /**
      * Base constructor.
      */
     public SLHDSASigner()
     {
+        this.executor = null;
+        this.parallelism = 1;
+    }
+
+    /**
+     * Constructor for a signer which computes the FORS and hypertree authentication paths in parallel.
+     * The signatures produced are identical to those of a sequential signer.
+     *
+     * @param executor    the executor to run the parallel work on, for example a ForkJoinPool.
+     * @param parallelism the number of threads to use, including the thread calling generateSignature().
+     */
+    public SLHDSASigner(Executor executor, int parallelism)
+    {
+        if (executor == null)
+        {
+            throw new NullPointerException("'executor' cannot be null");
+        }
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("'parallelism' must be at least 1");
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Constructor for a signer which computes the FORS and hypertree authentication paths in parallel
+     * using up to the pool's parallelism level.
+     *
+     * @param pool the pool to run the parallel work on.
+     */
+    public SLHDSASigner(ForkJoinPool pool)
+    {
+        this(pool, pool.getParallelism());
     }
 
     public void init(boolean forSigning, CipherParameters param)
@@ -122,7 +162,8 @@ public class SLHDSASigner
             System.arraycopy(privKey.getPublicSeed(), 0, optRand, 0, optRand.length);
         }
 
-        return SLHDSAEngine.internalGenerateSignature(privKey.getParameters(), skSeed, skPrf, pkSeed, pkRoot, msgPrefix, message, optRand);
+        return SLHDSAEngine.internalGenerateSignature(privKey.getParameters(), skSeed, skPrf, pkSeed, pkRoot, msgPrefix, message, optRand,
+            executor, parallelism);
     }
 
     // Equivalent to slh_verify_internal from specs
@@ -138,6 +179,7 @@ public class SLHDSASigner
     
     protected byte[] internalGenerateSignature(byte[] message, byte[] optRand)
     {
-        return SLHDSAEngine.internalGenerateSignature(privKey.getParameters(), skSeed, skPrf, pkSeed, pkRoot, null, message, optRand);
+        return SLHDSAEngine.internalGenerateSignature(privKey.getParameters(), skSeed, skPrf, pkSeed, pkRoot, null, message, optRand,
+            executor, parallelism);
     }
 }
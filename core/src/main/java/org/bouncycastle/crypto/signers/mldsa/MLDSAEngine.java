@@ -394,21 +394,27 @@ public class MLDSAEngine
 
     public byte[] generateSignature(byte[] mu, SHAKEDigest shake256Digest, byte[] rho, byte[] key, byte[] t0Enc, byte[] s1Enc, byte[] s2Enc, byte[] rnd)
     {
-        byte[] outSig = new byte[CryptoBytes];
-        byte[] rhoPrime = new byte[CrhBytes];
-        short nonce = 0;
-        PolyVec s1 = new PolyVec(this, DilithiumL), y = new PolyVec(this, DilithiumL), z = new PolyVec(this, DilithiumL);
-        PolyVec t0 = new PolyVec(this, DilithiumK), s2 = new PolyVec(this, DilithiumK), w1 = new PolyVec(this, DilithiumK), w0 = new PolyVec(this, DilithiumK), h = new PolyVec(this, DilithiumK);
-        Poly cp = new Poly(this);
+        PolyVec s1 = new PolyVec(this, DilithiumL);
+        PolyVec t0 = new PolyVec(this, DilithiumK), s2 = new PolyVec(this, DilithiumK);
         PolyVecMatrix aMatrix = new PolyVecMatrix(this);
 
-        Packing.unpackSecretKey(t0, s1, s2, t0Enc, s1Enc, s2Enc, this);
+        expandPrivateKey(rho, t0Enc, s1Enc, s2Enc, aMatrix, s1, s2, t0);
 
-        byte[] keyMu = Arrays.copyOf(key, SeedBytes + RndBytes + CrhBytes);
-        System.arraycopy(rnd, 0, keyMu, SeedBytes, RndBytes);
-        System.arraycopy(mu, 0, keyMu, SeedBytes + RndBytes, CrhBytes);
-        shake256Digest.update(keyMu, 0, SeedBytes + RndBytes + CrhBytes);
-        shake256Digest.doFinal(rhoPrime, 0, CrhBytes);
+        return generateSignature(mu, shake256Digest, key, aMatrix, s1, s2, t0, rnd);
+    }
+
+    /**
+     * Sign using a precomputed key, skipping the matrix expansion and the forward NTTs of the
+     * secret vectors that the encoded key form performs on every call. The output is identical.
+     */
+    public byte[] generateSignature(byte[] mu, SHAKEDigest shake256Digest, MLDSAExpandedKey key, byte[] rnd)
+    {
+        return generateSignature(mu, shake256Digest, key.key, key.aMatrix, key.s1, key.s2, key.t0, rnd);
+    }
+
+    void expandPrivateKey(byte[] rho, byte[] t0Enc, byte[] s1Enc, byte[] s2Enc, PolyVecMatrix aMatrix, PolyVec s1, PolyVec s2, PolyVec t0)
+    {
+        Packing.unpackSecretKey(t0, s1, s2, t0Enc, s1Enc, s2Enc, this);
 
         aMatrix.expandMatrix(rho);
 
@@ -416,6 +422,23 @@ public class MLDSAEngine
         s2.polyVecNtt();
 
         t0.polyVecNtt();
+    }
+
+    // s1, s2, t0 and aMatrix are only read here, they may be shared by concurrent callers.
+    private byte[] generateSignature(byte[] mu, SHAKEDigest shake256Digest, byte[] key, PolyVecMatrix aMatrix, PolyVec s1, PolyVec s2, PolyVec t0, byte[] rnd)
+    {
+        byte[] outSig = new byte[CryptoBytes];
+        byte[] rhoPrime = new byte[CrhBytes];
+        short nonce = 0;
+        PolyVec y = new PolyVec(this, DilithiumL), z = new PolyVec(this, DilithiumL);
+        PolyVec w1 = new PolyVec(this, DilithiumK), w0 = new PolyVec(this, DilithiumK), h = new PolyVec(this, DilithiumK);
+        Poly cp = new Poly(this);
+
+        byte[] keyMu = Arrays.copyOf(key, SeedBytes + RndBytes + CrhBytes);
+        System.arraycopy(rnd, 0, keyMu, SeedBytes, RndBytes);
+        System.arraycopy(mu, 0, keyMu, SeedBytes + RndBytes, CrhBytes);
+        shake256Digest.update(keyMu, 0, SeedBytes + RndBytes + CrhBytes);
+        shake256Digest.doFinal(rhoPrime, 0, CrhBytes);
 
         int count = 0;
         while (count < 1000)
@@ -0,0 +1,69 @@
+package org.bouncycastle.crypto.signers.mldsa;
+
+import org.bouncycastle.crypto.params.MLDSAPrivateKeyParameters;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * The expanded form of an ML-DSA private key held by {@link org.bouncycastle.crypto.params.MLDSAPrecomputedKey}:
+ * the matrix A expanded from rho and the secret vectors s1, s2 and t0 in the NTT domain.
+ * <p>
+ * This is the engine's view of the key, exported so the signers can hand it to {@link MLDSAEngine}; applications
+ * should use {@link org.bouncycastle.crypto.params.MLDSAPrecomputedKey} rather than creating one directly.
+ * </p>
+ */
+public final class MLDSAExpandedKey
+{
+    final byte[] key;
+    final PolyVecMatrix aMatrix;
+    final PolyVec s1;
+    final PolyVec s2;
+    final PolyVec t0;
+
+    public MLDSAExpandedKey(MLDSAPrivateKeyParameters privateKey)
+    {
+        MLDSAEngine engine = MLDSAEngine.getInstance(privateKey.getParameters(), null);
+        int K = engine.getDilithiumK();
+        int L = engine.getDilithiumL();
+
+        this.key = privateKey.getK();
+        this.aMatrix = new PolyVecMatrix(engine);
+        this.s1 = new PolyVec(engine, L);
+        this.s2 = new PolyVec(engine, K);
+        this.t0 = new PolyVec(engine, K);
+
+        byte[] t0Enc = privateKey.getT0();
+        byte[] s1Enc = privateKey.getS1();
+        byte[] s2Enc = privateKey.getS2();
+
+        engine.expandPrivateKey(privateKey.getRho(), t0Enc, s1Enc, s2Enc, aMatrix, s1, s2, t0);
+
+        Arrays.clear(t0Enc);
+        Arrays.clear(s1Enc);
+        Arrays.clear(s2Enc);
+    }
+
+    /**
+     * Return the approximate number of bytes of key material held, not counting object headers.
+     *
+     * @return the size of the expanded values in bytes.
+     */
+    public int getMemorySize()
+    {
+        int K = s2.length();
+        int L = s1.length();
+
+        return (K * L + L + 2 * K) * MLDSAEngine.DilithiumN * 4 + key.length;
+    }
+
+    /**
+     * Zeroize the expanded key material.
+     */
+    public void clear()
+    {
+        aMatrix.clear();
+        s1.clear();
+        s2.clear();
+        t0.clear();
+        Arrays.clear(key);
+    }
+}
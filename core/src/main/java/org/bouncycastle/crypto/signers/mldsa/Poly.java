@@ -1,6 +1,9 @@
 package org.bouncycastle.crypto.signers.mldsa;
 
+import org.bouncycastle.crypto.ParallelXof;
+import org.bouncycastle.crypto.Xof;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.util.Arrays;
 
 class Poly
 {
@@ -45,6 +48,11 @@ class Poly
         this.coeffs = coeffs;
     }
 
+    void clear()
+    {
+        Arrays.clear(coeffs);
+    }
+
     public void uniformBlocks(byte[] seed, short nonce)
     {
         int i, ctr, off,
@@ -73,6 +81,53 @@ class Poly
 
     }
 
+    int getUniformBufferLength()
+    {
+        return polyUniformNBlocks * symmetric.stream128BlockBytes + 2;
+    }
+
+    /**
+     * Expand the first count polynomials together, lane l of the XOF is seeded with xofSeeds[l] which
+     * must hold the stream128 seed and nonce for polys[l].
+     */
+    static void uniformBlocks(ParallelXof xof, Poly[] polys, int count, byte[][] xofSeeds, byte[][] bufs, int[] ctr)
+    {
+        int blockBytes = xof.getBlockSize();
+        int buflen = polys[0].polyUniformNBlocks * blockBytes;
+
+        xof.absorb(xofSeeds, 0, xofSeeds[0].length);
+        xof.squeezeBlocks(bufs, 0, polys[0].polyUniformNBlocks);
+
+        boolean done = true;
+        for (int l = 0; l < count; l++)
+        {
+            ctr[l] = rejectUniform(polys[l], 0, DilithiumN, bufs[l], buflen);
+            done &= ctr[l] >= DilithiumN;
+        }
+
+        while (!done)
+        {
+            int off = buflen % 3;
+            for (int l = 0; l < bufs.length; l++)
+            {
+                System.arraycopy(bufs[l], buflen - off, bufs[l], 0, off);
+            }
+
+            xof.squeezeBlocks(bufs, off, 1);
+            buflen = blockBytes + off;
+
+            done = true;
+            for (int l = 0; l < count; l++)
+            {
+                if (ctr[l] < DilithiumN)
+                {
+                    ctr[l] += rejectUniform(polys[l], ctr[l], DilithiumN - ctr[l], bufs[l], buflen);
+                    done &= ctr[l] >= DilithiumN;
+                }
+            }
+        }
+    }
+
     private static int rejectUniform(Poly outputPoly, int coeffOff, int len, byte[] inpBuf, int buflen)
     {
         int[] outCoeffs = outputPoly.coeffs;
@@ -178,18 +233,12 @@ class Poly
 
     public void polyNtt()
     {
-        Ntt.ntt(this.coeffs);
+        PolyMath.ntt(this.coeffs);
     }
 
     public void pointwiseMontgomery(Poly v, Poly w)
     {
-        int[] thisCoeffs = this.coeffs;
-        int[] vCoeffs = v.coeffs;
-        int[] wCoeffs = w.coeffs;
-        for (int i = 0; i < DilithiumN; ++i)
-        {
-            thisCoeffs[i] = Reduce.montgomeryReduce((long)vCoeffs[i] * (long)wCoeffs[i]);
-        }
+        PolyMath.pointwiseMontgomery(this.coeffs, v.coeffs, w.coeffs);
     }
 
     public void pointwiseAccountMontgomery(PolyVec u, PolyVec v)
@@ -228,25 +277,17 @@ class Poly
 
     public void reduce()
     {
-        int[] thisCoeffs = this.coeffs;
-        for (int i = 0; i < DilithiumN; ++i)
-        {
-            thisCoeffs[i] = Reduce.reduce32(thisCoeffs[i]);
-        }
+        PolyMath.reduce32(this.coeffs);
     }
 
     public void invNttToMont()
     {
-        Ntt.invNttToMont(this.coeffs);
+        PolyMath.invNttToMont(this.coeffs);
     }
 
     public void conditionalAddQ()
     {
-        int[] thisCoeffs = this.coeffs;
-        for (int i = 0; i < DilithiumN; ++i)
-        {
-            thisCoeffs[i] = Reduce.conditionalAddQ(thisCoeffs[i]);
-        }
+        PolyMath.conditionalAddQ(this.coeffs);
     }
 
     public void power2Round(Poly a)
@@ -575,7 +616,7 @@ class Poly
         long signs;
         byte[] buf = new byte[symmetric.stream256BlockBytes];
 
-        SHAKEDigest shake256Digest = new SHAKEDigest(256);
+        Xof shake256Digest = SHAKEDigest.newInstance(256);
         shake256Digest.update(seed, seedOff, seedLen);
         shake256Digest.doOutput(buf, 0, symmetric.stream256BlockBytes);
 
@@ -88,6 +88,14 @@ class PolyVec
         }
     }
 
+    void clear()
+    {
+        for (int i = 0; i < vec.length; ++i)
+        {
+            vec[i].clear();
+        }
+    }
+
     public void addPolyVec(PolyVec b)
     {
         for (int i = 0; i < vec.length; ++i)
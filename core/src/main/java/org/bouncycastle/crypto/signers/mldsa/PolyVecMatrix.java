@@ -1,8 +1,12 @@
 package org.bouncycastle.crypto.signers.mldsa;
 
+import org.bouncycastle.crypto.ParallelXof;
+import org.bouncycastle.crypto.digests.SHAKEx4Digest;
+
 class PolyVecMatrix
 {
     private final PolyVec[] matrix;
+    private final int dilithiumL;
 
     /**
      * Matrix of K rows, each row a PolyVec of length L.
@@ -13,6 +17,7 @@ class PolyVecMatrix
     {
         int K = engine.getDilithiumK();
         int L = engine.getDilithiumL();
+        this.dilithiumL = L;
 
         this.matrix = new PolyVec[K];
         for (int i = 0; i < K; i++)
@@ -29,11 +34,44 @@ class PolyVecMatrix
         }
     }
 
-    public void expandMatrix(byte[] rho)
+    void clear()
     {
         for (int i = 0; i < matrix.length; ++i)
         {
-            matrix[i].uniformBlocks(rho, i << 8);
+            matrix[i].clear();
+        }
+    }
+
+    public void expandMatrix(byte[] rho)
+    {
+        int L = dilithiumL;
+        int entries = matrix.length * L;
+
+        ParallelXof xof = SHAKEx4Digest.newInstance(128);
+        int lanes = xof.getLaneCount();
+
+        byte[][] xofSeeds = new byte[lanes][rho.length + 2];
+        byte[][] bufs = new byte[lanes][matrix[0].getVectorIndex(0).getUniformBufferLength()];
+        Poly[] polys = new Poly[lanes];
+        int[] ctr = new int[lanes];
+
+        // Entries are expanded four at a time, unused lanes of the last group repeat its final entry.
+        for (int base = 0; base < entries; base += lanes)
+        {
+            int count = Math.min(lanes, entries - base);
+            for (int l = 0; l < lanes; l++)
+            {
+                int e = base + Math.min(l, count - 1);
+                int i = e / L, j = e % L;
+                int nonce = (i << 8) + j;
+
+                System.arraycopy(rho, 0, xofSeeds[l], 0, rho.length);
+                xofSeeds[l][rho.length] = (byte)nonce;
+                xofSeeds[l][rho.length + 1] = (byte)(nonce >> 8);
+                polys[l] = matrix[i].getVectorIndex(j);
+            }
+
+            Poly.uniformBlocks(xof, polys, count, xofSeeds, bufs, ctr);
         }
     }
 }
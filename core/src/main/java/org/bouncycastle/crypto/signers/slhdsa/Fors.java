@@ -26,19 +26,43 @@ class Fors
         LinkedList<NodeEntry> stack = new LinkedList<NodeEntry>();
         ADRS adrs = new ADRS(adrsParam);
 
+        // leaves are computed SLHDSAEngine.LANES at a time, then merged in order
+        int lanes = SLHDSAEngine.LANES;
+        ADRS[] leafAdrs = new ADRS[lanes];
+        byte[][] leaves = new byte[lanes][];
+        for (int l = 0; l < lanes; l++)
+        {
+            leafAdrs[l] = new ADRS(adrsParam);
+        }
+
         for (int idx = 0; idx < (1 << z); idx++)
         {
-            adrs.setTypeAndClear(ADRS.FORS_PRF);
-            adrs.setKeyPairAddress(adrsParam.getKeyPairAddress());
-            adrs.setTreeHeight(0);
-            adrs.setTreeIndex(s + idx);
+            int lane = idx % lanes;
+            if (lane == 0)
+            {
+                int count = Math.min(lanes, (1 << z) - idx);
+                for (int l = 0; l < count; l++)
+                {
+                    leafAdrs[l].setTypeAndClear(ADRS.FORS_PRF);
+                    leafAdrs[l].setKeyPairAddress(adrsParam.getKeyPairAddress());
+                    leafAdrs[l].setTreeHeight(0);
+                    leafAdrs[l].setTreeIndex(s + idx + l);
+                }
 
-            byte[] sk = engine.PRF(pkSeed, skSeed, adrs);
+                engine.PRF(pkSeed, skSeed, leafAdrs, leaves, count);
 
-            adrs.changeType(ADRS.FORS_TREE);
+                for (int l = 0; l < count; l++)
+                {
+                    leafAdrs[l].changeType(ADRS.FORS_TREE);
+                }
+
+                engine.F(pkSeed, leafAdrs, leaves, count);
+            }
 
-            byte[] node = engine.F(pkSeed, adrs, sk);
+            byte[] node = leaves[lane];
 
+            adrs.setTypeAndClear(ADRS.FORS_TREE);
+            adrs.setKeyPairAddress(adrsParam.getKeyPairAddress());
             adrs.setTreeHeight(1);
 
             int adrsTreeHeight = 1;
@@ -64,6 +88,12 @@ class Fors
     }
 
     public SIG_FORS[] sign(byte[] md, byte[] skSeed, byte[] pkSeed, ADRS paramAdrs)
+    {
+        return sign(md, skSeed, pkSeed, paramAdrs, null);
+    }
+
+    // authPaths, if not null, holds the authentication path of each tree computed in advance
+    SIG_FORS[] sign(byte[] md, byte[] skSeed, byte[] pkSeed, ADRS paramAdrs, byte[][][] authPaths)
     {
         ADRS adrs = new ADRS(paramAdrs);
 
@@ -86,12 +116,16 @@ class Fors
 
             adrs.changeType(ADRS.FORS_TREE);
 
-            byte[][] authPath = new byte[engine.A][];
-// compute auth path
-            for (int j = 0; j < engine.A; j++)
+            byte[][] authPath = authPaths == null ? null : authPaths[i];
+            if (authPath == null)
             {
-                int s = (idx >>> j) ^ 1;
-                authPath[j] = treehash(skSeed, (i << engine.A) + (s << j), j, pkSeed, adrs);
+                authPath = new byte[engine.A][];
+// compute auth path
+                for (int j = 0; j < engine.A; j++)
+                {
+                    int s = (idx >>> j) ^ 1;
+                    authPath[j] = treehash(skSeed, (i << engine.A) + (s << j), j, pkSeed, adrs);
+                }
             }
             sig_fors[i] = new SIG_FORS(sk, authPath);
         }
@@ -11,8 +11,6 @@ class HT
     SLHDSAEngine engine;
     WotsPlus wots;
 
-    final byte[] htPubKey;
-
     public HT(SLHDSAEngine engine, byte[] skSeed, byte[] pkSeed)
     {
         this.skSeed = skSeed;
@@ -20,22 +18,25 @@ class HT
 
         this.engine = engine;
         this.wots = new WotsPlus(engine);
+    }
 
+    // Output: root of the top layer XMSS tree, the hypertree public key
+    byte[] pkGen()
+    {
         ADRS adrs = new ADRS();
         adrs.setLayerAddress(engine.D - 1);
         adrs.setTreeAddress(0);
 
-        if (skSeed != null)
-        {
-            htPubKey = xmss_PKgen(skSeed, pkSeed, adrs);
-        }
-        else
-        {
-            htPubKey = null;
-        }
+        return xmss_PKgen(skSeed, pkSeed, adrs);
     }
 
     byte[] sign(byte[] M, long idx_tree, int idx_leaf)
+    {
+        return sign(M, idx_tree, idx_leaf, null);
+    }
+
+    // auth, if not null, holds the authentication path of each layer computed in advance
+    byte[] sign(byte[] M, long idx_tree, int idx_leaf, byte[][][] auth)
     {
         // init
         ADRS adrs = new ADRS();
@@ -43,7 +44,7 @@ class HT
        // adrs.setType(ADRS.TREE);
         adrs.setLayerAddress(0);
         adrs.setTreeAddress(idx_tree);
-        SIG_XMSS SIG_tmp = xmss_sign(M, skSeed, idx_leaf, pkSeed, adrs);
+        SIG_XMSS SIG_tmp = xmss_sign(M, skSeed, idx_leaf, pkSeed, adrs, auth == null ? null : auth[0]);
         SIG_XMSS[] SIG_HT = new SIG_XMSS[engine.D];
         SIG_HT[0] = SIG_tmp;
 
@@ -58,7 +59,7 @@ class HT
             idx_tree >>>= engine.H_PRIME; // most significant bits of idx_tree;
             adrs.setLayerAddress(j);
             adrs.setTreeAddress(idx_tree);
-            SIG_tmp = xmss_sign(root, skSeed, idx_leaf, pkSeed, adrs);
+            SIG_tmp = xmss_sign(root, skSeed, idx_leaf, pkSeed, adrs, auth == null ? null : auth[j]);
             SIG_HT[j] = SIG_tmp;
             if (j < engine.D - 1)
             {
@@ -119,21 +120,26 @@ class HT
     //    # Input: n-byte message M, secret seed SK.seed, index idx, public seed PK.seed,
     //    address ADRS
     //    # Output: XMSS signature SIG_XMSS = (sig || AUTH)
-    SIG_XMSS xmss_sign(byte[] M, byte[] skSeed, int idx, byte[] pkSeed, ADRS paramAdrs)
+    SIG_XMSS xmss_sign(byte[] M, byte[] skSeed, int idx, byte[] pkSeed, ADRS paramAdrs, byte[][] AUTH)
     {
-        byte[][] AUTH = new byte[engine.H_PRIME][];
+        ADRS adrs;
 
-        ADRS adrs = new ADRS(paramAdrs);
+        if (AUTH == null)
+        {
+            AUTH = new byte[engine.H_PRIME][];
 
-        adrs.setTypeAndClear(ADRS.TREE);
-        adrs.setLayerAddress(paramAdrs.getLayerAddress());
-        adrs.setTreeAddress(paramAdrs.getTreeAddress());
+            adrs = new ADRS(paramAdrs);
 
-        // build authentication path
-        for (int j = 0; j < engine.H_PRIME; j++)
-        {
-            int k = (idx >>> j) ^ 1;
-            AUTH[j] = treehash(skSeed, k << j, j, pkSeed, adrs);
+            adrs.setTypeAndClear(ADRS.TREE);
+            adrs.setLayerAddress(paramAdrs.getLayerAddress());
+            adrs.setTreeAddress(paramAdrs.getTreeAddress());
+
+            // build authentication path
+            for (int j = 0; j < engine.H_PRIME; j++)
+            {
+                int k = (idx >>> j) ^ 1;
+                AUTH[j] = treehash(skSeed, k << j, j, pkSeed, adrs);
+            }
         }
         adrs = new ADRS(paramAdrs);
         adrs.setTypeAndClear(ADRS.WOTS_HASH);
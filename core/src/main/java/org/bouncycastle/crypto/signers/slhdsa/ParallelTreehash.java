@@ -0,0 +1,193 @@
+package org.bouncycastle.crypto.signers.slhdsa;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bouncycastle.crypto.params.SLHDSAParameters;
+
+/**
+ * A batch of independent FORS and XMSS treehash computations shared between the calling thread and
+ * up to parallelism - 1 workers on an executor. Each thread works with its own engine, jobs are handed
+ * out largest first and every result is a pure function of its job, so the outcome does not depend
+ * on scheduling.
+ * <p>
+ * The calling thread takes jobs as well and only waits for jobs already started by a worker, so a
+ * saturated or shut down executor slows the computation down but cannot stall it.
+ */
+class ParallelTreehash
+{
+    private static final int FORS = 0;
+    private static final int XMSS = 1;
+
+    private final SLHDSAParameters params;
+    private final byte[] skSeed;
+    private final byte[] pkSeed;
+
+    private final int[] kind;
+    private final int[] start;
+    private final int[] height;
+    private final ADRS[] adrs;
+    private final byte[][] results;
+    private int count;
+
+    private int[] order;
+    private final AtomicInteger next = new AtomicInteger();
+    private int completed;
+    private Throwable failure;
+
+    ParallelTreehash(SLHDSAParameters params, byte[] skSeed, byte[] pkSeed, int capacity)
+    {
+        this.params = params;
+        this.skSeed = skSeed;
+        this.pkSeed = pkSeed;
+
+        this.kind = new int[capacity];
+        this.start = new int[capacity];
+        this.height = new int[capacity];
+        this.adrs = new ADRS[capacity];
+        this.results = new byte[capacity][];
+    }
+
+    int addFors(int s, int z, ADRS adrs)
+    {
+        return add(FORS, s, z, adrs);
+    }
+
+    int addXmss(int s, int z, ADRS adrs)
+    {
+        return add(XMSS, s, z, adrs);
+    }
+
+    byte[] get(int job)
+    {
+        return results[job];
+    }
+
+    void run(Executor executor, int parallelism)
+    {
+        order = new int[count];
+        int pos = 0;
+        for (int z = 31; z >= 0; z--)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                if (height[i] == z)
+                {
+                    order[pos++] = i;
+                }
+            }
+        }
+
+        Runnable worker = new Runnable()
+        {
+            public void run()
+            {
+                work();
+            }
+        };
+
+        int workers = Math.min(parallelism, count) - 1;
+        for (int i = 0; i < workers; i++)
+        {
+            try
+            {
+                executor.execute(worker);
+            }
+            catch (RejectedExecutionException e)
+            {
+                break;
+            }
+        }
+
+        work();
+
+        boolean interrupted = false;
+        synchronized (this)
+        {
+            while (completed < count)
+            {
+                try
+                {
+                    wait();
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure instanceof RuntimeException)
+        {
+            throw (RuntimeException)failure;
+        }
+        if (failure instanceof Error)
+        {
+            throw (Error)failure;
+        }
+    }
+
+    private int add(int type, int s, int z, ADRS jobAdrs)
+    {
+        kind[count] = type;
+        start[count] = s;
+        height[count] = z;
+        adrs[count] = new ADRS(jobAdrs);
+        return count++;
+    }
+
+    private void work()
+    {
+        Fors fors = null;
+        HT ht = null;
+
+        int i;
+        while ((i = next.getAndIncrement()) < count)
+        {
+            int job = order[i];
+            try
+            {
+                if (fors == null)
+                {
+                    SLHDSAEngine engine = params.getEngine();
+                    engine.init(pkSeed);
+
+                    fors = new Fors(engine);
+                    ht = new HT(engine, skSeed, pkSeed);
+                }
+
+                if (kind[job] == FORS)
+                {
+                    results[job] = fors.treehash(skSeed, start[job], height[job], pkSeed, adrs[job]);
+                }
+                else
+                {
+                    results[job] = ht.treehash(skSeed, start[job], height[job], pkSeed, adrs[job]);
+                }
+            }
+            catch (Throwable t)
+            {
+                synchronized (this)
+                {
+                    if (failure == null)
+                    {
+                        failure = t;
+                    }
+                }
+            }
+
+            synchronized (this)
+            {
+                if (++completed == count)
+                {
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
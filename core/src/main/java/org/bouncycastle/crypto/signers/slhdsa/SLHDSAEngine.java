@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.signers.slhdsa;
 
+import java.util.concurrent.Executor;
+
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
 import org.bouncycastle.crypto.Digest;
 import org.bouncycastle.crypto.Xof;
@@ -20,6 +22,11 @@ import org.bouncycastle.util.Pack;
 
 public abstract class SLHDSAEngine
 {
+    /**
+     * Number of independent hash calls grouped together by the multi-lane methods.
+     */
+    static final int LANES = 4;
+
     final int N;
 
     final int WOTS_W;
@@ -105,6 +112,45 @@ public abstract class SLHDSAEngine
 
     abstract byte[] PRF_msg(byte[] prf, byte[] randomiser, byte[] msgPrefix, byte[] msg);
 
+    /**
+     * Apply F to count independent inputs, m[i] is replaced by F(pkSeed, adrs[i], m[i]). Engines able to
+     * hash several lanes at once override this, the default simply loops.
+     */
+    void F(byte[] pkSeed, ADRS[] adrs, byte[][] m, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            m[i] = F(pkSeed, adrs[i], m[i]);
+        }
+    }
+
+    /**
+     * Compute count independent PRF values, out[i] is set to PRF(pkSeed, skSeed, adrs[i]).
+     */
+    void PRF(byte[] pkSeed, byte[] skSeed, ADRS[] adrs, byte[][] out, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            out[i] = PRF(pkSeed, skSeed, adrs[i]);
+        }
+    }
+
+    /**
+     * Advance count independent WOTS+ chains, x[i] is hashed steps[i] times using hash addresses
+     * starting at start[i]. The hash address of each adrs[i] is left undefined.
+     */
+    void chains(byte[] pkSeed, ADRS[] adrs, byte[][] x, int[] start, int[] steps, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            for (int j = 0; j < steps[i]; j++)
+            {
+                adrs[i].setHashAddress(start[i] + j);
+                x[i] = F(pkSeed, adrs[i], x[i]);
+            }
+        }
+    }
+
     public static class Sha2Engine
         extends SLHDSAEngine
     {
@@ -462,9 +508,11 @@ public abstract class SLHDSAEngine
 
         engine.init(pkSeed);
 
+        byte[] htPubKey = new HT(engine, skSeed, pkSeed).pkGen();
+
         return new AsymmetricCipherKeyPair(
-            new SLHDSAPublicKeyParameters(params, Arrays.concatenate(pkSeed, new HT(engine, skSeed, pkSeed).htPubKey)),
-            new SLHDSAPrivateKeyParameters(params, skSeed, skPrf, pkSeed, new HT(engine, skSeed, pkSeed).htPubKey));
+            new SLHDSAPublicKeyParameters(params, Arrays.concatenate(pkSeed, htPubKey)),
+            new SLHDSAPrivateKeyParameters(params, skSeed, skPrf, pkSeed, htPubKey));
     }
 
     public static boolean internalVerifySignature(SLHDSAParameters params, byte[] pkSeed, byte[] pkRoot, byte[] msgPrefix, byte[] msg,
@@ -516,6 +564,19 @@ public abstract class SLHDSAEngine
 
     public static byte[] internalGenerateSignature(SLHDSAParameters params, byte[] skSeed, byte[] skPrf, byte[] pkSeed, byte[] pkRoot, byte[] msgPrefix, byte[] msg,
         byte[] optRand)
+    {
+        return internalGenerateSignature(params, skSeed, skPrf, pkSeed, pkRoot, msgPrefix, msg, optRand, null, 1);
+    }
+
+    /**
+     * Generate a signature, computing the FORS and XMSS authentication paths on up to parallelism threads
+     * when an executor is given. The signature is identical to the one produced sequentially.
+     *
+     * @param executor    executor to run the authentication path computations on, null to sign on the calling thread.
+     * @param parallelism the number of threads to use including the calling thread.
+     */
+    public static byte[] internalGenerateSignature(SLHDSAParameters params, byte[] skSeed, byte[] skPrf, byte[] pkSeed, byte[] pkRoot, byte[] msgPrefix, byte[] msg,
+        byte[] optRand, Executor executor, int parallelism)
     {
         // TODO Check init via privKey != null
 
@@ -529,12 +590,22 @@ public abstract class SLHDSAEngine
         byte[] mHash = idxDigest.digest;
         long idx_tree = idxDigest.idx_tree;
         int idx_leaf = idxDigest.idx_leaf;
+
+        byte[][][] forsAuth = null;
+        byte[][][] htAuth = null;
+        if (executor != null && parallelism > 1)
+        {
+            forsAuth = new byte[engine.K][engine.A][];
+            htAuth = new byte[engine.D][engine.H_PRIME][];
+            computeAuthPaths(params, engine, skSeed, pkSeed, mHash, idx_tree, idx_leaf, forsAuth, htAuth, executor, parallelism);
+        }
+
         // FORS sign
         ADRS adrs = new ADRS();
         adrs.setTypeAndClear(ADRS.FORS_TREE);
         adrs.setTreeAddress(idx_tree);
         adrs.setKeyPairAddress(idx_leaf);
-        SIG_FORS[] sig_fors = fors.sign(mHash, skSeed, pkSeed, adrs);
+        SIG_FORS[] sig_fors = fors.sign(mHash, skSeed, pkSeed, adrs, forsAuth);
         // get FORS public key - spec shows M?
         adrs = new ADRS();
         adrs.setTypeAndClear(ADRS.FORS_TREE);
@@ -547,7 +618,7 @@ public abstract class SLHDSAEngine
         treeAdrs.setTypeAndClear(ADRS.TREE);
 
         HT ht = new HT(engine, skSeed, pkSeed);
-        byte[] SIG_HT = ht.sign(PK_FORS, idx_tree, idx_leaf);
+        byte[] SIG_HT = ht.sign(PK_FORS, idx_tree, idx_leaf, htAuth);
 
         byte[][] sigComponents = new byte[sig_fors.length + 2][];
         sigComponents[0] = R;
@@ -560,4 +631,61 @@ public abstract class SLHDSAEngine
 
         return Arrays.concatenate(sigComponents);
     }
+
+    // Every node of a FORS or XMSS authentication path depends only on the key and the tree indices,
+    // so all of them can be computed concurrently before the sequential signing pass.
+    private static void computeAuthPaths(SLHDSAParameters params, SLHDSAEngine engine, byte[] skSeed, byte[] pkSeed,
+        byte[] mHash, long idx_tree, int idx_leaf, byte[][][] forsAuth, byte[][][] htAuth, Executor executor, int parallelism)
+    {
+        ParallelTreehash jobs = new ParallelTreehash(params, skSeed, pkSeed, engine.K * engine.A + engine.D * engine.H_PRIME);
+        int[][] forsJobs = new int[engine.K][engine.A];
+        int[][] htJobs = new int[engine.D][engine.H_PRIME];
+
+        int[] idxs = Fors.base2B(mHash, engine.A, engine.K);
+        ADRS adrs = new ADRS();
+        adrs.setTypeAndClear(ADRS.FORS_TREE);
+        adrs.setTreeAddress(idx_tree);
+        adrs.setKeyPairAddress(idx_leaf);
+        for (int i = 0; i < engine.K; i++)
+        {
+            for (int j = 0; j < engine.A; j++)
+            {
+                int s = (idxs[i] >>> j) ^ 1;
+                forsJobs[i][j] = jobs.addFors((i << engine.A) + (s << j), j, adrs);
+            }
+        }
+
+        for (int layer = 0; layer < engine.D; layer++)
+        {
+            adrs = new ADRS();
+            adrs.setLayerAddress(layer);
+            adrs.setTreeAddress(idx_tree);
+            adrs.setTypeAndClear(ADRS.TREE);
+            for (int j = 0; j < engine.H_PRIME; j++)
+            {
+                int k = (idx_leaf >>> j) ^ 1;
+                htJobs[layer][j] = jobs.addXmss(k << j, j, adrs);
+            }
+
+            idx_leaf = (int)(idx_tree & ((1 << engine.H_PRIME) - 1));
+            idx_tree >>>= engine.H_PRIME;
+        }
+
+        jobs.run(executor, parallelism);
+
+        for (int i = 0; i < engine.K; i++)
+        {
+            for (int j = 0; j < engine.A; j++)
+            {
+                forsAuth[i][j] = jobs.get(forsJobs[i][j]);
+            }
+        }
+        for (int layer = 0; layer < engine.D; layer++)
+        {
+            for (int j = 0; j < engine.H_PRIME; j++)
+            {
+                htAuth[layer][j] = jobs.get(htJobs[layer][j]);
+            }
+        }
+    }
 }
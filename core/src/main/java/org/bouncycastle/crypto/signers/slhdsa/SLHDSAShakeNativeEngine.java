@@ -0,0 +1,139 @@
+package org.bouncycastle.crypto.signers.slhdsa;
+
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.NativeServices;
+
+/**
+ * SHAKE based SLH-DSA engine which hashes four WOTS+ chains or FORS leaves at a time using the native
+ * parallel Keccak permutation. Single hash calls are left to the Java engine.
+ */
+public class SLHDSAShakeNativeEngine
+    extends SLHDSAEngine.Shake256Engine
+{
+    private static final int ADRS_LEN = 32;
+
+    private final byte[] adrsBuf = new byte[LANES * ADRS_LEN];
+    private final byte[] inBuf;
+    private final byte[] outBuf;
+    private final int[] startBuf = new int[LANES];
+    private final int[] stepsBuf = new int[LANES];
+
+    public SLHDSAShakeNativeEngine(int n, int w, int d, int a, int k, int h)
+    {
+        super(n, w, d, a, k, h);
+
+        if (!CryptoServicesRegistrar.hasEnabledService(NativeServices.SLHDSA_SHAKE))
+        {
+            throw new IllegalStateException("no native SLH-DSA SHAKE support");
+        }
+
+        this.inBuf = new byte[LANES * n];
+        this.outBuf = new byte[LANES * n];
+    }
+
+    void F(byte[] pkSeed, ADRS[] adrs, byte[][] m, int count)
+    {
+        if (count < 2)
+        {
+            super.F(pkSeed, adrs, m, count);
+            return;
+        }
+
+        for (int l = 0; l < LANES; l++)
+        {
+            int i = Math.min(l, count - 1);
+            System.arraycopy(adrs[i].value, 0, adrsBuf, l * ADRS_LEN, ADRS_LEN);
+            System.arraycopy(m[i], 0, inBuf, l * N, N);
+        }
+
+        thashX4(outBuf, N, pkSeed, adrsBuf, inBuf);
+
+        for (int l = 0; l < count; l++)
+        {
+            m[l] = new byte[N];
+            System.arraycopy(outBuf, l * N, m[l], 0, N);
+        }
+    }
+
+    void PRF(byte[] pkSeed, byte[] skSeed, ADRS[] adrs, byte[][] out, int count)
+    {
+        if (count < 2)
+        {
+            super.PRF(pkSeed, skSeed, adrs, out, count);
+            return;
+        }
+
+        for (int l = 0; l < LANES; l++)
+        {
+            int i = Math.min(l, count - 1);
+            System.arraycopy(adrs[i].value, 0, adrsBuf, l * ADRS_LEN, ADRS_LEN);
+            System.arraycopy(skSeed, 0, inBuf, l * N, N);
+        }
+
+        thashX4(outBuf, N, pkSeed, adrsBuf, inBuf);
+
+        for (int l = 0; l < count; l++)
+        {
+            out[l] = new byte[N];
+            System.arraycopy(outBuf, l * N, out[l], 0, N);
+        }
+    }
+
+    void chains(byte[] pkSeed, ADRS[] adrs, byte[][] x, int[] start, int[] steps, int count)
+    {
+        if (count < 2)
+        {
+            super.chains(pkSeed, adrs, x, start, steps, count);
+            return;
+        }
+
+        for (int l = 0; l < LANES; l++)
+        {
+            if (l < count)
+            {
+                System.arraycopy(adrs[l].value, 0, adrsBuf, l * ADRS_LEN, ADRS_LEN);
+                System.arraycopy(x[l], 0, inBuf, l * N, N);
+                startBuf[l] = start[l];
+                stepsBuf[l] = steps[l];
+            }
+            else
+            {
+                // idle lane, hashed along with the others but never advanced
+                startBuf[l] = 0;
+                stepsBuf[l] = 0;
+            }
+        }
+
+        chainsX4(inBuf, N, pkSeed, adrsBuf, startBuf, stepsBuf);
+
+        for (int l = 0; l < count; l++)
+        {
+            x[l] = new byte[N];
+            System.arraycopy(inBuf, l * N, x[l], 0, N);
+        }
+    }
+
+    /**
+     * Compute SHAKE256(pkSeed || adrs[i] || in[i]) truncated to n bytes for four lanes.
+     *
+     * @param out    4 * n bytes of output.
+     * @param n      the security parameter, 16, 24 or 32.
+     * @param pkSeed the public seed, n bytes.
+     * @param adrs   4 * 32 bytes of addresses.
+     * @param in     4 * n bytes of input.
+     */
+    static native void thashX4(byte[] out, int n, byte[] pkSeed, byte[] adrs, byte[] in);
+
+    /**
+     * Advance four WOTS+ chains in place, lane i is hashed steps[i] times with hash addresses starting
+     * at start[i].
+     *
+     * @param x      4 * n bytes of chain values, updated in place.
+     * @param n      the security parameter, 16, 24 or 32.
+     * @param pkSeed the public seed, n bytes.
+     * @param adrs   4 * 32 bytes of addresses, the hash address field is overwritten.
+     * @param start  the starting hash address of each lane.
+     * @param steps  the number of steps for each lane.
+     */
+    static native void chainsX4(byte[] x, int n, byte[] pkSeed, byte[] adrs, int[] start, int[] steps);
+}
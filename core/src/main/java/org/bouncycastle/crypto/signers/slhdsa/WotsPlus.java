@@ -19,29 +19,83 @@ class WotsPlus
         ADRS wotspkADRS = new ADRS(paramAdrs); // copy address to create OTS public key address
 
         byte[][] tmp = new byte[engine.WOTS_LEN][];
+        int[] msg = new int[engine.WOTS_LEN];
         for (int i = 0; i < engine.WOTS_LEN; i++)
         {
-            ADRS adrs = new ADRS(paramAdrs);
-            adrs.setTypeAndClear(ADRS.WOTS_PRF);
-            adrs.setKeyPairAddress(paramAdrs.getKeyPairAddress());
-            adrs.setChainAddress(i);
-            adrs.setHashAddress(0);
-
-            byte[] sk = engine.PRF(pkSeed, skSeed, adrs);
-
-            adrs.setTypeAndClear(ADRS.WOTS_HASH);
-            adrs.setKeyPairAddress(paramAdrs.getKeyPairAddress());
-            adrs.setChainAddress(i);
-            adrs.setHashAddress(0);
-            tmp[i] = chain(sk, 0, w - 1, pkSeed, adrs);
+            msg[i] = w - 1;
         }
 
+        chains(skSeed, pkSeed, paramAdrs, null, msg, tmp);
+
         wotspkADRS.setTypeAndClear(ADRS.WOTS_PK);
         wotspkADRS.setKeyPairAddress(paramAdrs.getKeyPairAddress());
 
         return engine.T_l(pkSeed, wotspkADRS, Arrays.concatenate(tmp));
     }
 
+    /**
+     * Compute every chain of a WOTS+ key, SLHDSAEngine.LANES chains at a time. If sig is null each chain
+     * starts from its secret value and is advanced steps[i] times, otherwise it starts from the signature
+     * element at position steps[i] and is advanced to the end.
+     */
+    private void chains(byte[] skSeed, byte[] pkSeed, ADRS paramAdrs, byte[] sig, int[] msg, byte[][] out)
+    {
+        int lanes = SLHDSAEngine.LANES;
+        ADRS[] adrs = new ADRS[lanes];
+        byte[][] x = new byte[lanes][];
+        int[] start = new int[lanes];
+        int[] steps = new int[lanes];
+
+        for (int l = 0; l < lanes; l++)
+        {
+            adrs[l] = new ADRS(paramAdrs);
+        }
+
+        for (int base = 0; base < engine.WOTS_LEN; base += lanes)
+        {
+            int count = Math.min(lanes, engine.WOTS_LEN - base);
+
+            if (sig == null)
+            {
+                for (int l = 0; l < count; l++)
+                {
+                    adrs[l].setTypeAndClear(ADRS.WOTS_PRF);
+                    adrs[l].setKeyPairAddress(paramAdrs.getKeyPairAddress());
+                    adrs[l].setChainAddress(base + l);
+                    adrs[l].setHashAddress(0);
+                }
+
+                engine.PRF(pkSeed, skSeed, adrs, x, count);
+            }
+
+            for (int l = 0; l < count; l++)
+            {
+                int i = base + l;
+
+                adrs[l].setTypeAndClear(ADRS.WOTS_HASH);
+                adrs[l].setKeyPairAddress(paramAdrs.getKeyPairAddress());
+                adrs[l].setChainAddress(i);
+                adrs[l].setHashAddress(0);
+
+                if (sig == null)
+                {
+                    start[l] = 0;
+                    steps[l] = msg[i];
+                }
+                else
+                {
+                    x[l] = Arrays.copyOfRange(sig, i * engine.N, (i + 1) * engine.N);
+                    start[l] = msg[i];
+                    steps[l] = w - 1 - msg[i];
+                }
+            }
+
+            engine.chains(pkSeed, adrs, x, start, steps, count);
+
+            System.arraycopy(x, 0, out, base, count);
+        }
+    }
+
     // #Input: Input string X, start index i, number of steps s, public seed PK.seed, address ADRS
     // #Output: value of F iterated s times on X
     byte[] chain(byte[] X, int i, int s, byte[] pkSeed, ADRS adrs)
@@ -91,19 +145,9 @@ class WotsPlus
         base_w(csum_bytes, 4 - len_2_bytes, w, msg, engine.WOTS_LEN1, engine.WOTS_LEN2);
 
         byte[][] sig = new byte[engine.WOTS_LEN][];
-        for (int i = 0; i < engine.WOTS_LEN; i++)
-        {
-            adrs.setTypeAndClear(ADRS.WOTS_PRF);
-            adrs.setKeyPairAddress(paramAdrs.getKeyPairAddress());
-            adrs.setChainAddress(i);
-            adrs.setHashAddress(0);
-            byte[] sk = engine.PRF(pkSeed, skSeed, adrs);
-            adrs.setTypeAndClear(ADRS.WOTS_HASH);
-            adrs.setKeyPairAddress(paramAdrs.getKeyPairAddress());
-            adrs.setChainAddress(i);
-            adrs.setHashAddress(0);
-            sig[i] = chain(sk, 0, msg[i], pkSeed, adrs);
-        }
+
+        chains(skSeed, pkSeed, adrs, null, msg, sig);
+
         return Arrays.concatenate(sig);
     }
 
@@ -149,14 +193,9 @@ class WotsPlus
         byte[] csum_bytes = Pack.intToBigEndian(csum);
         base_w(csum_bytes, 4 - len_2_bytes, w, msg, engine.WOTS_LEN1, engine.WOTS_LEN2);
 
-        byte[] sigI = new byte[engine.N];
         byte[][] tmp = new byte[engine.WOTS_LEN][];
-        for (int  i = 0; i < engine.WOTS_LEN; i++ )
-        {
-            adrs.setChainAddress(i);
-            System.arraycopy(sig, i * engine.N, sigI, 0, engine.N);
-            tmp[i] = chain(sigI, msg[i], w - 1 - msg[i], pkSeed, adrs);
-        }
+
+        chains(null, pkSeed, adrs, sig, msg, tmp);
 
         wotspkADRS.setTypeAndClear(ADRS.WOTS_PK);
         wotspkADRS.setKeyPairAddress(adrs.getKeyPairAddress());
@@ -0,0 +1,205 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.raw.Nat256;
+
+class SecP256R1Multiplier
+    extends SecPR1Multiplier
+{
+    static final SecP256R1Multiplier INSTANCE = new SecP256R1Multiplier();
+
+    private static final long M = 0xFFFFFFFFL;
+
+    private SecP256R1Multiplier()
+    {
+        super(8, SecP256R1Field.P, new SecP256R1Curve(),
+            "6B17D1F2E12C4247F8BCE6E563A440F277037D812DEB33A0F4A13945D898C296",
+            "4FE342E2FE1A7F9B8EE7EB4A7C0F9E162BCE33576B315ECECBB6406837BF51F5");
+    }
+
+    ECPoint createPoint(ECCurve c, int[] x, int[] y)
+    {
+        return new SecP256R1Point(c, new SecP256R1FieldElement(x), new SecP256R1FieldElement(y));
+    }
+
+    void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat256.add(x, y, z);
+        c += subPFrom(z);
+        caddPTo(c, z);
+    }
+
+    void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat256.sub(x, y, z);
+        caddPTo(c, z);
+    }
+
+    void multiply(int[] x, int[] y, int[] z, int[] tt)
+    {
+        Nat256.mul(x, y, tt);
+        reduce(tt, z);
+    }
+
+    void square(int[] x, int[] z, int[] tt)
+    {
+        Nat256.square(x, tt);
+        reduce(tt, z);
+    }
+
+    /*
+     * As SecP256R1Field.reduce, but without branches on the value being reduced.
+     */
+    private static void reduce(int[] xx, int[] z)
+    {
+        long xx08 = xx[8] & M, xx09 = xx[9] & M, xx10 = xx[10] & M, xx11 = xx[11] & M;
+        long xx12 = xx[12] & M, xx13 = xx[13] & M, xx14 = xx[14] & M, xx15 = xx[15] & M;
+
+        final long n = 6;
+
+        xx08 -= n;
+
+        long t0 = xx08 + xx09;
+        long t1 = xx09 + xx10;
+        long t2 = xx10 + xx11 - xx15;
+        long t3 = xx11 + xx12;
+        long t4 = xx12 + xx13;
+        long t5 = xx13 + xx14;
+        long t6 = xx14 + xx15;
+        long t7 = t5 - t0;
+
+        long cc = 0;
+        cc += (xx[0] & M) - t3 - t7;
+        z[0] = (int)cc;
+        cc >>= 32;
+        cc += (xx[1] & M) + t1 - t4 - t6;
+        z[1] = (int)cc;
+        cc >>= 32;
+        cc += (xx[2] & M) + t2 - t5;
+        z[2] = (int)cc;
+        cc >>= 32;
+        cc += (xx[3] & M) + (t3 << 1) + t7 - t6;
+        z[3] = (int)cc;
+        cc >>= 32;
+        cc += (xx[4] & M) + (t4 << 1) + xx14 - t1;
+        z[4] = (int)cc;
+        cc >>= 32;
+        cc += (xx[5] & M) + (t5 << 1) - t2;
+        z[5] = (int)cc;
+        cc >>= 32;
+        cc += (xx[6] & M) + (t6 << 1) + t7;
+        z[6] = (int)cc;
+        cc >>= 32;
+        cc += (xx[7] & M) + (xx15 << 1) + xx08 - t2 - t4;
+        z[7] = (int)cc;
+        cc >>= 32;
+        cc += n;
+
+//        assert cc >= 0;
+
+        reduce32((int)cc, z);
+    }
+
+    private static void reduce32(int x, int[] z)
+    {
+        long xx08 = x & M;
+
+        long cc = 0;
+        cc += (z[0] & M) + xx08;
+        z[0] = (int)cc;
+        cc >>= 32;
+        cc += (z[1] & M);
+        z[1] = (int)cc;
+        cc >>= 32;
+        cc += (z[2] & M);
+        z[2] = (int)cc;
+        cc >>= 32;
+        cc += (z[3] & M) - xx08;
+        z[3] = (int)cc;
+        cc >>= 32;
+        cc += (z[4] & M);
+        z[4] = (int)cc;
+        cc >>= 32;
+        cc += (z[5] & M);
+        z[5] = (int)cc;
+        cc >>= 32;
+        cc += (z[6] & M) - xx08;
+        z[6] = (int)cc;
+        cc >>= 32;
+        cc += (z[7] & M) + xx08;
+        z[7] = (int)cc;
+        cc >>= 32;
+
+//        assert cc == 0 || cc == 1;
+
+        int c = (int)cc + subPFrom(z);
+        caddPTo(c, z);
+    }
+
+    /*
+     * z += P if mask is -1 (mask must be 0 or -1).
+     */
+    private static void caddPTo(int mask, int[] z)
+    {
+        long m = mask & M;
+
+        long c = 0;
+        c += (z[0] & M) + m;
+        z[0] = (int)c;
+        c >>>= 32;
+        c += (z[1] & M) + m;
+        z[1] = (int)c;
+        c >>>= 32;
+        c += (z[2] & M) + m;
+        z[2] = (int)c;
+        c >>>= 32;
+        c += (z[3] & M);
+        z[3] = (int)c;
+        c >>>= 32;
+        c += (z[4] & M);
+        z[4] = (int)c;
+        c >>>= 32;
+        c += (z[5] & M);
+        z[5] = (int)c;
+        c >>>= 32;
+        c += (z[6] & M) + (m & 1);
+        z[6] = (int)c;
+        c >>>= 32;
+        c += (z[7] & M) + m;
+        z[7] = (int)c;
+    }
+
+    /*
+     * z -= P, returning the borrow (0 or -1).
+     */
+    private static int subPFrom(int[] z)
+    {
+        long c = 0;
+        c += (z[0] & M) - M;
+        z[0] = (int)c;
+        c >>= 32;
+        c += (z[1] & M) - M;
+        z[1] = (int)c;
+        c >>= 32;
+        c += (z[2] & M) - M;
+        z[2] = (int)c;
+        c >>= 32;
+        c += (z[3] & M);
+        z[3] = (int)c;
+        c >>= 32;
+        c += (z[4] & M);
+        z[4] = (int)c;
+        c >>= 32;
+        c += (z[5] & M);
+        z[5] = (int)c;
+        c >>= 32;
+        c += (z[6] & M) - 1;
+        z[6] = (int)c;
+        c >>= 32;
+        c += (z[7] & M) - M;
+        z[7] = (int)c;
+        c >>= 32;
+        return (int)c;
+    }
+}
@@ -0,0 +1,207 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.raw.Nat;
+
+class SecP384R1Multiplier
+    extends SecPR1Multiplier
+{
+    static final SecP384R1Multiplier INSTANCE = new SecP384R1Multiplier();
+
+    private static final long M = 0xFFFFFFFFL;
+
+    private SecP384R1Multiplier()
+    {
+        super(12, SecP384R1Field.P, new SecP384R1Curve(),
+            "AA87CA22BE8B05378EB1C71EF320AD746E1D3B628BA79B9859F741E082542A385502F25DBF55296C3A545E3872760AB7",
+            "3617DE4A96262C6F5D9E98BF9292DC29F8F41DBD289A147CE9DA3113B5F0B8C00A60B1CE1D7E819D7A431D7C90EA0E5F");
+    }
+
+    ECPoint createPoint(ECCurve c, int[] x, int[] y)
+    {
+        return new SecP384R1Point(c, new SecP384R1FieldElement(x), new SecP384R1FieldElement(y));
+    }
+
+    void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(12, x, y, z);
+        c += subPFrom(z);
+        caddPTo(c, z);
+    }
+
+    void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(12, x, y, z);
+        caddPTo(c, z);
+    }
+
+    void multiply(int[] x, int[] y, int[] z, int[] tt)
+    {
+        Nat.mul(12, x, y, tt);
+        reduce(tt, z);
+    }
+
+    void square(int[] x, int[] z, int[] tt)
+    {
+        Nat.square(12, x, tt);
+        reduce(tt, z);
+    }
+
+    /*
+     * As SecP384R1Field.reduce, but without branches on the value being reduced.
+     */
+    private static void reduce(int[] xx, int[] z)
+    {
+        long xx16 = xx[16] & M, xx17 = xx[17] & M, xx18 = xx[18] & M, xx19 = xx[19] & M;
+        long xx20 = xx[20] & M, xx21 = xx[21] & M, xx22 = xx[22] & M, xx23 = xx[23] & M;
+
+        final long n = 1;
+
+        long t0 = (xx[12] & M) + xx20 - n;
+        long t1 = (xx[13] & M) + xx22;
+        long t2 = (xx[14] & M) + xx22 + xx23;
+        long t3 = (xx[15] & M) + xx23;
+        long t4 = xx17 + xx21;
+        long t5 = xx21 - xx23;
+        long t6 = xx22 - xx23;
+        long t7 = t0 + t5;
+
+        long cc = 0;
+        cc += (xx[0] & M) + t7;
+        z[0] = (int)cc;
+        cc >>= 32;
+        cc += (xx[1] & M) + xx23 - t0 + t1;
+        z[1] = (int)cc;
+        cc >>= 32;
+        cc += (xx[2] & M) - xx21 - t1 + t2;
+        z[2] = (int)cc;
+        cc >>= 32;
+        cc += (xx[3] & M) - t2 + t3 + t7;
+        z[3] = (int)cc;
+        cc >>= 32;
+        cc += (xx[4] & M) + xx16 + xx21 + t1 - t3 + t7;
+        z[4] = (int)cc;
+        cc >>= 32;
+        cc += (xx[5] & M) - xx16 + t1 + t2 + t4;
+        z[5] = (int)cc;
+        cc >>= 32;
+        cc += (xx[6] & M) + xx18 - xx17 + t2 + t3;
+        z[6] = (int)cc;
+        cc >>= 32;
+        cc += (xx[7] & M) + xx16 + xx19 - xx18 + t3;
+        z[7] = (int)cc;
+        cc >>= 32;
+        cc += (xx[8] & M) + xx16 + xx17 + xx20 - xx19;
+        z[8] = (int)cc;
+        cc >>= 32;
+        cc += (xx[9] & M) + xx18 - xx20 + t4;
+        z[9] = (int)cc;
+        cc >>= 32;
+        cc += (xx[10] & M) + xx18 + xx19 - t5 + t6;
+        z[10] = (int)cc;
+        cc >>= 32;
+        cc += (xx[11] & M) + xx19 + xx20 - t6;
+        z[11] = (int)cc;
+        cc >>= 32;
+        cc += n;
+
+//        assert cc >= 0;
+
+        reduce32((int)cc, z);
+    }
+
+    private static void reduce32(int x, int[] z)
+    {
+        long xx12 = x & M;
+
+        long cc = 0;
+        cc += (z[0] & M) + xx12;
+        z[0] = (int)cc;
+        cc >>= 32;
+        cc += (z[1] & M) - xx12;
+        z[1] = (int)cc;
+        cc >>= 32;
+        cc += (z[2] & M);
+        z[2] = (int)cc;
+        cc >>= 32;
+        cc += (z[3] & M) + xx12;
+        z[3] = (int)cc;
+        cc >>= 32;
+        cc += (z[4] & M) + xx12;
+        z[4] = (int)cc;
+        cc >>= 32;
+        for (int i = 5; i < 12; ++i)
+        {
+            cc += (z[i] & M);
+            z[i] = (int)cc;
+            cc >>= 32;
+        }
+
+//        assert cc == 0 || cc == 1;
+
+        int c = (int)cc + subPFrom(z);
+        caddPTo(c, z);
+    }
+
+    /*
+     * z += P if mask is -1 (mask must be 0 or -1).
+     */
+    private static void caddPTo(int mask, int[] z)
+    {
+        long m = mask & M;
+
+        long c = 0;
+        c += (z[0] & M) + m;
+        z[0] = (int)c;
+        c >>>= 32;
+        c += (z[1] & M);
+        z[1] = (int)c;
+        c >>>= 32;
+        c += (z[2] & M);
+        z[2] = (int)c;
+        c >>>= 32;
+        c += (z[3] & M) + m;
+        z[3] = (int)c;
+        c >>>= 32;
+        c += (z[4] & M) + (m & 0xFFFFFFFEL);
+        z[4] = (int)c;
+        c >>>= 32;
+        for (int i = 5; i < 12; ++i)
+        {
+            c += (z[i] & M) + m;
+            z[i] = (int)c;
+            c >>>= 32;
+        }
+    }
+
+    /*
+     * z -= P, returning the borrow (0 or -1).
+     */
+    private static int subPFrom(int[] z)
+    {
+        long c = 0;
+        c += (z[0] & M) - M;
+        z[0] = (int)c;
+        c >>= 32;
+        c += (z[1] & M);
+        z[1] = (int)c;
+        c >>= 32;
+        c += (z[2] & M);
+        z[2] = (int)c;
+        c >>= 32;
+        c += (z[3] & M) - M;
+        z[3] = (int)c;
+        c >>= 32;
+        c += (z[4] & M) - 0xFFFFFFFEL;
+        z[4] = (int)c;
+        c >>= 32;
+        for (int i = 5; i < 12; ++i)
+        {
+            c += (z[i] & M) - M;
+            z[i] = (int)c;
+            c >>= 32;
+        }
+        return (int)c;
+    }
+}
@@ -0,0 +1,597 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.AbstractECMultiplier;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.raw.Mod;
+import org.bouncycastle.math.raw.Nat;
+import org.bouncycastle.util.encoders.Hex;
+
+/**
+ * Constant-time scalar multiplication for the NIST prime curves P-256 (secp256r1) and P-384 (secp384r1).
+ * <p>
+ * Points are kept in homogeneous projective coordinates and combined with the complete addition and doubling
+ * formulas for a = -3 curves (Renes, Costello and Batina, "Complete addition formulas for prime order elliptic
+ * curves", Algorithms 4-6), so there are no exceptional cases to branch on. Field arithmetic works directly on
+ * int[] values with branch-free reductions, table entries are selected by scanning the whole table, and all
+ * working storage is allocated once per multiplication rather than per point operation.
+ * </p>
+ * <p>
+ * Scalars are recoded into signed windows. Multiples of the standard base point use 6-bit windows, each with
+ * its own precomputed affine table (built once, on first use; about 88KB for P-256 and 200KB for P-384), so no
+ * doublings are needed; any other point uses 5-bit windows and a fixed-window method over a per-call table.
+ * </p>
+ * <p>
+ * Curves keep their default (variable-time, faster) multiplier; this class is used where the scalar is secret,
+ * i.e. for the base point in ECDSA signing and EC key generation, and for the peer's point in ECDH agreement.
+ * </p>
+ */
+public abstract class SecPR1Multiplier
+    extends AbstractECMultiplier
+{
+    private static final int WIDTH = 5;
+    private static final int TABLE_SIZE = 1 << (WIDTH - 1);
+
+    // The base point uses wider windows, with a table per window so that no doublings are needed
+    private static final int BASE_WIDTH = 6;
+    private static final int BASE_TABLE_SIZE = 1 << (BASE_WIDTH - 1);
+
+    /**
+     * Return the constant-time multiplier for the given curve, if there is one.
+     *
+     * @param c the curve points will be multiplied on.
+     * @return a multiplier for P-256 or P-384 curves, otherwise null.
+     */
+    public static ECMultiplier getInstance(ECCurve c)
+    {
+        if (c instanceof SecP256R1Curve)
+        {
+            return SecP256R1Multiplier.INSTANCE;
+        }
+        if (c instanceof SecP384R1Curve)
+        {
+            return SecP384R1Multiplier.INSTANCE;
+        }
+        return null;
+    }
+
+    private final int len;
+    private final int windows, baseWindows;
+    private final int[] p;
+    private final int[] b;
+    private final BigInteger n;
+    private final int[] gx, gy;
+
+    private volatile int[] baseTable = null;
+
+    SecPR1Multiplier(int len, int[] p, ECCurve c, String gx, String gy)
+    {
+        int bits = len << 5;
+
+        this.len = len;
+        this.windows = bits / WIDTH + 1;
+        this.baseWindows = bits / BASE_WIDTH + 1;
+        this.p = p;
+        this.b = Nat.fromBigInteger(bits, c.getB().toBigInteger());
+        this.n = c.getOrder();
+        this.gx = Nat.fromBigInteger(bits, new BigInteger(1, Hex.decodeStrict(gx)));
+        this.gy = Nat.fromBigInteger(bits, new BigInteger(1, Hex.decodeStrict(gy)));
+    }
+
+    abstract ECPoint createPoint(ECCurve c, int[] x, int[] y);
+
+    /**
+     * z = x * y mod p, with tt as scratch of length 2 * len; z may alias x or y.
+     */
+    abstract void multiply(int[] x, int[] y, int[] z, int[] tt);
+
+    /**
+     * z = x^2 mod p, with tt as scratch of length 2 * len; z may alias x.
+     */
+    abstract void square(int[] x, int[] z, int[] tt);
+
+    protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
+    {
+        if (k.compareTo(n) >= 0)
+        {
+            k = k.mod(n);
+        }
+
+        int bits = len << 5;
+        int[] kk = Nat.fromBigInteger(bits, k);
+
+        ECPoint q = p.normalize();
+        int[] x = Nat.fromBigInteger(bits, q.getAffineXCoord().toBigInteger());
+        int[] y = Nat.fromBigInteger(bits, q.getAffineYCoord().toBigInteger());
+
+        Work w = new Work(len);
+        PointProj r = new PointProj(len);
+
+        if (Nat.eq(len, x, gx) && Nat.eq(len, y, gy))
+        {
+            multiplyBase(recode(kk, BASE_WIDTH, baseWindows), r, w);
+        }
+        else
+        {
+            multiplyVar(x, y, recode(kk, WIDTH, windows), r, w);
+        }
+
+        return toECPoint(p.getCurve(), r, w);
+    }
+
+    private void multiplyBase(int[] digits, PointProj r, Work w)
+    {
+        int[] table = getBaseTable();
+
+        r.setIdentity();
+
+        for (int i = 0; i < baseWindows; ++i)
+        {
+            int digit = digits[i], magnitude = digit >>> 1;
+            lookupBase(table, i, digit, w.q, w.t0);
+            addMixed(r, w.q, (magnitude | -magnitude) >>> 31, r, w);
+        }
+    }
+
+    private void multiplyVar(int[] x, int[] y, int[] digits, PointProj r, Work w)
+    {
+        int stride = 3 * len;
+        int[] table = new int[TABLE_SIZE * stride];
+
+        PointProj q = w.q;
+        System.arraycopy(x, 0, q.x, 0, len);
+        System.arraycopy(y, 0, q.y, 0, len);
+        Nat.zero(len, q.z);
+        q.z[0] = 1;
+        q.store(table, 0);
+
+        // Entry i holds (i + 1).P; even multiples are doublings of earlier entries
+        for (int i = 1; i < TABLE_SIZE; ++i)
+        {
+            if ((i & 1) != 0)
+            {
+                r.load(table, (i >>> 1) * stride);
+                twice(r, r, w);
+            }
+            else
+            {
+                r.load(table, (i - 1) * stride);
+                add(r, q, r, w);
+            }
+            r.store(table, i * stride);
+        }
+
+        r.setIdentity();
+
+        for (int i = windows - 1; i >= 0; --i)
+        {
+            if (i < windows - 1)
+            {
+                for (int j = 0; j < WIDTH; ++j)
+                {
+                    twice(r, r, w);
+                }
+            }
+
+            lookupVar(table, digits[i], q, w.t0);
+            add(r, q, r, w);
+        }
+    }
+
+    private ECPoint toECPoint(ECCurve c, PointProj r, Work w)
+    {
+        if (0 == Mod.modOddInverse(p, r.z, w.t0))
+        {
+            return c.getInfinity();
+        }
+
+        int[] x = Nat.create(len), y = Nat.create(len);
+        multiply(r.x, w.t0, x, w.tt);
+        multiply(r.y, w.t0, y, w.tt);
+        return createPoint(c, x, y);
+    }
+
+    private int[] getBaseTable()
+    {
+        int[] table = baseTable;
+        if (table == null)
+        {
+            synchronized (this)
+            {
+                table = baseTable;
+                if (table == null)
+                {
+                    table = buildBaseTable();
+                    baseTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /*
+     * Block i of the table holds the affine points j.2^(BASE_WIDTH.i).G, for 1 <= j <= BASE_TABLE_SIZE.
+     */
+    private int[] buildBaseTable()
+    {
+        int stride = len << 1;
+        int[] table = new int[baseWindows * BASE_TABLE_SIZE * stride];
+
+        Work w = new Work(len);
+        PointProj base = new PointProj(len), acc = new PointProj(len);
+        System.arraycopy(gx, 0, base.x, 0, len);
+        System.arraycopy(gy, 0, base.y, 0, len);
+        base.z[0] = 1;
+
+        int off = 0;
+        for (int block = 0; block < baseWindows; ++block)
+        {
+            acc.set(base);
+
+            for (int i = 0; i < BASE_TABLE_SIZE; ++i)
+            {
+                Mod.modOddInverseVar(p, acc.z, w.t0);
+                multiply(acc.x, w.t0, w.t1, w.tt);
+                multiply(acc.y, w.t0, w.t2, w.tt);
+                System.arraycopy(w.t1, 0, table, off, len);
+                System.arraycopy(w.t2, 0, table, off + len, len);
+                off += stride;
+
+                add(acc, base, acc, w);
+            }
+
+            for (int j = 0; j < BASE_WIDTH; ++j)
+            {
+                twice(base, base, w);
+            }
+        }
+
+        return table;
+    }
+
+    /*
+     * Selects (as affine coordinates) the multiple of the window's point given by a recoded digit; a zero digit
+     * leaves a point that the caller must discard.
+     */
+    private void lookupBase(int[] table, int block, int digit, PointProj q, int[] t)
+    {
+        int stride = len << 1;
+        int off = block * BASE_TABLE_SIZE * stride;
+        int index = digit >>> 1;
+
+        for (int i = 0; i < BASE_TABLE_SIZE; ++i, off += stride)
+        {
+            int cond = (((i + 1) ^ index) - 1) >> 31;
+            Nat.cmov(len, cond, table, off, q.x, 0);
+            Nat.cmov(len, cond, table, off + len, q.y, 0);
+        }
+
+        cnegate(digit, q.y, t);
+    }
+
+    /*
+     * Selects the multiple of the point given by a recoded digit, a zero digit giving the point at infinity.
+     */
+    private void lookupVar(int[] table, int digit, PointProj q, int[] t)
+    {
+        int stride = 3 * len;
+        int index = digit >>> 1;
+
+        q.setIdentity();
+
+        for (int i = 0, off = 0; i < TABLE_SIZE; ++i, off += stride)
+        {
+            int cond = (((i + 1) ^ index) - 1) >> 31;
+            Nat.cmov(len, cond, table, off, q.x, 0);
+            Nat.cmov(len, cond, table, off + len, q.y, 0);
+            Nat.cmov(len, cond, table, off + 2 * len, q.z, 0);
+        }
+
+        cnegate(digit, q.y, t);
+    }
+
+    /*
+     * Negates y if the recoded digit is negative; y must be non-zero.
+     */
+    private void cnegate(int digit, int[] y, int[] t)
+    {
+        Nat.sub(len, p, y, t);
+        Nat.cmov(len, digit, t, 0, y, 0);
+    }
+
+    /*
+     * Recodes k into signed width-bit windows (Booth encoding). Each digit d is stored as (|d| << 1) | sign.
+     */
+    private int[] recode(int[] k, int width, int count)
+    {
+        int[] digits = new int[count];
+
+        for (int i = 0; i < count; ++i)
+        {
+            int v = getBits(k, i * width - 1, width);
+
+            int s = ~((v >>> width) - 1);
+            int d = (1 << (width + 1)) - v - 1;
+            d = (d & s) | (v & ~s);
+            d = (d >>> 1) + (d & 1);
+
+            digits[i] = (d << 1) | (s & 1);
+        }
+
+        return digits;
+    }
+
+    /*
+     * The width + 1 bits of k starting at (possibly negative) bit position pos.
+     */
+    private int getBits(int[] k, int pos, int width)
+    {
+        int mask = (1 << (width + 1)) - 1;
+        if (pos < 0)
+        {
+            return (k[0] << -pos) & mask;
+        }
+
+        int word = pos >>> 5, shift = pos & 31;
+        if (word >= len)
+        {
+            return 0;
+        }
+
+        int v = k[word] >>> shift;
+        if (shift > 32 - (width + 1) && word + 1 < len)
+        {
+            v |= k[word + 1] << (32 - shift);
+        }
+        return v & mask;
+    }
+
+    /*
+     * Complete addition for a = -3 (RCB16, Algorithm 4); r may alias p1 or p2.
+     */
+    private void add(PointProj p1, PointProj p2, PointProj r, Work w)
+    {
+        int[] X1 = p1.x, Y1 = p1.y, Z1 = p1.z;
+        int[] X2 = p2.x, Y2 = p2.y, Z2 = p2.z;
+        int[] t0 = w.t0, t1 = w.t1, t2 = w.t2, t3 = w.t3, t4 = w.t4;
+        int[] X3 = w.x3, Y3 = w.y3, Z3 = w.z3, tt = w.tt;
+
+        multiply(X1, X2, t0, tt);
+        multiply(Y1, Y2, t1, tt);
+        multiply(Z1, Z2, t2, tt);
+        add(X1, Y1, t3);
+        add(X2, Y2, t4);
+        multiply(t3, t4, t3, tt);
+        add(t0, t1, t4);
+        subtract(t3, t4, t3);
+        add(Y1, Z1, t4);
+        add(Y2, Z2, X3);
+        multiply(t4, X3, t4, tt);
+        add(t1, t2, X3);
+        subtract(t4, X3, t4);
+        add(X1, Z1, X3);
+        add(X2, Z2, Y3);
+        multiply(X3, Y3, X3, tt);
+        add(t0, t2, Y3);
+        subtract(X3, Y3, Y3);
+        multiply(b, t2, Z3, tt);
+        subtract(Y3, Z3, X3);
+        add(X3, X3, Z3);
+        add(X3, Z3, X3);
+        subtract(t1, X3, Z3);
+        add(t1, X3, X3);
+        multiply(b, Y3, Y3, tt);
+        add(t2, t2, t1);
+        add(t1, t2, t2);
+        subtract(Y3, t2, Y3);
+        subtract(Y3, t0, Y3);
+        add(Y3, Y3, t1);
+        add(t1, Y3, Y3);
+        add(t0, t0, t1);
+        add(t1, t0, t0);
+        subtract(t0, t2, t0);
+        multiply(t4, Y3, t1, tt);
+        multiply(t0, Y3, t2, tt);
+        multiply(X3, Z3, Y3, tt);
+        add(Y3, t2, Y3);
+        multiply(t3, X3, X3, tt);
+        subtract(X3, t1, X3);
+        multiply(t4, Z3, Z3, tt);
+        multiply(t3, t0, t1, tt);
+        add(Z3, t1, Z3);
+
+        r.set(X3, Y3, Z3);
+    }
+
+    /*
+     * Mixed addition for a = -3 (RCB16, Algorithm 5), with p2 affine (its z is ignored). The result is only stored
+     * to r if cond is 1 (the formulas cannot represent p2 as the point at infinity); r may alias p1.
+     */
+    private void addMixed(PointProj p1, PointProj p2, int cond, PointProj r, Work w)
+    {
+        int[] X1 = p1.x, Y1 = p1.y, Z1 = p1.z;
+        int[] X2 = p2.x, Y2 = p2.y;
+        int[] t0 = w.t0, t1 = w.t1, t2 = w.t2, t3 = w.t3, t4 = w.t4;
+        int[] X3 = w.x3, Y3 = w.y3, Z3 = w.z3, tt = w.tt;
+
+        multiply(X1, X2, t0, tt);
+        multiply(Y1, Y2, t1, tt);
+        add(X2, Y2, t3);
+        add(X1, Y1, t4);
+        multiply(t3, t4, t3, tt);
+        add(t0, t1, t4);
+        subtract(t3, t4, t3);
+        multiply(Y2, Z1, t4, tt);
+        add(t4, Y1, t4);
+        multiply(X2, Z1, Y3, tt);
+        add(Y3, X1, Y3);
+        multiply(b, Z1, Z3, tt);
+        subtract(Y3, Z3, X3);
+        add(X3, X3, Z3);
+        add(X3, Z3, X3);
+        subtract(t1, X3, Z3);
+        add(t1, X3, X3);
+        multiply(b, Y3, Y3, tt);
+        add(Z1, Z1, t1);
+        add(t1, Z1, t2);
+        subtract(Y3, t2, Y3);
+        subtract(Y3, t0, Y3);
+        add(Y3, Y3, t1);
+        add(t1, Y3, Y3);
+        add(t0, t0, t1);
+        add(t1, t0, t0);
+        subtract(t0, t2, t0);
+        multiply(t4, Y3, t1, tt);
+        multiply(t0, Y3, t2, tt);
+        multiply(X3, Z3, Y3, tt);
+        add(Y3, t2, Y3);
+        multiply(X3, t3, X3, tt);
+        subtract(X3, t1, X3);
+        multiply(t4, Z3, Z3, tt);
+        multiply(t3, t0, t1, tt);
+        add(Z3, t1, Z3);
+
+        Nat.cmov(len, cond, X3, 0, r.x, 0);
+        Nat.cmov(len, cond, Y3, 0, r.y, 0);
+        Nat.cmov(len, cond, Z3, 0, r.z, 0);
+    }
+
+    /*
+     * Complete doubling for a = -3 (RCB16, Algorithm 6); r may alias p1.
+     */
+    private void twice(PointProj p1, PointProj r, Work w)
+    {
+        int[] X = p1.x, Y = p1.y, Z = p1.z;
+        int[] t0 = w.t0, t1 = w.t1, t2 = w.t2, t3 = w.t3;
+        int[] X3 = w.x3, Y3 = w.y3, Z3 = w.z3, tt = w.tt;
+
+        square(X, t0, tt);
+        square(Y, t1, tt);
+        square(Z, t2, tt);
+        multiply(X, Y, t3, tt);
+        add(t3, t3, t3);
+        multiply(X, Z, Z3, tt);
+        add(Z3, Z3, Z3);
+        multiply(b, t2, Y3, tt);
+        subtract(Y3, Z3, Y3);
+        add(Y3, Y3, X3);
+        add(X3, Y3, Y3);
+        subtract(t1, Y3, X3);
+        add(t1, Y3, Y3);
+        multiply(X3, Y3, Y3, tt);
+        multiply(X3, t3, X3, tt);
+        add(t2, t2, t3);
+        add(t2, t3, t2);
+        multiply(b, Z3, Z3, tt);
+        subtract(Z3, t2, Z3);
+        subtract(Z3, t0, Z3);
+        add(Z3, Z3, t3);
+        add(Z3, t3, Z3);
+        add(t0, t0, t3);
+        add(t3, t0, t0);
+        subtract(t0, t2, t0);
+        multiply(t0, Z3, t0, tt);
+        add(Y3, t0, Y3);
+        multiply(Y, Z, t0, tt);
+        add(t0, t0, t0);
+        multiply(t0, Z3, Z3, tt);
+        subtract(X3, Z3, X3);
+        multiply(t0, t1, Z3, tt);
+        add(Z3, Z3, Z3);
+        add(Z3, Z3, Z3);
+
+        r.set(X3, Y3, Z3);
+    }
+
+    /**
+     * z = x + y mod p; z may alias x or y.
+     */
+    void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(len, x, y, z);
+        c += Nat.sub(len, z, p, z);
+        Nat.caddTo(len, c, p, z);
+    }
+
+    /**
+     * z = x - y mod p; z may alias x or y.
+     */
+    void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(len, x, y, z);
+        Nat.caddTo(len, c, p, z);
+    }
+
+    private static class PointProj
+    {
+        final int[] x, y, z;
+
+        PointProj(int len)
+        {
+            x = Nat.create(len);
+            y = Nat.create(len);
+            z = Nat.create(len);
+        }
+
+        void set(PointProj p)
+        {
+            set(p.x, p.y, p.z);
+        }
+
+        void set(int[] x, int[] y, int[] z)
+        {
+            int len = this.x.length;
+            System.arraycopy(x, 0, this.x, 0, len);
+            System.arraycopy(y, 0, this.y, 0, len);
+            System.arraycopy(z, 0, this.z, 0, len);
+        }
+
+        void load(int[] table, int off)
+        {
+            int len = x.length;
+            System.arraycopy(table, off, x, 0, len);
+            System.arraycopy(table, off + len, y, 0, len);
+            System.arraycopy(table, off + 2 * len, z, 0, len);
+        }
+
+        void setIdentity()
+        {
+            int len = x.length;
+            Nat.zero(len, x);
+            Nat.zero(len, y);
+            Nat.zero(len, z);
+            y[0] = 1;
+        }
+
+        void store(int[] table, int off)
+        {
+            int len = x.length;
+            System.arraycopy(x, 0, table, off, len);
+            System.arraycopy(y, 0, table, off + len, len);
+            System.arraycopy(z, 0, table, off + 2 * len, len);
+        }
+    }
+
+    private static class Work
+    {
+        final int[] t0, t1, t2, t3, t4, x3, y3, z3, tt;
+        final PointProj q;
+
+        Work(int len)
+        {
+            t0 = Nat.create(len);
+            t1 = Nat.create(len);
+            t2 = Nat.create(len);
+            t3 = Nat.create(len);
+            t4 = Nat.create(len);
+            x3 = Nat.create(len);
+            y3 = Nat.create(len);
+            z3 = Nat.create(len);
+            tt = Nat.create(len << 1);
+            q = new PointProj(len);
+        }
+    }
+}
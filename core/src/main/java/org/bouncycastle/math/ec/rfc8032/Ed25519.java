@@ -86,10 +86,13 @@ public abstract class Ed25519
     private static final int[] C_d4 = new int[]{ 0x0165E2B2, 0x034DCA13, 0x002ADD7A, 0x01A8283B, 0x00038052, 0x01E7A260,
         0x03407977, 0x019CE331, 0x01C56DFF, 0x00901B67 };
 
-//    private static final int WNAF_WIDTH = 5;
+    private static final int WNAF_WIDTH = 5;
     private static final int WNAF_WIDTH_128 = 4;
     private static final int WNAF_WIDTH_BASE = 6;
 
+    // Failing batches at most this size are resolved by verifying each signature individually.
+    private static final int BATCH_FALLBACK_SIZE = 4;
+
     // scalarMultBase is hard-coded for these values of blocks, teeth, spacing so they can't be freely changed
     private static final int PRECOMP_BLOCKS = 8;
     private static final int PRECOMP_TEETH = 4;
@@ -148,6 +151,16 @@ public abstract class Ed25519
         int[] r1 = F.create();;
     }
 
+    // A decoded signature awaiting batch verification; R is stored negated.
+    private static class BatchItem
+    {
+        int index;
+        int[] nS = new int[SCALAR_INTS];
+        int[] nK = new int[SCALAR_INTS];
+        PointAffine pR = new PointAffine();
+        PublicPoint publicPoint;
+    }
+
     private static byte[] calculateS(byte[] r, byte[] k, byte[] s)
     {
         int[] t = new int[SCALAR_INTS * 2];     Scalar25519.decode(r, t);
@@ -647,6 +660,120 @@ public abstract class Ed25519
         return normalizeToNeutralElementVar(pZ);
     }
 
+    private static BatchItem implParseBatchItem(byte[] sig, PublicPoint publicPoint, byte[] m)
+    {
+        if (sig.length != SIGNATURE_SIZE)
+        {
+            return null;
+        }
+
+        byte[] R = copy(sig, 0, POINT_BYTES);
+        byte[] S = copy(sig, POINT_BYTES, SCALAR_BYTES);
+
+        if (!checkPointVar(R))
+        {
+            return null;
+        }
+
+        BatchItem item = new BatchItem();
+        if (!Scalar25519.checkVar(S, item.nS))
+        {
+            return null;
+        }
+
+        if (!decodePointVar(R, true, item.pR))
+        {
+            return null;
+        }
+
+        byte[] A = new byte[PUBLIC_KEY_SIZE];
+        encodePublicPoint(publicPoint, A, 0);
+
+        Digest d = createDigest();
+        byte[] h = new byte[64];
+
+        d.update(R, 0, POINT_BYTES);
+        d.update(A, 0, POINT_BYTES);
+        d.update(m, 0, m.length);
+        d.doFinal(h, 0);
+
+        byte[] k = Scalar25519.reduce512(h);
+        Scalar25519.decode(k, item.nK);
+
+        item.publicPoint = publicPoint;
+        return item;
+    }
+
+    private static boolean implVerifyBatch(SecureRandom random, BatchItem[] items, int off, int len, boolean[] results)
+    {
+        if (len > BATCH_FALLBACK_SIZE)
+        {
+            PointAccum pZ = new PointAccum();
+            scalarMultBatchVar(random, items, off, len, pZ);
+            if (normalizeToNeutralElementVar(pZ))
+            {
+                if (results != null)
+                {
+                    for (int i = 0; i < len; ++i)
+                    {
+                        results[items[off + i].index] = true;
+                    }
+                }
+                return true;
+            }
+
+            if (results == null)
+            {
+                return false;
+            }
+
+            // Bisect to find the signatures that are actually invalid
+            int half = len >>> 1;
+            boolean lo = implVerifyBatch(random, items, off, half, results);
+            boolean hi = implVerifyBatch(random, items, off + half, len - half, results);
+            return lo && hi;
+        }
+
+        boolean all = true;
+        for (int i = 0; i < len; ++i)
+        {
+            BatchItem item = items[off + i];
+            boolean valid = implVerifyBatchItem(item);
+            if (results != null)
+            {
+                results[item.index] = valid;
+            }
+            else if (!valid)
+            {
+                return false;
+            }
+            all &= valid;
+        }
+        return all;
+    }
+
+    private static boolean implVerifyBatchItem(BatchItem item)
+    {
+        PointAffine pA = new PointAffine();
+        F.negate(item.publicPoint.data, pA.x);
+        F.copy(item.publicPoint.data, F.SIZE, pA.y, 0);
+
+        int[] v0 = new int[4];
+        int[] v1 = new int[4];
+
+        if (!Scalar25519.reduceBasisVar(item.nK, v0, v1))
+        {
+            throw new IllegalStateException();
+        }
+
+        int[] nS = new int[SCALAR_INTS];
+        Scalar25519.multiply128Var(item.nS, v1, nS);
+
+        PointAccum pZ = new PointAccum();
+        scalarMultStraus128Var(nS, v0, pA, v1, item.pR, pZ);
+        return normalizeToNeutralElementVar(pZ);
+    }
+
     private static void invertDoubleZs(PointExtended[] points)
     {
         int count = points.length;
@@ -1319,6 +1446,137 @@ public abstract class Ed25519
         F.copy(p.z, 0, z, 0);
     }
 
+    private static void scalarMultBatchVar(SecureRandom random, BatchItem[] items, int off, int len, PointAccum r)
+    {
+        /*
+         * Randomised linear combination of the individual (negated) verification equations:
+         *     [8]([sum(z_i.S_i)]B + sum([z_i](-R_i)) + sum([sum(z_i.k_i)](-A))) == O
+         * using 128-bit random z_i, with the A terms combined per distinct public point. The multi-scalar
+         * multiplication is a Straus-style interleaving of wNAFs, sharing a single chain of doublings.
+         */
+
+        precompute();
+
+        int[] nB = new int[SCALAR_INTS];
+        int[] nT = new int[SCALAR_INTS];
+        int[] z = new int[4];
+        byte[] zBytes = new byte[16];
+
+        byte[][] ws_r = new byte[len][128];
+        PointPrecompZ[][] tr = new PointPrecompZ[len][1 << (WNAF_WIDTH_128 - 2)];
+
+        PublicPoint[] groups = new PublicPoint[len];
+        int[][] nAs = new int[len][];
+        int groupCount = 0;
+
+        PointTemp t = new PointTemp();
+
+        for (int i = 0; i < len; ++i)
+        {
+            BatchItem item = items[off + i];
+
+            do
+            {
+                random.nextBytes(zBytes);
+                Codec.decode32(zBytes, 0, z, 0, 4);
+                z[3] &= 0x7FFFFFFF;
+            }
+            while ((z[0] | z[1] | z[2] | z[3]) == 0);
+
+            Wnaf.getSignedVar(z, WNAF_WIDTH_128, ws_r[i]);
+            pointPrecomputeZ(item.pR, tr[i], tr[i].length, t);
+
+            Scalar25519.multiply128Var(item.nS, z, nT);
+            Scalar25519.addVar(nB, nT, nB);
+
+            int g = 0;
+            while (g < groupCount && groups[g] != item.publicPoint)
+            {
+                ++g;
+            }
+            if (g == groupCount)
+            {
+                groups[g] = item.publicPoint;
+                nAs[g] = new int[SCALAR_INTS];
+                ++groupCount;
+            }
+
+            Scalar25519.multiply128Var(item.nK, z, nT);
+            Scalar25519.addVar(nAs[g], nT, nAs[g]);
+        }
+
+        byte[] ws_b = new byte[256];
+        Wnaf.getSignedVar(nB, WNAF_WIDTH_BASE, ws_b);
+
+        byte[][] ws_a = new byte[groupCount][256];
+        PointPrecompZ[][] ta = new PointPrecompZ[groupCount][1 << (WNAF_WIDTH - 2)];
+        PointAffine pA = new PointAffine();
+        for (int g = 0; g < groupCount; ++g)
+        {
+            Wnaf.getSignedVar(nAs[g], WNAF_WIDTH, ws_a[g]);
+
+            F.negate(groups[g].data, pA.x);
+            F.copy(groups[g].data, F.SIZE, pA.y, 0);
+            pointPrecomputeZ(pA, ta[g], ta[g].length, t);
+        }
+
+        pointSetNeutral(r);
+
+        int top = 255;
+        while (top >= 128 && ws_b[top] == 0)
+        {
+            int g = 0;
+            while (g < groupCount && ws_a[g][top] == 0)
+            {
+                ++g;
+            }
+            if (g < groupCount)
+            {
+                break;
+            }
+            --top;
+        }
+
+        for (int bit = top; bit >= 0; --bit)
+        {
+            int wb = ws_b[bit];
+            if (wb != 0)
+            {
+                int index = (wb >> 1) ^ (wb >> 31);
+                pointAddVar(wb < 0, PRECOMP_BASE_WNAF[index], r, t);
+            }
+
+            for (int g = 0; g < groupCount; ++g)
+            {
+                int wa = ws_a[g][bit];
+                if (wa != 0)
+                {
+                    int index = (wa >> 1) ^ (wa >> 31);
+                    pointAddVar(wa < 0, ta[g][index], r, t);
+                }
+            }
+
+            if (bit < 128)
+            {
+                for (int i = 0; i < len; ++i)
+                {
+                    int wr = ws_r[i][bit];
+                    if (wr != 0)
+                    {
+                        int index = (wr >> 1) ^ (wr >> 31);
+                        pointAddVar(wr < 0, tr[i][index], r, t);
+                    }
+                }
+            }
+
+            pointDouble(r);
+        }
+
+        // NOTE: Together with the final pointDouble of the loop, this clears the cofactor of 8
+        pointDouble(r);
+        pointDouble(r);
+    }
+
     private static void scalarMultOrderVar(PointAffine p, PointAccum r)
     {
         byte[] ws_p = new byte[253];
@@ -1601,6 +1859,56 @@ public abstract class Ed25519
         return implVerify(sig, sigOff, publicPoint, ctx, phflag, m, mOff, mLen);
     }
 
+    /**
+     * Verify a batch of (plain) Ed25519 signatures together, using a randomised linear combination of the
+     * individual verification equations so that a single multi-scalar multiplication (with one shared chain of
+     * point doublings) covers the whole batch. Signatures under the same {@link PublicPoint} instance share the
+     * work for that public key. If the batch check fails, the batch is bisected to locate the invalid signatures,
+     * with small groups verified individually.
+     * <p>
+     * Verification is cofactored, with the same results as {@link #verify(byte[], int, PublicPoint, byte[], int,
+     * int)} for each signature.
+     * </p>
+     *
+     * @param random       source of the random coefficients for the linear combination.
+     * @param sigs         the signatures, each of {@link #SIGNATURE_SIZE} bytes.
+     * @param publicPoints the public key for each signature.
+     * @param ms           the message for each signature.
+     * @param results      if not null, receives the verification result for each signature; otherwise
+     *                     verification stops at the first failure.
+     * @return true if every signature in the batch is valid.
+     */
+    public static boolean verifyBatch(SecureRandom random, byte[][] sigs, PublicPoint[] publicPoints, byte[][] ms,
+        boolean[] results)
+    {
+        int count = sigs.length;
+        if (publicPoints.length != count || ms.length != count || (results != null && results.length != count))
+        {
+            throw new IllegalArgumentException("batch arrays must be of equal length");
+        }
+
+        BatchItem[] items = new BatchItem[count];
+        int valid = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            BatchItem item = implParseBatchItem(sigs[i], publicPoints[i], ms[i]);
+            if (item == null)
+            {
+                if (results == null)
+                {
+                    return false;
+                }
+                results[i] = false;
+                continue;
+            }
+
+            item.index = i;
+            items[valid++] = item;
+        }
+
+        return implVerifyBatch(random, items, 0, valid, results) && valid == count;
+    }
+
     public static boolean verifyPrehash(byte[] sig, int sigOff, byte[] pk, int pkOff, byte[] ctx, byte[] ph, int phOff)
     {
         byte phflag = 0x01;
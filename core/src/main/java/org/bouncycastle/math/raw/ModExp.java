@@ -0,0 +1,274 @@
+package org.bouncycastle.math.raw;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Pack;
+
+/**
+ * Constant-time modular exponentiation for odd moduli, using Montgomery multiplication and a fixed-window
+ * exponent scan with full table lookups. Intended for secret exponents (RSA CRT exponents, DH and DSA private
+ * values): the sequence of operations depends only on the bit lengths of the modulus and the exponent.
+ * <p>
+ * When the {@link NativeServices#MODEXP} service is enabled the exponentiation is done with 64-bit limbs in
+ * native code, otherwise a 32-bit limb implementation based on {@link Nat} is available as a fallback.
+ * </p>
+ */
+public abstract class ModExp
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    /**
+     * Return x^e mod m, using the native implementation if the {@link NativeServices#MODEXP} service is enabled
+     * and {@link BigInteger#modPow(BigInteger, BigInteger)} otherwise (including for even moduli and negative
+     * exponents). The Java fallback is not used here as the JVM's intrinsified modPow is several times faster.
+     *
+     * @param x the base.
+     * @param e the exponent.
+     * @param m the modulus.
+     * @return x^e mod m.
+     */
+    public static BigInteger modPow(BigInteger x, BigInteger e, BigInteger m)
+    {
+        if (!CryptoServicesRegistrar.hasEnabledService(NativeServices.MODEXP)
+            || m.signum() <= 0 || !m.testBit(0) || e.signum() < 0)
+        {
+            return x.modPow(e, m);
+        }
+
+        return modPowConstantTime(x, e, m);
+    }
+
+    /**
+     * Return x^e mod m, using the native implementation if the {@link NativeServices#MODEXP} service is enabled
+     * and the constant-time Java implementation otherwise.
+     *
+     * @param x the base, reduced mod m if necessary.
+     * @param e the exponent, must be non-negative.
+     * @param m the modulus, must be positive and odd.
+     * @return x^e mod m.
+     */
+    public static BigInteger modPowConstantTime(BigInteger x, BigInteger e, BigInteger m)
+    {
+        if (m.signum() <= 0 || !m.testBit(0))
+        {
+            throw new ArithmeticException("BigInteger: modulus not positive and odd");
+        }
+        if (e.signum() < 0)
+        {
+            throw new ArithmeticException("BigInteger: negative exponent");
+        }
+        if (m.bitLength() == 1)
+        {
+            return BigInteger.valueOf(0L);
+        }
+        if (x.signum() < 0 || x.compareTo(m) >= 0)
+        {
+            x = x.mod(m);
+        }
+
+        int bits = m.bitLength(), eBits = Math.max(1, e.bitLength());
+
+        if (CryptoServicesRegistrar.hasEnabledService(NativeServices.MODEXP))
+        {
+            long[] m64 = Nat.fromBigInteger64(bits, m);
+            long[] x64 = Nat.fromBigInteger64(bits, x);
+            long[] e64 = Nat.fromBigInteger64(eBits, e);
+            long[] z64 = new long[m64.length];
+            modExp(m64, x64, e64, z64);
+            return toBigInteger64(z64);
+        }
+
+        int[] mm = Nat.fromBigInteger(bits, m);
+        int[] xx = Nat.fromBigInteger(bits, x);
+        int[] ee = Nat.fromBigInteger(eBits, e);
+        int[] zz = Nat.create(mm.length);
+        modExp(mm, xx, ee, zz);
+        return Nat.toBigInteger(zz.length, zz);
+    }
+
+    /**
+     * Compute z = x^e mod m for an odd modulus m, with x &lt; m. The arrays x and z are the same length as m, e
+     * may be any length (its length, not its value, determines the running time).
+     */
+    public static void modExp(int[] m, int[] x, int[] e, int[] z)
+    {
+        int len = m.length;
+        if (len < 1 || (m[0] & 1) == 0)
+        {
+            throw new IllegalArgumentException("'m' must be odd");
+        }
+        if (x.length != len || z.length != len)
+        {
+            throw new IllegalArgumentException("'x' and 'z' must be the same length as 'm'");
+        }
+
+        int mInv = -Mod.inverse32(m[0]);
+
+        int eBits = e.length << 5;
+        int width = eBits > 256 ? 5 : eBits > 64 ? 4 : 2;
+        int size = 1 << width;
+
+        // Montgomery forms of 1 and x, via R mod m and R^2 mod m
+        int[] one = Nat.create(len), r2 = Nat.create(len), t = Nat.create(len);
+        one[0] = 1;
+        Nat.copy(len, one, r2);
+        for (int i = 0; i < (len << 5); ++i)
+        {
+            modDouble(len, m, r2);
+        }
+
+        int[] table = new int[size * len];
+        System.arraycopy(r2, 0, table, 0, len);
+        for (int i = 0; i < (len << 5); ++i)
+        {
+            modDouble(len, m, r2);
+        }
+
+        montMul(len, x, r2, m, mInv, t);
+        System.arraycopy(t, 0, table, len, len);
+        for (int i = 2; i < size; ++i)
+        {
+            montMul(len, table, (i - 1) * len, t, m, mInv, r2);
+            System.arraycopy(r2, 0, table, i * len, len);
+        }
+
+        int[] acc = Nat.create(len), sel = Nat.create(len);
+
+        int windows = (eBits + width - 1) / width;
+        lookup(len, table, size, getWindow(e, (windows - 1) * width, width), acc);
+
+        for (int w = windows - 2; w >= 0; --w)
+        {
+            for (int j = 0; j < width; ++j)
+            {
+                montMul(len, acc, acc, m, mInv, t);
+                Nat.copy(len, t, acc);
+            }
+
+            lookup(len, table, size, getWindow(e, w * width, width), sel);
+            montMul(len, acc, sel, m, mInv, t);
+            Nat.copy(len, t, acc);
+        }
+
+        // Leave Montgomery form
+        montMul(len, acc, one, m, mInv, z);
+
+        Nat.zero(len, t);
+        Nat.zero(len, acc);
+        Nat.zero(len, sel);
+        Nat.zero(len, r2);
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * Compute z = x^e mod m for an odd modulus m, with x &lt; m, using 64-bit limbs in native code. Callers must
+     * check that the {@link NativeServices#MODEXP} service is enabled.
+     */
+    public static void modExp(long[] m, long[] x, long[] e, long[] z)
+    {
+        if (m.length < 1 || (m[0] & 1) == 0)
+        {
+            throw new IllegalArgumentException("'m' must be odd");
+        }
+        if (x.length != m.length || z.length != m.length)
+        {
+            throw new IllegalArgumentException("'x' and 'z' must be the same length as 'm'");
+        }
+
+        nativeModExp(m, x, e, z);
+    }
+
+    private static native void nativeModExp(long[] m, long[] x, long[] e, long[] z);
+
+    private static int getWindow(int[] e, int pos, int width)
+    {
+        int bits = 0;
+        for (int i = 0; i < width; ++i, ++pos)
+        {
+            int word = pos >>> 5;
+            int bit = word < e.length ? (e[word] >>> (pos & 31)) & 1 : 0;
+            bits |= bit << i;
+        }
+        return bits;
+    }
+
+    private static void lookup(int len, int[] table, int size, int index, int[] z)
+    {
+        Nat.zero(len, z);
+        for (int i = 0, off = 0; i < size; ++i, off += len)
+        {
+            int cond = ((i ^ index) - 1) >> 31;
+            Nat.cmov(len, cond, table, off, z, 0);
+        }
+    }
+
+    private static void modDouble(int len, int[] m, int[] z)
+    {
+        int c = Nat.shiftUpBit(len, z, 0);
+        c += Nat.sub(len, z, m, z);
+        Nat.caddTo(len, c, m, z);
+    }
+
+    private static void montMul(int len, int[] x, int[] y, int[] m, int mInv, int[] z)
+    {
+        montMul(len, x, 0, y, m, mInv, z);
+    }
+
+    /*
+     * Montgomery multiplication (CIOS), z = x * y * 2^(-32 * len) mod m, for x, y < m. The output must not
+     * alias either input.
+     */
+    private static void montMul(int len, int[] x, int xOff, int[] y, int[] m, int mInv, int[] z)
+    {
+        Nat.zero(len, z);
+
+        long y_0 = y[0] & M, m_0 = m[0] & M;
+        int zTop = 0;
+
+        for (int i = 0; i < len; ++i)
+        {
+            long x_i = x[xOff + i] & M;
+
+            long prod1 = x_i * y_0;
+            long carry = (prod1 & M) + (z[0] & M);
+
+            long t = ((int)carry * mInv) & M;
+
+            long prod2 = t * m_0;
+            carry += (prod2 & M);
+//            assert (int)carry == 0;
+            carry = (carry >>> 32) + (prod1 >>> 32) + (prod2 >>> 32);
+
+            for (int j = 1; j < len; ++j)
+            {
+                prod1 = x_i * (y[j] & M);
+                prod2 = t * (m[j] & M);
+
+                carry += (prod1 & M) + (prod2 & M) + (z[j] & M);
+                z[j - 1] = (int)carry;
+                carry = (carry >>> 32) + (prod1 >>> 32) + (prod2 >>> 32);
+            }
+
+            carry += (zTop & M);
+            z[len - 1] = (int)carry;
+            zTop = (int)(carry >>> 32);
+        }
+
+        // Result is less than 2m; subtract m once unless that would go negative
+        int c = zTop + Nat.sub(len, z, m, z);
+        Nat.caddTo(len, c, m, z);
+    }
+
+    private static BigInteger toBigInteger64(long[] x)
+    {
+        byte[] bs = new byte[x.length << 3];
+        for (int i = 0; i < x.length; ++i)
+        {
+            Pack.longToBigEndian(x[i], bs, (x.length - 1 - i) << 3);
+        }
+        return new BigInteger(1, bs);
+    }
+}
@@ -1,5 +1,6 @@
 package org.bouncycastle.pqc.crypto.mldsa;
 
+import org.bouncycastle.crypto.ParallelXof;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
 
 class Poly
@@ -73,6 +74,53 @@ class Poly
 
     }
 
+    int getUniformBufferLength()
+    {
+        return polyUniformNBlocks * symmetric.stream128BlockBytes + 2;
+    }
+
+    /**
+     * Expand the first count polynomials together, lane l of the XOF is seeded with xofSeeds[l] which
+     * must hold the stream128 seed and nonce for polys[l].
+     */
+    static void uniformBlocks(ParallelXof xof, Poly[] polys, int count, byte[][] xofSeeds, byte[][] bufs, int[] ctr)
+    {
+        int blockBytes = xof.getBlockSize();
+        int buflen = polys[0].polyUniformNBlocks * blockBytes;
+
+        xof.absorb(xofSeeds, 0, xofSeeds[0].length);
+        xof.squeezeBlocks(bufs, 0, polys[0].polyUniformNBlocks);
+
+        boolean done = true;
+        for (int l = 0; l < count; l++)
+        {
+            ctr[l] = rejectUniform(polys[l], 0, DilithiumN, bufs[l], buflen);
+            done &= ctr[l] >= DilithiumN;
+        }
+
+        while (!done)
+        {
+            int off = buflen % 3;
+            for (int l = 0; l < bufs.length; l++)
+            {
+                System.arraycopy(bufs[l], buflen - off, bufs[l], 0, off);
+            }
+
+            xof.squeezeBlocks(bufs, off, 1);
+            buflen = blockBytes + off;
+
+            done = true;
+            for (int l = 0; l < count; l++)
+            {
+                if (ctr[l] < DilithiumN)
+                {
+                    ctr[l] += rejectUniform(polys[l], ctr[l], DilithiumN - ctr[l], bufs[l], buflen);
+                    done &= ctr[l] >= DilithiumN;
+                }
+            }
+        }
+    }
+
     private static int rejectUniform(Poly outputPoly, int coeffOff, int len, byte[] inpBuf, int buflen)
     {
         int ctr, pos;
@@ -177,16 +225,12 @@ class Poly
 
     public void polyNtt()
     {
-        this.setCoeffs(Ntt.ntt(this.coeffs));
+        this.setCoeffs(PolyMath.ntt(this.coeffs));
     }
 
     public void pointwiseMontgomery(Poly v, Poly w)
     {
-        int i;
-        for (i = 0; i < DilithiumN; ++i)
-        {
-            this.setCoeffIndex(i, Reduce.montgomeryReduce((long)((long)v.getCoeffIndex(i) * (long)w.getCoeffIndex(i))));
-        }
+        PolyMath.pointwiseMontgomery(this.coeffs, v.coeffs, w.coeffs);
     }
 
     public void pointwiseAccountMontgomery(PolyVecL u, PolyVecL v)
@@ -217,23 +261,17 @@ class Poly
 
     public void reduce()
     {
-        for (int i = 0; i < DilithiumN; ++i)
-        {
-            this.setCoeffIndex(i, Reduce.reduce32(this.getCoeffIndex(i)));
-        }
+        PolyMath.reduce32(this.coeffs);
     }
 
     public void invNttToMont()
     {
-        this.setCoeffs(Ntt.invNttToMont(this.getCoeffs()));
+        this.setCoeffs(PolyMath.invNttToMont(this.getCoeffs()));
     }
 
     public void conditionalAddQ()
     {
-        for (int i = 0; i < DilithiumN; ++i)
-        {
-            this.setCoeffIndex(i, Reduce.conditionalAddQ(this.getCoeffIndex(i)));
-        }
+        PolyMath.conditionalAddQ(this.coeffs);
     }
 
     public void power2Round(Poly a)
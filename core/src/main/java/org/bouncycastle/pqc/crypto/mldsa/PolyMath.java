@@ -0,0 +1,42 @@
+package org.bouncycastle.pqc.crypto.mldsa;
+
+/**
+ * Whole polynomial arithmetic used by {@link Poly}. This is the scalar version, the Java 21 build
+ * replaces it with one which uses the Vector API when it is available.
+ */
+class PolyMath
+{
+    static int[] ntt(int[] a)
+    {
+        return Ntt.ntt(a);
+    }
+
+    static int[] invNttToMont(int[] a)
+    {
+        return Ntt.invNttToMont(a);
+    }
+
+    static void pointwiseMontgomery(int[] r, int[] a, int[] b)
+    {
+        for (int i = 0; i < MLDSAEngine.DilithiumN; ++i)
+        {
+            r[i] = Reduce.montgomeryReduce((long)a[i] * (long)b[i]);
+        }
+    }
+
+    static void reduce32(int[] a)
+    {
+        for (int i = 0; i < MLDSAEngine.DilithiumN; ++i)
+        {
+            a[i] = Reduce.reduce32(a[i]);
+        }
+    }
+
+    static void conditionalAddQ(int[] a)
+    {
+        for (int i = 0; i < MLDSAEngine.DilithiumN; ++i)
+        {
+            a[i] = Reduce.conditionalAddQ(a[i]);
+        }
+    }
+}
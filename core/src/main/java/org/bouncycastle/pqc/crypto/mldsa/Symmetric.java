@@ -1,5 +1,6 @@
 package org.bouncycastle.pqc.crypto.mldsa;
 
+import org.bouncycastle.crypto.SavableDigestXof;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
 
 abstract class Symmetric
@@ -25,17 +26,17 @@ abstract class Symmetric
     static class ShakeSymmetric
         extends Symmetric
     {
-        private final SHAKEDigest digest128;
-        private final SHAKEDigest digest256;
+        private final SavableDigestXof digest128;
+        private final SavableDigestXof digest256;
 
         ShakeSymmetric()
         {
             super(168, 136);
-            digest128 = new SHAKEDigest(128);
-            digest256 = new SHAKEDigest(256);
+            digest128 = SHAKEDigest.newInstance(128);
+            digest256 = SHAKEDigest.newInstance(256);
         }
 
-        private void streamInit(SHAKEDigest digest, byte[] seed, short nonce)
+        private void streamInit(SavableDigestXof digest, byte[] seed, short nonce)
         {
             digest.reset();
             // byte[] temp = new byte[seed.length + 2];
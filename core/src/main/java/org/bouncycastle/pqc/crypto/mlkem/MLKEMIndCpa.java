@@ -1,6 +1,8 @@
 package org.bouncycastle.pqc.crypto.mlkem;
 
+import org.bouncycastle.crypto.ParallelXof;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.crypto.digests.SHAKEx4Digest;
 import org.bouncycastle.util.Arrays;
 
 class MLKEMIndCpa
@@ -243,45 +245,60 @@ class MLKEMIndCpa
     void generateMatrixA(PolyVec[] aMatrix, byte[] seed, boolean transpose)
     {
         int K = engine.getK();
-        SHAKEDigest xof = new SHAKEDigest(128);
+        ParallelXof xof = SHAKEx4Digest.newInstance(128);
+        int lanes = xof.getLaneCount();
 
-        byte[] buf = new byte[NUM_MATRIX_BLOCKS * SHAKE128_RATE + 2];
-        for (int i = 0; i < K; i++)
+        byte[][] xofSeed = new byte[lanes][MLKEMEngine.KyberSymBytes + 2];
+        byte[][] buf = new byte[lanes][NUM_MATRIX_BLOCKS * SHAKE128_RATE + 2];
+        Poly[] entry = new Poly[lanes];
+        int[] ctr = new int[lanes];
+
+        // The K * K entries are expanded four at a time, unused lanes of the last group repeat its final entry.
+        for (int base = 0; base < K * K; base += lanes)
         {
-            for (int j = 0; j < K; j++)
+            int count = Math.min(lanes, K * K - base);
+            for (int l = 0; l < lanes; l++)
             {
-                xof.reset();
+                int e = base + Math.min(l, count - 1);
+                int i = e / K, j = e % K;
 
-                xof.update(seed, 0, MLKEMEngine.KyberSymBytes);
+                System.arraycopy(seed, 0, xofSeed[l], 0, MLKEMEngine.KyberSymBytes);
+                xofSeed[l][MLKEMEngine.KyberSymBytes] = (byte)(transpose ? i : j);
+                xofSeed[l][MLKEMEngine.KyberSymBytes + 1] = (byte)(transpose ? j : i);
+                entry[l] = aMatrix[i].getVectorIndex(j);
+            }
 
-                if (transpose)
-                {
-                    xof.update((byte)i);
-                    xof.update((byte)j);
-                }
-                else
+            xof.absorb(xofSeed, 0, MLKEMEngine.KyberSymBytes + 2);
+
+            int buflen = NUM_MATRIX_BLOCKS * SHAKE128_RATE;
+            xof.squeezeBlocks(buf, 0, NUM_MATRIX_BLOCKS);
+
+            boolean done = true;
+            for (int l = 0; l < count; l++)
+            {
+                ctr[l] = rejectionSampling(entry[l], 0, MLKEMEngine.KyberN, buf[l], buflen);
+                done &= ctr[l] >= MLKEMEngine.KyberN;
+            }
+
+            while (!done)
+            {
+                int off = buflen % 3;
+                for (int l = 0; l < lanes; l++)
                 {
-                    xof.update((byte)j);
-                    xof.update((byte)i);
+                    System.arraycopy(buf[l], buflen - off, buf[l], 0, off);
                 }
 
-                int buflen = NUM_MATRIX_BLOCKS * SHAKE128_RATE;
-                xof.doOutput(buf, 0, buflen);
+                xof.squeezeBlocks(buf, off, 1);
+                buflen = off + SHAKE128_RATE;
 
-                int ctr = rejectionSampling(aMatrix[i].getVectorIndex(j), 0, MLKEMEngine.KyberN, buf, buflen);
-                while (ctr < MLKEMEngine.KyberN)
+                done = true;
+                for (int l = 0; l < count; l++)
                 {
-                    int off = buflen % 3;
-                    for (int k = 0; k < off; k++)
+                    if (ctr[l] < MLKEMEngine.KyberN)
                     {
-                        buf[k] = buf[buflen - off + k];
+                        ctr[l] += rejectionSampling(entry[l], ctr[l], MLKEMEngine.KyberN - ctr[l], buf[l], buflen);
+                        done &= ctr[l] >= MLKEMEngine.KyberN;
                     }
-
-                    xof.doOutput(buf, off, SHAKE128_RATE * 2);
-
-                    buflen = off + SHAKE128_RATE;
-                    // Error in code Section Unsure
-                    ctr += rejectionSampling(aMatrix[i].getVectorIndex(j), ctr, MLKEMEngine.KyberN - ctr, buf, buflen);
                 }
             }
         }
@@ -23,36 +23,23 @@ class Poly
 
     void polyNtt()
     {
-        Ntt.ntt(coeffs);
+        PolyMath.ntt(coeffs);
         reduce();
     }
 
     void polyInverseNttToMont()
     {
-        Ntt.invNtt(coeffs);
+        PolyMath.invNtt(coeffs);
     }
 
     void reduce()
     {
-        for (int i = 0; i < MLKEMEngine.KyberN; i++)
-        {
-            coeffs[i] = Reduce.barrettReduce(coeffs[i]);
-        }
+        PolyMath.barrettReduce(coeffs);
     }
 
     static void baseMultMontgomery(Poly r, Poly a, Poly b)
     {
-        for (int i = 0; i < MLKEMEngine.KyberN / 4; i++)
-        {
-            Ntt.baseMult(r.coeffs, 4 * i,
-                a.getCoeffIndex(4 * i), a.getCoeffIndex(4 * i + 1),
-                b.getCoeffIndex(4 * i), b.getCoeffIndex(4 * i + 1),
-                Ntt.ZETAS[64 + i]);
-            Ntt.baseMult(r.coeffs, 4 * i + 2,
-                a.getCoeffIndex(4 * i + 2), a.getCoeffIndex(4 * i + 3),
-                b.getCoeffIndex(4 * i + 2), b.getCoeffIndex(4 * i + 3),
-                (short)(-1 * Ntt.ZETAS[64 + i]));
-        }
+        PolyMath.baseMultMontgomery(r.coeffs, a.coeffs, b.coeffs);
     }
 
     void add(Poly b)
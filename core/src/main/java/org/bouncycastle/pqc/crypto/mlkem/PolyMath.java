@@ -0,0 +1,36 @@
+package org.bouncycastle.pqc.crypto.mlkem;
+
+/**
+ * Whole polynomial arithmetic used by {@link Poly}. This is the scalar version, the Java 21 build
+ * replaces it with one which uses the Vector API when it is available.
+ */
+class PolyMath
+{
+    static void ntt(short[] r)
+    {
+        Ntt.ntt(r);
+    }
+
+    static void invNtt(short[] r)
+    {
+        Ntt.invNtt(r);
+    }
+
+    static void baseMultMontgomery(short[] r, short[] a, short[] b)
+    {
+        for (int i = 0; i < MLKEMEngine.KyberN / 4; i++)
+        {
+            Ntt.baseMult(r, 4 * i, a[4 * i], a[4 * i + 1], b[4 * i], b[4 * i + 1], Ntt.ZETAS[64 + i]);
+            Ntt.baseMult(r, 4 * i + 2, a[4 * i + 2], a[4 * i + 3], b[4 * i + 2], b[4 * i + 3],
+                (short)(-1 * Ntt.ZETAS[64 + i]));
+        }
+    }
+
+    static void barrettReduce(short[] r)
+    {
+        for (int i = 0; i < MLKEMEngine.KyberN; i++)
+        {
+            r[i] = Reduce.barrettReduce(r[i]);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.bouncycastle.pqc.crypto.mlkem;
 
+import org.bouncycastle.crypto.SavableDigest;
+import org.bouncycastle.crypto.SavableDigestXof;
 import org.bouncycastle.crypto.digests.SHA3Digest;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
 
@@ -29,18 +31,18 @@ abstract class Symmetric
     static class ShakeSymmetric
         extends Symmetric
     {
-        private final SHAKEDigest xof;
-        private final SHA3Digest sha3Digest512;
-        private final SHA3Digest sha3Digest256;
-        private final SHAKEDigest shakeDigest;
+        private final SavableDigestXof xof;
+        private final SavableDigest sha3Digest512;
+        private final SavableDigest sha3Digest256;
+        private final SavableDigestXof shakeDigest;
 
         ShakeSymmetric()
         {
             super(168);
-            this.xof = new SHAKEDigest(128);
-            this.shakeDigest = new SHAKEDigest(256);
-            this.sha3Digest256 = new SHA3Digest(256);
-            this.sha3Digest512 = new SHA3Digest(512);
+            this.xof = SHAKEDigest.newInstance(128);
+            this.shakeDigest = SHAKEDigest.newInstance(256);
+            this.sha3Digest256 = SHA3Digest.newInstance(256);
+            this.sha3Digest512 = SHA3Digest.newInstance(512);
         }
 
         @Override
@@ -127,6 +127,14 @@ public class Properties
      */
     public static final String DRBG_GATHER_PAUSE_SECS = "org.bouncycastle.drbg.gather_pause_secs";
 
+    /**
+     * Number of independent DRBGs backing each of the BC provider's DEFAULT and NONCEANDIV
+     * SecureRandoms. Values above 1 stripe callers across the pool by thread, so that threads
+     * no longer contend on a single DRBG; absent or smaller values keep the single shared DRBG.
+     * Read via {@link #asInteger(String, int)}.
+     */
+    public static final String DRBG_POOL_SIZE = "org.bouncycastle.drbg.pool_size";
+
     /**
      * Controls whether an ASN.1 {@code UTCTime} / {@code GeneralizedTime} carrying non-DER
      * contents may be serialized through a {@code DEROutputStream}. Reading is always
@@ -332,6 +340,14 @@ public class Properties
      */
     public static final String EC_MAX_F2M_FIELD_SIZE = "org.bouncycastle.ec.max_f2m_field_size";
 
+    /**
+     * Number of EC public keys, identified by their encoding, that the BC provider's EC signature
+     * verifiers keep prepared (see {@code ECPreparedPublicKeyParameters}), least recently used first
+     * out. A key seen again is verified with precomputed tables instead of rebuilding them. Absent
+     * or 0 disables the cache. Read via {@link #asInteger(String, int)}.
+     */
+    public static final String EC_VERIFY_KEY_CACHE_SIZE = "org.bouncycastle.ec.verify_key_cache_size";
+
     /**
      * Maximum depth of nested {@code multipart/*} content the S/MIME canonicalisers will descend
      * before failing, the MIME analogue of {@link #ASN1_MAX_CONS_DEPTH}. Each level of nesting in
@@ -343,6 +359,15 @@ public class Properties
      */
     public static final String MIME_MAX_DEPTH = "org.bouncycastle.mime.max_depth";
 
+    /**
+     * On Java 21 and later the ML-DSA and ML-KEM number theoretic transforms and coefficient-wise
+     * reductions use the JDK Vector API when the {@code jdk.incubator.vector} module has been added to the
+     * runtime (for example with {@code --add-modules jdk.incubator.vector}); otherwise the scalar code is
+     * used. Set this property to false to keep the scalar code while the module is present. Read via
+     * {@link #isOverrideSet(String, boolean)}, default true.
+     */
+    public static final String PQC_VECTOR_API = "org.bouncycastle.pqc.vector_api";
+
     private Properties()
     {
     }
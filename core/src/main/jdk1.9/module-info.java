@@ -32,6 +32,7 @@ module org.bouncycastle.lts.core
     exports org.bouncycastle.crypto.util;
     exports org.bouncycastle.crypto.tls;
     exports org.bouncycastle.crypto.signers;
+    exports org.bouncycastle.crypto.signers.mldsa;
     exports org.bouncycastle.crypto.prng;
     exports org.bouncycastle.crypto.prng.drbg;
     exports org.bouncycastle.crypto.parsers;
@@ -42,6 +43,7 @@ module org.bouncycastle.lts.core
     exports org.bouncycastle.crypto.modes.gcm;
     exports org.bouncycastle.crypto.macs;
     exports org.bouncycastle.crypto.kems;
+    exports org.bouncycastle.crypto.kems.mlkem;
     exports org.bouncycastle.crypto.io;
     exports org.bouncycastle.crypto.hpke;
     exports org.bouncycastle.crypto.generators;
@@ -238,6 +238,11 @@ class SHA256NativeDigest
 
     static native void restoreFullState(long reference, byte[] encoded, int offset);
 
+    /**
+     * Hash each message into the matching output, the arguments have been checked by the caller.
+     */
+    static native void hashBatch(byte[][] msgs, byte[][] outs);
+
     protected CryptoServiceProperties cryptoServiceProperties()
     {
         return Utils.getDefaultProperties(this, 256, purpose);
@@ -26,7 +26,7 @@ public class SHAKENativeDigest
 
     public SHAKENativeDigest(int bitLen, CryptoServicePurpose purpose)
     {
-        if (!CryptoServicesRegistrar.hasEnabledService(NativeServices.SHA3))
+        if (!CryptoServicesRegistrar.hasEnabledService(NativeServices.SHAKE))
         {
             throw new IllegalStateException("no native SHAKE support");
         }
@@ -1,6 +1,9 @@
 package org.bouncycastle.crypto.engines;
 
+import java.nio.ByteBuffer;
+
 import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.ByteBufferCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.modes.CTRModeCipher;
@@ -13,7 +16,7 @@ import org.bouncycastle.util.dispose.NativeReference;
 import java.lang.ref.Reference;
 
 public class AESNativeCTR
-        implements CTRModeCipher
+        implements CTRModeCipher, ByteBufferCipher
 {
 
     private CTRRefWrapper referenceWrapper = null;
@@ -218,6 +221,49 @@ public class AESNativeCTR
         }
     }
 
+    @Override
+    public int processBuffers(ByteBuffer in, ByteBuffer out)
+        throws DataLengthException, IllegalStateException
+    {
+        int len = in.remaining();
+        NativeBuffers.checkOutput(out, len);
+
+        try
+        {
+            if (referenceWrapper == null)
+            {
+                throw new IllegalStateException("not initialized");
+            }
+
+            long ref = referenceWrapper.getReference();
+            int written;
+
+            if (NativeBuffers.isDirect(in, out))
+            {
+                written = processDirect(ref, in, in.position(), len, out, out.position());
+            }
+            else if (NativeBuffers.hasArray(in, out))
+            {
+                written = processBytes(ref, in.array(), in.arrayOffset() + in.position(), len,
+                    out.array(), out.arrayOffset() + out.position());
+            }
+            else
+            {
+                byte[] data = NativeBuffers.remaining(in);
+                written = processBytes(ref, data, 0, len, data, 0);
+                out.duplicate().put(data, 0, written);
+            }
+
+            NativeBuffers.advance(in, len, out, written);
+
+            return written;
+        }
+        finally
+        {
+            Reference.reachabilityFence(this);
+        }
+    }
+
     static native long makeCTRInstance();
 
     @Override
@@ -294,6 +340,8 @@ public class AESNativeCTR
 
     private static native int processBytes(long ref, byte[] in, int inOff, int len, byte[] out, int outOff);
 
+    private static native int processDirect(long ref, ByteBuffer in, int inOff, int len, ByteBuffer out, int outOff);
+
     private static native void reset(long ref);
 
 
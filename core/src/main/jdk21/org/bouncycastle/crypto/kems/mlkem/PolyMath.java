@@ -0,0 +1,87 @@
+package org.bouncycastle.crypto.kems.mlkem;
+
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+import org.bouncycastle.util.Properties;
+
+/**
+ * Whole polynomial arithmetic used by {@link Poly}. On Java 21 the Vector API is used when the
+ * jdk.incubator.vector module has been added to the runtime, otherwise this falls back to the scalar code.
+ */
+class PolyMath
+{
+    private static final boolean USE_VECTOR = useVector();
+
+    private static boolean useVector()
+    {
+        if (!Properties.isOverrideSet(Properties.PQC_VECTOR_API, true)
+            || ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN)
+        {
+            return false;
+        }
+
+        Optional<Module> vector = ModuleLayer.boot().findModule("jdk.incubator.vector");
+        if (!vector.isPresent())
+        {
+            return false;
+        }
+
+        try
+        {
+            // a no-op on the class path, needed when loaded from the named module
+            PolyMath.class.getModule().addReads(vector.get());
+
+            return VectorPolyMath.isSupported();
+        }
+        catch (LinkageError e)
+        {
+            return false;
+        }
+    }
+
+    static void ntt(short[] r)
+    {
+        if (USE_VECTOR)
+        {
+            VectorPolyMath.ntt(r);
+            return;
+        }
+        Ntt.ntt(r);
+    }
+
+    static void invNtt(short[] r)
+    {
+        if (USE_VECTOR)
+        {
+            VectorPolyMath.invNtt(r);
+            return;
+        }
+        Ntt.invNtt(r);
+    }
+
+    static void baseMultMontgomery(short[] r, short[] a, short[] b)
+    {
+        // left scalar, the vector form exceeds C2's inlining budget and ends up boxed
+        for (int i = 0; i < MLKEMEngine.N / 4; i++)
+        {
+            Ntt.baseMult(r, 4 * i, a[4 * i], a[4 * i + 1], b[4 * i], b[4 * i + 1], Ntt.ZETAS[64 + i]);
+            Ntt.baseMult(r, 4 * i + 2, a[4 * i + 2], a[4 * i + 3], b[4 * i + 2], b[4 * i + 3],
+                (short)(-1 * Ntt.ZETAS[64 + i]));
+        }
+    }
+
+    static void barrettReduce(short[] r)
+    {
+        if (USE_VECTOR)
+        {
+            VectorPolyMath.barrettReduce(r);
+            return;
+        }
+
+        for (int i = 0; i < MLKEMEngine.N; i++)
+        {
+            r[i] = Reduce.barrettReduce(r[i]);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.bouncycastle.crypto.signers.mldsa;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of the {@link PolyMath} routines, only loaded once PolyMath has found the
+ * jdk.incubator.vector module. Every lane wraps exactly as the scalar int arithmetic does so the results
+ * are identical to {@link Ntt} and {@link Reduce}.
+ * <p>
+ * A Montgomery product takes the high halves of two 64 bit products, a * b and t * q where t is the low
+ * half of a * b * qinv. The low halves are equal by construction so their difference is just the
+ * difference of the high halves, which are formed from the even and odd lanes as 64 bit products.
+ */
+class VectorPolyMath
+{
+    private static final int N = MLDSAEngine.DilithiumN;
+    private static final int Q = MLDSAEngine.DilithiumQ;
+    private static final int QINV = MLDSAEngine.DilithiumQinv;
+    private static final int F = 41978; // (mont^2)/256
+
+    // wider vectors would leave most of the NTT layers scalar
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED.vectorBitSize() > 256
+        ? IntVector.SPECIES_256 : IntVector.SPECIES_PREFERRED;
+
+    static boolean isSupported()
+    {
+        return SPECIES.length() >= 4;
+    }
+
+    private static IntVector mulHi(IntVector x, IntVector y)
+    {
+        LongVector xl = (LongVector)x.reinterpretAsLongs();
+        LongVector yl = (LongVector)y.reinterpretAsLongs();
+
+        LongVector even = xl.lanewise(VectorOperators.LSHL, 32).lanewise(VectorOperators.ASHR, 32)
+            .mul(yl.lanewise(VectorOperators.LSHL, 32).lanewise(VectorOperators.ASHR, 32));
+        LongVector odd = xl.lanewise(VectorOperators.ASHR, 32).mul(yl.lanewise(VectorOperators.ASHR, 32));
+
+        return (IntVector)even.lanewise(VectorOperators.LSHR, 32).or(odd.and(0xFFFFFFFF00000000L)).reinterpretAsInts();
+    }
+
+    private static IntVector montMul(IntVector x, IntVector y)
+    {
+        IntVector t = x.mul(y).mul(QINV);
+        return mulHi(x, y).sub(mulHi(t, IntVector.broadcast(SPECIES, Q)));
+    }
+
+    static void ntt(int[] r)
+    {
+        int k = 0;
+        for (int len = 128; len > 0; len >>>= 1)
+        {
+                        for (int start = 0; start < N; start += 2 * len)
+            {
+                int zeta = Ntt.nttZetas[++k];
+                if (len < SPECIES.length())
+                {
+                    for (int j = start; j < start + len; ++j)
+                    {
+                        int t = Reduce.montgomeryReduce((long)zeta * (long)r[j + len]);
+                        r[j + len] = r[j] - t;
+                        r[j] = r[j] + t;
+                    }
+                    continue;
+                }
+
+                IntVector z = IntVector.broadcast(SPECIES, zeta);
+                for (int j = start; j < start + len; j += SPECIES.length())
+                {
+                    IntVector lo = IntVector.fromArray(SPECIES, r, j);
+                    IntVector t = montMul(z, IntVector.fromArray(SPECIES, r, j + len));
+                    lo.sub(t).intoArray(r, j + len);
+                    lo.add(t).intoArray(r, j);
+                }
+            }
+        }
+    }
+
+    static void invNttToMont(int[] out)
+    {
+        int k = 256;
+        for (int len = 1; len < N; len <<= 1)
+        {
+                        for (int start = 0; start < N; start += 2 * len)
+            {
+                int zeta = -Ntt.nttZetas[--k];
+                if (len < SPECIES.length())
+                {
+                    for (int j = start; j < start + len; ++j)
+                    {
+                        int t = out[j];
+                        out[j] = t + out[j + len];
+                        out[j + len] = Reduce.montgomeryReduce((long)zeta * (long)(t - out[j + len]));
+                    }
+                    continue;
+                }
+
+                IntVector z = IntVector.broadcast(SPECIES, zeta);
+                for (int j = start; j < start + len; j += SPECIES.length())
+                {
+                    IntVector lo = IntVector.fromArray(SPECIES, out, j);
+                    IntVector hi = IntVector.fromArray(SPECIES, out, j + len);
+                    lo.add(hi).intoArray(out, j);
+                    montMul(z, lo.sub(hi)).intoArray(out, j + len);
+                }
+            }
+        }
+
+        IntVector f = IntVector.broadcast(SPECIES, F);
+        for (int j = 0; j < N; j += SPECIES.length())
+        {
+            montMul(f, IntVector.fromArray(SPECIES, out, j)).intoArray(out, j);
+        }
+    }
+
+    static void pointwiseMontgomery(int[] r, int[] a, int[] b)
+    {
+        for (int i = 0; i < N; i += SPECIES.length())
+        {
+            montMul(IntVector.fromArray(SPECIES, a, i), IntVector.fromArray(SPECIES, b, i)).intoArray(r, i);
+        }
+    }
+
+    static void reduce32(int[] a)
+    {
+        for (int i = 0; i < N; i += SPECIES.length())
+        {
+            IntVector v = IntVector.fromArray(SPECIES, a, i);
+            IntVector t = v.add(1 << 22).lanewise(VectorOperators.ASHR, 23);
+            v.sub(t.mul(Q)).intoArray(a, i);
+        }
+    }
+
+    static void conditionalAddQ(int[] a)
+    {
+        for (int i = 0; i < N; i += SPECIES.length())
+        {
+            IntVector v = IntVector.fromArray(SPECIES, a, i);
+            v.add(v.lanewise(VectorOperators.ASHR, 31).and(Q)).intoArray(a, i);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.bouncycastle.pqc.crypto.mldsa;
+
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+import org.bouncycastle.util.Properties;
+
+/**
+ * Whole polynomial arithmetic used by {@link Poly}. On Java 21 the Vector API is used when the
+ * jdk.incubator.vector module has been added to the runtime, otherwise this falls back to the scalar code.
+ */
+class PolyMath
+{
+    private static final boolean USE_VECTOR = useVector();
+
+    private static boolean useVector()
+    {
+        if (!Properties.isOverrideSet(Properties.PQC_VECTOR_API, true)
+            || ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN)
+        {
+            return false;
+        }
+
+        Optional<Module> vector = ModuleLayer.boot().findModule("jdk.incubator.vector");
+        if (!vector.isPresent())
+        {
+            return false;
+        }
+
+        try
+        {
+            // a no-op on the class path, needed when loaded from the named module
+            PolyMath.class.getModule().addReads(vector.get());
+
+            return VectorPolyMath.isSupported();
+        }
+        catch (LinkageError e)
+        {
+            return false;
+        }
+    }
+
+    static int[] ntt(int[] a)
+    {
+        if (USE_VECTOR)
+        {
+            return VectorPolyMath.ntt(a);
+        }
+        return Ntt.ntt(a);
+    }
+
+    static int[] invNttToMont(int[] a)
+    {
+        if (USE_VECTOR)
+        {
+            return VectorPolyMath.invNttToMont(a);
+        }
+        return Ntt.invNttToMont(a);
+    }
+
+    static void pointwiseMontgomery(int[] r, int[] a, int[] b)
+    {
+        if (USE_VECTOR)
+        {
+            VectorPolyMath.pointwiseMontgomery(r, a, b);
+            return;
+        }
+
+        for (int i = 0; i < MLDSAEngine.DilithiumN; ++i)
+        {
+            r[i] = Reduce.montgomeryReduce((long)a[i] * (long)b[i]);
+        }
+    }
+
+    static void reduce32(int[] a)
+    {
+        if (USE_VECTOR)
+        {
+            VectorPolyMath.reduce32(a);
+            return;
+        }
+
+        for (int i = 0; i < MLDSAEngine.DilithiumN; ++i)
+        {
+            a[i] = Reduce.reduce32(a[i]);
+        }
+    }
+
+    static void conditionalAddQ(int[] a)
+    {
+        if (USE_VECTOR)
+        {
+            VectorPolyMath.conditionalAddQ(a);
+            return;
+        }
+
+        for (int i = 0; i < MLDSAEngine.DilithiumN; ++i)
+        {
+            a[i] = Reduce.conditionalAddQ(a[i]);
+        }
+    }
+}
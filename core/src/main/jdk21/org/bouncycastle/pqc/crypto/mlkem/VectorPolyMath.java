@@ -0,0 +1,131 @@
+package org.bouncycastle.pqc.crypto.mlkem;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of the {@link PolyMath} routines, only loaded once PolyMath has found the
+ * jdk.incubator.vector module. Every lane wraps exactly as the scalar short arithmetic does so the results
+ * are identical to {@link Ntt} and {@link Reduce}.
+ * <p>
+ * The high half of a 16 bit product is formed by treating each pair of short lanes as an int and
+ * multiplying the even and odd halves separately.
+ */
+class VectorPolyMath
+{
+    private static final int N = MLKEMEngine.KyberN;
+    private static final short Q = (short)MLKEMEngine.KyberQ;
+    private static final short QINV = (short)MLKEMEngine.KyberQinv;
+    private static final short BARRETT_V = (short)(((1 << 26) + (MLKEMEngine.KyberQ / 2)) / MLKEMEngine.KyberQ);
+
+    // wider vectors would leave most of the NTT layers scalar
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED.vectorBitSize() > 256
+        ? ShortVector.SPECIES_256 : ShortVector.SPECIES_PREFERRED;
+
+    static boolean isSupported()
+    {
+        return SPECIES.length() >= 8;
+    }
+
+    private static ShortVector mulHi(ShortVector x, ShortVector y)
+    {
+        IntVector xi = (IntVector)x.reinterpretAsInts();
+        IntVector yi = (IntVector)y.reinterpretAsInts();
+
+        IntVector even = xi.lanewise(VectorOperators.LSHL, 16).lanewise(VectorOperators.ASHR, 16)
+            .mul(yi.lanewise(VectorOperators.LSHL, 16).lanewise(VectorOperators.ASHR, 16));
+        IntVector odd = xi.lanewise(VectorOperators.ASHR, 16).mul(yi.lanewise(VectorOperators.ASHR, 16));
+
+        return (ShortVector)even.lanewise(VectorOperators.LSHR, 16).or(odd.and(0xFFFF0000)).reinterpretAsShorts();
+    }
+
+    private static ShortVector mulMont(ShortVector x, ShortVector y)
+    {
+        ShortVector u = x.mul(y).mul(QINV);
+        return mulHi(x, y).sub(mulHi(u, ShortVector.broadcast(SPECIES, Q)));
+    }
+
+    private static ShortVector barrett(ShortVector a)
+    {
+        ShortVector t = mulHi(a, ShortVector.broadcast(SPECIES, BARRETT_V)).lanewise(VectorOperators.ASHR, 10);
+        return a.sub(t.mul(Q));
+    }
+
+    static void ntt(short[] r)
+    {
+        int k = 1;
+        for (int len = 128; len >= 2; len >>= 1)
+        {
+                        for (int start = 0; start < N; start += 2 * len)
+            {
+                short zeta = Ntt.ZETAS[k++];
+                if (len < SPECIES.length())
+                {
+                    for (int j = start; j < start + len; ++j)
+                    {
+                        short t = r[j], u = Ntt.mulMont(zeta, r[j + len]);
+                        r[j + len] = (short)(t - u);
+                        r[j] = (short)(t + u);
+                    }
+                    continue;
+                }
+
+                ShortVector z = ShortVector.broadcast(SPECIES, zeta);
+                for (int j = start; j < start + len; j += SPECIES.length())
+                {
+                    ShortVector t = ShortVector.fromArray(SPECIES, r, j);
+                    ShortVector u = mulMont(z, ShortVector.fromArray(SPECIES, r, j + len));
+                    t.sub(u).intoArray(r, j + len);
+                    t.add(u).intoArray(r, j);
+                }
+            }
+        }
+    }
+
+    static void invNtt(short[] r)
+    {
+        int k = 0;
+        for (int len = 2; len <= 128; len <<= 1)
+        {
+                        for (int start = 0; start < N; start += 2 * len)
+            {
+                short zeta = Ntt.ZETAS_INV[k++];
+                if (len < SPECIES.length())
+                {
+                    for (int j = start; j < start + len; ++j)
+                    {
+                        short t = r[j], u = r[j + len];
+                        r[j] = Reduce.barrettReduce((short)(t + u));
+                        r[j + len] = Ntt.mulMont(zeta, (short)(t - u));
+                    }
+                    continue;
+                }
+
+                ShortVector z = ShortVector.broadcast(SPECIES, zeta);
+                for (int j = start; j < start + len; j += SPECIES.length())
+                {
+                    ShortVector t = ShortVector.fromArray(SPECIES, r, j);
+                    ShortVector u = ShortVector.fromArray(SPECIES, r, j + len);
+                    barrett(t.add(u)).intoArray(r, j);
+                    mulMont(z, t.sub(u)).intoArray(r, j + len);
+                }
+            }
+        }
+
+        ShortVector f = ShortVector.broadcast(SPECIES, Ntt.ZETAS_INV[127]);
+        for (int i = 0; i < N; i += SPECIES.length())
+        {
+            mulMont(ShortVector.fromArray(SPECIES, r, i), f).intoArray(r, i);
+        }
+    }
+
+    static void barrettReduce(short[] r)
+    {
+        for (int i = 0; i < N; i += SPECIES.length())
+        {
+            barrett(ShortVector.fromArray(SPECIES, r, i)).intoArray(r, i);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.bouncycastle.crypto.digests;
 
 import junit.framework.TestCase;
 import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.OutputLengthException;
 import org.bouncycastle.crypto.SavableDigest;
 import org.bouncycastle.crypto.engines.TestUtil;
 import org.bouncycastle.util.Arrays;
@@ -94,5 +95,60 @@ public class SHA256JavaAgreementTest extends TestCase
 
     }
 
+    @Test
+    public void testHashBatch() throws Exception
+    {
+        SecureRandom random = new SecureRandom();
+
+        // lengths either side of the padding boundaries and a count that is not a whole number of lanes
+        byte[][] msgs = new byte[150][];
+        byte[][] expected = new byte[msgs.length][];
+        for (int i = 0; i != msgs.length; i++)
+        {
+            msgs[i] = new byte[i < 130 ? i : random.nextInt(2048)];
+            random.nextBytes(msgs[i]);
+
+            SHA256Digest dig = new SHA256Digest();
+            dig.update(msgs[i], 0, msgs[i].length);
+            expected[i] = new byte[32];
+            dig.doFinal(expected[i], 0);
+        }
+
+        CryptoServicesRegistrar.setNativeEnabled(false);
+        byte[][] java = new byte[msgs.length][32];
+        SHA256Digest.hashBatch(msgs, java);
+        for (int i = 0; i != msgs.length; i++)
+        {
+            TestCase.assertTrue(Arrays.areEqual(expected[i], java[i]));
+        }
+
+        try
+        {
+            SHA256Digest.hashBatch(new byte[][]{new byte[1]}, new byte[][]{new byte[31]});
+            fail("short output accepted");
+        }
+        catch (OutputLengthException e)
+        {
+            // expected
+        }
+
+        if (!TestUtil.hasNativeService("SHA2"))
+        {
+            if (!System.getProperty("test.bclts.ignore.native", "").contains("sha"))
+            {
+                TestCase.fail("Skipping SHA2 batch Agreement Test: " + TestUtil.errorMsg());
+            }
+            return;
+        }
+
+        CryptoServicesRegistrar.setNativeEnabled(true);
+        byte[][] nativeDigests = new byte[msgs.length][33];
+        SHA256Digest.hashBatch(msgs, nativeDigests);
+        for (int i = 0; i != msgs.length; i++)
+        {
+            TestCase.assertTrue(Arrays.areEqual(expected[i], Arrays.copyOf(nativeDigests[i], 32)));
+        }
+    }
+
 
 }
@@ -4,6 +4,8 @@ import junit.framework.TestCase;
 import org.bouncycastle.crypto.CryptoServicesRegistrar;
 import org.bouncycastle.crypto.Digest;
 import org.bouncycastle.crypto.NativeServices;
+import org.bouncycastle.crypto.OutputLengthException;
+import org.bouncycastle.crypto.ParallelXof;
 import org.bouncycastle.crypto.Xof;
 import org.bouncycastle.crypto.engines.TestUtil;
 import org.bouncycastle.util.Arrays;
@@ -366,4 +368,73 @@ public class SHAKEJavaAgreementTest extends TestCase
     }
 
 
+    public void testParallel() throws Exception
+    {
+        SecureRandom random = new SecureRandom();
+
+        for (int bitLen : new int[]{128, 256})
+        {
+            // lengths either side of the rate, inputs read from an offset
+            for (int len : new int[]{0, 1, 34, 135, 136, 137, 167, 168, 169, 500})
+            {
+                byte[][] in = new byte[4][len + 3];
+                byte[][] expected = new byte[4][];
+                for (int l = 0; l != 4; l++)
+                {
+                    random.nextBytes(in[l]);
+
+                    SHAKEDigest dig = new SHAKEDigest(bitLen);
+                    dig.update(in[l], 3, len);
+                    expected[l] = new byte[3 * dig.getByteLength()];
+                    dig.doFinal(expected[l], 0, expected[l].length);
+                }
+
+                CryptoServicesRegistrar.setNativeEnabled(false);
+                ParallelXof java = SHAKEx4Digest.newInstance(bitLen);
+                TestCase.assertTrue(java.toString().contains("SHAKEx4[Java]"));
+                checkParallel(java, in, len, expected);
+
+                if (TestUtil.hasNativeService(NativeServices.SHAKE))
+                {
+                    CryptoServicesRegistrar.setNativeEnabled(true);
+                    ParallelXof nativeXof = SHAKEx4Digest.newInstance(bitLen);
+                    TestCase.assertTrue(nativeXof.toString().contains("SHAKEx4[Native]"));
+                    checkParallel(nativeXof, in, len, expected);
+                }
+            }
+        }
+
+        if (!TestUtil.hasNativeService(NativeServices.SHAKE))
+        {
+            if (!System.getProperty("test.bclts.ignore.native", "").contains("shake"))
+            {
+                TestCase.fail("Skipping SHAKE parallel Agreement Test: " + TestUtil.errorMsg());
+            }
+        }
+    }
+
+    private void checkParallel(ParallelXof xof, byte[][] in, int len, byte[][] expected)
+    {
+        int rate = xof.getBlockSize();
+        byte[][] out = new byte[4][1 + 3 * rate];
+
+        xof.absorb(in, 3, len);
+        xof.squeezeBlocks(out, 1, 2);
+        xof.squeezeBlocks(out, 1 + 2 * rate, 1);
+
+        for (int l = 0; l != 4; l++)
+        {
+            TestCase.assertTrue(Arrays.areEqual(expected[l], Arrays.copyOfRange(out[l], 1, out[l].length)));
+        }
+
+        try
+        {
+            xof.squeezeBlocks(new byte[][]{new byte[rate], new byte[rate], new byte[rate - 1], new byte[rate]}, 0, 1);
+            fail("short output accepted");
+        }
+        catch (OutputLengthException e)
+        {
+            // expected
+        }
+    }
 }
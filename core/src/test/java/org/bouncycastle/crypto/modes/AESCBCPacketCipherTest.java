@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.modes;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.security.SecureRandom;
 
 import junit.framework.TestCase;
@@ -242,6 +244,96 @@ public class AESCBCPacketCipherTest
         }
     }
 
+    /**
+     * Tests the ByteBuffer entry point with heap, direct and mixed buffers against the array version.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testByteBuffers() throws Exception
+    {
+        if (TestUtil.skipPS()) {
+            System.out.println("Skipping packet cipher test.");
+            return;
+        }
+
+        SecureRandom secureRandom = new SecureRandom();
+
+        AESCBCModePacketCipher cbcPS = AESCBCPacketCipher.newInstance();
+
+        byte[] iv = new byte[16];
+        secureRandom.nextBytes(iv);
+        for (int ks : new int[]{16, 24, 32})
+        {
+            byte[] key = new byte[ks];
+            secureRandom.nextBytes(key);
+            CipherParameters cp = new ParametersWithIV(new KeyParameter(key), iv);
+
+            for (int t = 0; t < 1024; t += 16)
+            {
+                byte[] msg = new byte[t];
+                secureRandom.nextBytes(msg);
+
+                byte[] expectedCText = new byte[msg.length];
+                cbcPS.processPacket(true, cp, msg, 0, msg.length, expectedCText, 0);
+
+                for (int variant = 0; variant < 4; variant++)
+                {
+                    // odd positions so the data is not aligned in the buffer
+                    ByteBuffer in = ((variant & 1) != 0) ? ByteBuffer.allocateDirect(t + 3) : ByteBuffer.allocate(t + 3);
+                    ByteBuffer out = ((variant & 2) != 0) ? ByteBuffer.allocateDirect(t + 5) : ByteBuffer.allocate(t + 5);
+                    in.position(3);
+                    in.put(msg);
+                    in.position(3);
+                    out.position(5);
+
+                    int len = cbcPS.processPacket(true, cp, in, out);
+                    TestCase.assertEquals(msg.length, len);
+                    TestCase.assertEquals(in.limit(), in.position());
+                    TestCase.assertEquals(5 + len, out.position());
+
+                    byte[] ctext = new byte[len];
+                    out.position(5);
+                    out.get(ctext);
+                    TestCase.assertTrue("cipher text not same", Arrays.areEqual(expectedCText, ctext));
+
+                    out.position(5);
+                    in.clear();
+                    in.position(3);
+                    len = cbcPS.processPacket(false, cp, out, in);
+                    TestCase.assertEquals(msg.length, len);
+
+                    byte[] ptext = new byte[len];
+                    in.position(3);
+                    in.get(ptext);
+                    TestCase.assertTrue("plain text not same", Arrays.areEqual(msg, ptext));
+                }
+            }
+        }
+
+        try
+        {
+            CipherParameters cp = new ParametersWithIV(new KeyParameter(new byte[16]), iv);
+            cbcPS.processPacket(true, cp, ByteBuffer.allocateDirect(32), ByteBuffer.allocateDirect(16));
+            fail("output buffer too small for processPacket");
+        }
+        catch (PacketCipherException e)
+        {
+            TestCase.assertEquals(PacketCipherException.Reason.OUTPUT_LENGTH, e.getReason());
+        }
+
+        try
+        {
+            CipherParameters cp = new ParametersWithIV(new KeyParameter(new byte[16]), iv);
+            cbcPS.processPacket(true, cp, ByteBuffer.allocateDirect(16), ByteBuffer.allocateDirect(16).asReadOnlyBuffer());
+            fail("read only output for processPacket");
+        }
+        catch (PacketCipherException e)
+        {
+            TestCase.assertTrue(e.getCause() instanceof ReadOnlyBufferException);
+        }
+    }
+
     @Test
     public void testExceptions()
     {
@@ -1,5 +1,6 @@
 package org.bouncycastle.crypto.modes;
 
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
 
 import javax.security.auth.DestroyFailedException;
@@ -483,6 +484,164 @@ public class AESGCMPacketCipherTest
     }
 
 
+    /**
+     * Tests the ByteBuffer entry point with heap, direct and mixed buffers against the array version.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testByteBuffers()
+    throws Exception
+    {
+        if (TestUtil.skipPS())
+        {
+            System.out.println("Skipping packet cipher test.");
+            return;
+        }
+
+        SecureRandom secureRandom = new SecureRandom();
+
+        AESGCMModePacketCipher gcmPS = AESGCMPacketCipher.newInstance();
+
+        for (int ks : new int[]{16, 24, 32})
+        {
+            byte[] key = new byte[ks];
+            secureRandom.nextBytes(key);
+
+            for (int t = 0; t < 1024; t += 7)
+            {
+                byte[] msg = new byte[t];
+                secureRandom.nextBytes(msg);
+                byte[] aad = new byte[t % 13];
+                secureRandom.nextBytes(aad);
+
+                for (int variant = 0; variant < 4; variant++)
+                {
+                    byte[] nonce = new byte[12];
+                    secureRandom.nextBytes(nonce);
+                    CipherParameters cp = new AEADParameters(new KeyParameter(key), 128, nonce, aad);
+
+                    byte[] expectedCText = new byte[gcmPS.getOutputSize(true, cp, msg.length)];
+                    gcmPS.processPacket(true, cp, msg, 0, msg.length, expectedCText, 0);
+
+                    // the array call above used the same key and nonce, a fresh instance avoids the reuse check
+                    AESGCMModePacketCipher bufPS = AESGCMPacketCipher.newInstance();
+
+                    // odd positions so the data is not aligned in the buffer
+                    ByteBuffer in = ((variant & 1) != 0) ? ByteBuffer.allocateDirect(t + 3) : ByteBuffer.allocate(t + 3);
+                    ByteBuffer out = ((variant & 2) != 0) ? ByteBuffer.allocateDirect(t + 21) : ByteBuffer.allocate(t + 21);
+                    in.position(3);
+                    in.put(msg);
+                    in.position(3);
+                    out.position(5);
+
+                    int len = bufPS.processPacket(true, cp, in, out);
+                    TestCase.assertEquals(expectedCText.length, len);
+                    TestCase.assertEquals(in.limit(), in.position());
+                    TestCase.assertEquals(5 + len, out.position());
+
+                    byte[] ctext = new byte[len];
+                    out.position(5);
+                    out.get(ctext);
+                    TestCase.assertTrue("cipher text not same", Arrays.areEqual(expectedCText, ctext));
+
+                    out.position(5);
+                    in.clear();
+                    in.position(3);
+                    len = bufPS.processPacket(false, cp, out, in);
+                    TestCase.assertEquals(msg.length, len);
+
+                    byte[] ptext = new byte[len];
+                    in.position(3);
+                    in.get(ptext);
+                    TestCase.assertTrue("plain text not same", Arrays.areEqual(msg, ptext));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGather()
+        throws Exception
+    {
+        if (TestUtil.skipPS())
+        {
+            System.out.println("Skipping packet cipher test.");
+            return;
+        }
+
+        SecureRandom secureRandom = new SecureRandom();
+
+        AESGCMModePacketCipher gcmPS = AESGCMPacketCipher.newInstance();
+
+        for (int ks : new int[]{16, 24, 32})
+        {
+            byte[] key = new byte[ks];
+            secureRandom.nextBytes(key);
+
+            for (int t = 0; t < 1024; t += 7)
+            {
+                byte[] msg = new byte[t];
+                secureRandom.nextBytes(msg);
+                byte[] aad = new byte[t % 29];
+                secureRandom.nextBytes(aad);
+
+                byte[] nonce = new byte[12];
+                secureRandom.nextBytes(nonce);
+
+                byte[] expectedCText = new byte[gcmPS.getOutputSize(true,
+                    new AEADParameters(new KeyParameter(key), 128, nonce), msg.length)];
+                gcmPS.processPacket(true, new AEADParameters(new KeyParameter(key), 128, nonce, aad), msg, 0,
+                    msg.length, expectedCText, 0);
+
+                // parameter associated text comes first, then the segments, split unevenly over both
+                int a0 = aad.length / 3, a1 = aad.length / 2;
+                byte[] aadPrefix = Arrays.copyOfRange(aad, 0, a0);
+                byte[][] aadSegs = new byte[][]{aad, Arrays.copyOfRange(aad, a1, aad.length)};
+                int[] aadOffs = new int[]{a0, 0};
+                int[] aadLens = new int[]{a1 - a0, aad.length - a1};
+
+                int m0 = t / 5, m1 = t - t / 3;
+                byte[] padded = new byte[t + 9];
+                System.arraycopy(msg, m0, padded, 9, m1 - m0);
+                byte[][] inSegs = new byte[][]{msg, padded, Arrays.copyOfRange(msg, m1, t)};
+                int[] inOffs = new int[]{0, 9, 0};
+                int[] inLens = new int[]{m0, m1 - m0, t - m1};
+
+                // the array call above used the same key and nonce, a fresh instance avoids the reuse check
+                AESGCMModePacketCipher gatherPS = AESGCMPacketCipher.newInstance();
+                CipherParameters cp = new AEADParameters(new KeyParameter(key), 128, nonce, aadPrefix);
+
+                byte[] ctext = new byte[expectedCText.length + 3];
+                int len = gatherPS.processPacket(true, cp, aadSegs, aadOffs, aadLens, inSegs, inOffs, inLens,
+                    ctext, 3);
+                TestCase.assertEquals(expectedCText.length, len);
+                TestCase.assertTrue("cipher text not same",
+                    Arrays.areEqual(expectedCText, Arrays.copyOfRange(ctext, 3, 3 + len)));
+
+                // split the tag across segments on the way back
+                int c0 = len / 2;
+                byte[] ptext = new byte[t];
+                len = gatherPS.processPacket(false, cp, aadSegs, aadOffs, aadLens,
+                    new byte[][]{ctext, ctext}, new int[]{3, 3 + c0}, new int[]{c0, expectedCText.length - c0},
+                    ptext, 0);
+                TestCase.assertEquals(t, len);
+                TestCase.assertTrue("plain text not same", Arrays.areEqual(msg, ptext));
+            }
+        }
+
+        try
+        {
+            gcmPS.processPacket(true, new AEADParameters(new KeyParameter(new byte[16]), 128, new byte[12]),
+                null, null, null, new byte[][]{new byte[16]}, new int[]{0}, new int[]{17}, new byte[32], 0);
+            fail("segment past end of array");
+        }
+        catch (PacketCipherException e)
+        {
+            // expected
+        }
+    }
+
     /**
      * Tests operation of packet cipher where input and output arrays are the same
      *
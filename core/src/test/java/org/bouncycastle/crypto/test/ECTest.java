@@ -25,6 +25,7 @@ import org.bouncycastle.crypto.params.ECDHUPrivateParameters;
 import org.bouncycastle.crypto.params.ECDHUPublicParameters;
 import org.bouncycastle.crypto.params.ECDomainParameters;
 import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
+import org.bouncycastle.crypto.params.ECPreparedPublicKeyParameters;
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.bouncycastle.crypto.params.MQVPrivateParameters;
@@ -735,6 +736,43 @@ public class ECTest
         }
     }
 
+    private void testECDSAPreparedPublicKey()
+    {
+        SecureRandom random = new SecureRandom();
+
+        // The prepared tables differ for plain, GLV, and Koblitz curves
+        String[] curveNames = new String[]{ "secp256r1", "secp256k1", "sect233k1" };
+        for (int i = 0; i < curveNames.length; ++i)
+        {
+            X9ECParameters x9 = CustomNamedCurves.getByName(curveNames[i]);
+            ECDomainParameters params = new ECDomainParameters(x9);
+
+            ECKeyPairGenerator pGen = new ECKeyPairGenerator();
+            pGen.init(new ECKeyGenerationParameters(params, random));
+            AsymmetricCipherKeyPair pair = pGen.generateKeyPair();
+
+            ECPreparedPublicKeyParameters prepared = new ECPreparedPublicKeyParameters(
+                (ECPublicKeyParameters)pair.getPublic());
+
+            ECDSASigner signer = new ECDSASigner();
+            ECDSASigner verifier = new ECDSASigner();
+            signer.init(true, new ParametersWithRandom(pair.getPrivate(), random));
+            verifier.init(false, prepared);
+
+            for (int j = 0; j < 8; ++j)
+            {
+                byte[] message = new byte[32];
+                random.nextBytes(message);
+                BigInteger[] sig = signer.generateSignature(message);
+
+                isTrue("prepared key signature fails: " + curveNames[i],
+                    verifier.verifySignature(message, sig[0], sig[1]));
+                isTrue("prepared key verifies bad signature: " + curveNames[i],
+                    !verifier.verifySignature(message, sig[0], sig[1].add(ECConstants.ONE)));
+            }
+        }
+    }
+
     /**
      * Basic Key Agreement Test
      */
@@ -1148,6 +1186,7 @@ public class ECTest
         testECDSA191bitBinary();
         testECDSA239bitBinary();
         testECDSAKeyGenTest();
+        testECDSAPreparedPublicKey();
         testECDHBasicAgreement();
         testECDHBasicAgreementCofactor();
 
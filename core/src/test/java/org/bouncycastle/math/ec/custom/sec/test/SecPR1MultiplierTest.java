@@ -0,0 +1,135 @@
+package org.bouncycastle.math.ec.custom.sec.test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.asn1.sec.SECObjectIdentifiers;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.agreement.ECDHBasicAgreement;
+import org.bouncycastle.crypto.agreement.ECDHCBasicAgreement;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECConstants;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.custom.sec.SecPR1Multiplier;
+
+import junit.framework.TestCase;
+
+public class SecPR1MultiplierTest extends TestCase
+{
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final int COUNT = 50;
+
+    public void testBasePointP256()
+    {
+        implTestBasePoint(CustomNamedCurves.getByOID(SECObjectIdentifiers.secp256r1));
+    }
+
+    public void testBasePointP384()
+    {
+        implTestBasePoint(CustomNamedCurves.getByOID(SECObjectIdentifiers.secp384r1));
+    }
+
+    public void testVariablePointP256()
+    {
+        implTestVariablePoint(CustomNamedCurves.getByOID(SECObjectIdentifiers.secp256r1));
+    }
+
+    public void testVariablePointP384()
+    {
+        implTestVariablePoint(CustomNamedCurves.getByOID(SECObjectIdentifiers.secp384r1));
+    }
+
+    public void testAgreementP256()
+    {
+        implTestAgreement(CustomNamedCurves.getByOID(SECObjectIdentifiers.secp256r1));
+    }
+
+    public void testAgreementP384()
+    {
+        implTestAgreement(CustomNamedCurves.getByOID(SECObjectIdentifiers.secp384r1));
+    }
+
+    public void testNoInstanceForOtherCurves()
+    {
+        assertNull(SecPR1Multiplier.getInstance(CustomNamedCurves.getByOID(SECObjectIdentifiers.secp256k1).getCurve()));
+        assertNull(SecPR1Multiplier.getInstance(CustomNamedCurves.getByOID(SECObjectIdentifiers.secp521r1).getCurve()));
+    }
+
+    private void implTestBasePoint(X9ECParameters x9)
+    {
+        ECMultiplier m = SecPR1Multiplier.getInstance(x9.getCurve());
+        assertNotNull(m);
+
+        ECPoint g = x9.getG();
+        BigInteger n = x9.getN();
+
+        BigInteger[] edges = new BigInteger[]{ ECConstants.ONE, ECConstants.TWO, n.subtract(ECConstants.ONE),
+            n.subtract(ECConstants.TWO), n, n.add(ECConstants.ONE) };
+        for (int i = 0; i < edges.length; ++i)
+        {
+            implTestMultiply(m, g, edges[i]);
+        }
+
+        for (int i = 0; i < COUNT; ++i)
+        {
+            implTestMultiply(m, g, new BigInteger(n.bitLength(), RANDOM));
+        }
+    }
+
+    private void implTestVariablePoint(X9ECParameters x9)
+    {
+        ECMultiplier m = SecPR1Multiplier.getInstance(x9.getCurve());
+        assertNotNull(m);
+
+        BigInteger n = x9.getN();
+
+        for (int i = 0; i < COUNT; ++i)
+        {
+            ECPoint p = ECAlgorithms.referenceMultiply(x9.getG(), new BigInteger(n.bitLength(), RANDOM));
+
+            implTestMultiply(m, p, new BigInteger(n.bitLength(), RANDOM));
+            implTestMultiply(m, p, n.subtract(ECConstants.ONE));
+            implTestMultiply(m, p, n);
+        }
+    }
+
+    private void implTestAgreement(X9ECParameters x9)
+    {
+        ECDomainParameters params = new ECDomainParameters(x9);
+        BigInteger n = x9.getN();
+
+        for (int i = 0; i < COUNT; ++i)
+        {
+            BigInteger d = new BigInteger(n.bitLength() - 1, RANDOM).add(ECConstants.ONE);
+            BigInteger e = new BigInteger(n.bitLength() - 1, RANDOM).add(ECConstants.ONE);
+            ECPoint q = ECAlgorithms.referenceMultiply(x9.getG(), e);
+
+            ECPrivateKeyParameters priv = new ECPrivateKeyParameters(d, params);
+            ECPublicKeyParameters pub = new ECPublicKeyParameters(q, params);
+            BigInteger expected = ECAlgorithms.referenceMultiply(q, d).normalize().getAffineXCoord().toBigInteger();
+
+            ECDHBasicAgreement ecdh = new ECDHBasicAgreement();
+            ecdh.init(priv);
+            assertEquals(expected, ecdh.calculateAgreement(pub));
+
+            ECDHCBasicAgreement ecdhc = new ECDHCBasicAgreement();
+            ecdhc.init(priv);
+            assertEquals(expected, ecdhc.calculateAgreement(pub));
+        }
+    }
+
+    private void implTestMultiply(ECMultiplier m, ECPoint p, BigInteger k)
+    {
+        ECPoint expected = ECAlgorithms.referenceMultiply(p, k);
+        ECPoint actual = m.multiply(p, k);
+
+        assertEquals(expected, actual);
+        assertEquals(expected.negate(), m.multiply(p, k.negate()));
+    }
+}
@@ -78,7 +78,117 @@ public class Ed25519Test
             }
         }
     }
-    
+
+//    @Test
+    public void testEd25519BatchVerify()
+    {
+        int count = 24;
+
+        byte[][] sigs = new byte[count][];
+        Ed25519.PublicPoint[] publicPoints = new Ed25519.PublicPoint[count];
+        byte[][] ms = new byte[count][];
+        boolean[] results = new boolean[count];
+
+        // Several signatures per key, so that the batch combines work for repeated public keys
+        byte[][] sks = new byte[6][Ed25519.SECRET_KEY_SIZE];
+        Ed25519.PublicPoint[] keys = new Ed25519.PublicPoint[sks.length];
+        for (int i = 0; i < sks.length; ++i)
+        {
+            Ed25519.generatePrivateKey(RANDOM, sks[i]);
+            keys[i] = Ed25519.generatePublicKey(sks[i], 0);
+        }
+
+        for (int i = 0; i < count; ++i)
+        {
+            int key = i % sks.length;
+
+            ms[i] = new byte[RANDOM.nextInt() & 255];
+            RANDOM.nextBytes(ms[i]);
+            sigs[i] = new byte[Ed25519.SIGNATURE_SIZE];
+            Ed25519.sign(sks[key], 0, ms[i], 0, ms[i].length, sigs[i], 0);
+            publicPoints[i] = keys[key];
+        }
+
+        assertTrue(Ed25519.verifyBatch(RANDOM, sigs, publicPoints, ms, results));
+        for (int i = 0; i < count; ++i)
+        {
+            assertTrue("Ed25519 batch verification #" + i, results[i]);
+        }
+
+        // Wrong message, malformed S, and the wrong key
+        ms[3] = Arrays.concatenate(ms[3], new byte[1]);
+        sigs[10][Ed25519.SIGNATURE_SIZE - 1] ^= 0x80;
+        publicPoints[17] = keys[(17 + 1) % sks.length];
+
+        assertFalse(Ed25519.verifyBatch(RANDOM, sigs, publicPoints, ms, results));
+        for (int i = 0; i < count; ++i)
+        {
+            boolean expected = i != 3 && i != 10 && i != 17;
+            assertEquals("Ed25519 batch verification #" + i, expected, results[i]);
+            assertEquals("Ed25519 batch verification #" + i, expected,
+                Ed25519.verify(sigs[i], 0, publicPoints[i], ms[i], 0, ms[i].length));
+        }
+
+        assertFalse(Ed25519.verifyBatch(RANDOM, sigs, publicPoints, ms, null));
+    }
+
+//    @Test
+    public void testEd25519BatchVerifyTaming()
+    {
+        // Taming vectors 2-5 (mixed-order R or A) are accepted by cofactored verification
+        String[][] vectors = new String[][]{
+            { "aebf3f2601a0c8c5d39cc7d8911642f740b78168218da8471772b35f9d35b9ab",
+              "f7badec5b8abeaf699583992219b7b223f1df3fbbea919844e3f7c554a43dd43",
+              "c7176a703d4dd84fba3c0b760d10670f2a2053fa2c39ccc64ec7fd7792ac03fa" +
+              "8c4bd45aecaca5b24fb97bc10ac27ac8751a7dfe1baff8b953ec9f5833ca260e" },
+            { "9bd9f44f4dcc75bd531b56b2cd280b0bb38fc1cd6d1230e14861d861de092e79",
+              "cdb267ce40c5cd45306fa5d2f29731459387dbf9eb933b7bd5aed9a765b88d4d",
+              "9046a64750444938de19f227bb80485e92b83fdb4b6506c160484c016cc1852f" +
+              "87909e14428a7a1d62e9f22f3d3ad7802db02eb2e688b6c52fcd6648a98bd009" },
+            { "e47d62c63f830dc7a6851a0b1f33ae4bb2f507fb6cffec4011eaccd55b53f56c",
+              "cdb267ce40c5cd45306fa5d2f29731459387dbf9eb933b7bd5aed9a765b88d4d",
+              "160a1cb0dc9c0258cd0a7d23e94d8fa878bcb1925f2c64246b2dee1796bed512" +
+              "5ec6bc982a269b723e0668e540911a9a6a58921d6925e434ab10aa7940551a09" },
+            { "e47d62c63f830dc7a6851a0b1f33ae4bb2f507fb6cffec4011eaccd55b53f56c",
+              "cdb267ce40c5cd45306fa5d2f29731459387dbf9eb933b7bd5aed9a765b88d4d",
+              "21122a84e0b5fca4052f5b1235c80a537878b38f3142356b2c2384ebad4668b7" +
+              "e40bc836dac0f71076f9abe3a53f9c03c1ceeeddb658d0030494ace586687405" },
+        };
+
+        int count = vectors.length * 2;
+
+        byte[][] sigs = new byte[count][];
+        Ed25519.PublicPoint[] publicPoints = new Ed25519.PublicPoint[count];
+        byte[][] ms = new byte[count][];
+        boolean[] results = new boolean[count];
+
+        for (int i = 0; i < vectors.length; ++i)
+        {
+            ms[i] = Hex.decodeStrict(vectors[i][0]);
+            publicPoints[i] = Ed25519.validatePublicKeyPartialExport(Hex.decodeStrict(vectors[i][1]), 0);
+            sigs[i] = Hex.decodeStrict(vectors[i][2]);
+        }
+
+        byte[] sk = new byte[Ed25519.SECRET_KEY_SIZE];
+        Ed25519.generatePrivateKey(RANDOM, sk);
+        Ed25519.PublicPoint publicPoint = Ed25519.generatePublicKey(sk, 0);
+
+        for (int i = vectors.length; i < count; ++i)
+        {
+            ms[i] = new byte[32];
+            RANDOM.nextBytes(ms[i]);
+            sigs[i] = new byte[Ed25519.SIGNATURE_SIZE];
+            Ed25519.sign(sk, 0, ms[i], 0, ms[i].length, sigs[i], 0);
+            publicPoints[i] = publicPoint;
+        }
+
+        assertTrue(Ed25519.verifyBatch(RANDOM, sigs, publicPoints, ms, results));
+        for (int i = 0; i < count; ++i)
+        {
+            assertTrue("Ed25519 batch verification #" + i, results[i]);
+        }
+    }
+
 //    @Test
     public void testEd25519ctxConsistency()
     {
@@ -11,6 +11,7 @@ import junit.framework.TestSuite;
 import org.bouncycastle.math.ec.custom.sec.test.SecP128R1FieldTest;
 import org.bouncycastle.math.ec.custom.sec.test.SecP256R1FieldTest;
 import org.bouncycastle.math.ec.custom.sec.test.SecP384R1FieldTest;
+import org.bouncycastle.math.ec.custom.sec.test.SecPR1MultiplierTest;
 import org.bouncycastle.math.ec.rfc7748.test.X25519Test;
 import org.bouncycastle.math.ec.rfc7748.test.X448Test;
 import org.bouncycastle.math.ec.rfc8032.test.Ed25519Test;
@@ -40,6 +41,7 @@ public class AllTests
         suite.addTestSuite(SecP128R1FieldTest.class);
         suite.addTestSuite(SecP256R1FieldTest.class);
         suite.addTestSuite(SecP384R1FieldTest.class);
+        suite.addTestSuite(SecPR1MultiplierTest.class);
         suite.addTestSuite(X25519Test.class);
         suite.addTestSuite(X448Test.class);
         suite.addTestSuite(Ed25519Test.class);
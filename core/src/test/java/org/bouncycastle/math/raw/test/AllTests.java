@@ -21,6 +21,7 @@ public class AllTests
         TestSuite suite = new TestSuite("Raw math tests");
 
         suite.addTest(InterleaveTest.suite());
+        suite.addTest(ModExpTest.suite());
 
         return new BCTestSetup(suite);
     }
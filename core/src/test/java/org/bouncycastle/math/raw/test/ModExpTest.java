@@ -0,0 +1,78 @@
+package org.bouncycastle.math.raw.test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.math.raw.ModExp;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class ModExpTest extends TestCase
+{
+    private static final int ITERATIONS = 50;
+
+    private static final SecureRandom R = new SecureRandom();
+
+    private static final int[] BITS = new int[]{ 2, 31, 32, 33, 63, 64, 65, 127, 160, 255, 256, 521, 1024, 1536 };
+
+    public void testModPowConstantTime()
+    {
+        for (int i = 0; i < BITS.length; ++i)
+        {
+            int bits = BITS[i];
+            for (int iteration = 0; iteration < ITERATIONS; ++iteration)
+            {
+                BigInteger m = new BigInteger(bits, R).setBit(bits - 1).setBit(0);
+                BigInteger x = new BigInteger(bits + 16, R);
+                BigInteger e = new BigInteger(R.nextInt(bits + 64) + 1, R);
+
+                assertEquals(x.modPow(e, m), ModExp.modPowConstantTime(x, e, m));
+            }
+        }
+    }
+
+    public void testModPowConstantTimeEdgeCases()
+    {
+        BigInteger m = BigInteger.probablePrime(256, R);
+        BigInteger mMinus1 = m.subtract(BigInteger.valueOf(1));
+        BigInteger e = new BigInteger(256, R);
+
+        assertEquals(BigInteger.valueOf(1), ModExp.modPowConstantTime(e, BigInteger.valueOf(0), m));
+        assertEquals(BigInteger.valueOf(0), ModExp.modPowConstantTime(BigInteger.valueOf(0), e.setBit(0), m));
+        assertEquals(mMinus1.modPow(e, m), ModExp.modPowConstantTime(mMinus1, e, m));
+        assertEquals(m.negate().subtract(e).modPow(e, m), ModExp.modPowConstantTime(m.negate().subtract(e), e, m));
+        assertEquals(BigInteger.valueOf(0), ModExp.modPowConstantTime(e, e, BigInteger.valueOf(1)));
+
+        try
+        {
+            ModExp.modPowConstantTime(e, e, m.add(BigInteger.valueOf(1)));
+            fail("even modulus accepted");
+        }
+        catch (ArithmeticException expected)
+        {
+            // expected
+        }
+    }
+
+    public void testModPow()
+    {
+        for (int i = 0; i < BITS.length; ++i)
+        {
+            int bits = BITS[i];
+            BigInteger m = new BigInteger(bits, R).setBit(bits - 1);
+            BigInteger x = new BigInteger(bits, R);
+            BigInteger e = new BigInteger(bits, R);
+
+            // Even moduli are passed through to BigInteger
+            assertEquals(x.modPow(e, m.clearBit(0)), ModExp.modPow(x, e, m.clearBit(0)));
+            assertEquals(x.modPow(e, m.setBit(0)), ModExp.modPow(x, e, m.setBit(0)));
+        }
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite(ModExpTest.class);
+    }
+}
@@ -86,6 +86,68 @@ public class MLDSATest
         }
     }
 
+    public void testPrecomputedKey() throws Exception
+    {
+        SecureRandom random = new SecureRandom();
+
+        org.bouncycastle.crypto.params.MLDSAParameters[] params = new org.bouncycastle.crypto.params.MLDSAParameters[]{
+            org.bouncycastle.crypto.params.MLDSAParameters.ml_dsa_44,
+            org.bouncycastle.crypto.params.MLDSAParameters.ml_dsa_65,
+            org.bouncycastle.crypto.params.MLDSAParameters.ml_dsa_87 };
+
+        for (int idx = 0; idx != params.length; idx++)
+        {
+            org.bouncycastle.crypto.generators.MLDSAKeyPairGenerator kpg = new org.bouncycastle.crypto.generators.MLDSAKeyPairGenerator();
+            kpg.init(new org.bouncycastle.crypto.params.MLDSAKeyGenerationParameters(random, params[idx]));
+
+            AsymmetricCipherKeyPair kp = kpg.generateKeyPair();
+            org.bouncycastle.crypto.params.MLDSAPrivateKeyParameters privKey = (org.bouncycastle.crypto.params.MLDSAPrivateKeyParameters)kp.getPrivate();
+            org.bouncycastle.crypto.params.MLDSAPrecomputedKey precomputedKey = new org.bouncycastle.crypto.params.MLDSAPrecomputedKey(privKey);
+
+            assertTrue(precomputedKey.getMemorySize() > 0);
+
+            org.bouncycastle.crypto.signers.MLDSASigner signer = new org.bouncycastle.crypto.signers.MLDSASigner();
+
+            for (int j = 0; j != 4; j++)
+            {
+                byte[] msg = new byte[32 + j];
+                random.nextBytes(msg);
+
+                // deterministic signing, both forms must give the same signature
+                signer.init(true, privKey);
+                signer.update(msg, 0, msg.length);
+                byte[] expected = signer.generateSignature();
+
+                signer.init(true, precomputedKey);
+                signer.update(msg, 0, msg.length);
+                assertTrue(Arrays.areEqual(expected, signer.generateSignature()));
+
+                signer.init(true, new ParametersWithRandom(precomputedKey, random));
+                signer.update(msg, 0, msg.length);
+                byte[] signature = signer.generateSignature();
+
+                signer.init(false, kp.getPublic());
+                signer.update(msg, 0, msg.length);
+                assertTrue(signer.verifySignature(signature));
+            }
+
+            precomputedKey.destroy();
+            assertTrue(precomputedKey.isDestroyed());
+            assertFalse(privKey.isDestroyed());
+
+            try
+            {
+                signer.init(true, precomputedKey);
+                signer.generateSignature();
+                fail("no exception");
+            }
+            catch (IllegalStateException e)
+            {
+                assertEquals("key destroyed", e.getMessage());
+            }
+        }
+    }
+
     public void testKeyGen()
         throws IOException
     {
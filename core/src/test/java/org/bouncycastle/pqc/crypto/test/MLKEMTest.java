@@ -18,6 +18,7 @@ import org.bouncycastle.crypto.kems.MLKEMExtractor;
 import org.bouncycastle.crypto.kems.MLKEMGenerator;
 import org.bouncycastle.crypto.params.MLKEMKeyGenerationParameters;
 import org.bouncycastle.crypto.params.MLKEMParameters;
+import org.bouncycastle.crypto.params.MLKEMPrecomputedKey;
 import org.bouncycastle.crypto.params.MLKEMPrivateKeyParameters;
 import org.bouncycastle.crypto.params.MLKEMPublicKeyParameters;
 import org.bouncycastle.crypto.util.DEROtherInfo;
@@ -555,6 +556,53 @@ public class MLKEMTest
         assertTrue(Arrays.areEqual(Hex.decode(expectedSharedSecret), decryptedSharedSecret));
     }
 
+    public void testPrecomputedKey()
+    {
+        MLKEMParameters[] params = new MLKEMParameters[]{
+            MLKEMParameters.ml_kem_512, MLKEMParameters.ml_kem_768, MLKEMParameters.ml_kem_1024 };
+
+        for (int i = 0; i != params.length; i++)
+        {
+            MLKEMKeyPairGenerator kpGen = new MLKEMKeyPairGenerator();
+            kpGen.init(new MLKEMKeyGenerationParameters(RANDOM, params[i]));
+
+            AsymmetricCipherKeyPair kp = kpGen.generateKeyPair();
+            MLKEMPrivateKeyParameters privateKey = (MLKEMPrivateKeyParameters)kp.getPrivate();
+            MLKEMPrecomputedKey precomputedKey = new MLKEMPrecomputedKey(privateKey);
+
+            assertTrue(precomputedKey.getMemorySize() > 0);
+
+            MLKEMExtractor plainExtractor = new MLKEMExtractor(privateKey);
+            MLKEMExtractor precomputedExtractor = new MLKEMExtractor(precomputedKey);
+
+            for (int j = 0; j != 4; j++)
+            {
+                SecretWithEncapsulation secretEncap = new MLKEMGenerator(RANDOM).generateEncapsulated(kp.getPublic());
+                byte[] enc = secretEncap.getEncapsulation();
+
+                assertTrue(Arrays.areEqual(secretEncap.getSecret(), precomputedExtractor.extractSecret(enc)));
+
+                // implicit rejection must match the non-precomputed path
+                enc[j] ^= 1;
+                assertTrue(Arrays.areEqual(plainExtractor.extractSecret(enc), precomputedExtractor.extractSecret(enc)));
+            }
+
+            precomputedKey.destroy();
+            assertTrue(precomputedKey.isDestroyed());
+            assertFalse(privateKey.isDestroyed());
+
+            try
+            {
+                precomputedExtractor.extractSecret(new byte[precomputedExtractor.getEncapsulationLength()]);
+                fail("no exception");
+            }
+            catch (IllegalStateException e)
+            {
+                assertEquals("key destroyed", e.getMessage());
+            }
+        }
+    }
+
     public void testRNG()
     {
         String temp = "061550234D158C5EC95595FE04EF7A25767F2E24CC2BC479D09D86DC9ABCFDE7056A8C266F9EF97ED08541DBD2E1FFA1";
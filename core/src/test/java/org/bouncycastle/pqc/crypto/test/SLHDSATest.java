@@ -7,6 +7,9 @@ import java.io.InputStreamReader;
 import java.security.SecureRandom;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import junit.framework.TestCase;
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
@@ -98,6 +101,56 @@ public class SLHDSATest
         }
     }
 
+    public void testParallelSigning()
+    {
+        SecureRandom random = new SecureRandom();
+
+        SLHDSAParameters[] parameterSets = new SLHDSAParameters[]{
+            SLHDSAParameters.sha2_128f, SLHDSAParameters.shake_128f, SLHDSAParameters.shake_192f };
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try
+        {
+            SLHDSAKeyPairGenerator kpg = new SLHDSAKeyPairGenerator();
+
+            for (int idx = 0; idx != parameterSets.length; idx++)
+            {
+                kpg.init(new SLHDSAKeyGenerationParameters(random, parameterSets[idx]));
+                AsymmetricCipherKeyPair kp = kpg.generateKeyPair();
+
+                byte[] msg = new byte[random.nextInt(257)];
+                random.nextBytes(msg);
+
+                // deterministic signing, the parallel signer must give the same signature
+                SLHDSASigner signer = new SLHDSASigner();
+                signer.init(true, kp.getPrivate());
+                byte[] expected = signer.generateSignature(msg);
+
+                SLHDSASigner parallelSigner = new SLHDSASigner(executor, 4);
+                parallelSigner.init(true, kp.getPrivate());
+                assertTrue(Arrays.areEqual(expected, parallelSigner.generateSignature(msg)));
+
+                // a shut down executor leaves all the work to the calling thread
+                ExecutorService stopped = Executors.newSingleThreadExecutor();
+                stopped.shutdown();
+                parallelSigner = new SLHDSASigner(stopped, 4);
+                parallelSigner.init(true, kp.getPrivate());
+                assertTrue(Arrays.areEqual(expected, parallelSigner.generateSignature(msg)));
+
+                parallelSigner = new SLHDSASigner(ForkJoinPool.commonPool());
+                parallelSigner.init(true, new ParametersWithRandom(kp.getPrivate(), random));
+                byte[] signature = parallelSigner.generateSignature(msg);
+
+                signer.init(false, kp.getPublic());
+                assertTrue(signer.verifySignature(msg, signature));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     public void testKeyGenSingleFile() throws IOException
     {
         InputStream src = TestResourceFinder.findTestResource("pqc/crypto/slhdsa/", "SLH-DSA-keyGen.txt");
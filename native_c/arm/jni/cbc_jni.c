@@ -49,6 +49,37 @@ JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCBC_process
     return processed;
 }
 
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeCBC
+ * Method:    processDirect
+ * Signature: (JLjava/nio/ByteBuffer;IILjava/nio/ByteBuffer;I)I
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCBC_processDirect
+        (JNIEnv *env, jclass cl, jlong ref, jobject in_, jint inOff, jint blocks, jobject out_, jint outOff) {
+
+    cbc_ctx *ctx = (cbc_ctx *) ((void *) ref);
+    bc_assert(ctx != NULL);
+
+    direct_buffer_ctx output;
+    direct_buffer_ctx input;
+
+    jint processed = 0;
+
+    void *inStart;
+    void *outStart;
+
+    if (direct_block_processing_init(env, &input, &output, in_, inOff, out_, outOff, blocks, CBC_BLOCK_SIZE,
+                                     &inStart, &outStart)) {
+        if (ctx->encryption) {
+            processed = (jint) cbc_encrypt(ctx, inStart, (uint32_t) blocks, outStart);
+        } else {
+            processed = (jint) cbc_decrypt(ctx, inStart, (uint32_t) blocks, outStart);
+        }
+    }
+
+    return processed;
+}
+
 /*
  * Class:     org_bouncycastle_crypto_engines_AESNativeCBC
  * Method:    getMultiBlockSize
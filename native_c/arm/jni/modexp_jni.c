@@ -0,0 +1,99 @@
+
+
+#include "org_bouncycastle_math_raw_ModExp.h"
+#include "../../jniutil/longarraycritical.h"
+#include "../../jniutil/exceptions.h"
+#include "../modexp/modexp.h"
+#include "../../jniutil/jni_asserts.h"
+
+/*
+ * Class:     org_bouncycastle_math_raw_ModExp
+ * Method:    nativeModExp
+ * Signature: ([J[J[J[J)V
+ */
+JNIEXPORT void JNICALL Java_org_bouncycastle_math_raw_ModExp_nativeModExp
+        (JNIEnv *env, jclass cl, jlongArray mArr, jlongArray xArr, jlongArray eArr, jlongArray zArr) {
+
+    critical_longarray_ctx m;
+    critical_longarray_ctx x;
+    critical_longarray_ctx e;
+    critical_longarray_ctx z;
+
+    const char *failure = NULL;
+
+    init_critical_long_ctx(&m, env, mArr);
+    init_critical_long_ctx(&x, env, xArr);
+    init_critical_long_ctx(&e, env, eArr);
+    init_critical_long_ctx(&z, env, zArr);
+
+
+    if (!critical_long_not_null(&m, "m array is null", env)) {
+        goto exit;
+    }
+
+    if (!critical_long_not_null(&x, "x array is null", env)) {
+        goto exit;
+    }
+
+    if (!critical_long_not_null(&e, "e array is null", env)) {
+        goto exit;
+    }
+
+    if (!critical_long_not_null(&z, "z array is null", env)) {
+        goto exit;
+    }
+
+    if (m.size == 0) {
+        throw_java_illegal_argument(env, "m is empty");
+        goto exit;
+    }
+
+    if (x.size != m.size || z.size != m.size) {
+        throw_java_illegal_argument(env, "x and z are not the same size as m");
+        goto exit;
+    }
+
+    if (e.size == 0) {
+        throw_java_illegal_argument(env, "e is empty");
+        goto exit;
+    }
+
+    if (!load_critical_long_ctx(&m)) {
+        failure = "jvm did not return valid m array";
+        goto exit;
+    }
+
+    if (!load_critical_long_ctx(&x)) {
+        failure = "jvm did not return valid x array";
+        goto exit;
+    }
+
+    if (!load_critical_long_ctx(&e)) {
+        failure = "jvm did not return valid e array";
+        goto exit;
+    }
+
+    if (!load_critical_long_ctx(&z)) {
+        failure = "jvm did not return valid z array";
+        goto exit;
+    }
+
+    if ((m.critical[0] & 1) == 0) {
+        failure = "m is not odd";
+    } else if (!mod_exp(m.critical, x.critical, m.size, e.critical, e.size, z.critical)) {
+        failure = "unable to allocate working memory";
+    }
+
+
+    exit:
+    release_critical_long_ctx(&m);
+    release_critical_long_ctx(&x);
+    release_critical_long_ctx(&e);
+    release_critical_long_ctx(&z);
+
+    // No JNI calls are allowed while a critical array is held, so report failures after release
+    if (failure != NULL) {
+        throw_java_invalid_state(env, failure);
+    }
+
+}
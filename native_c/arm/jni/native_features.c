@@ -272,6 +272,16 @@ JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_NativeFeatures_nativeMul
     return JNI_TRUE;
 }
 
+/*
+ * Class:     org_bouncycastle_crypto_NativeFeatures
+ * Method:    nativeModExp
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_NativeFeatures_nativeModExp
+        (JNIEnv *env, jclass cl) {
+    return available(BC_SVC_MODEXP);
+}
+
 /*
  * Class:     org_bouncycastle_crypto_NativeFeatures
  * Method:    nativeCCM
@@ -346,3 +356,13 @@ JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_NativeFeatures_nativeSlh
         (JNIEnv *, jclass) {
     return JNI_FALSE;
 }
+
+/*
+ * Class:     org_bouncycastle_crypto_NativeFeatures
+ * Method:    nativeSlhDSAShake
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_NativeFeatures_nativeSlhDSAShake
+        (JNIEnv *, jclass) {
+    return JNI_FALSE;
+}
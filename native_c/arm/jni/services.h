@@ -39,6 +39,7 @@ typedef enum {
     BC_SVC_SHA512,
     BC_SVC_SHA3,
     BC_SVC_SHAKE,
+    BC_SVC_MODEXP,
     BC_SVC_COUNT
 } bc_arm_service;
 
@@ -83,6 +84,8 @@ static inline int bc_arm_service_available(const struct cpuid_info *info, bc_arm
             [BC_SVC_SHA512] = BC_FEAT_NEON | BC_FEAT_SHA512,
             [BC_SVC_SHA3]   = BC_FEAT_NEON | BC_FEAT_SHA3,
             [BC_SVC_SHAKE]  = BC_FEAT_NEON | BC_FEAT_SHA3,
+            /* Montgomery multiplication uses only base armv8-a MUL/UMULH. */
+            [BC_SVC_MODEXP] = 0,
     };
 
     if ((unsigned int) svc >= (unsigned int) BC_SVC_COUNT) {
@@ -0,0 +1,173 @@
+//
+// Montgomery exponentiation using 64x64->128 bit multiplies (mul/umulh), base armv8-a only.
+//
+
+#include <stdlib.h>
+#include <string.h>
+#include "modexp.h"
+
+typedef uint64_t u64;
+typedef unsigned __int128 u128;
+
+static inline u64 sub_borrow(u64 b, u64 x, u64 y, u64 *z) {
+    u128 d = (u128) x - y - b;
+    *z = (u64) d;
+    return (u64) (d >> 127);
+}
+
+static u64 mont_inverse(u64 m0) {
+    // Newton iteration, each step doubles the number of correct low bits
+    u64 inv = m0;
+    for (int i = 0; i < 5; i++) {
+        inv *= 2 - m0 * inv;
+    }
+    return (u64) 0 - inv;
+}
+
+/*
+ * Montgomery multiplication (CIOS), z = x * y * 2^(-64 * n) mod m, for x, y < m.
+ * t is scratch of n + 2 limbs, z may alias x or y.
+ */
+static void mont_mul(u64 *z, const u64 *x, const u64 *y, const u64 *m, u64 m_inv, size_t n, u64 *t) {
+    memset(t, 0, (n + 2) * sizeof(u64));
+
+    for (size_t i = 0; i < n; i++) {
+        u128 acc;
+        u64 carry = 0;
+
+        for (size_t j = 0; j < n; j++) {
+            acc = (u128) x[i] * y[j] + t[j] + carry;
+            t[j] = (u64) acc;
+            carry = (u64) (acc >> 64);
+        }
+        acc = (u128) t[n] + carry;
+        t[n] = (u64) acc;
+        t[n + 1] = (u64) (acc >> 64);
+
+        u64 q = t[0] * m_inv;
+
+        acc = (u128) q * m[0] + t[0];
+        carry = (u64) (acc >> 64);
+
+        for (size_t j = 1; j < n; j++) {
+            acc = (u128) q * m[j] + t[j] + carry;
+            t[j - 1] = (u64) acc;
+            carry = (u64) (acc >> 64);
+        }
+        acc = (u128) t[n] + carry;
+        t[n - 1] = (u64) acc;
+        t[n] = t[n + 1] + (u64) (acc >> 64);
+    }
+
+    // The result is less than 2m, subtract m unless that borrows out of the top limb
+    u64 b = 0;
+    for (size_t j = 0; j < n; j++) {
+        b = sub_borrow(b, t[j], m[j], &z[j]);
+    }
+    u64 keep = (u64) 0 - (b & (t[n] ^ 1));
+    for (size_t j = 0; j < n; j++) {
+        z[j] = (t[j] & keep) | (z[j] & ~keep);
+    }
+}
+
+static void mod_double(u64 *z, const u64 *m, size_t n) {
+    u64 top = z[n - 1] >> 63;
+    for (size_t j = n - 1; j > 0; j--) {
+        z[j] = (z[j] << 1) | (z[j - 1] >> 63);
+    }
+    z[0] <<= 1;
+
+    // First pass only finds the borrow of z - m, the second subtracts m if needed
+    u64 discard;
+    u64 b = 0;
+    for (size_t j = 0; j < n; j++) {
+        b = sub_borrow(b, z[j], m[j], &discard);
+    }
+    u64 keep = (u64) 0 - (b & (top ^ 1));
+
+    b = 0;
+    for (size_t j = 0; j < n; j++) {
+        b = sub_borrow(b, z[j], m[j] & ~keep, &z[j]);
+    }
+}
+
+static void lookup(u64 *z, const u64 *table, size_t size, size_t index, size_t n) {
+    memset(z, 0, n * sizeof(u64));
+    for (size_t i = 0; i < size; i++) {
+        u64 mask = (u64) 0 - (u64) (((i ^ index) - 1) >> (sizeof(size_t) * 8 - 1));
+        const u64 *entry = table + i * n;
+        for (size_t j = 0; j < n; j++) {
+            z[j] |= entry[j] & mask;
+        }
+    }
+}
+
+static size_t get_window(const u64 *e, size_t e_len, size_t pos, size_t width) {
+    size_t bits = 0;
+    for (size_t i = 0; i < width; i++, pos++) {
+        size_t word = pos >> 6;
+        size_t bit = word < e_len ? (size_t) ((e[word] >> (pos & 63)) & 1) : 0;
+        bits |= bit << i;
+    }
+    return bits;
+}
+
+bool mod_exp(const int64_t *m_in, const int64_t *x_in, size_t n, const int64_t *e_in, size_t e_len, int64_t *z_out) {
+    const u64 *m = (const u64 *) m_in;
+    const u64 *x = (const u64 *) x_in;
+    const u64 *e = (const u64 *) e_in;
+    u64 *z = (u64 *) z_out;
+
+    size_t e_bits = e_len << 6;
+    size_t width = e_bits > 256 ? 5 : e_bits > 64 ? 4 : 2;
+    size_t size = (size_t) 1 << width;
+
+    // table, r2, acc, sel, one, t
+    size_t words = size * n + 4 * n + n + 2;
+    u64 *mem = calloc(words, sizeof(u64));
+    if (mem == NULL) {
+        return false;
+    }
+
+    u64 *table = mem;
+    u64 *r2 = table + size * n;
+    u64 *acc = r2 + n;
+    u64 *sel = acc + n;
+    u64 *one = sel + n;
+    u64 *t = one + n;
+
+    u64 m_inv = mont_inverse(m[0]);
+
+    // R mod m and R^2 mod m by repeated doubling
+    one[0] = 1;
+    r2[0] = 1;
+    for (size_t i = 0; i < (n << 6); i++) {
+        mod_double(r2, m, n);
+    }
+    memcpy(table, r2, n * sizeof(u64));
+    for (size_t i = 0; i < (n << 6); i++) {
+        mod_double(r2, m, n);
+    }
+
+    mont_mul(table + n, x, r2, m, m_inv, n, t);
+    for (size_t i = 2; i < size; i++) {
+        mont_mul(table + i * n, table + (i - 1) * n, table + n, m, m_inv, n, t);
+    }
+
+    size_t windows = (e_bits + width - 1) / width;
+    lookup(acc, table, size, get_window(e, e_len, (windows - 1) * width, width), n);
+
+    for (size_t w = windows - 1; w-- > 0;) {
+        for (size_t j = 0; j < width; j++) {
+            mont_mul(acc, acc, acc, m, m_inv, n, t);
+        }
+        lookup(sel, table, size, get_window(e, e_len, w * width, width), n);
+        mont_mul(acc, acc, sel, m, m_inv, n, t);
+    }
+
+    mont_mul(z, acc, one, m, m_inv, n, t);
+
+    memset(mem, 0, words * sizeof(u64));
+    free(mem);
+    return true;
+}
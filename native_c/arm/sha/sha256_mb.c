@@ -0,0 +1,22 @@
+//
+//
+
+#include "sha256_mb.h"
+#include "sha256.h"
+
+//
+// The SHA-256 crypto extension instructions process one stream at full rate,
+// so the batch is hashed in a loop with a single reused context.
+//
+
+void sha256_mb_digest(uint8_t *const *msgs, const size_t *lens, uint8_t *const *outs, size_t count) {
+    sha256_ctx ctx;
+    sha256_reset(&ctx);
+
+    for (size_t i = 0; i < count; i++) {
+        sha256_update(&ctx, msgs[i], lens[i]);
+        sha256_digest(&ctx, outs[i]);
+    }
+
+    memzero(&ctx, sizeof(sha256_ctx));
+}
@@ -0,0 +1,15 @@
+//
+//
+
+#ifndef BC_LTS_C_SHA256_MB_H
+#define BC_LTS_C_SHA256_MB_H
+
+#include <stdint.h>
+#include <stddef.h>
+
+/**
+ * Hash count independent messages, writing the 32 byte digest of msgs[i] to outs[i].
+ */
+void sha256_mb_digest(uint8_t *const *msgs, const size_t *lens, uint8_t *const *outs, size_t count);
+
+#endif //BC_LTS_C_SHA256_MB_H
@@ -151,6 +151,123 @@ JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCBCPacketCi
 }
 
 
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeCBCPacketCipher
+ * Method:    processPacketDirect
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCBCPacketCipher_processPacketDirect
+        (JNIEnv *env, jclass, jboolean encryption, jbyteArray key_,  jbyteArray nonce_,
+         jobject in, jint inOff, jint inLen, jobject out, jint outOff, jint outLen) {
+
+    java_bytearray_ctx key, iv;
+    direct_buffer_ctx input, output;
+    packet_err *err = NULL;
+    init_bytearray_ctx(&key);
+    init_bytearray_ctx(&iv);
+
+    //
+    // Direct buffers have a fixed address so nothing is pinned, or released on exit.
+    //
+    if (!load_direct_buffer_ctx(&input, env, in)) {
+        throw_java_illegal_argument(env, "input is not a direct buffer");
+        goto exit;
+    }
+
+    if (!load_direct_buffer_ctx(&output, env, out)) {
+        throw_java_illegal_argument(env, "output is not a direct buffer");
+        goto exit;
+    }
+
+
+    if (!load_bytearray_ctx(&key, env, key_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid array");
+        goto exit;
+    }
+
+    if (!aes_keysize_is_valid_and_not_null(env, &key)) {
+        goto exit;
+    }
+
+    if (!load_bytearray_ctx(&iv, env, nonce_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid array");
+        goto exit;
+    }
+
+    if (!ivlen_is_16_and_not_null(env, &iv)) {
+        goto exit;
+    }
+
+
+    //
+    // Check input array with offset and len
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &input,
+            inOff,
+            inLen,
+            env,
+            EM_INPUT_NULL,
+            EM_INPUT_OFFSET_NEGATIVE,
+            EM_INPUT_LEN_NEGATIVE,
+            EM_INPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+
+    //
+    // Input len must be multiple of block size.
+    //
+    if (inLen % BLOCK_SIZE != 0) {
+        throw_bc_data_length_exception(env, BLOCK_CIPHER_16_INPUT_LENGTH_INVALID);
+        goto exit;
+    }
+
+    //
+    // Check output array with offset and len
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &output,
+            outOff,
+            outLen,
+            env,
+            EM_OUTPUT_NULL,
+            EM_OUTPUT_OFFSET_NEGATIVE,
+            EM_OUTPUT_LENGTH_NEGATIVE,
+            EM_OUTPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+    // Assert that input can be processed into output
+    // array size assertions for both arrays with respect to offset and length
+    // have been applied by this point
+    if (outLen < inLen) {
+        throw_bc_output_length_exception(env, EM_OUTPUT_LENGTH);
+        goto exit;
+    }
+
+
+    // keyLen, and inLen, inOff and outOff have been asserted not negative
+
+    uint8_t *p_in = input.address + inOff;
+    uint8_t *p_out = output.address + outOff;
+    size_t outputLen = 0;
+    err = cbc_pc_process_packet(
+            encryption == JNI_TRUE,
+            key.bytearray,
+            (size_t) key.size,
+            iv.bytearray,
+            p_in,
+            (size_t) inLen,
+            p_out,
+            &outputLen);
+    exit:
+    release_bytearray_ctx(&key);
+    release_bytearray_ctx(&iv);
+    handle_cbc_pc_result(env, err);
+    return (jint) outputLen;
+}
+
+
 
 JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCBCPacketCipher_getOutputSize
         (JNIEnv *env, jclass, jint len) {
@@ -192,6 +192,159 @@ JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCCMPacketCi
 }
 
 
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeCCMPacketCipher
+ * Method:    processPacketDirect
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCCMPacketCipher_processPacketDirect
+        (JNIEnv *env, jclass,
+         jboolean encryption,
+         jbyteArray key_,
+         jbyteArray nonce_,
+         jbyteArray aad_,
+         jint macSize,
+         jobject in, jint inOff, jint inLen,
+         jobject out, jint outOff, jint outLen) {
+
+    java_bytearray_ctx key, iv, ad;
+    direct_buffer_ctx input, output;
+    packet_err *err = NULL;
+
+    init_bytearray_ctx(&key);
+    init_bytearray_ctx(&iv);
+    init_bytearray_ctx(&ad);
+
+    //
+    // Direct buffers have a fixed address so nothing is pinned, or released on exit.
+    //
+    if (!load_direct_buffer_ctx(&input, env, in)) {
+        throw_java_illegal_argument(env, "input is not a direct buffer");
+        goto exit;
+    }
+
+    if (!load_direct_buffer_ctx(&output, env, out)) {
+        throw_java_illegal_argument(env, "output is not a direct buffer");
+        goto exit;
+    }
+
+
+    // Assert the mac size: must be in {4, 6, 8, 10, 12, 14, 16} per RFC 3610.
+    if (macSize < 4 || macSize > 16 || (macSize & 1) != 0) {
+        throw_java_illegal_argument(env, EM_MACSIZE_INVALID);
+        goto exit;
+    }
+
+
+    //
+    // Load and check key
+    //
+    if (!load_bytearray_ctx(&key, env, key_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid key array");
+        goto exit;
+    }
+
+    if (!aes_keysize_is_valid_and_not_null(env, &key)) {
+        goto exit;
+    }
+
+
+    //
+    // Load and check iv
+    //
+    if (!load_bytearray_ctx(&iv, env, nonce_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid iv array");
+        goto exit;
+    }
+
+
+    if (!bytearray_not_null(&iv,"nonce is null",env)) {
+        goto exit;
+    }
+
+
+    if (iv.size < 7 || iv.size > 13) {
+        throw_java_illegal_argument(env, "nonce must have length from 7 to 13 octets");
+        goto exit;
+    }
+
+    //
+    // Load aad.
+    //
+
+    if (!load_bytearray_ctx(&ad, env, aad_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid ad array");
+        goto exit;
+    }
+
+
+    //
+    // Check input array with offset and outputSize
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &input,
+            inOff,
+            inLen,
+            env,
+            EM_INPUT_NULL,
+            EM_INPUT_OFFSET_NEGATIVE,
+            EM_INPUT_LEN_NEGATIVE,
+            EM_INPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+
+    //
+    // Check output array with offset and outputSize
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &output,
+            outOff,
+            outLen,
+            env,
+            EM_OUTPUT_NULL,
+            EM_OUTPUT_OFFSET_NEGATIVE,
+            EM_OUTPUT_LENGTH_NEGATIVE,
+            EM_OUTPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+    int outputSize = get_aead_output_size(encryption == JNI_TRUE, inLen, macSize);
+    if (outputSize < 0) {
+        // macLen < input len on decryption asserted here.
+        throw_java_illegal_argument(env, EM_INPUT_SHORT); // inlen < macSize
+        goto exit;
+    }
+    if (outLen < outputSize) {
+        throw_java_illegal_argument(env, EM_OUTPUT_LENGTH);
+        goto exit;
+    }
+
+
+    uint8_t *p_in = input.address + inOff;
+    uint8_t *p_out = output.address + outOff;
+    size_t outputLen = 0;
+    err = ccm_pc_process_packet(
+            encryption == JNI_TRUE,
+            key.bytearray,
+            (size_t) key.size,
+            iv.bytearray,
+            (size_t) iv.size,
+            (size_t) macSize,
+            ad.bytearray,
+            (size_t) ad.size,
+            p_in,
+            (size_t) inLen,
+            p_out,
+            &outputLen);
+    exit:
+    release_bytearray_ctx(&key);
+    release_bytearray_ctx(&iv);
+    release_bytearray_ctx(&ad);
+    handle_ccm_pc_result(env, err);
+    return (jint) outputLen;
+}
+
+
 /*
  * Class:     org_bouncycastle_crypto_engines_AESNativeCCMPacketCipher
  * Method:    getOutputSize
@@ -64,6 +64,36 @@ JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCFB_process
 
 }
 
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeCFB
+ * Method:    processDirect
+ * Signature: (JLjava/nio/ByteBuffer;IILjava/nio/ByteBuffer;I)I
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCFB_processDirect
+        (JNIEnv *env, jclass class, jlong ref, jobject in_, jint inOff, jint len, jobject out_, jint outOff) {
+
+    cfb_ctx *ctx = (cfb_ctx *) ((void *) ref);
+    bc_assert(ctx != NULL);
+
+    direct_buffer_ctx output;
+    direct_buffer_ctx input;
+
+    void *inStart;
+    void *outStart;
+
+    jint processed = 0;
+
+    if (direct_processing_init(env, &input, &output, in_, inOff, out_, outOff, len, &inStart, &outStart)) {
+        if (ctx->encryption) {
+            processed = (jint) cfb_encrypt(ctx, inStart, (size_t) len, outStart);
+        } else {
+            processed = (jint) cfb_decrypt(ctx, inStart, (size_t) len, outStart);
+        }
+    }
+
+    return processed;
+}
+
 
 /*
  * Class:     org_bouncycastle_crypto_engines_AESNativeCBC
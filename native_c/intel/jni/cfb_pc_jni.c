@@ -160,6 +160,126 @@ JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCFBPacketCi
 }
 
 
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeCFBPacketCipher
+ * Method:    processPacketDirect
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCFBPacketCipher_processPacketDirect
+        (JNIEnv *env, jclass,
+         jboolean encryption,
+         jbyteArray key_,
+         jbyteArray nonce_,
+         jobject in, jint inOff, jint inLen,
+         jobject out, jint outOff, jint outLen) {
+
+    java_bytearray_ctx key, iv, ad;
+    direct_buffer_ctx input, output;
+    packet_err *err = NULL;
+    size_t outputLen = 0;
+    init_bytearray_ctx(&key);
+    init_bytearray_ctx(&iv);
+    init_bytearray_ctx(&ad);
+
+    //
+    // Direct buffers have a fixed address so nothing is pinned, or released on exit.
+    //
+    if (!load_direct_buffer_ctx(&input, env, in)) {
+        throw_java_illegal_argument(env, "input is not a direct buffer");
+        goto exit;
+    }
+
+    if (!load_direct_buffer_ctx(&output, env, out)) {
+        throw_java_illegal_argument(env, "output is not a direct buffer");
+        goto exit;
+    }
+
+    //
+    // Load and assert key length
+    //
+
+    if (!load_bytearray_ctx(&key, env, key_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid key array");
+        goto exit;
+    }
+
+
+    if (!aes_keysize_is_valid_and_not_null(env, &key)) {
+        goto exit;
+    }
+
+
+    //
+    // Load and assert IV len as 128bits
+    //
+    if (!load_bytearray_ctx(&iv, env, nonce_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid iv array");
+        goto exit;
+    }
+
+    if (!ivlen_is_16_and_not_null(env, &iv)) {
+        goto exit;
+    }
+
+    //
+    // Check input array with offset and minOutputSize
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &input,
+            inOff,
+            inLen,
+            env,
+            EM_INPUT_NULL,
+            EM_INPUT_OFFSET_NEGATIVE,
+            EM_INPUT_LEN_NEGATIVE,
+            EM_INPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+
+    //
+    // Check output array with offset and minOutputSize
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &output,
+            outOff,
+            outLen,
+            env,
+            EM_OUTPUT_NULL,
+            EM_OUTPUT_OFFSET_NEGATIVE,
+            EM_OUTPUT_LENGTH_NEGATIVE,
+            EM_OUTPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+
+    if (outLen < inLen) {
+        throw_java_illegal_argument(env, EM_OUTPUT_LENGTH);
+        goto exit;
+    }
+
+
+    uint8_t *p_in = input.address + inOff;
+    uint8_t *p_out = output.address + outOff;
+
+    err = cfb_pc_process_packet(
+            encryption == JNI_TRUE,
+            key.bytearray,
+            (size_t) key.size,
+            iv.bytearray,
+            (size_t) iv.size,
+            p_in,
+            (size_t) inLen,
+            p_out,
+            &outputLen);
+    exit:
+    release_bytearray_ctx(&key);
+    release_bytearray_ctx(&iv);
+    release_bytearray_ctx(&ad);
+    handle_cfb_pc_result(env, err);
+    return (jint) outputLen;
+}
+
+
 /*
  * Class:     org_bouncycastle_crypto_engines_AESNativeCFBPacketCipher
  * Method:    getOutputSize
@@ -197,6 +197,37 @@ JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCTR_process
     return (jint) written;
 }
 
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeCTR
+ * Method:    processDirect
+ * Signature: (JLjava/nio/ByteBuffer;IILjava/nio/ByteBuffer;I)I
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeCTR_processDirect
+        (JNIEnv *env, jclass cl, jlong ref, jobject in, jint inOff, jint len, jobject out, jint outOff) {
+
+    ctr_ctx *ctx = (ctr_ctx *) ((void *) ref);
+    bc_assert(ctx != NULL);
+
+    direct_buffer_ctx output;
+    direct_buffer_ctx input;
+
+    void *inStart;
+    void *outStart;
+
+    bool r = true;
+    size_t written = 0;
+
+    if (direct_processing_init(env, &input, &output, in, inOff, out, outOff, len, &inStart, &outStart)) {
+        r = ctr_process_bytes(ctx, inStart, (size_t) len, outStart, &written);
+    }
+
+    if (!r) {
+        throw_java_invalid_state(env, CTR_ERROR_MSG);
+    }
+
+    return (jint) written;
+}
+
 /*
  * Class:     org_bouncycastle_crypto_engines_AESNativeCTR
  * Method:    reset
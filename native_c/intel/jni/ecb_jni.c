@@ -55,6 +55,34 @@ __attribute__((unused)) JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engi
 
 }
 
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeEngine
+ * Method:    processDirect
+ * Signature: (JLjava/nio/ByteBuffer;IILjava/nio/ByteBuffer;I)I
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeEngine_processDirect
+        (JNIEnv *env, jclass cl, jlong ref, jobject _in, jint inOffset, jint blocks, jobject _out,
+         jint outOffset) {
+
+    ecb_ctx *ctx = (ecb_ctx *) ((void *) ref);
+    bc_assert(ctx != NULL);
+
+    direct_buffer_ctx output;
+    direct_buffer_ctx input;
+
+    jint processed = 0;
+
+    void *inStart;
+    void *outStart;
+
+    if (direct_block_processing_init(env, &input, &output, _in, inOffset, _out, outOffset, blocks, ECB_BLOCK_SIZE, &inStart,
+                                     &outStart)) {
+        processed = (jint) ecb_process_blocks(ctx, inStart, (uint32_t) blocks, outStart);
+    }
+
+    return processed;
+}
+
 /*
  * Class:     org_bouncycastle_crypto_engines_AESNativeEngine
  * Method:    getMultiBlockSize
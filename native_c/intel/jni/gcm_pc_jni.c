@@ -189,6 +189,404 @@ JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeGCMPacketCi
 }
 
 
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeGCMPacketCipher
+ * Method:    processPacketDirect
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeGCMPacketCipher_processPacketDirect
+        (JNIEnv *env, jclass, jboolean encryption, jbyteArray key_, jbyteArray nonce_,
+         jbyteArray aad_, jint macSize, jobject in, jint inOff, jint inLen, jobject out, jint outOff,
+         jint outLen) {
+    java_bytearray_ctx key, iv, ad;
+    direct_buffer_ctx input, output;
+    packet_err *err = NULL;
+    size_t outputLen = 0;
+
+    init_bytearray_ctx(&key);
+    init_bytearray_ctx(&iv);
+    init_bytearray_ctx(&ad);
+
+    //
+    // Direct buffers have a fixed address so nothing is pinned, or released on exit.
+    //
+    if (!load_direct_buffer_ctx(&input, env, in)) {
+        throw_java_illegal_argument(env, "input is not a direct buffer");
+        goto exit;
+    }
+
+    if (!load_direct_buffer_ctx(&output, env, out)) {
+        throw_java_illegal_argument(env, "output is not a direct buffer");
+        goto exit;
+    }
+
+
+    //
+    // Load and check key
+    //
+    if (!load_bytearray_ctx(&key, env, key_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid key array");
+        goto exit;
+    }
+
+    if (!aes_keysize_is_valid_and_not_null(env, &key)) {
+        goto exit;
+    }
+
+
+    //
+    // Load and check nonce.
+    //
+    if (!load_bytearray_ctx(&iv, env, nonce_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid iv array");
+        goto exit;
+    }
+
+    if (!bytearray_not_null(&iv,"nonce is null",env)) {
+        goto exit;
+    }
+
+    if (iv.size < 12) {
+        throw_java_illegal_argument(env, "nonce must be at least 12 bytes");
+        goto exit;
+    }
+
+
+    //
+    // Load aad.
+    //
+
+    if (!load_bytearray_ctx(&ad, env, aad_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid ad array");
+        goto exit;
+    }
+
+
+    //
+    // Check input array with offset and outputSize
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &input,
+            inOff,
+            inLen,
+            env,
+            EM_INPUT_NULL,
+            EM_INPUT_OFFSET_NEGATIVE,
+            EM_INPUT_LEN_NEGATIVE,
+            EM_INPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+
+    //
+    // Check output array with offset and outputSize
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &output,
+            outOff,
+            outLen,
+            env,
+            EM_OUTPUT_NULL,
+            EM_OUTPUT_OFFSET_NEGATIVE,
+            EM_OUTPUT_LENGTH_NEGATIVE,
+            EM_OUTPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+    //
+    // Assert mac len.
+    //
+    if (macSize < 4 || macSize > 16 ) {
+        throw_java_illegal_argument(env, EM_MACSIZE_INVALID);
+        goto exit;
+    }
+
+    int outputSize = get_aead_output_size(encryption == JNI_TRUE, inLen, macSize);
+    if (outputSize < 0) {
+        // macLen < input len on decryption asserted here
+        throw_java_illegal_argument(env, EM_INPUT_SHORT); // inlen < macSize
+        goto exit;
+    }
+    if (outLen < outputSize) {
+        throw_java_illegal_argument(env, EM_OUTPUT_LENGTH);
+        goto exit;
+    }
+
+
+    uint8_t *p_in = input.address + inOff;
+    uint8_t *p_out = output.address + outOff;
+
+    err = gcm_pc_process_packet(
+            encryption == JNI_TRUE,
+            key.bytearray,
+            (size_t) key.size,
+            iv.bytearray,
+            (size_t) iv.size,
+            (size_t) macSize,
+            ad.bytearray,
+            (size_t) ad.size,
+            p_in,
+            (size_t) inLen,
+            p_out,
+            &outputLen);
+
+    exit:
+    release_bytearray_ctx(&key);
+    release_bytearray_ctx(&iv);
+    release_bytearray_ctx(&ad);
+    handle_gcm_pc_result(env, err);
+    return (jint) outputLen;
+}
+
+
+#define GCM_PC_MAX_SEGMENTS 16
+
+/**
+ * Fetch and bounds check the segments of a gathered packet, nothing is pinned at this point.
+ * A null array of segments is treated as empty.
+ * @return false with a pending exception if a segment is invalid.
+ */
+static bool load_segments(JNIEnv *env, jobjectArray arrays, jintArray offs_, jintArray lens_,
+                          critical_bytearray_ctx *ctxs, jint *offs, jint *lens, jsize *count, size_t *total) {
+
+    *count = 0;
+    *total = 0;
+
+    if (arrays == NULL) {
+        return true; // no segments
+    }
+
+    if (offs_ == NULL || lens_ == NULL) {
+        throw_java_NPE(env, "segment offsets or lengths were null");
+        return false;
+    }
+
+    jsize n = (*env)->GetArrayLength(env, arrays);
+    if ((*env)->GetArrayLength(env, offs_) != n || (*env)->GetArrayLength(env, lens_) != n) {
+        throw_java_illegal_argument(env, "segment offsets and lengths do not match segments");
+        return false;
+    }
+
+    if (n > GCM_PC_MAX_SEGMENTS) {
+        throw_java_illegal_argument(env, "too many segments");
+        return false;
+    }
+
+    // each segment holds a local reference until the call returns.
+    if ((*env)->EnsureLocalCapacity(env, n) != 0) {
+        return false;
+    }
+
+    (*env)->GetIntArrayRegion(env, offs_, 0, n, offs);
+    (*env)->GetIntArrayRegion(env, lens_, 0, n, lens);
+
+    for (jsize t = 0; t < n; t++) {
+        init_critical_ctx(&ctxs[t], env, (jbyteArray) (*env)->GetObjectArrayElement(env, arrays, t));
+        *count = t + 1;
+
+        if (!critical_offset_and_len_are_in_range_with_messages(
+                &ctxs[t],
+                offs[t],
+                lens[t],
+                env,
+                EM_INPUT_NULL,
+                EM_INPUT_OFFSET_NEGATIVE,
+                EM_INPUT_LEN_NEGATIVE,
+                EM_INPUT_TOO_SHORT)) {
+            return false;
+        }
+
+        *total += (size_t) lens[t];
+        if (*total > INT32_MAX) {
+            throw_java_illegal_argument(env, EM_INVALID_LEN);
+            return false;
+        }
+    }
+
+    return true;
+}
+
+
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeGCMPacketCipher
+ * Method:    processPacketGather
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeGCMPacketCipher_processPacketGather
+        (JNIEnv *env, jclass, jboolean encryption, jbyteArray key_, jbyteArray nonce_, jbyteArray aad_,
+         jint macSize, jobjectArray aadSegs, jintArray aadOffs_, jintArray aadLens_, jobjectArray inSegs,
+         jintArray inOffs_, jintArray inLens_, jbyteArray out, jint outOff, jint outLen) {
+    java_bytearray_ctx key, iv, ad;
+    critical_bytearray_ctx output;
+    critical_bytearray_ctx aadCtx[GCM_PC_MAX_SEGMENTS];
+    critical_bytearray_ctx inCtx[GCM_PC_MAX_SEGMENTS];
+    jint aadOffs[GCM_PC_MAX_SEGMENTS], aadLens[GCM_PC_MAX_SEGMENTS];
+    jint inOffs[GCM_PC_MAX_SEGMENTS], inLens[GCM_PC_MAX_SEGMENTS];
+    packet_segment aad[GCM_PC_MAX_SEGMENTS + 1];
+    packet_segment input[GCM_PC_MAX_SEGMENTS];
+    jsize aadCount = 0;
+    jsize inCount = 0;
+    size_t aadTotal = 0;
+    size_t inTotal = 0;
+    packet_err *err = NULL;
+    size_t outputLen = 0;
+
+    init_critical_ctx(&output, env, out);
+
+    init_bytearray_ctx(&key);
+    init_bytearray_ctx(&iv);
+    init_bytearray_ctx(&ad);
+
+
+    //
+    // Load and check key
+    //
+    if (!load_bytearray_ctx(&key, env, key_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid key array");
+        goto exit;
+    }
+
+    if (!aes_keysize_is_valid_and_not_null(env, &key)) {
+        goto exit;
+    }
+
+
+    //
+    // Load and check nonce.
+    //
+    if (!load_bytearray_ctx(&iv, env, nonce_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid iv array");
+        goto exit;
+    }
+
+    if (!bytearray_not_null(&iv, "nonce is null", env)) {
+        goto exit;
+    }
+
+    if (iv.size < 12) {
+        throw_java_illegal_argument(env, "nonce must be at least 12 bytes");
+        goto exit;
+    }
+
+
+    //
+    // Load aad from the parameters, it comes before any aad segments.
+    //
+    if (!load_bytearray_ctx(&ad, env, aad_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid ad array");
+        goto exit;
+    }
+
+
+    //
+    // Check the segments.
+    //
+    if (!load_segments(env, aadSegs, aadOffs_, aadLens_, aadCtx, aadOffs, aadLens, &aadCount, &aadTotal)) {
+        goto exit;
+    }
+
+    if (!load_segments(env, inSegs, inOffs_, inLens_, inCtx, inOffs, inLens, &inCount, &inTotal)) {
+        goto exit;
+    }
+
+
+    //
+    // Check output array with offset and outputSize
+    //
+    if (!critical_offset_and_len_are_in_range_with_messages(
+            &output,
+            outOff,
+            outLen,
+            env,
+            EM_OUTPUT_NULL,
+            EM_OUTPUT_OFFSET_NEGATIVE,
+            EM_OUTPUT_LENGTH_NEGATIVE,
+            EM_OUTPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+    //
+    // Assert mac len.
+    //
+    if (macSize < 4 || macSize > 16) {
+        throw_java_illegal_argument(env, EM_MACSIZE_INVALID);
+        goto exit;
+    }
+
+    int outputSize = get_aead_output_size(encryption == JNI_TRUE, (int) inTotal, macSize);
+    if (outputSize < 0) {
+        // macLen < input len on decryption asserted here
+        throw_java_illegal_argument(env, EM_INPUT_SHORT); // inlen < macSize
+        goto exit;
+    }
+    if (outLen < outputSize) {
+        throw_java_illegal_argument(env, EM_OUTPUT_LENGTH);
+        goto exit;
+    }
+
+
+    //
+    // Pin everything, no other JNI calls can be made until they are released.
+    //
+    if (!load_critical_ctx(&output)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid output array");
+        goto exit;
+    }
+
+    size_t aadSegCount = 0;
+    if (ad.bytearray != NULL) {
+        aad[aadSegCount].data = ad.bytearray;
+        aad[aadSegCount++].len = ad.size;
+    }
+
+    for (jsize t = 0; t < aadCount; t++) {
+        if (!load_critical_ctx(&aadCtx[t])) {
+            goto pinning_failed;
+        }
+        aad[aadSegCount].data = aadCtx[t].critical + aadOffs[t];
+        aad[aadSegCount++].len = (size_t) aadLens[t];
+    }
+
+    for (jsize t = 0; t < inCount; t++) {
+        if (!load_critical_ctx(&inCtx[t])) {
+            goto pinning_failed;
+        }
+        input[t].data = inCtx[t].critical + inOffs[t];
+        input[t].len = (size_t) inLens[t];
+    }
+
+    err = gcm_pc_process_packet_gather(
+            encryption == JNI_TRUE,
+            key.bytearray,
+            (size_t) key.size,
+            iv.bytearray,
+            (size_t) iv.size,
+            (size_t) macSize,
+            aad,
+            aadSegCount,
+            input,
+            (size_t) inCount,
+            output.critical + outOff,
+            &outputLen);
+    goto exit;
+
+    pinning_failed:
+    err = make_packet_error("unable to obtain ptr to valid segment array", ILLEGAL_STATE);
+
+    exit:
+    for (jsize t = inCount; t > 0; t--) {
+        release_critical_ctx(&inCtx[t - 1]);
+    }
+    for (jsize t = aadCount; t > 0; t--) {
+        release_critical_ctx(&aadCtx[t - 1]);
+    }
+    release_critical_ctx(&output);
+    release_bytearray_ctx(&key);
+    release_bytearray_ctx(&iv);
+    release_bytearray_ctx(&ad);
+    handle_gcm_pc_result(env, err);
+    return (jint) outputLen;
+}
+
+
 /*
  * Class:     org_bouncycastle_crypto_engines_AESNativeGCMPacketCipher
  * Method:    getOutputSize
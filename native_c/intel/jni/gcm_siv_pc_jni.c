@@ -188,6 +188,150 @@ JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeGCMSIVPacke
 }
 
 
+/*
+ * Class:     org_bouncycastle_crypto_engines_AESNativeGCMSIVPacketCipher
+ * Method:    processPacketDirect
+ */
+JNIEXPORT jint JNICALL Java_org_bouncycastle_crypto_engines_AESNativeGCMSIVPacketCipher_processPacketDirect
+        (JNIEnv *env, jclass,
+         jboolean encryption,
+         jbyteArray key_,
+         jbyteArray nonce_,
+         jbyteArray aad_,
+         jobject in, jint inOff, jint inLen,
+         jobject out, jint outOff, jint outLen) {
+
+    packet_err *err = NULL;
+    size_t outputLen = 0;
+    java_bytearray_ctx key, iv, ad;
+    direct_buffer_ctx input, output;
+    init_bytearray_ctx(&key);
+    init_bytearray_ctx(&iv);
+    init_bytearray_ctx(&ad);
+
+    //
+    // Direct buffers have a fixed address so nothing is pinned, or released on exit.
+    //
+    if (!load_direct_buffer_ctx(&input, env, in)) {
+        throw_java_illegal_argument(env, "input is not a direct buffer");
+        goto exit;
+    }
+
+    if (!load_direct_buffer_ctx(&output, env, out)) {
+        throw_java_illegal_argument(env, "output is not a direct buffer");
+        goto exit;
+    }
+
+
+    //
+    // Load and check key
+    //
+    if (!load_bytearray_ctx(&key, env, key_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid key array");
+        goto exit;
+    }
+
+    if (!aes_keysize_is_valid_and_not_null_not_24(env, &key)) {
+        goto exit;
+    }
+
+
+    //
+    // Load and check nonce.
+    //
+    if (!load_bytearray_ctx(&iv, env, nonce_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid iv array");
+        goto exit;
+    }
+
+    if (!bytearray_not_null(&iv,"nonce is null",env)) {
+        goto exit;
+    }
+
+    if (iv.size != 12) {
+        throw_java_illegal_argument(env, "invalid nonce");
+        goto exit;
+    }
+
+
+    //
+    // Load aad.
+    //
+    if (!load_bytearray_ctx(&ad, env, aad_)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid ad array");
+        goto exit;
+    }
+
+
+    //
+    // Check input array with offset and outputSize
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &input,
+            inOff,
+            inLen,
+            env,
+            EM_INPUT_NULL,
+            EM_INPUT_OFFSET_NEGATIVE,
+            EM_INPUT_LEN_NEGATIVE,
+            EM_INPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+
+    //
+    // Check output array with offset and outputSize
+    //
+    if (!direct_offset_and_len_are_in_range_with_messages(
+            &output,
+            outOff,
+            outLen,
+            env,
+            EM_OUTPUT_NULL,
+            EM_OUTPUT_OFFSET_NEGATIVE,
+            EM_OUTPUT_LENGTH_NEGATIVE,
+            EM_OUTPUT_TOO_SHORT)) {
+        goto exit;
+    }
+
+
+    int outputSize = get_aead_output_size(encryption == JNI_TRUE, inLen, BLOCK_SIZE);
+    if (outputSize < 0) {
+        // macLen < input len on decryption asserted here
+        throw_java_illegal_argument(env, EM_INPUT_SHORT); // inlen < macSize
+        goto exit;
+    }
+
+    if (outLen < outputSize) {
+        throw_java_illegal_argument(env, EM_OUTPUT_LENGTH);
+        goto exit;
+    }
+
+
+    uint8_t *p_in = input.address + inOff;
+    uint8_t *p_out = output.address + outOff;
+
+    err = gcm_siv_pc_process_packet(
+            encryption == JNI_TRUE,
+            key.bytearray,
+            (size_t) key.size,
+            iv.bytearray,
+            ad.bytearray,
+            (size_t) ad.size,
+            p_in,
+            (size_t) inLen,
+            p_out,
+            &outputLen);
+    exit:
+    release_bytearray_ctx(&key);
+    release_bytearray_ctx(&iv);
+    release_bytearray_ctx(&ad);
+
+    handle_gcm_siv_pc_result(env, err);
+    return (jint) outputLen;
+}
+
+
 
 /*
  * Class:     org_bouncycastle_crypto_engines_AESGCMSIVPacketCipher
@@ -280,9 +280,39 @@ __attribute__((unused)) JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_
 
 }
 
+/*
+ * Class:     org_bouncycastle_crypto_NativeFeatures
+ * Method:    nativeSHA3
+ * Signature: ()Z
+ */
 __attribute__((unused)) JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_NativeFeatures_nativeSHA3
         (JNIEnv *env, jclass cl) {
-    return JNI_FALSE;
+    // Keccak needs only 64 bit integer operations, every variant carries it.
+    return JNI_TRUE;
+}
+
+/*
+ * Class:     org_bouncycastle_crypto_NativeFeatures
+ * Method:    nativeSHAKE
+ * Signature: ()Z
+ */
+__attribute__((unused)) JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_NativeFeatures_nativeSHAKE
+        (JNIEnv *env, jclass cl) {
+    return JNI_TRUE;
+}
+
+/*
+ * Class:     org_bouncycastle_crypto_NativeFeatures
+ * Method:    nativeModExp
+ * Signature: ()Z
+ */
+__attribute__((unused)) JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_NativeFeatures_nativeModExp
+        (JNIEnv *env, jclass cl) {
+    // The Montgomery kernel (intel/modexp/modexp.c) is built with MULX and ADCX/ADOX, BMI2 and ADX.
+    cpuid_t info;
+    cpuid(&info, 7, 0);
+
+    return ((info.ebx & (1 << 8)) != 0 && (info.ebx & (1 << 19)) != 0) ? JNI_TRUE : JNI_FALSE;
 }
 
 /*
@@ -295,3 +325,13 @@ __attribute__((unused)) JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_
     return Java_org_bouncycastle_crypto_NativeFeatures_nativeSHA256(env,cl);
 }
 
+/*
+ * Class:     org_bouncycastle_crypto_NativeFeatures
+ * Method:    nativeSlhDSAShake
+ * Signature: ()Z
+ */
+__attribute__((unused)) JNIEXPORT jboolean JNICALL Java_org_bouncycastle_crypto_NativeFeatures_nativeSlhDSAShake
+        (JNIEnv *env, jclass cl) {
+    // Built on the four lane Keccak permutation, which every variant carries.
+    return Java_org_bouncycastle_crypto_NativeFeatures_nativeSHAKE(env, cl);
+}
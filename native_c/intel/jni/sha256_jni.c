@@ -4,6 +4,7 @@
 #include <assert.h>
 #include "org_bouncycastle_crypto_digests_SHA256NativeDigest.h"
 #include "../sha/sha256.h"
+#include "../sha/sha256_mb.h"
 #include "../../jniutil/bytearrays.h"
 #include "../../jniutil/bytearraycritical.h"
 #include "../../jniutil/jni_asserts.h"
@@ -268,3 +269,96 @@ JNIEXPORT void JNICALL Java_org_bouncycastle_crypto_digests_SHA256NativeDigest_r
     exit:
     release_bytearray_ctx(&input);
 }
+
+//
+// Messages pinned at once by hashBatch, each also holds a local reference for its array and output.
+//
+#define SHA256_MB_BATCH 64
+
+/*
+ * Class:     org_bouncycastle_crypto_digests_SHA256NativeDigest
+ * Method:    hashBatch
+ * Signature: ([[B[[B)V
+ */
+JNIEXPORT void JNICALL Java_org_bouncycastle_crypto_digests_SHA256NativeDigest_hashBatch
+        (JNIEnv *env, jclass jc, jobjectArray msgs_, jobjectArray outs_) {
+
+    critical_bytearray_ctx msgs[SHA256_MB_BATCH];
+    critical_bytearray_ctx outs[SHA256_MB_BATCH];
+    uint8_t *msgPtrs[SHA256_MB_BATCH];
+    uint8_t *outPtrs[SHA256_MB_BATCH];
+    size_t lens[SHA256_MB_BATCH];
+    jsize loaded = 0;
+
+    if (msgs_ == NULL || outs_ == NULL) {
+        throw_java_NPE(env, "messages or outputs were null");
+        return;
+    }
+
+    jsize count = (*env)->GetArrayLength(env, msgs_);
+    if ((*env)->GetArrayLength(env, outs_) != count) {
+        throw_java_illegal_argument(env, "messages and outputs differ in length");
+        return;
+    }
+
+    if ((*env)->EnsureLocalCapacity(env, 2 * SHA256_MB_BATCH) != 0) {
+        return;
+    }
+
+    for (jsize base = 0; base < count; base += SHA256_MB_BATCH) {
+        jsize n = count - base < SHA256_MB_BATCH ? count - base : SHA256_MB_BATCH;
+
+        //
+        // Fetch and check every array before any are pinned, no other JNI calls
+        // may be made while in a critical region.
+        //
+        for (loaded = 0; loaded < n;) {
+            init_critical_ctx(&msgs[loaded], env, (jbyteArray) (*env)->GetObjectArrayElement(env, msgs_, base + loaded));
+            init_critical_ctx(&outs[loaded], env, (jbyteArray) (*env)->GetObjectArrayElement(env, outs_, base + loaded));
+            loaded++;
+
+            if (!critical_not_null(&msgs[loaded - 1], "input was null", env)) {
+                goto exit;
+            }
+
+            if (!critical_not_null(&outs[loaded - 1], "output was null", env)) {
+                goto exit;
+            }
+
+            if (outs[loaded - 1].size < SHA256_SIZE) {
+                throw_java_illegal_argument(env, "array too short for digest output");
+                goto exit;
+            }
+        }
+
+        for (jsize t = 0; t < n; t++) {
+            if (!load_critical_ctx(&msgs[t]) || !load_critical_ctx(&outs[t])) {
+                throw_java_invalid_state(env, "unable to obtain ptr to valid array");
+                goto exit;
+            }
+            msgPtrs[t] = msgs[t].critical;
+            lens[t] = msgs[t].size;
+            outPtrs[t] = outs[t].critical;
+        }
+
+        sha256_mb_digest(msgPtrs, lens, outPtrs, (size_t) n);
+
+        for (jsize t = loaded - 1; t >= 0; t--) {
+            release_critical_ctx(&outs[t]);
+            release_critical_ctx(&msgs[t]);
+        }
+
+        // Local references can only be dropped once nothing is pinned.
+        for (jsize t = 0; t < loaded; t++) {
+            (*env)->DeleteLocalRef(env, outs[t].array);
+            (*env)->DeleteLocalRef(env, msgs[t].array);
+        }
+        loaded = 0;
+    }
+
+    exit:
+    for (jsize t = loaded - 1; t >= 0; t--) {
+        release_critical_ctx(&outs[t]);
+        release_critical_ctx(&msgs[t]);
+    }
+}
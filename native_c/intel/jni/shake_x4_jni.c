@@ -0,0 +1,150 @@
+//
+//
+
+#include "org_bouncycastle_crypto_digests_SHAKEx4NativeDigest.h"
+#include "../keccak/keccak_x4.h"
+#include "../../jniutil/bytearraycritical.h"
+#include "../../jniutil/longarraycritical.h"
+#include "../../jniutil/jni_asserts.h"
+
+static bool check_rate(jint rate, JNIEnv *env) {
+    if (rate != 168 && rate != 136) {
+        throw_java_illegal_argument(env, "rate must be 168 or 136");
+        return false;
+    }
+    return true;
+}
+
+static bool check_state(critical_longarray_ctx *state, JNIEnv *env) {
+    if (!critical_long_not_null(state, "state was null", env)) {
+        return false;
+    }
+    if (state->size != KECCAK_X4_STATE_LEN) {
+        throw_java_illegal_argument(env, "state has wrong length");
+        return false;
+    }
+    return true;
+}
+
+/*
+ * Class:     org_bouncycastle_crypto_digests_SHAKEx4NativeDigest
+ * Method:    absorb
+ * Signature: ([JI[B[B[B[BII)V
+ */
+JNIEXPORT void JNICALL Java_org_bouncycastle_crypto_digests_SHAKEx4NativeDigest_absorb
+        (JNIEnv *env, jclass cl, jlongArray state_, jint rate, jbyteArray in0_, jbyteArray in1_, jbyteArray in2_,
+         jbyteArray in3_, jint inOff, jint inLen) {
+
+    critical_longarray_ctx state;
+    critical_bytearray_ctx in[KECCAK_X4_LANES];
+    const uint8_t *inPtrs[KECCAK_X4_LANES];
+
+    init_critical_long_ctx(&state, env, state_);
+    init_critical_ctx(&in[0], env, in0_);
+    init_critical_ctx(&in[1], env, in1_);
+    init_critical_ctx(&in[2], env, in2_);
+    init_critical_ctx(&in[3], env, in3_);
+
+    if (!check_rate(rate, env) || !check_state(&state, env)) {
+        goto exit;
+    }
+
+    if (inOff < 0 || inLen < 0) {
+        throw_java_illegal_argument(env, "input offset or length is negative");
+        goto exit;
+    }
+
+    for (int j = 0; j < KECCAK_X4_LANES; j++) {
+        if (!critical_not_null(&in[j], "input was null", env)) {
+            goto exit;
+        }
+        if (!check_range(in[j].size, (size_t) inOff, (size_t) inLen)) {
+            throw_bc_data_length_exception(env, "input buffer too short");
+            goto exit;
+        }
+    }
+
+    if (!load_critical_long_ctx(&state)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid array");
+        goto exit;
+    }
+
+    for (int j = 0; j < KECCAK_X4_LANES; j++) {
+        if (!load_critical_ctx(&in[j])) {
+            throw_java_invalid_state(env, "unable to obtain ptr to valid array");
+            goto exit;
+        }
+        inPtrs[j] = in[j].critical + inOff;
+    }
+
+    keccak_x4_absorb_once((uint64_t *) state.critical, (size_t) rate, 0x1F, inPtrs, (size_t) inLen);
+
+    exit:
+    for (int j = KECCAK_X4_LANES - 1; j >= 0; j--) {
+        release_critical_ctx(&in[j]);
+    }
+    release_critical_long_ctx(&state);
+}
+
+/*
+ * Class:     org_bouncycastle_crypto_digests_SHAKEx4NativeDigest
+ * Method:    squeezeBlocks
+ * Signature: ([JI[B[B[B[BII)V
+ */
+JNIEXPORT void JNICALL Java_org_bouncycastle_crypto_digests_SHAKEx4NativeDigest_squeezeBlocks
+        (JNIEnv *env, jclass cl, jlongArray state_, jint rate, jbyteArray out0_, jbyteArray out1_, jbyteArray out2_,
+         jbyteArray out3_, jint outOff, jint blockCount) {
+
+    critical_longarray_ctx state;
+    critical_bytearray_ctx out[KECCAK_X4_LANES];
+    uint8_t *outPtrs[KECCAK_X4_LANES];
+    size_t outLen;
+
+    init_critical_long_ctx(&state, env, state_);
+    init_critical_ctx(&out[0], env, out0_);
+    init_critical_ctx(&out[1], env, out1_);
+    init_critical_ctx(&out[2], env, out2_);
+    init_critical_ctx(&out[3], env, out3_);
+
+    if (!check_rate(rate, env) || !check_state(&state, env)) {
+        goto exit;
+    }
+
+    if (outOff < 0 || blockCount < 0) {
+        throw_java_illegal_argument(env, "output offset or block count is negative");
+        goto exit;
+    }
+
+    outLen = (size_t) blockCount * (size_t) rate;
+
+    for (int j = 0; j < KECCAK_X4_LANES; j++) {
+        if (!critical_not_null(&out[j], "output was null", env)) {
+            goto exit;
+        }
+        if (!check_range(out[j].size, (size_t) outOff, outLen)) {
+            throw_bc_output_length_exception(env, "output buffer too short");
+            goto exit;
+        }
+    }
+
+    if (!load_critical_long_ctx(&state)) {
+        throw_java_invalid_state(env, "unable to obtain ptr to valid array");
+        goto exit;
+    }
+
+    for (int j = 0; j < KECCAK_X4_LANES; j++) {
+        if (!load_critical_ctx(&out[j])) {
+            throw_java_invalid_state(env, "unable to obtain ptr to valid array");
+            goto exit;
+        }
+        outPtrs[j] = out[j].critical + outOff;
+    }
+
+    keccak_x4_squeeze_blocks((uint64_t *) state.critical, (size_t) rate, outPtrs, (size_t) blockCount);
+
+    exit:
+    for (int j = KECCAK_X4_LANES - 1; j >= 0; j--) {
+        release_critical_ctx(&out[j]);
+    }
+    release_critical_long_ctx(&state);
+}
@@ -0,0 +1,141 @@
+//
+//
+
+#include "org_bouncycastle_crypto_signers_slhdsa_SLHDSAShakeNativeEngine.h"
+#include "../slhdsa/slhdsa_shake.h"
+#include "../../jniutil/bytearraycritical.h"
+#include "../../jniutil/jni_asserts.h"
+
+static bool check_n(jint n, JNIEnv *env) {
+    if (n != 16 && n != 24 && n != 32) {
+        throw_java_illegal_argument(env, "n must be 16, 24 or 32");
+        return false;
+    }
+    return true;
+}
+
+static bool check_array(critical_bytearray_ctx *ctx, size_t len, const char *nullMsg, const char *shortMsg,
+                        JNIEnv *env) {
+    if (!critical_not_null(ctx, nullMsg, env)) {
+        return false;
+    }
+    if (ctx->size < len) {
+        throw_bc_data_length_exception(env, shortMsg);
+        return false;
+    }
+    return true;
+}
+
+/*
+ * Class:     org_bouncycastle_crypto_signers_slhdsa_SLHDSAShakeNativeEngine
+ * Method:    thashX4
+ * Signature: ([BI[B[B[B)V
+ */
+JNIEXPORT void JNICALL Java_org_bouncycastle_crypto_signers_slhdsa_SLHDSAShakeNativeEngine_thashX4
+        (JNIEnv *env, jclass cl, jbyteArray out_, jint n, jbyteArray pkSeed_, jbyteArray adrs_, jbyteArray in_) {
+
+    critical_bytearray_ctx out, pkSeed, adrs, in;
+
+    init_critical_ctx(&out, env, out_);
+    init_critical_ctx(&pkSeed, env, pkSeed_);
+    init_critical_ctx(&adrs, env, adrs_);
+    init_critical_ctx(&in, env, in_);
+
+    if (!check_n(n, env)) {
+        goto exit;
+    }
+
+    if (!check_array(&out, SLHDSA_SHAKE_LANES * (size_t) n, "output was null", "output too short", env)
+        || !check_array(&pkSeed, (size_t) n, "pkSeed was null", "pkSeed too short", env)
+        || !check_array(&adrs, SLHDSA_SHAKE_LANES * SLHDSA_SHAKE_ADRS_LEN, "adrs was null", "adrs too short", env)
+        || !check_array(&in, SLHDSA_SHAKE_LANES * (size_t) n, "input was null", "input too short", env)) {
+        goto exit;
+    }
+
+    if (!load_critical_ctx(&out) || !load_critical_ctx(&pkSeed) || !load_critical_ctx(&adrs)
+        || !load_critical_ctx(&in)) {
+        release_critical_ctx(&in);
+        release_critical_ctx(&adrs);
+        release_critical_ctx(&pkSeed);
+        release_critical_ctx(&out);
+        throw_java_invalid_state(env, "unable to obtain ptr to valid array");
+        goto exit;
+    }
+
+    slhdsa_shake_thash_x4(out.critical, (size_t) n, pkSeed.critical, adrs.critical, in.critical);
+
+    exit:
+    release_critical_ctx(&in);
+    release_critical_ctx(&adrs);
+    release_critical_ctx(&pkSeed);
+    release_critical_ctx(&out);
+}
+
+/*
+ * Class:     org_bouncycastle_crypto_signers_slhdsa_SLHDSAShakeNativeEngine
+ * Method:    chainsX4
+ * Signature: ([BI[B[B[I[I)V
+ */
+JNIEXPORT void JNICALL Java_org_bouncycastle_crypto_signers_slhdsa_SLHDSAShakeNativeEngine_chainsX4
+        (JNIEnv *env, jclass cl, jbyteArray x_, jint n, jbyteArray pkSeed_, jbyteArray adrs_, jintArray start_,
+         jintArray steps_) {
+
+    critical_bytearray_ctx x, pkSeed, adrs;
+    jint start[SLHDSA_SHAKE_LANES];
+    jint steps[SLHDSA_SHAKE_LANES];
+    uint32_t ustart[SLHDSA_SHAKE_LANES];
+    uint32_t usteps[SLHDSA_SHAKE_LANES];
+
+    init_critical_ctx(&x, env, x_);
+    init_critical_ctx(&pkSeed, env, pkSeed_);
+    init_critical_ctx(&adrs, env, adrs_);
+
+    if (!check_n(n, env)) {
+        goto exit;
+    }
+
+    if (start_ == NULL || steps_ == NULL) {
+        throw_java_NPE(env, "start or steps was null");
+        goto exit;
+    }
+
+    if ((*env)->GetArrayLength(env, start_) < SLHDSA_SHAKE_LANES
+        || (*env)->GetArrayLength(env, steps_) < SLHDSA_SHAKE_LANES) {
+        throw_java_illegal_argument(env, "start or steps too short");
+        goto exit;
+    }
+
+    // Copied out before any critical region is entered.
+    (*env)->GetIntArrayRegion(env, start_, 0, SLHDSA_SHAKE_LANES, start);
+    (*env)->GetIntArrayRegion(env, steps_, 0, SLHDSA_SHAKE_LANES, steps);
+
+    for (int j = 0; j < SLHDSA_SHAKE_LANES; j++) {
+        if (start[j] < 0 || steps[j] < 0 || start[j] + steps[j] > 255) {
+            throw_java_illegal_argument(env, "chain position out of range");
+            goto exit;
+        }
+        ustart[j] = (uint32_t) start[j];
+        usteps[j] = (uint32_t) steps[j];
+    }
+
+    if (!check_array(&x, SLHDSA_SHAKE_LANES * (size_t) n, "chain values were null", "chain values too short", env)
+        || !check_array(&pkSeed, (size_t) n, "pkSeed was null", "pkSeed too short", env)
+        || !check_array(&adrs, SLHDSA_SHAKE_LANES * SLHDSA_SHAKE_ADRS_LEN, "adrs was null", "adrs too short", env)) {
+        goto exit;
+    }
+
+    if (!load_critical_ctx(&x) || !load_critical_ctx(&pkSeed) || !load_critical_ctx(&adrs)) {
+        release_critical_ctx(&adrs);
+        release_critical_ctx(&pkSeed);
+        release_critical_ctx(&x);
+        throw_java_invalid_state(env, "unable to obtain ptr to valid array");
+        goto exit;
+    }
+
+    slhdsa_shake_chains_x4(x.critical, (size_t) n, pkSeed.critical, adrs.critical, ustart, usteps);
+
+    exit:
+    release_critical_ctx(&adrs);
+    release_critical_ctx(&pkSeed);
+    release_critical_ctx(&x);
+}
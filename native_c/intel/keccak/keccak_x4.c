@@ -0,0 +1,61 @@
+//
+//
+
+#include <string.h>
+#include "keccak_x4.h"
+#include "../util/util.h"
+
+static inline uint64_t load64(const uint8_t *p) {
+    uint64_t v;
+    memcpy(&v, p, sizeof(v));
+    return v;
+}
+
+
+void keccak_x4_absorb_once(uint64_t *state, size_t rateBytes, uint8_t ds, const uint8_t *const *in, size_t inLen) {
+    size_t rateWords = rateBytes >> 3;
+    size_t off = 0;
+
+    memset(state, 0, KECCAK_X4_STATE_LEN * sizeof(uint64_t));
+
+    while (inLen - off >= rateBytes) {
+        for (size_t i = 0; i < rateWords; i++) {
+            for (size_t j = 0; j < KECCAK_X4_LANES; j++) {
+                state[i * KECCAK_X4_LANES + j] ^= load64(in[j] + off + 8 * i);
+            }
+        }
+        keccak_x4_permute(state);
+        off += rateBytes;
+    }
+
+    uint8_t buf[200];
+    size_t rem = inLen - off;
+
+    for (size_t j = 0; j < KECCAK_X4_LANES; j++) {
+        memset(buf, 0, rateBytes);
+        memcpy(buf, in[j] + off, rem);
+        buf[rem] = ds;
+        buf[rateBytes - 1] |= 0x80;
+
+        for (size_t i = 0; i < rateWords; i++) {
+            state[i * KECCAK_X4_LANES + j] ^= load64(buf + 8 * i);
+        }
+    }
+
+    memzero(buf, sizeof(buf));
+}
+
+
+void keccak_x4_squeeze_blocks(uint64_t *state, size_t rateBytes, uint8_t *const *out, size_t nBlocks) {
+    size_t rateWords = rateBytes >> 3;
+
+    for (size_t b = 0; b < nBlocks; b++) {
+        keccak_x4_permute(state);
+
+        for (size_t i = 0; i < rateWords; i++) {
+            for (size_t j = 0; j < KECCAK_X4_LANES; j++) {
+                memcpy(out[j] + b * rateBytes + 8 * i, &state[i * KECCAK_X4_LANES + j], 8);
+            }
+        }
+    }
+}
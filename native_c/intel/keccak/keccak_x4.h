@@ -0,0 +1,42 @@
+#ifndef BC_LTS_C_KECCAK_X4_H
+#define BC_LTS_C_KECCAK_X4_H
+
+//
+// Four independent Keccak-f[1600] states permuted together, used where many short
+// SHAKE streams are needed at once such as matrix expansion in ML-KEM and ML-DSA.
+// Word i of state j is held at state[i * KECCAK_X4_LANES + j].
+//
+
+#include <stdint.h>
+#include <stddef.h>
+
+#define KECCAK_X4_LANES 4
+#define KECCAK_X4_STATE_LEN (25 * KECCAK_X4_LANES)
+
+/**
+ * Apply Keccak-f[1600] to each of the four interleaved states.
+ * @param state the interleaved states
+ */
+void keccak_x4_permute(uint64_t *state);
+
+/**
+ * Reset the states and absorb one message of inLen bytes into each, followed by the domain separation
+ * byte and the final padding bit. The final block is not permuted, keccak_x4_squeeze_blocks does that.
+ * @param state the interleaved states
+ * @param rateBytes the rate in bytes, 168 for SHAKE128 and 136 for SHAKE256
+ * @param ds the domain separation byte, 0x1F for SHAKE
+ * @param in the four messages
+ * @param inLen the length of each message
+ */
+void keccak_x4_absorb_once(uint64_t *state, size_t rateBytes, uint8_t ds, const uint8_t *const *in, size_t inLen);
+
+/**
+ * Squeeze nBlocks blocks of rateBytes from each state.
+ * @param state the interleaved states
+ * @param rateBytes the rate in bytes
+ * @param out the four output buffers, each at least nBlocks * rateBytes long
+ * @param nBlocks the number of blocks
+ */
+void keccak_x4_squeeze_blocks(uint64_t *state, size_t rateBytes, uint8_t *const *out, size_t nBlocks);
+
+#endif //BC_LTS_C_KECCAK_X4_H
@@ -0,0 +1,45 @@
+//
+//
+
+#include <string.h>
+#include "keccak_x4.h"
+#include "keccak.h"
+
+//
+// The AVX variant has no 256 bit integer instructions, the four states are
+// permuted one after another with the scalar permutation.
+//
+
+static const uint64_t K[] = {
+        0x0000000000000001UL, 0x0000000000008082UL,
+        0x800000000000808aUL, 0x8000000080008000UL,
+        0x000000000000808bUL, 0x0000000080000001UL,
+        0x8000000080008081UL, 0x8000000000008009UL,
+        0x000000000000008aUL, 0x0000000000000088UL,
+        0x0000000080008009UL, 0x000000008000000aUL,
+        0x000000008000808bUL, 0x800000000000008bUL,
+        0x8000000000008089UL, 0x8000000000008003UL,
+        0x8000000000008002UL, 0x8000000000000080UL,
+        0x000000000000800aUL, 0x800000008000000aUL,
+        0x8000000080008081UL, 0x8000000000008080UL,
+        0x0000000080000001UL, 0x8000000080008008UL
+};
+
+
+void keccak_x4_permute(uint64_t *state) {
+    uint64_t s[25];
+
+    for (size_t j = 0; j < KECCAK_X4_LANES; j++) {
+        for (size_t i = 0; i < 25; i++) {
+            s[i] = state[i * KECCAK_X4_LANES + j];
+        }
+
+        KF1600_StatePermute(s, K);
+
+        for (size_t i = 0; i < 25; i++) {
+            state[i * KECCAK_X4_LANES + j] = s[i];
+        }
+    }
+
+    memzero(s, sizeof(s));
+}
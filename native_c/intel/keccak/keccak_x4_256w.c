@@ -0,0 +1,277 @@
+//
+//
+
+#include <immintrin.h>
+#include "keccak_x4.h"
+
+//
+// Four Keccak-f[1600] states at once with AVX2, each 64 bit element of a register is one state.
+// The round schedule matches keccak.h.
+//
+
+static const uint64_t K[] = {
+        0x0000000000000001UL, 0x0000000000008082UL,
+        0x800000000000808aUL, 0x8000000080008000UL,
+        0x000000000000808bUL, 0x0000000080000001UL,
+        0x8000000080008081UL, 0x8000000000008009UL,
+        0x000000000000008aUL, 0x0000000000000088UL,
+        0x0000000080008009UL, 0x000000008000000aUL,
+        0x000000008000808bUL, 0x800000000000008bUL,
+        0x8000000000008089UL, 0x8000000000008003UL,
+        0x8000000000008002UL, 0x8000000000000080UL,
+        0x000000000000800aUL, 0x800000008000000aUL,
+        0x8000000080008081UL, 0x8000000000008080UL,
+        0x0000000080000001UL, 0x8000000080008008UL
+};
+
+#define ROL64(a, n) _mm256_or_si256(_mm256_slli_epi64(a, n), _mm256_srli_epi64(a, 64 - (n)))
+
+#define KSET(k) _mm256_set1_epi64x((long long) (k))
+
+#define vxor(c, a, b) c = _mm256_xor_si256(a, b);
+
+#define vXOR5(out, a, b, c, d, e) \
+  out = _mm256_xor_si256(_mm256_xor_si256(a, b), _mm256_xor_si256(c, d)); \
+  out = _mm256_xor_si256(out, e);
+
+#define vRXOR(c, a, b) c = _mm256_xor_si256(a, ROL64(b, 1));
+
+// XOR then rotate right by n bits.
+#define vXORR(c, a, b, n) { __m256i _t = _mm256_xor_si256(a, b); c = ROL64(_t, 64 - (n)); }
+
+#define vXNA(out, a, b, c) out = _mm256_xor_si256(a, _mm256_andnot_si256(b, c));
+
+
+void keccak_x4_permute(uint64_t *state) {
+
+    int round;
+
+
+    __m256i Aba, Abe, Abi, Abo, Abu;
+    __m256i Aga, Age, Agi, Ago, Agu;
+    __m256i Aka, Ake, Aki, Ako, Aku;
+    __m256i Ama, Ame, Ami, Amo, Amu;
+    __m256i Asa, Ase, Asi, Aso, Asu;
+    __m256i BCa, BCe, BCi, BCo, BCu; // tmp
+    __m256i Da, De, Di, Do, Du;      // D
+    __m256i Eba, Ebe, Ebi, Ebo, Ebu;
+    __m256i Ega, Ege, Egi, Ego, Egu;
+    __m256i Eka, Eke, Eki, Eko, Eku;
+    __m256i Ema, Eme, Emi, Emo, Emu;
+    __m256i Esa, Ese, Esi, Eso, Esu;
+
+
+    Aba = _mm256_loadu_si256((const __m256i *) &state[0 * 4]);
+    Abe = _mm256_loadu_si256((const __m256i *) &state[1 * 4]);
+    Abi = _mm256_loadu_si256((const __m256i *) &state[2 * 4]);
+    Abo = _mm256_loadu_si256((const __m256i *) &state[3 * 4]);
+    Abu = _mm256_loadu_si256((const __m256i *) &state[4 * 4]);
+    Aga = _mm256_loadu_si256((const __m256i *) &state[5 * 4]);
+    Age = _mm256_loadu_si256((const __m256i *) &state[6 * 4]);
+    Agi = _mm256_loadu_si256((const __m256i *) &state[7 * 4]);
+    Ago = _mm256_loadu_si256((const __m256i *) &state[8 * 4]);
+    Agu = _mm256_loadu_si256((const __m256i *) &state[9 * 4]);
+    Aka = _mm256_loadu_si256((const __m256i *) &state[10 * 4]);
+    Ake = _mm256_loadu_si256((const __m256i *) &state[11 * 4]);
+    Aki = _mm256_loadu_si256((const __m256i *) &state[12 * 4]);
+    Ako = _mm256_loadu_si256((const __m256i *) &state[13 * 4]);
+    Aku = _mm256_loadu_si256((const __m256i *) &state[14 * 4]);
+    Ama = _mm256_loadu_si256((const __m256i *) &state[15 * 4]);
+    Ame = _mm256_loadu_si256((const __m256i *) &state[16 * 4]);
+    Ami = _mm256_loadu_si256((const __m256i *) &state[17 * 4]);
+    Amo = _mm256_loadu_si256((const __m256i *) &state[18 * 4]);
+    Amu = _mm256_loadu_si256((const __m256i *) &state[19 * 4]);
+    Asa = _mm256_loadu_si256((const __m256i *) &state[20 * 4]);
+    Ase = _mm256_loadu_si256((const __m256i *) &state[21 * 4]);
+    Asi = _mm256_loadu_si256((const __m256i *) &state[22 * 4]);
+    Aso = _mm256_loadu_si256((const __m256i *) &state[23 * 4]);
+    Asu = _mm256_loadu_si256((const __m256i *) &state[24 * 4]);
+
+
+    for (round = 0; round < 24; round += 2) {
+        //    prepareTheta
+
+        //    prepareTheta
+        vXOR5(BCa, Aba, Aga, Aka, Ama, Asa);
+        vXOR5(BCe, Abe, Age, Ake, Ame, Ase);
+        vXOR5(BCi, Abi, Agi, Aki, Ami, Asi);
+        vXOR5(BCo, Abo, Ago, Ako, Amo, Aso);
+        vXOR5(BCu, Abu, Agu, Aku, Amu, Asu);
+
+        vRXOR(Da, BCu, BCe);
+        vRXOR(De, BCa, BCi);
+        vRXOR(Di, BCe, BCo);
+        vRXOR(Do, BCi, BCu);
+        vRXOR(Du, BCo, BCa);
+
+        vxor(Aba, Aba, Da);
+        vXORR(BCe, Age, De, 20);
+        vXORR(BCi, Aki, Di, 21);
+        vXORR(BCo, Amo, Do, 43);
+        vXORR(BCu, Asu, Du, 50);
+
+        vXNA(Eba, Aba, BCe, BCi);
+        vxor(Eba, Eba, KSET(K[round]));
+        vXNA(Ebe, BCe, BCi, BCo);
+        vXNA(Ebi, BCi, BCo, BCu);
+        vXNA(Ebo, BCo, BCu, Aba);
+        vXNA(Ebu, BCu, Aba, BCe);
+
+        vXORR(BCa, Abo, Do, 36);
+        vXORR(BCe, Agu, Du, 44);
+        vXORR(BCi, Aka, Da, 61);
+        vXORR(BCo, Ame, De, 19);
+        vXORR(BCu, Asi, Di, 3);
+
+        vXNA(Ega, BCa, BCe, BCi);
+        vXNA(Ege, BCe, BCi, BCo);
+        vXNA(Egi, BCi, BCo, BCu);
+        vXNA(Ego, BCo, BCu, BCa);
+        vXNA(Egu, BCu, BCa, BCe);
+
+        vXORR(BCa, Abe, De, 63);
+        vXORR(BCe, Agi, Di, 58);
+        vXORR(BCi, Ako, Do, 39);
+        vXORR(BCo, Amu, Du, 56);
+        vXORR(BCu, Asa, Da, 46);
+
+        vXNA(Eka, BCa, BCe, BCi);
+        vXNA(Eke, BCe, BCi, BCo);
+        vXNA(Eki, BCi, BCo, BCu);
+        vXNA(Eko, BCo, BCu, BCa);
+        vXNA(Eku, BCu, BCa, BCe);
+
+        vXORR(BCa, Abu, Du, 37);
+        vXORR(BCe, Aga, Da, 28);
+        vXORR(BCi, Ake, De, 54);
+        vXORR(BCo, Ami, Di, 49);
+        vXORR(BCu, Aso, Do, 8);
+
+        vXNA(Ema, BCa, BCe, BCi);
+        vXNA(Eme, BCe, BCi, BCo);
+        vXNA(Emi, BCi, BCo, BCu);
+        vXNA(Emo, BCo, BCu, BCa);
+        vXNA(Emu, BCu, BCa, BCe);
+
+        vXORR(BCa, Abi, Di, 2);
+        vXORR(BCe, Ago, Do, 9);
+        vXORR(BCi, Aku, Du, 25);
+        vXORR(BCo, Ama, Da, 23);
+        vXORR(BCu, Ase, De, 62);
+
+        vXNA(Esa, BCa, BCe, BCi);
+        vXNA(Ese, BCe, BCi, BCo);
+        vXNA(Esi, BCi, BCo, BCu);
+        vXNA(Eso, BCo, BCu, BCa);
+        vXNA(Esu, BCu, BCa, BCe);
+
+        // Next Round
+
+        //    prepareTheta
+        vXOR5(BCa, Eba, Ega, Eka, Ema, Esa);
+        vXOR5(BCe, Ebe, Ege, Eke, Eme, Ese);
+        vXOR5(BCi, Ebi, Egi, Eki, Emi, Esi);
+        vXOR5(BCo, Ebo, Ego, Eko, Emo, Eso);
+        vXOR5(BCu, Ebu, Egu, Eku, Emu, Esu);
+
+        // thetaRhoPiChiIotaPrepareTheta(round+1, E, A)
+        vRXOR(Da, BCu, BCe);
+        vRXOR(De, BCa, BCi);
+        vRXOR(Di, BCe, BCo);
+        vRXOR(Do, BCi, BCu);
+        vRXOR(Du, BCo, BCa);
+
+        vxor(Eba, Eba, Da);
+        vXORR(BCe, Ege, De, 20);
+        vXORR(BCi, Eki, Di, 21);
+        vXORR(BCo, Emo, Do, 43);
+        vXORR(BCu, Esu, Du, 50);
+
+        vXNA(Aba, Eba, BCe, BCi);
+        vxor(Aba, Aba, KSET(K[round + 1]));
+        vXNA(Abe, BCe, BCi, BCo);
+        vXNA(Abi, BCi, BCo, BCu);
+        vXNA(Abo, BCo, BCu, Eba);
+        vXNA(Abu, BCu, Eba, BCe);
+
+        vXORR(BCa, Ebo, Do, 36);
+        vXORR(BCe, Egu, Du, 44);
+        vXORR(BCi, Eka, Da, 61);
+        vXORR(BCo, Eme, De, 19);
+        vXORR(BCu, Esi, Di, 3);
+
+        vXNA(Aga, BCa, BCe, BCi);
+        vXNA(Age, BCe, BCi, BCo);
+        vXNA(Agi, BCi, BCo, BCu);
+        vXNA(Ago, BCo, BCu, BCa);
+        vXNA(Agu, BCu, BCa, BCe);
+
+        vXORR(BCa, Ebe, De, 63);
+        vXORR(BCe, Egi, Di, 58);
+        vXORR(BCi, Eko, Do, 39);
+        vXORR(BCo, Emu, Du, 56);
+        vXORR(BCu, Esa, Da, 46);
+
+        vXNA(Aka, BCa, BCe, BCi);
+        vXNA(Ake, BCe, BCi, BCo);
+        vXNA(Aki, BCi, BCo, BCu);
+        vXNA(Ako, BCo, BCu, BCa);
+        vXNA(Aku, BCu, BCa, BCe);
+
+        vXORR(BCa, Ebu, Du, 37);
+        vXORR(BCe, Ega, Da, 28);
+        vXORR(BCi, Eke, De, 54);
+        vXORR(BCo, Emi, Di, 49);
+        vXORR(BCu, Eso, Do, 8);
+
+        vXNA(Ama, BCa, BCe, BCi);
+        vXNA(Ame, BCe, BCi, BCo);
+        vXNA(Ami, BCi, BCo, BCu);
+        vXNA(Amo, BCo, BCu, BCa);
+        vXNA(Amu, BCu, BCa, BCe);
+
+        vXORR(BCa, Ebi, Di, 2);
+        vXORR(BCe, Ego, Do, 9);
+        vXORR(BCi, Eku, Du, 25);
+        vXORR(BCo, Ema, Da, 23);
+        vXORR(BCu, Ese, De, 62);
+
+        vXNA(Asa, BCa, BCe, BCi);
+        vXNA(Ase, BCe, BCi, BCo);
+        vXNA(Asi, BCi, BCo, BCu);
+        vXNA(Aso, BCo, BCu, BCa);
+        vXNA(Asu, BCu, BCa, BCe);
+
+    }
+
+    _mm256_storeu_si256((__m256i *) &state[0 * 4], Aba);
+    _mm256_storeu_si256((__m256i *) &state[1 * 4], Abe);
+    _mm256_storeu_si256((__m256i *) &state[2 * 4], Abi);
+    _mm256_storeu_si256((__m256i *) &state[3 * 4], Abo);
+    _mm256_storeu_si256((__m256i *) &state[4 * 4], Abu);
+
+    _mm256_storeu_si256((__m256i *) &state[5 * 4], Aga);
+    _mm256_storeu_si256((__m256i *) &state[6 * 4], Age);
+    _mm256_storeu_si256((__m256i *) &state[7 * 4], Agi);
+    _mm256_storeu_si256((__m256i *) &state[8 * 4], Ago);
+    _mm256_storeu_si256((__m256i *) &state[9 * 4], Agu);
+
+    _mm256_storeu_si256((__m256i *) &state[10 * 4], Aka);
+    _mm256_storeu_si256((__m256i *) &state[11 * 4], Ake);
+    _mm256_storeu_si256((__m256i *) &state[12 * 4], Aki);
+    _mm256_storeu_si256((__m256i *) &state[13 * 4], Ako);
+    _mm256_storeu_si256((__m256i *) &state[14 * 4], Aku);
+
+    _mm256_storeu_si256((__m256i *) &state[15 * 4], Ama);
+    _mm256_storeu_si256((__m256i *) &state[16 * 4], Ame);
+    _mm256_storeu_si256((__m256i *) &state[17 * 4], Ami);
+    _mm256_storeu_si256((__m256i *) &state[18 * 4], Amo);
+    _mm256_storeu_si256((__m256i *) &state[19 * 4], Amu);
+
+    _mm256_storeu_si256((__m256i *) &state[20 * 4], Asa);
+    _mm256_storeu_si256((__m256i *) &state[21 * 4], Ase);
+    _mm256_storeu_si256((__m256i *) &state[22 * 4], Asi);
+    _mm256_storeu_si256((__m256i *) &state[23 * 4], Aso);
+    _mm256_storeu_si256((__m256i *) &state[24 * 4], Asu);
+
+}
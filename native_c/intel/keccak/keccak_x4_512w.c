@@ -0,0 +1,279 @@
+//
+//
+
+#include <immintrin.h>
+#include "keccak_x4.h"
+
+//
+// Four Keccak-f[1600] states at once with AVX-512F. Only the low four 64 bit elements of
+// each register are used, the gain over AVX2 is from the rotate and ternary logic instructions
+// which need AVX512VL at 256 bits, a feature the vaesf variant selection does not check.
+// The round schedule matches keccak.h.
+//
+
+static const uint64_t K[] = {
+        0x0000000000000001UL, 0x0000000000008082UL,
+        0x800000000000808aUL, 0x8000000080008000UL,
+        0x000000000000808bUL, 0x0000000080000001UL,
+        0x8000000080008081UL, 0x8000000000008009UL,
+        0x000000000000008aUL, 0x0000000000000088UL,
+        0x0000000080008009UL, 0x000000008000000aUL,
+        0x000000008000808bUL, 0x800000000000008bUL,
+        0x8000000000008089UL, 0x8000000000008003UL,
+        0x8000000000008002UL, 0x8000000000000080UL,
+        0x000000000000800aUL, 0x800000008000000aUL,
+        0x8000000080008081UL, 0x8000000000008080UL,
+        0x0000000080000001UL, 0x8000000080008008UL
+};
+
+#define KSET(k) _mm512_set1_epi64((long long) (k))
+
+#define vxor(c, a, b) c = _mm512_xor_si512(a, b);
+
+// Xor chain, ternary logic truth table 0x96 is a ^ b ^ c.
+#define vXOR5(out, a, b, c, d, e) \
+  out = _mm512_ternarylogic_epi64(a, b, c, 0x96); \
+  out = _mm512_ternarylogic_epi64(out, d, e, 0x96);
+
+#define vRXOR(c, a, b) c = _mm512_xor_si512(a, _mm512_rol_epi64(b, 1));
+
+// XOR then rotate right by n bits.
+#define vXORR(c, a, b, n) c = _mm512_ror_epi64(_mm512_xor_si512(a, b), n);
+
+// a ^ (~b & c) is truth table 0xD2.
+#define vXNA(out, a, b, c) out = _mm512_ternarylogic_epi64(a, b, c, 0xD2);
+
+
+void keccak_x4_permute(uint64_t *state) {
+
+    int round;
+
+
+    __m512i Aba, Abe, Abi, Abo, Abu;
+    __m512i Aga, Age, Agi, Ago, Agu;
+    __m512i Aka, Ake, Aki, Ako, Aku;
+    __m512i Ama, Ame, Ami, Amo, Amu;
+    __m512i Asa, Ase, Asi, Aso, Asu;
+    __m512i BCa, BCe, BCi, BCo, BCu; // tmp
+    __m512i Da, De, Di, Do, Du;      // D
+    __m512i Eba, Ebe, Ebi, Ebo, Ebu;
+    __m512i Ega, Ege, Egi, Ego, Egu;
+    __m512i Eka, Eke, Eki, Eko, Eku;
+    __m512i Ema, Eme, Emi, Emo, Emu;
+    __m512i Esa, Ese, Esi, Eso, Esu;
+
+
+    Aba = _mm512_maskz_loadu_epi64(0x0F, &state[0 * 4]);
+    Abe = _mm512_maskz_loadu_epi64(0x0F, &state[1 * 4]);
+    Abi = _mm512_maskz_loadu_epi64(0x0F, &state[2 * 4]);
+    Abo = _mm512_maskz_loadu_epi64(0x0F, &state[3 * 4]);
+    Abu = _mm512_maskz_loadu_epi64(0x0F, &state[4 * 4]);
+    Aga = _mm512_maskz_loadu_epi64(0x0F, &state[5 * 4]);
+    Age = _mm512_maskz_loadu_epi64(0x0F, &state[6 * 4]);
+    Agi = _mm512_maskz_loadu_epi64(0x0F, &state[7 * 4]);
+    Ago = _mm512_maskz_loadu_epi64(0x0F, &state[8 * 4]);
+    Agu = _mm512_maskz_loadu_epi64(0x0F, &state[9 * 4]);
+    Aka = _mm512_maskz_loadu_epi64(0x0F, &state[10 * 4]);
+    Ake = _mm512_maskz_loadu_epi64(0x0F, &state[11 * 4]);
+    Aki = _mm512_maskz_loadu_epi64(0x0F, &state[12 * 4]);
+    Ako = _mm512_maskz_loadu_epi64(0x0F, &state[13 * 4]);
+    Aku = _mm512_maskz_loadu_epi64(0x0F, &state[14 * 4]);
+    Ama = _mm512_maskz_loadu_epi64(0x0F, &state[15 * 4]);
+    Ame = _mm512_maskz_loadu_epi64(0x0F, &state[16 * 4]);
+    Ami = _mm512_maskz_loadu_epi64(0x0F, &state[17 * 4]);
+    Amo = _mm512_maskz_loadu_epi64(0x0F, &state[18 * 4]);
+    Amu = _mm512_maskz_loadu_epi64(0x0F, &state[19 * 4]);
+    Asa = _mm512_maskz_loadu_epi64(0x0F, &state[20 * 4]);
+    Ase = _mm512_maskz_loadu_epi64(0x0F, &state[21 * 4]);
+    Asi = _mm512_maskz_loadu_epi64(0x0F, &state[22 * 4]);
+    Aso = _mm512_maskz_loadu_epi64(0x0F, &state[23 * 4]);
+    Asu = _mm512_maskz_loadu_epi64(0x0F, &state[24 * 4]);
+
+
+    for (round = 0; round < 24; round += 2) {
+        //    prepareTheta
+
+        //    prepareTheta
+        vXOR5(BCa, Aba, Aga, Aka, Ama, Asa);
+        vXOR5(BCe, Abe, Age, Ake, Ame, Ase);
+        vXOR5(BCi, Abi, Agi, Aki, Ami, Asi);
+        vXOR5(BCo, Abo, Ago, Ako, Amo, Aso);
+        vXOR5(BCu, Abu, Agu, Aku, Amu, Asu);
+
+        vRXOR(Da, BCu, BCe);
+        vRXOR(De, BCa, BCi);
+        vRXOR(Di, BCe, BCo);
+        vRXOR(Do, BCi, BCu);
+        vRXOR(Du, BCo, BCa);
+
+        vxor(Aba, Aba, Da);
+        vXORR(BCe, Age, De, 20);
+        vXORR(BCi, Aki, Di, 21);
+        vXORR(BCo, Amo, Do, 43);
+        vXORR(BCu, Asu, Du, 50);
+
+        vXNA(Eba, Aba, BCe, BCi);
+        vxor(Eba, Eba, KSET(K[round]));
+        vXNA(Ebe, BCe, BCi, BCo);
+        vXNA(Ebi, BCi, BCo, BCu);
+        vXNA(Ebo, BCo, BCu, Aba);
+        vXNA(Ebu, BCu, Aba, BCe);
+
+        vXORR(BCa, Abo, Do, 36);
+        vXORR(BCe, Agu, Du, 44);
+        vXORR(BCi, Aka, Da, 61);
+        vXORR(BCo, Ame, De, 19);
+        vXORR(BCu, Asi, Di, 3);
+
+        vXNA(Ega, BCa, BCe, BCi);
+        vXNA(Ege, BCe, BCi, BCo);
+        vXNA(Egi, BCi, BCo, BCu);
+        vXNA(Ego, BCo, BCu, BCa);
+        vXNA(Egu, BCu, BCa, BCe);
+
+        vXORR(BCa, Abe, De, 63);
+        vXORR(BCe, Agi, Di, 58);
+        vXORR(BCi, Ako, Do, 39);
+        vXORR(BCo, Amu, Du, 56);
+        vXORR(BCu, Asa, Da, 46);
+
+        vXNA(Eka, BCa, BCe, BCi);
+        vXNA(Eke, BCe, BCi, BCo);
+        vXNA(Eki, BCi, BCo, BCu);
+        vXNA(Eko, BCo, BCu, BCa);
+        vXNA(Eku, BCu, BCa, BCe);
+
+        vXORR(BCa, Abu, Du, 37);
+        vXORR(BCe, Aga, Da, 28);
+        vXORR(BCi, Ake, De, 54);
+        vXORR(BCo, Ami, Di, 49);
+        vXORR(BCu, Aso, Do, 8);
+
+        vXNA(Ema, BCa, BCe, BCi);
+        vXNA(Eme, BCe, BCi, BCo);
+        vXNA(Emi, BCi, BCo, BCu);
+        vXNA(Emo, BCo, BCu, BCa);
+        vXNA(Emu, BCu, BCa, BCe);
+
+        vXORR(BCa, Abi, Di, 2);
+        vXORR(BCe, Ago, Do, 9);
+        vXORR(BCi, Aku, Du, 25);
+        vXORR(BCo, Ama, Da, 23);
+        vXORR(BCu, Ase, De, 62);
+
+        vXNA(Esa, BCa, BCe, BCi);
+        vXNA(Ese, BCe, BCi, BCo);
+        vXNA(Esi, BCi, BCo, BCu);
+        vXNA(Eso, BCo, BCu, BCa);
+        vXNA(Esu, BCu, BCa, BCe);
+
+        // Next Round
+
+        //    prepareTheta
+        vXOR5(BCa, Eba, Ega, Eka, Ema, Esa);
+        vXOR5(BCe, Ebe, Ege, Eke, Eme, Ese);
+        vXOR5(BCi, Ebi, Egi, Eki, Emi, Esi);
+        vXOR5(BCo, Ebo, Ego, Eko, Emo, Eso);
+        vXOR5(BCu, Ebu, Egu, Eku, Emu, Esu);
+
+        // thetaRhoPiChiIotaPrepareTheta(round+1, E, A)
+        vRXOR(Da, BCu, BCe);
+        vRXOR(De, BCa, BCi);
+        vRXOR(Di, BCe, BCo);
+        vRXOR(Do, BCi, BCu);
+        vRXOR(Du, BCo, BCa);
+
+        vxor(Eba, Eba, Da);
+        vXORR(BCe, Ege, De, 20);
+        vXORR(BCi, Eki, Di, 21);
+        vXORR(BCo, Emo, Do, 43);
+        vXORR(BCu, Esu, Du, 50);
+
+        vXNA(Aba, Eba, BCe, BCi);
+        vxor(Aba, Aba, KSET(K[round + 1]));
+        vXNA(Abe, BCe, BCi, BCo);
+        vXNA(Abi, BCi, BCo, BCu);
+        vXNA(Abo, BCo, BCu, Eba);
+        vXNA(Abu, BCu, Eba, BCe);
+
+        vXORR(BCa, Ebo, Do, 36);
+        vXORR(BCe, Egu, Du, 44);
+        vXORR(BCi, Eka, Da, 61);
+        vXORR(BCo, Eme, De, 19);
+        vXORR(BCu, Esi, Di, 3);
+
+        vXNA(Aga, BCa, BCe, BCi);
+        vXNA(Age, BCe, BCi, BCo);
+        vXNA(Agi, BCi, BCo, BCu);
+        vXNA(Ago, BCo, BCu, BCa);
+        vXNA(Agu, BCu, BCa, BCe);
+
+        vXORR(BCa, Ebe, De, 63);
+        vXORR(BCe, Egi, Di, 58);
+        vXORR(BCi, Eko, Do, 39);
+        vXORR(BCo, Emu, Du, 56);
+        vXORR(BCu, Esa, Da, 46);
+
+        vXNA(Aka, BCa, BCe, BCi);
+        vXNA(Ake, BCe, BCi, BCo);
+        vXNA(Aki, BCi, BCo, BCu);
+        vXNA(Ako, BCo, BCu, BCa);
+        vXNA(Aku, BCu, BCa, BCe);
+
+        vXORR(BCa, Ebu, Du, 37);
+        vXORR(BCe, Ega, Da, 28);
+        vXORR(BCi, Eke, De, 54);
+        vXORR(BCo, Emi, Di, 49);
+        vXORR(BCu, Eso, Do, 8);
+
+        vXNA(Ama, BCa, BCe, BCi);
+        vXNA(Ame, BCe, BCi, BCo);
+        vXNA(Ami, BCi, BCo, BCu);
+        vXNA(Amo, BCo, BCu, BCa);
+        vXNA(Amu, BCu, BCa, BCe);
+
+        vXORR(BCa, Ebi, Di, 2);
+        vXORR(BCe, Ego, Do, 9);
+        vXORR(BCi, Eku, Du, 25);
+        vXORR(BCo, Ema, Da, 23);
+        vXORR(BCu, Ese, De, 62);
+
+        vXNA(Asa, BCa, BCe, BCi);
+        vXNA(Ase, BCe, BCi, BCo);
+        vXNA(Asi, BCi, BCo, BCu);
+        vXNA(Aso, BCo, BCu, BCa);
+        vXNA(Asu, BCu, BCa, BCe);
+
+    }
+
+    _mm512_mask_storeu_epi64(&state[0 * 4], 0x0F, Aba);
+    _mm512_mask_storeu_epi64(&state[1 * 4], 0x0F, Abe);
+    _mm512_mask_storeu_epi64(&state[2 * 4], 0x0F, Abi);
+    _mm512_mask_storeu_epi64(&state[3 * 4], 0x0F, Abo);
+    _mm512_mask_storeu_epi64(&state[4 * 4], 0x0F, Abu);
+
+    _mm512_mask_storeu_epi64(&state[5 * 4], 0x0F, Aga);
+    _mm512_mask_storeu_epi64(&state[6 * 4], 0x0F, Age);
+    _mm512_mask_storeu_epi64(&state[7 * 4], 0x0F, Agi);
+    _mm512_mask_storeu_epi64(&state[8 * 4], 0x0F, Ago);
+    _mm512_mask_storeu_epi64(&state[9 * 4], 0x0F, Agu);
+
+    _mm512_mask_storeu_epi64(&state[10 * 4], 0x0F, Aka);
+    _mm512_mask_storeu_epi64(&state[11 * 4], 0x0F, Ake);
+    _mm512_mask_storeu_epi64(&state[12 * 4], 0x0F, Aki);
+    _mm512_mask_storeu_epi64(&state[13 * 4], 0x0F, Ako);
+    _mm512_mask_storeu_epi64(&state[14 * 4], 0x0F, Aku);
+
+    _mm512_mask_storeu_epi64(&state[15 * 4], 0x0F, Ama);
+    _mm512_mask_storeu_epi64(&state[16 * 4], 0x0F, Ame);
+    _mm512_mask_storeu_epi64(&state[17 * 4], 0x0F, Ami);
+    _mm512_mask_storeu_epi64(&state[18 * 4], 0x0F, Amo);
+    _mm512_mask_storeu_epi64(&state[19 * 4], 0x0F, Amu);
+
+    _mm512_mask_storeu_epi64(&state[20 * 4], 0x0F, Asa);
+    _mm512_mask_storeu_epi64(&state[21 * 4], 0x0F, Ase);
+    _mm512_mask_storeu_epi64(&state[22 * 4], 0x0F, Asi);
+    _mm512_mask_storeu_epi64(&state[23 * 4], 0x0F, Aso);
+    _mm512_mask_storeu_epi64(&state[24 * 4], 0x0F, Asu);
+
+}
@@ -0,0 +1,18 @@
+//
+//
+
+#ifndef BC_LTS_C_MODEXP_H
+#define BC_LTS_C_MODEXP_H
+
+#include <stdint.h>
+#include <stddef.h>
+#include <stdbool.h>
+
+/**
+ * Constant-time z = x^e mod m for an odd modulus m of n 64-bit limbs, with x < m, using Montgomery
+ * multiplication and a fixed-window exponent scan. The running time depends only on n and e_len.
+ * Limbs are little-endian. Returns false if working memory could not be allocated.
+ */
+bool mod_exp(const int64_t *m, const int64_t *x, size_t n, const int64_t *e, size_t e_len, int64_t *z);
+
+#endif //BC_LTS_C_MODEXP_H
@@ -7,10 +7,61 @@
 #include <string.h>
 
 
+static void gcm_pc_process_aad(uint8_t *ad, size_t adLen, __m128i H, __m128i *S_at, __m128i *last_aad_block,
+                               uint32_t *atBlockPos, size_t *atLength) {
+
+    //
+    // Top up any partial block left by a previous segment.
+    //
+    while (*atBlockPos > 0 && adLen > 0) {
+        ((uint8_t *) last_aad_block)[(*atBlockPos)++] = *ad;
+        if (*atBlockPos == GCM_BLOCK_SIZE) {
+            *last_aad_block = _mm_shuffle_epi8(*last_aad_block, *BSWAP_MASK);
+            *S_at = _mm_xor_si128(*S_at, *last_aad_block);
+            gfmul(*S_at, H, S_at);
+            *last_aad_block = _mm_setzero_si128();
+            *atBlockPos = 0;
+            *atLength += GCM_BLOCK_SIZE;
+        }
+        adLen--;
+        ad++;
+    }
+
+    while (adLen >= GCM_BLOCK_SIZE) {
+        *last_aad_block = _mm_loadu_si128((__m128i *) ad);
+        *last_aad_block = _mm_shuffle_epi8(*last_aad_block, *BSWAP_MASK);
+        *S_at = _mm_xor_si128(*S_at, *last_aad_block);
+        gfmul(*S_at, H, S_at);
+        *last_aad_block = _mm_setzero_si128();
+
+        ad += GCM_BLOCK_SIZE;
+        *atLength += GCM_BLOCK_SIZE;
+        adLen -= GCM_BLOCK_SIZE;
+    }
+
+    while (adLen > 0) {
+        ((uint8_t *) last_aad_block)[(*atBlockPos)++] = *ad;
+        adLen--;
+        ad++;
+    }
+}
+
+
 packet_err *
 gcm_pc_process_packet(bool encryption, uint8_t *key, size_t keyLen, uint8_t *nonce, size_t nonceLen, size_t macBlockLen,
                       uint8_t *initAD, size_t initADLen, uint8_t *input, size_t inLen, uint8_t *output,
                       size_t *outputLen) {
+    packet_segment ad = {initAD, initADLen};
+    packet_segment in = {input, inLen};
+    return gcm_pc_process_packet_gather(encryption, key, keyLen, nonce, nonceLen, macBlockLen, &ad,
+                                        initAD != NULL ? 1 : 0, &in, 1, output, outputLen);
+}
+
+
+packet_err *
+gcm_pc_process_packet_gather(bool encryption, uint8_t *key, size_t keyLen, uint8_t *nonce, size_t nonceLen,
+                             size_t macBlockLen, packet_segment *aad, size_t aadCount, packet_segment *input,
+                             size_t inCount, uint8_t *output, size_t *outputLen) {
     __m128i roundKeys[15];
     int64_t blocksRemaining;
     __m128i X;
@@ -132,33 +183,9 @@ gcm_pc_process_packet(bool encryption, uint8_t *key, size_t keyLen, uint8_t *non
     //
     // Process any initial associated data.
     //
-    if (initAD != NULL) {
-        //gcm_process_aad_bytes(ctx, initAD, initADLen);
-        while (initADLen >= GCM_BLOCK_SIZE) {
-            last_aad_block = _mm_loadu_si128((__m128i *) initAD);
-            last_aad_block = _mm_shuffle_epi8(last_aad_block, *BSWAP_MASK);
-            S_at = _mm_xor_si128(S_at, last_aad_block);
-            gfmul(S_at, H, &S_at);
-            last_aad_block = _mm_setzero_si128();
-
-            initAD += GCM_BLOCK_SIZE;
-            atLength += GCM_BLOCK_SIZE;
-            initADLen -= GCM_BLOCK_SIZE;
-        }
-        while (initADLen > 0) {
-//            gcm_process_aad_byte(ctx, *initAD);
-            ((uint8_t *) &last_aad_block)[atBlockPos++] = *initAD;
-            if (atBlockPos == GCM_BLOCK_SIZE) {
-                // _gcm_processAadBlock(&last_aad_block,&S_at,&H);
-                last_aad_block = _mm_shuffle_epi8(last_aad_block, *BSWAP_MASK);
-                S_at = _mm_xor_si128(S_at, last_aad_block);
-                gfmul(S_at, H, &S_at);
-                last_aad_block = _mm_setzero_si128();
-                atBlockPos = 0;
-                atLength += GCM_BLOCK_SIZE;
-            }
-            initADLen--;
-            initAD++;
+    for (size_t s = 0; s < aadCount; s++) {
+        if (aad[s].data != NULL) {
+            gcm_pc_process_aad(aad[s].data, aad[s].len, H, &S_at, &last_aad_block, &atBlockPos, &atLength);
         }
     }
 
@@ -185,8 +212,11 @@ gcm_pc_process_packet(bool encryption, uint8_t *key, size_t keyLen, uint8_t *non
 
     packet_err *err = NULL;
 
-    unsigned char *start = input;
-    unsigned char *end = start + inLen;
+    size_t inLen = 0;
+    for (size_t s = 0; s < inCount; s++) {
+        inLen += input[s].len;
+    }
+
     unsigned char *outPtr = output;
     unsigned char *outStart = outPtr;
 
@@ -195,30 +225,31 @@ gcm_pc_process_packet(bool encryption, uint8_t *key, size_t keyLen, uint8_t *non
     size_t availableOut = encryption ? inLen + macBlockLen
                                      : (inLen >= macBlockLen ? inLen - macBlockLen : 0);
 
-    if (encryption) {
-        for (unsigned char *readPos = start; readPos < end;) {
-            err = gcm_pc_process_buffer_enc(readPos, inLen, outPtr, availableOut, &rd, &wr, encryption,
-                                            &bufBlockIndex,
-                                            &blocksRemaining, hashKeys, &ctr1, roundKeys, num_rounds, &totalBytes, &X,
-                                            bufBlockLen, bufBlock);
-            if (err != NULL) {
-                break;
+    //
+    // The buffered block carries any partial block, and on decryption the
+    // trailing tag, from one segment into the next.
+    //
+    for (size_t s = 0; s < inCount && err == NULL; s++) {
+        unsigned char *readPos = input[s].data;
+        size_t segLen = input[s].len;
+        while (segLen > 0) {
+            if (encryption) {
+                err = gcm_pc_process_buffer_enc(readPos, segLen, outPtr, availableOut, &rd, &wr, encryption,
+                                                &bufBlockIndex,
+                                                &blocksRemaining, hashKeys, &ctr1, roundKeys, num_rounds,
+                                                &totalBytes, &X,
+                                                bufBlockLen, bufBlock);
+            } else {
+                err = gcm_pc_process_buffer_dec(readPos, segLen, outPtr, availableOut, &rd, &wr, &bufBlockIndex,
+                                                &blocksRemaining, hashKeys, &ctr1, roundKeys, num_rounds,
+                                                &totalBytes, &X,
+                                                bufBlockLen, bufBlock, macBlockLen);
             }
-            readPos += rd;
-            inLen -= rd;
-            outPtr += wr;
-            availableOut -= wr;
-        }
-    } else {
-        for (unsigned char *readPos = start; readPos < end;) {
-            err = gcm_pc_process_buffer_dec(readPos, inLen, outPtr, availableOut, &rd, &wr, &bufBlockIndex,
-                                            &blocksRemaining, hashKeys, &ctr1, roundKeys, num_rounds, &totalBytes, &X,
-                                            bufBlockLen, bufBlock, macBlockLen);
             if (err != NULL) {
                 break;
             }
             readPos += rd;
-            inLen -= rd;
+            segLen -= rd;
             outPtr += wr;
             availableOut -= wr;
         }
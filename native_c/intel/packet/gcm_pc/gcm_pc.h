@@ -47,6 +47,15 @@ packet_err *
 gcm_pc_process_packet(bool encryption, uint8_t *key, size_t keysize, uint8_t *iv, size_t ivsize, size_t macSize,
                       uint8_t *aad, size_t aadLen, uint8_t *p_in, size_t inLen, uint8_t *p_out, size_t *outputLen);
 
+/**
+ * As gcm_pc_process_packet but the associated data and the input are each the concatenation of a list of
+ * segments, the result is written to the single output buffer.
+ */
+packet_err *
+gcm_pc_process_packet_gather(bool encryption, uint8_t *key, size_t keysize, uint8_t *iv, size_t ivsize,
+                             size_t macSize, packet_segment *aad, size_t aadCount, packet_segment *in,
+                             size_t inCount, uint8_t *p_out, size_t *outputLen);
+
 typedef struct {
     const char *msg; // the message
     int type; // relates to exception needed on jvm side
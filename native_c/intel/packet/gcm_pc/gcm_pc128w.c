@@ -207,10 +207,10 @@ packet_err *gcm_pc_process_buffer_enc(
         __m128i rk = roundKeys[0];
         aes_xor(&tmp1, &tmp2, &tmp3, &tmp4, rk);
 
-        __m128i in1 = _mm_loadu_si128(((__m128i *) &in[0 * 16]));
-        __m128i in2 = _mm_loadu_si128(((__m128i *) &in[1 * 16]));
-        __m128i in3 = _mm_loadu_si128(((__m128i *) &in[2 * 16]));
-        __m128i in4 = _mm_loadu_si128(((__m128i *) &in[3 * 16]));
+        __m128i in1 = _mm_loadu_si128(((__m128i *) &bufBlock[0 * 16]));
+        __m128i in2 = _mm_loadu_si128(((__m128i *) &bufBlock[1 * 16]));
+        __m128i in3 = _mm_loadu_si128(((__m128i *) &bufBlock[2 * 16]));
+        __m128i in4 = _mm_loadu_si128(((__m128i *) &bufBlock[3 * 16]));
 
         int j;
         for (j = 1; j < rounds; j++) {
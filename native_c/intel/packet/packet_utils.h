@@ -17,6 +17,14 @@ typedef struct {
     int type; // relates to exception needed on jvm side
 } packet_err;
 
+/**
+ * One contiguous piece of a gathered (scatter/gather) packet.
+ */
+typedef struct {
+    uint8_t *data;
+    size_t len;
+} packet_segment;
+
 
 // Define error messages
 // Reference: ExceptionMessage
@@ -0,0 +1,116 @@
+//
+//
+
+#include <stdbool.h>
+#include <string.h>
+#include "sha256_mb.h"
+#include "../util/util.h"
+
+static const uint32_t sha256_iv[8] = {
+        0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a,
+        0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+};
+
+static const uint8_t idleBlock[64] = {0};
+
+typedef struct {
+    size_t msg;
+    size_t block;
+    size_t fullBlocks;
+    size_t blocks;
+    bool active;
+} sha256_mb_lane;
+
+
+/**
+ * Start the next message in a lane, the padded tail of the message is built in the lane's tail buffer.
+ */
+static void sha256_mb_load_lane(sha256_mb_lane *lane, size_t laneIdx, size_t msgIdx, uint32_t *state,
+                                uint8_t *tail, uint8_t *const *msgs, const size_t *lens) {
+    size_t len = lens[msgIdx];
+    size_t rem = len & 63;
+    size_t tailBlocks = rem < 56 ? 1 : 2;
+
+    lane->msg = msgIdx;
+    lane->block = 0;
+    lane->fullBlocks = len >> 6;
+    lane->blocks = lane->fullBlocks + tailBlocks;
+    lane->active = true;
+
+    memset(tail, 0, 128);
+    memcpy(tail, msgs[msgIdx] + (len - rem), rem);
+    tail[rem] = 0x80;
+
+    uint64_t bitLen = (uint64_t) len << 3;
+    uint8_t *lenPos = tail + tailBlocks * 64 - 8;
+    for (int i = 0; i < 8; i++) {
+        lenPos[i] = (uint8_t) (bitLen >> (56 - 8 * i));
+    }
+
+    for (size_t i = 0; i < 8; i++) {
+        state[i * SHA256_MB_LANES + laneIdx] = sha256_iv[i];
+    }
+}
+
+
+void sha256_mb_digest(uint8_t *const *msgs, const size_t *lens, uint8_t *const *outs, size_t count) {
+    uint32_t state[8 * SHA256_MB_LANES];
+    uint8_t tails[SHA256_MB_LANES][128];
+    const uint8_t *blocks[SHA256_MB_LANES];
+    sha256_mb_lane lanes[SHA256_MB_LANES];
+
+    size_t next = 0;
+    size_t active = 0;
+
+    memset(state, 0, sizeof(state));
+
+    for (size_t j = 0; j < SHA256_MB_LANES; j++) {
+        if (next < count) {
+            sha256_mb_load_lane(&lanes[j], j, next++, state, tails[j], msgs, lens);
+            active++;
+        } else {
+            lanes[j].active = false;
+        }
+    }
+
+    while (active > 0) {
+        for (size_t j = 0; j < SHA256_MB_LANES; j++) {
+            sha256_mb_lane *lane = &lanes[j];
+            if (!lane->active) {
+                blocks[j] = idleBlock;
+            } else if (lane->block < lane->fullBlocks) {
+                blocks[j] = msgs[lane->msg] + (lane->block << 6);
+            } else {
+                blocks[j] = tails[j] + ((lane->block - lane->fullBlocks) << 6);
+            }
+        }
+
+        sha256_mb_compress(state, blocks);
+
+        for (size_t j = 0; j < SHA256_MB_LANES; j++) {
+            sha256_mb_lane *lane = &lanes[j];
+            if (!lane->active || ++lane->block != lane->blocks) {
+                continue;
+            }
+
+            uint8_t *out = outs[lane->msg];
+            for (size_t i = 0; i < 8; i++) {
+                uint32_t w = state[i * SHA256_MB_LANES + j];
+                out[4 * i] = (uint8_t) (w >> 24);
+                out[4 * i + 1] = (uint8_t) (w >> 16);
+                out[4 * i + 2] = (uint8_t) (w >> 8);
+                out[4 * i + 3] = (uint8_t) w;
+            }
+
+            if (next < count) {
+                sha256_mb_load_lane(lane, j, next++, state, tails[j], msgs, lens);
+            } else {
+                lane->active = false;
+                active--;
+            }
+        }
+    }
+
+    memzero(state, sizeof(state));
+    memzero(tails, sizeof(tails));
+}
@@ -0,0 +1,33 @@
+//
+//
+
+#ifndef BC_LTS_C_SHA256_MB_H
+#define BC_LTS_C_SHA256_MB_H
+
+#include <stdint.h>
+#include <stddef.h>
+
+//
+// Lane count of the multi-buffer compression function for this variant.
+//
+#if defined(BC_VAESF)
+#define SHA256_MB_LANES 16
+#elif defined(BC_VAES)
+#define SHA256_MB_LANES 8
+#else
+#define SHA256_MB_LANES 1
+#endif
+
+/**
+ * Hash count independent messages, writing the 32 byte digest of msgs[i] to outs[i].
+ * Messages are fed into the lanes of the compression function as earlier ones finish,
+ * so lanes stay busy when the message lengths differ.
+ */
+void sha256_mb_digest(uint8_t *const *msgs, const size_t *lens, uint8_t *const *outs, size_t count);
+
+/**
+ * Run one compression per lane, state is held transposed, word i of lane j is at state[i * SHA256_MB_LANES + j].
+ */
+void sha256_mb_compress(uint32_t *state, const uint8_t *const *blocks);
+
+#endif //BC_LTS_C_SHA256_MB_H
@@ -0,0 +1,22 @@
+//
+//
+
+#include "sha256_mb.h"
+#include "sha256.h"
+
+//
+// The AVX variant has no 256 bit integer instructions, one SHA-NI stream per message
+// is faster than a four lane SSE schedule so the batch is hashed in a loop.
+//
+
+void sha256_mb_digest(uint8_t *const *msgs, const size_t *lens, uint8_t *const *outs, size_t count) {
+    sha256_ctx ctx;
+    sha256_reset(&ctx);
+
+    for (size_t i = 0; i < count; i++) {
+        sha256_update(&ctx, msgs[i], lens[i]);
+        sha256_digest(&ctx, outs[i]);
+    }
+
+    memzero(&ctx, sizeof(sha256_ctx));
+}
@@ -0,0 +1,127 @@
+//
+//
+
+#include <immintrin.h>
+#include "sha256_mb.h"
+
+//
+// Eight lane SHA-256 using AVX2, each 32 bit element of a register carries one lane.
+//
+
+static const uint32_t K256[64] = {
+        0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+        0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+        0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+        0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+        0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+        0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+        0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+        0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+};
+
+#define ROTR(x, n) _mm256_or_si256(_mm256_srli_epi32(x, n), _mm256_slli_epi32(x, 32 - (n)))
+
+#define SIGMA0(x) _mm256_xor_si256(_mm256_xor_si256(ROTR(x, 2), ROTR(x, 13)), ROTR(x, 22))
+#define SIGMA1(x) _mm256_xor_si256(_mm256_xor_si256(ROTR(x, 6), ROTR(x, 11)), ROTR(x, 25))
+#define sigma0(x) _mm256_xor_si256(_mm256_xor_si256(ROTR(x, 7), ROTR(x, 18)), _mm256_srli_epi32(x, 3))
+#define sigma1(x) _mm256_xor_si256(_mm256_xor_si256(ROTR(x, 17), ROTR(x, 19)), _mm256_srli_epi32(x, 10))
+
+#define CH(e, f, g) _mm256_xor_si256(_mm256_and_si256(e, f), _mm256_andnot_si256(e, g))
+#define MAJ(a, b, c) _mm256_or_si256(_mm256_and_si256(a, b), _mm256_and_si256(c, _mm256_or_si256(a, b)))
+
+
+/**
+ * Transpose 8 rows of 8 words so that out[i] holds word i of every row.
+ */
+static inline void transpose8(__m256i *r) {
+    __m256i t0 = _mm256_unpacklo_epi32(r[0], r[1]);
+    __m256i t1 = _mm256_unpackhi_epi32(r[0], r[1]);
+    __m256i t2 = _mm256_unpacklo_epi32(r[2], r[3]);
+    __m256i t3 = _mm256_unpackhi_epi32(r[2], r[3]);
+    __m256i t4 = _mm256_unpacklo_epi32(r[4], r[5]);
+    __m256i t5 = _mm256_unpackhi_epi32(r[4], r[5]);
+    __m256i t6 = _mm256_unpacklo_epi32(r[6], r[7]);
+    __m256i t7 = _mm256_unpackhi_epi32(r[6], r[7]);
+
+    __m256i u0 = _mm256_unpacklo_epi64(t0, t2);
+    __m256i u1 = _mm256_unpackhi_epi64(t0, t2);
+    __m256i u2 = _mm256_unpacklo_epi64(t1, t3);
+    __m256i u3 = _mm256_unpackhi_epi64(t1, t3);
+    __m256i u4 = _mm256_unpacklo_epi64(t4, t6);
+    __m256i u5 = _mm256_unpackhi_epi64(t4, t6);
+    __m256i u6 = _mm256_unpacklo_epi64(t5, t7);
+    __m256i u7 = _mm256_unpackhi_epi64(t5, t7);
+
+    r[0] = _mm256_permute2x128_si256(u0, u4, 0x20);
+    r[1] = _mm256_permute2x128_si256(u1, u5, 0x20);
+    r[2] = _mm256_permute2x128_si256(u2, u6, 0x20);
+    r[3] = _mm256_permute2x128_si256(u3, u7, 0x20);
+    r[4] = _mm256_permute2x128_si256(u0, u4, 0x31);
+    r[5] = _mm256_permute2x128_si256(u1, u5, 0x31);
+    r[6] = _mm256_permute2x128_si256(u2, u6, 0x31);
+    r[7] = _mm256_permute2x128_si256(u3, u7, 0x31);
+}
+
+
+void sha256_mb_compress(uint32_t *state, const uint8_t *const *blocks) {
+    const __m256i bswap = _mm256_set_epi8(
+            12, 13, 14, 15, 8, 9, 10, 11, 4, 5, 6, 7, 0, 1, 2, 3,
+            12, 13, 14, 15, 8, 9, 10, 11, 4, 5, 6, 7, 0, 1, 2, 3);
+
+    __m256i w[16];
+    for (int half = 0; half < 2; half++) {
+        __m256i *r = &w[half * 8];
+        for (int j = 0; j < 8; j++) {
+            r[j] = _mm256_loadu_si256((const __m256i *) (blocks[j] + half * 32));
+        }
+        transpose8(r);
+        for (int j = 0; j < 8; j++) {
+            r[j] = _mm256_shuffle_epi8(r[j], bswap);
+        }
+    }
+
+    __m256i a = _mm256_loadu_si256((const __m256i *) &state[0 * 8]);
+    __m256i b = _mm256_loadu_si256((const __m256i *) &state[1 * 8]);
+    __m256i c = _mm256_loadu_si256((const __m256i *) &state[2 * 8]);
+    __m256i d = _mm256_loadu_si256((const __m256i *) &state[3 * 8]);
+    __m256i e = _mm256_loadu_si256((const __m256i *) &state[4 * 8]);
+    __m256i f = _mm256_loadu_si256((const __m256i *) &state[5 * 8]);
+    __m256i g = _mm256_loadu_si256((const __m256i *) &state[6 * 8]);
+    __m256i h = _mm256_loadu_si256((const __m256i *) &state[7 * 8]);
+
+    for (int t = 0; t < 64; t++) {
+        __m256i wt;
+        if (t < 16) {
+            wt = w[t];
+        } else {
+            // w[t & 15] holds W[t - 16] until it is replaced by W[t].
+            wt = _mm256_add_epi32(
+                    _mm256_add_epi32(sigma1(w[(t - 2) & 15]), w[(t - 7) & 15]),
+                    _mm256_add_epi32(sigma0(w[(t - 15) & 15]), w[t & 15]));
+            w[t & 15] = wt;
+        }
+
+        __m256i t1 = _mm256_add_epi32(
+                _mm256_add_epi32(h, SIGMA1(e)),
+                _mm256_add_epi32(CH(e, f, g), _mm256_add_epi32(_mm256_set1_epi32((int) K256[t]), wt)));
+        __m256i t2 = _mm256_add_epi32(SIGMA0(a), MAJ(a, b, c));
+
+        h = g;
+        g = f;
+        f = e;
+        e = _mm256_add_epi32(d, t1);
+        d = c;
+        c = b;
+        b = a;
+        a = _mm256_add_epi32(t1, t2);
+    }
+
+    _mm256_storeu_si256((__m256i *) &state[0 * 8], _mm256_add_epi32(a, _mm256_loadu_si256((__m256i *) &state[0 * 8])));
+    _mm256_storeu_si256((__m256i *) &state[1 * 8], _mm256_add_epi32(b, _mm256_loadu_si256((__m256i *) &state[1 * 8])));
+    _mm256_storeu_si256((__m256i *) &state[2 * 8], _mm256_add_epi32(c, _mm256_loadu_si256((__m256i *) &state[2 * 8])));
+    _mm256_storeu_si256((__m256i *) &state[3 * 8], _mm256_add_epi32(d, _mm256_loadu_si256((__m256i *) &state[3 * 8])));
+    _mm256_storeu_si256((__m256i *) &state[4 * 8], _mm256_add_epi32(e, _mm256_loadu_si256((__m256i *) &state[4 * 8])));
+    _mm256_storeu_si256((__m256i *) &state[5 * 8], _mm256_add_epi32(f, _mm256_loadu_si256((__m256i *) &state[5 * 8])));
+    _mm256_storeu_si256((__m256i *) &state[6 * 8], _mm256_add_epi32(g, _mm256_loadu_si256((__m256i *) &state[6 * 8])));
+    _mm256_storeu_si256((__m256i *) &state[7 * 8], _mm256_add_epi32(h, _mm256_loadu_si256((__m256i *) &state[7 * 8])));
+}
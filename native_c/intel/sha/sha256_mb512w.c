@@ -0,0 +1,133 @@
+//
+//
+
+#include <immintrin.h>
+#include "sha256_mb.h"
+
+//
+// Sixteen lane SHA-256 using AVX-512, each 32 bit element of a register carries one lane.
+//
+
+static const uint32_t K256[64] = {
+        0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+        0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+        0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+        0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+        0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+        0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+        0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+        0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+};
+
+// Three way xor, ternary logic truth table 0x96.
+#define XOR3(x, y, z) _mm512_ternarylogic_epi32(x, y, z, 0x96)
+
+#define SIGMA0(x) XOR3(_mm512_ror_epi32(x, 2), _mm512_ror_epi32(x, 13), _mm512_ror_epi32(x, 22))
+#define SIGMA1(x) XOR3(_mm512_ror_epi32(x, 6), _mm512_ror_epi32(x, 11), _mm512_ror_epi32(x, 25))
+#define sigma0(x) XOR3(_mm512_ror_epi32(x, 7), _mm512_ror_epi32(x, 18), _mm512_srli_epi32(x, 3))
+#define sigma1(x) XOR3(_mm512_ror_epi32(x, 17), _mm512_ror_epi32(x, 19), _mm512_srli_epi32(x, 10))
+
+// Ch(e, f, g) is truth table 0xCA, Maj(a, b, c) is 0xE8.
+#define CH(e, f, g) _mm512_ternarylogic_epi32(e, f, g, 0xCA)
+#define MAJ(a, b, c) _mm512_ternarylogic_epi32(a, b, c, 0xE8)
+
+
+/**
+ * Transpose 16 rows of 16 words so that r[i] holds word i of every row.
+ */
+static inline void transpose16(__m512i *r) {
+    __m512i t[16];
+    __m512i u[16];
+
+    for (int k = 0; k < 8; k++) {
+        t[2 * k] = _mm512_unpacklo_epi32(r[2 * k], r[2 * k + 1]);
+        t[2 * k + 1] = _mm512_unpackhi_epi32(r[2 * k], r[2 * k + 1]);
+    }
+
+    // u[4k + j] holds, in 128 bit chunk c, word 4c + j of rows 4k to 4k + 3.
+    for (int k = 0; k < 4; k++) {
+        u[4 * k] = _mm512_unpacklo_epi64(t[4 * k], t[4 * k + 2]);
+        u[4 * k + 1] = _mm512_unpackhi_epi64(t[4 * k], t[4 * k + 2]);
+        u[4 * k + 2] = _mm512_unpacklo_epi64(t[4 * k + 1], t[4 * k + 3]);
+        u[4 * k + 3] = _mm512_unpackhi_epi64(t[4 * k + 1], t[4 * k + 3]);
+    }
+
+    for (int j = 0; j < 4; j++) {
+        __m512i lo01 = _mm512_shuffle_i32x4(u[j], u[4 + j], 0x44);
+        __m512i hi01 = _mm512_shuffle_i32x4(u[j], u[4 + j], 0xEE);
+        __m512i lo23 = _mm512_shuffle_i32x4(u[8 + j], u[12 + j], 0x44);
+        __m512i hi23 = _mm512_shuffle_i32x4(u[8 + j], u[12 + j], 0xEE);
+
+        r[j] = _mm512_shuffle_i32x4(lo01, lo23, 0x88);
+        r[4 + j] = _mm512_shuffle_i32x4(lo01, lo23, 0xDD);
+        r[8 + j] = _mm512_shuffle_i32x4(hi01, hi23, 0x88);
+        r[12 + j] = _mm512_shuffle_i32x4(hi01, hi23, 0xDD);
+    }
+}
+
+
+void sha256_mb_compress(uint32_t *state, const uint8_t *const *blocks) {
+    const __m512i bswap = _mm512_set_epi8(
+            12, 13, 14, 15, 8, 9, 10, 11, 4, 5, 6, 7, 0, 1, 2, 3,
+            12, 13, 14, 15, 8, 9, 10, 11, 4, 5, 6, 7, 0, 1, 2, 3,
+            12, 13, 14, 15, 8, 9, 10, 11, 4, 5, 6, 7, 0, 1, 2, 3,
+            12, 13, 14, 15, 8, 9, 10, 11, 4, 5, 6, 7, 0, 1, 2, 3);
+
+    // A whole block is one row, so one transpose yields the first 16 schedule words.
+    __m512i w[16];
+    for (int j = 0; j < 16; j++) {
+        w[j] = _mm512_loadu_si512((const __m512i *) blocks[j]);
+    }
+    transpose16(w);
+    for (int j = 0; j < 16; j++) {
+        w[j] = _mm512_shuffle_epi8(w[j], bswap);
+    }
+
+    __m512i s[8];
+    __m512i v[8];
+    for (int i = 0; i < 8; i++) {
+        s[i] = _mm512_loadu_si512((const __m512i *) &state[i * 16]);
+        v[i] = s[i];
+    }
+
+    __m512i a = v[0], b = v[1], c = v[2], d = v[3], e = v[4], f = v[5], g = v[6], h = v[7];
+
+    for (int t = 0; t < 64; t++) {
+        __m512i wt;
+        if (t < 16) {
+            wt = w[t];
+        } else {
+            // w[t & 15] holds W[t - 16] until it is replaced by W[t].
+            wt = _mm512_add_epi32(
+                    _mm512_add_epi32(sigma1(w[(t - 2) & 15]), w[(t - 7) & 15]),
+                    _mm512_add_epi32(sigma0(w[(t - 15) & 15]), w[t & 15]));
+            w[t & 15] = wt;
+        }
+
+        __m512i t1 = _mm512_add_epi32(
+                _mm512_add_epi32(h, SIGMA1(e)),
+                _mm512_add_epi32(CH(e, f, g), _mm512_add_epi32(_mm512_set1_epi32((int) K256[t]), wt)));
+        __m512i t2 = _mm512_add_epi32(SIGMA0(a), MAJ(a, b, c));
+
+        h = g;
+        g = f;
+        f = e;
+        e = _mm512_add_epi32(d, t1);
+        d = c;
+        c = b;
+        b = a;
+        a = _mm512_add_epi32(t1, t2);
+    }
+
+    v[0] = a;
+    v[1] = b;
+    v[2] = c;
+    v[3] = d;
+    v[4] = e;
+    v[5] = f;
+    v[6] = g;
+    v[7] = h;
+    for (int i = 0; i < 8; i++) {
+        _mm512_storeu_si512((__m512i *) &state[i * 16], _mm512_add_epi32(s[i], v[i]));
+    }
+}
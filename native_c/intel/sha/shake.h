@@ -0,0 +1,52 @@
+//
+//
+
+#ifndef BC_LTS_C_SHAKE3_H
+#define BC_LTS_C_SHAKE3_H
+
+#include <stdint.h>
+#include <stddef.h>
+#include <stdbool.h>
+
+#define BUF_SIZE_SHAKE 192
+#define SHAKE_MAGIC 0x00030001
+#define STATE_LEN 25
+
+typedef struct {
+    uint32_t ident;
+    uint32_t bitLen;
+    size_t rate_bytes;
+    size_t buf_u8_index;
+    uint64_t buf[BUF_SIZE_SHAKE / 8];
+    uint64_t state[STATE_LEN];
+    bool squeezing;
+
+    size_t state_output_index;
+    bool initial_squeeze;
+} shake_ctx;
+
+
+shake_ctx *shake_create_ctx(int bitLen);
+
+void shake_free_ctx(shake_ctx *ctx);
+
+void shake_reset(shake_ctx *ctx);
+
+void shake_update(shake_ctx *ctx, uint8_t *input, size_t len);
+
+void shake_update_byte(shake_ctx *ctx, uint8_t b);
+
+void shake_squeeze(shake_ctx *ctx, uint8_t *output, size_t len);
+
+void shake_digest(shake_ctx *ctx, uint8_t *output, size_t len);
+
+uint32_t shake_getSize(shake_ctx *ctx);
+
+uint32_t shake_getByteLen(shake_ctx *ctx);
+
+bool shake_restoreFullState(shake_ctx *ctx, const uint8_t *oldState);
+
+size_t shake_encodeFullState(const shake_ctx *ctx, uint8_t *output);
+
+
+#endif //BC_LTS_C_SHAKE3_H
@@ -0,0 +1,76 @@
+//
+//
+
+#include <string.h>
+#include "slhdsa_shake.h"
+#include "../util/util.h"
+
+#define SHAKE256_RATE 136
+#define HASH_ADDR_OFFSET 28
+
+void slhdsa_shake_thash_x4(uint8_t *out, size_t n, const uint8_t *pkSeed, const uint8_t *adrs, const uint8_t *in) {
+    uint64_t state[KECCAK_X4_STATE_LEN];
+    uint8_t buf[SLHDSA_SHAKE_LANES][SLHDSA_SHAKE_MAX_N + SLHDSA_SHAKE_ADRS_LEN + SLHDSA_SHAKE_MAX_N];
+    uint8_t blocks[SLHDSA_SHAKE_LANES][SHAKE256_RATE];
+    const uint8_t *inPtrs[SLHDSA_SHAKE_LANES];
+    uint8_t *outPtrs[SLHDSA_SHAKE_LANES];
+    size_t inLen = n + SLHDSA_SHAKE_ADRS_LEN + n;
+
+    for (size_t j = 0; j < SLHDSA_SHAKE_LANES; j++) {
+        memcpy(buf[j], pkSeed, n);
+        memcpy(buf[j] + n, adrs + j * SLHDSA_SHAKE_ADRS_LEN, SLHDSA_SHAKE_ADRS_LEN);
+        memcpy(buf[j] + n + SLHDSA_SHAKE_ADRS_LEN, in + j * n, n);
+        inPtrs[j] = buf[j];
+        outPtrs[j] = blocks[j];
+    }
+
+    keccak_x4_absorb_once(state, SHAKE256_RATE, 0x1F, inPtrs, inLen);
+    keccak_x4_squeeze_blocks(state, SHAKE256_RATE, outPtrs, 1);
+
+    for (size_t j = 0; j < SLHDSA_SHAKE_LANES; j++) {
+        memcpy(out + j * n, blocks[j], n);
+    }
+
+    memzero(state, sizeof(state));
+    memzero(buf, sizeof(buf));
+    memzero(blocks, sizeof(blocks));
+}
+
+static inline void set_hash_address(uint8_t *adrs, uint32_t hashAddr) {
+    adrs[HASH_ADDR_OFFSET] = (uint8_t) (hashAddr >> 24);
+    adrs[HASH_ADDR_OFFSET + 1] = (uint8_t) (hashAddr >> 16);
+    adrs[HASH_ADDR_OFFSET + 2] = (uint8_t) (hashAddr >> 8);
+    adrs[HASH_ADDR_OFFSET + 3] = (uint8_t) hashAddr;
+}
+
+void slhdsa_shake_chains_x4(uint8_t *x, size_t n, const uint8_t *pkSeed, uint8_t *adrs,
+                            const uint32_t *start, const uint32_t *steps) {
+    uint8_t tmp[SLHDSA_SHAKE_LANES * SLHDSA_SHAKE_MAX_N];
+    uint32_t maxSteps = 0;
+
+    for (size_t j = 0; j < SLHDSA_SHAKE_LANES; j++) {
+        if (steps[j] > maxSteps) {
+            maxSteps = steps[j];
+        }
+    }
+
+    //
+    // Lanes that have finished keep being hashed so every step is a full four lane permutation,
+    // only the results for lanes still within their step count are kept.
+    //
+    for (uint32_t i = 0; i < maxSteps; i++) {
+        for (size_t j = 0; j < SLHDSA_SHAKE_LANES; j++) {
+            set_hash_address(adrs + j * SLHDSA_SHAKE_ADRS_LEN, start[j] + i);
+        }
+
+        slhdsa_shake_thash_x4(tmp, n, pkSeed, adrs, x);
+
+        for (size_t j = 0; j < SLHDSA_SHAKE_LANES; j++) {
+            if (i < steps[j]) {
+                memcpy(x + j * n, tmp + j * n, n);
+            }
+        }
+    }
+
+    memzero(tmp, sizeof(tmp));
+}
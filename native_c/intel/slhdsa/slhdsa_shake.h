@@ -0,0 +1,41 @@
+#ifndef BC_LTS_C_SLHDSA_SHAKE_H
+#define BC_LTS_C_SLHDSA_SHAKE_H
+
+//
+// Four lane tweakable hashing for the SHAKE SLH-DSA parameter sets. F and PRF are both
+// SHAKE256(PK.seed || ADRS || M) with an n byte M, so WOTS+ chains, WOTS+ and FORS secret
+// values and FORS leaves can be computed four at a time on the interleaved Keccak state.
+//
+
+#include <stdint.h>
+#include <stddef.h>
+#include "../keccak/keccak_x4.h"
+
+#define SLHDSA_SHAKE_LANES KECCAK_X4_LANES
+#define SLHDSA_SHAKE_ADRS_LEN 32
+#define SLHDSA_SHAKE_MAX_N 32
+
+/**
+ * Compute SHAKE256(pkSeed || adrs[j] || in[j]) truncated to n bytes for each lane j.
+ * @param out four consecutive n byte outputs
+ * @param n the security parameter, at most SLHDSA_SHAKE_MAX_N
+ * @param pkSeed the n byte public seed
+ * @param adrs four consecutive 32 byte addresses
+ * @param in four consecutive n byte inputs, may alias out
+ */
+void slhdsa_shake_thash_x4(uint8_t *out, size_t n, const uint8_t *pkSeed, const uint8_t *adrs, const uint8_t *in);
+
+/**
+ * Advance four WOTS+ chains, lane j is iterated steps[j] times starting at position start[j]. The hash
+ * address of each lane's ADRS is set for every step, the remainder of the address is left as given.
+ * @param x four consecutive n byte chain values, updated in place
+ * @param n the security parameter, at most SLHDSA_SHAKE_MAX_N
+ * @param pkSeed the n byte public seed
+ * @param adrs four consecutive 32 byte addresses, the hash address is overwritten
+ * @param start the start position of each chain
+ * @param steps the number of steps for each chain
+ */
+void slhdsa_shake_chains_x4(uint8_t *x, size_t n, const uint8_t *pkSeed, uint8_t *adrs,
+                            const uint32_t *start, const uint32_t *steps);
+
+#endif //BC_LTS_C_SLHDSA_SHAKE_H
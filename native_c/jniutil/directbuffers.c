@@ -0,0 +1,29 @@
+//
+//
+
+#include "directbuffers.h"
+
+
+bool load_direct_buffer_ctx(direct_buffer_ctx *ctx, JNIEnv *env, jobject buffer) {
+    ctx->buffer = buffer;
+    ctx->address = NULL;
+    ctx->size = 0;
+
+    if (buffer == NULL) {
+        return true;
+    }
+
+    ctx->address = (uint8_t *) (*env)->GetDirectBufferAddress(env, buffer);
+    if (ctx->address == NULL) {
+        return false;
+    }
+
+    jlong capacity = (*env)->GetDirectBufferCapacity(env, buffer);
+    if (capacity < 0) {
+        ctx->address = NULL;
+        return false;
+    }
+
+    ctx->size = (size_t) capacity;
+    return true;
+}
@@ -0,0 +1,33 @@
+//
+//
+
+#ifndef BC_LTS_DIRECTBUFFERS_H
+#define BC_LTS_DIRECTBUFFERS_H
+
+#include <stddef.h>
+#include <jni.h>
+#include <stdbool.h>
+#include <stdint.h>
+
+/**
+ * A direct ByteBuffer, the address is stable for the life of the buffer so unlike
+ * byte arrays nothing needs to be pinned or released.
+ */
+typedef struct {
+    uint8_t *address;
+    size_t size;
+    jobject buffer;
+} direct_buffer_ctx;
+
+
+/**
+ * Load the address and capacity of a direct ByteBuffer.
+ * @param ctx the context to fill in.
+ * @param env the java env
+ * @param buffer the ByteBuffer, may be null.
+ * @return false if the buffer is not null but the JVM did not supply an address for it (not direct,
+ * or direct buffer access is unsupported by the JVM).
+ */
+bool load_direct_buffer_ctx(direct_buffer_ctx *ctx, JNIEnv *env, jobject buffer);
+
+#endif //BC_LTS_DIRECTBUFFERS_H
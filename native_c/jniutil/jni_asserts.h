@@ -9,6 +9,7 @@
 #include "longarraycritical.h"
 #include "bytearrays.h"
 #include "exceptions.h"
+#include "directbuffers.h"
 
 
 static inline bool check_range(size_t size, size_t offset, size_t len) {
@@ -785,4 +786,170 @@ static inline bool byte_processing_init(
 }
 
 
+/**
+ * Asserts that a direct buffer is not null and the offset + len are within the bounds of the buffer.
+ * @param buffer the direct buffer to test
+ * @param offset the offset
+ * @param len length
+ * @param env java env
+ * @return true if valid
+ */
+static inline bool
+direct_offset_and_len_are_in_range_with_messages(
+        direct_buffer_ctx *buffer,
+        int offset,
+        int len,
+        JNIEnv *env,
+        const char *bufferNull,
+        const char *offsetNeg,
+        const char *lenNeg,
+        const char *tooShort) {
+
+    if (buffer->buffer == NULL) {
+        throw_java_NPE(env, bufferNull);
+        return false;
+    }
+
+    if (offset < 0) {
+        throw_java_illegal_argument(env, offsetNeg);
+        return false;
+    }
+
+    if (len < 0) {
+        throw_java_illegal_argument(env, lenNeg);
+        return false;
+    }
+
+    if (!check_range(buffer->size, (size_t) offset, (size_t) len)) {
+        throw_java_illegal_argument(env, tooShort);
+        return false;
+    }
+
+    return true;
+}
+
+
+/**
+ * Performs byte processing input validation for direct ByteBuffers.
+ * Nothing is pinned so there is nothing to release afterwards.
+ * Returns false if there is an issue while throwing an exception.
+ * @param env
+ * @param input
+ * @param output
+ * @param inBuffer
+ * @param input_offset
+ * @param outBuffer
+ * @param output_offset
+ * @param length
+ * @param inStart pass by reference
+ * @param outStart pass by reference
+ * @return
+ */
+static inline bool direct_processing_init(
+        JNIEnv *env,
+        direct_buffer_ctx *input,
+        direct_buffer_ctx *output,
+        jobject inBuffer,
+        jint input_offset,
+        jobject outBuffer,
+        jint output_offset,
+        int length,
+        void **inStart, void **outStart) {
+
+    if (outBuffer == NULL) {
+        throw_java_NPE(env, "output was null");
+        return false;
+    }
+
+    if (inBuffer == NULL) {
+        throw_java_NPE(env, "input was null");
+        return false;
+    }
+
+    if (!load_direct_buffer_ctx(output, env, outBuffer)) {
+        throw_java_illegal_argument(env, "output is not a direct buffer");
+        return false;
+    }
+
+    if (!load_direct_buffer_ctx(input, env, inBuffer)) {
+        throw_java_illegal_argument(env, "input is not a direct buffer");
+        return false;
+    }
+
+    if (input_offset < 0) {
+        throw_bc_data_length_exception(env, "input offset was negative");
+        return false;
+    }
+
+    if (output_offset < 0) {
+        throw_bc_output_length_exception(env, "output offset was negative");
+        return false;
+    }
+
+    if (length < 0) {
+        throw_bc_data_length_exception(env, "len was negative");
+        return false;
+    }
+
+    if (!check_range(input->size, (size_t) input_offset, (size_t) length)) {
+        throw_bc_data_length_exception(env, "input buffer too short");
+        return false;
+    }
+
+    if (!check_range(output->size, (size_t) output_offset, (size_t) length)) {
+        throw_bc_output_length_exception(env, "output buffer too short");
+        return false;
+    }
+
+    *inStart = input->address + input_offset;
+    *outStart = output->address + output_offset;
+
+    return true;
+}
+
+
+/**
+ * Performs block processing input validation for direct ByteBuffers.
+ * Returns false if there is an issue while throwing an exception.
+ * Direct buffers are not pinned so there is nothing to release afterwards.
+ * @param env
+ * @param input
+ * @param output
+ * @param inBuffer
+ * @param inOffset
+ * @param outBuffer
+ * @param outOffset
+ * @param blocks
+ * @param blockSize
+ * @param inStart pass by reference
+ * @param outStart pass by reference
+ * @return
+ */
+static inline bool direct_block_processing_init(
+        JNIEnv *env,
+        direct_buffer_ctx *input,
+        direct_buffer_ctx *output,
+        jobject inBuffer,
+        jint inOffset,
+        jobject outBuffer,
+        jint outOffset,
+        int blocks,
+        int blockSize,
+        void **inStart, void **outStart) {
+
+    if (blocks < 0) {
+        throw_bc_data_length_exception(env, "blockCount is negative");
+        return false;
+    }
+
+    if ((size_t) blocks > (size_t) INT32_MAX / (size_t) blockSize) {
+        throw_bc_data_length_exception(env, "blockCount too large");
+        return false;
+    }
+
+    return direct_processing_init(env, input, output, inBuffer, inOffset, outBuffer, outOffset,
+                                  blocks * blockSize, inStart, outStart);
+}
+
+
 #endif //BC_FIPS_JNI_ASSERTS_H
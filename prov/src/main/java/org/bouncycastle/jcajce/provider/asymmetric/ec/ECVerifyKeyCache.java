@@ -0,0 +1,91 @@
+package org.bouncycastle.jcajce.provider.asymmetric.ec;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
+import java.security.PublicKey;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle.crypto.params.ECPreparedPublicKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.util.Properties;
+
+/**
+ * A bounded LRU cache of EC public key parameters for signature verification, keyed by the encoding of the public
+ * key, so that hot keys (CA keys, OCSP responders) keep their point precomputation across key objects. The first
+ * sighting of a key caches its plain parameters; a key seen again is upgraded to
+ * {@link ECPreparedPublicKeyParameters}. Sized by {@link Properties#EC_VERIFY_KEY_CACHE_SIZE}, disabled by default.
+ */
+class ECVerifyKeyCache
+{
+    private static final LruMap cache = new LruMap();
+
+    static AsymmetricKeyParameter generatePublicKeyParameter(PublicKey key)
+        throws InvalidKeyException
+    {
+        int maxSize = Properties.asInteger(Properties.EC_VERIFY_KEY_CACHE_SIZE, 0);
+        if (maxSize < 1)
+        {
+            return ECUtils.generatePublicKeyParameter(key);
+        }
+
+        byte[] encoding = key.getEncoded();
+        if (encoding == null)
+        {
+            return ECUtils.generatePublicKeyParameter(key);
+        }
+
+        ByteBuffer id = ByteBuffer.wrap(encoding);
+
+        ECPublicKeyParameters cached;
+        synchronized (cache)
+        {
+            cache.maxSize = maxSize;
+            cached = (ECPublicKeyParameters)cache.get(id);
+        }
+
+        if (cached instanceof ECPreparedPublicKeyParameters)
+        {
+            return cached;
+        }
+
+        ECPublicKeyParameters result;
+        if (cached != null)
+        {
+            // Seen before, so worth preparing (outside the lock, as it's relatively expensive)
+            result = new ECPreparedPublicKeyParameters(cached);
+        }
+        else
+        {
+            AsymmetricKeyParameter param = ECUtils.generatePublicKeyParameter(key);
+            if (!(param instanceof ECPublicKeyParameters))
+            {
+                return param;
+            }
+            result = (ECPublicKeyParameters)param;
+        }
+
+        synchronized (cache)
+        {
+            cache.put(id, result);
+        }
+        return result;
+    }
+
+    private static class LruMap
+        extends LinkedHashMap
+    {
+        int maxSize = 0;
+
+        LruMap()
+        {
+            super(16, 0.75f, true);
+        }
+
+        protected boolean removeEldestEntry(Map.Entry eldest)
+        {
+            return size() > maxSize;
+        }
+    }
+}
@@ -32,7 +32,7 @@ public class SignatureSpi
     protected void engineInitVerify(PublicKey publicKey)
         throws InvalidKeyException
     {
-        CipherParameters param = ECUtils.generatePublicKeyParameter(publicKey);
+        CipherParameters param = ECVerifyKeyCache.generatePublicKeyParameter(publicKey);
 
         digest.reset();
         signer.init(false, param);
@@ -12,6 +12,7 @@ import java.security.Security;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.bouncycastle.crypto.digests.SHA512Digest;
 import org.bouncycastle.crypto.macs.HMac;
@@ -49,6 +50,12 @@ import org.bouncycastle.util.Strings;
  * org.bouncycastle.drbg.entropy_thread - if true the provider will start a single daemon thread for handling entropy requests,
  * rather than starting a thread periodically when samples are required.
  * </p>
+ * <p>
+ * org.bouncycastle.drbg.pool_size - if greater than 1, the DEFAULT and NONCEANDIV SecureRandoms are each backed by a pool
+ * of this many independent DRBGs (e.g. one per core), rather than a single DRBG that every thread contends on. Each calling
+ * thread always uses the same DRBG in the pool, and each DRBG is instantiated lazily from its own entropy source, with the
+ * same prediction resistance and reseeding behaviour as the single DRBG.
+ * </p>
  */
 public class DRBG
 {
@@ -174,6 +181,17 @@ public class DRBG
     }
 
     private static SecureRandom createBaseRandom(boolean isPredictionResistant)
+    {
+        int poolSize = Properties.asInteger(Properties.DRBG_POOL_SIZE, 0);
+        if (poolSize > 1)
+        {
+            return new PooledSecureRandom(isPredictionResistant, poolSize);
+        }
+
+        return createSingleRandom(isPredictionResistant);
+    }
+
+    private static SecureRandom createSingleRandom(boolean isPredictionResistant)
     {
         if (Properties.getPropertyValue("org.bouncycastle.drbg.entropysource") != null)
         {
@@ -336,6 +354,160 @@ public class DRBG
             : generateNonceIVPersonalizationString(entropy);
     }
 
+    /**
+     * A pool of independent DRBGs, striped by calling thread, so that threads only contend when they share a stripe.
+     * <p>
+     * Stripes are created lazily, so seed material passed to setSeed() is also folded into a running digest, which
+     * is applied to each stripe as it is created. Once every stripe exists nothing more needs folding.
+     * </p>
+     */
+    static class PooledSecureRandom
+        extends SecureRandom
+    {
+        private final boolean isPredictionResistant;
+        private final AtomicReferenceArray<SecureRandom> stripes;
+        // guarded by this, null once every stripe has been created
+        private SHA512Digest seedDigest;
+        private boolean seeded;
+
+        PooledSecureRandom(boolean isPredictionResistant, int poolSize)
+        {
+            super(null, null);       // prevent older JVMs from instance the Default PRNG.
+
+            this.isPredictionResistant = isPredictionResistant;
+            this.stripes = new AtomicReferenceArray<SecureRandom>(poolSize);
+            this.seedDigest = new SHA512Digest();
+            this.seeded = false;
+        }
+
+        public String getAlgorithm()
+        {
+            return getStripe(0).getAlgorithm();
+        }
+
+        public void setSeed(byte[] seed)
+        {
+            // this will happen when SecureRandom() is created
+            if (stripes != null)
+            {
+                addSeed(seed);
+            }
+        }
+
+        public void setSeed(long seed)
+        {
+            // this will happen when SecureRandom() is created
+            if (stripes != null)
+            {
+                addSeed(seed);
+            }
+        }
+
+        public void nextBytes(byte[] bytes)
+        {
+            getStripe(getStripeIndex()).nextBytes(bytes);
+        }
+
+        public byte[] generateSeed(int numBytes)
+        {
+            return getStripe(getStripeIndex()).generateSeed(numBytes);
+        }
+
+        SecureRandom createStripeRandom()
+        {
+            return createSingleRandom(isPredictionResistant);
+        }
+
+        private synchronized void addSeed(byte[] seed)
+        {
+            foldSeed((byte)0, Pack.intToBigEndian(seed.length));
+            foldSeed((byte)0, seed);
+
+            for (int i = 0; i < stripes.length(); ++i)
+            {
+                SecureRandom stripe = stripes.get(i);
+                if (stripe != null)
+                {
+                    stripe.setSeed(seed);
+                }
+            }
+        }
+
+        private synchronized void addSeed(long seed)
+        {
+            foldSeed((byte)1, Pack.longToBigEndian(seed));
+
+            for (int i = 0; i < stripes.length(); ++i)
+            {
+                SecureRandom stripe = stripes.get(i);
+                if (stripe != null)
+                {
+                    stripe.setSeed(seed);
+                }
+            }
+        }
+
+        private void foldSeed(byte tag, byte[] material)
+        {
+            if (seedDigest != null)
+            {
+                seedDigest.update(tag);
+                seedDigest.update(material, 0, material.length);
+                seeded = true;
+            }
+        }
+
+        private int getStripeIndex()
+        {
+            // thread IDs are usually sequential, so consecutive threads land on different stripes
+            long id = Thread.currentThread().getId();
+            return (int)((id & Long.MAX_VALUE) % stripes.length());
+        }
+
+        private SecureRandom getStripe(int index)
+        {
+            SecureRandom stripe = stripes.get(index);
+            if (stripe == null)
+            {
+                stripe = createStripe(index);
+            }
+            return stripe;
+        }
+
+        private synchronized SecureRandom createStripe(int index)
+        {
+            // another thread may have created it while we waited, if so there is nothing to build.
+            SecureRandom stripe = stripes.get(index);
+            if (stripe != null)
+            {
+                return stripe;
+            }
+
+            // instantiation draws fresh entropy, so each stripe gets a distinct seed and personalization string.
+            stripe = createStripeRandom();
+            if (seeded)
+            {
+                SHA512Digest digest = new SHA512Digest(seedDigest);
+                byte[] seed = new byte[digest.getDigestSize()];
+                digest.doFinal(seed, 0);
+                stripe.setSeed(seed);
+            }
+            stripes.set(index, stripe);
+
+            boolean complete = true;
+            for (int i = 0; i < stripes.length(); ++i)
+            {
+                complete &= stripes.get(i) != null;
+            }
+            if (complete)
+            {
+                seedDigest = null;
+            }
+
+            return stripe;
+        }
+    }
+
     private static class CoreSecureRandom
         extends SecureRandom
     {
@@ -0,0 +1,191 @@
+package org.bouncycastle.jcajce.provider.drbg;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Tests for the package-private DRBG pool behind the org.bouncycastle.drbg.pool_size property.
+ */
+public class PooledSecureRandomTest
+    extends TestCase
+{
+    private static final int POOL_SIZE = 4;
+
+    public void testSeedReplayOnLazyStripes()
+        throws Exception
+    {
+        RecordingPool pool = new RecordingPool();
+        pool.setSeed(new byte[]{ 1, 2, 3 });
+        pool.setSeed(42L);
+
+        // the first stripe only sees the folded seed, not each call
+        pool.nextBytes(new byte[16]);
+        assertEquals(1, pool.created.size());
+        RecordingRandom first = (RecordingRandom)pool.created.get(0);
+        assertEquals(1, first.seeds.size());
+        byte[] folded = (byte[])first.seeds.get(0);
+        assertEquals(64, folded.length);
+
+        // seed material supplied once a stripe exists goes straight to it
+        byte[] later = new byte[]{ 4, 5, 6 };
+        pool.setSeed(later);
+        assertEquals(2, first.seeds.size());
+        assertTrue(Arrays.areEqual(later, (byte[])first.seeds.get(1)));
+
+        // a stripe created afterwards gets everything so far, folded in the order it was supplied
+        createAllStripes(pool);
+        assertEquals(POOL_SIZE, pool.created.size());
+
+        byte[] replayed = null;
+        for (int i = 1; i < POOL_SIZE; ++i)
+        {
+            RecordingRandom stripe = (RecordingRandom)pool.created.get(i);
+            assertEquals(1, stripe.seeds.size());
+            byte[] seed = (byte[])stripe.seeds.get(0);
+            assertFalse(Arrays.areEqual(folded, seed));
+            if (replayed != null)
+            {
+                assertTrue(Arrays.areEqual(replayed, seed));
+            }
+            replayed = seed;
+        }
+
+        // ... and different material folds differently
+        RecordingPool other = new RecordingPool();
+        other.setSeed(new byte[]{ 1, 2 });
+        other.setSeed(new byte[]{ 3 });
+        other.setSeed(42L);
+        other.nextBytes(new byte[16]);
+        assertFalse(Arrays.areEqual(folded, (byte[])((RecordingRandom)other.created.get(0)).seeds.get(0)));
+    }
+
+    public void testUnseededStripes()
+    {
+        RecordingPool pool = new RecordingPool();
+        pool.nextBytes(new byte[16]);
+
+        assertEquals(1, pool.created.size());
+        assertEquals(0, ((RecordingRandom)pool.created.get(0)).seeds.size());
+    }
+
+    public void testStriping()
+        throws Exception
+    {
+        final RecordingPool pool = new RecordingPool();
+
+        Thread[] threads = new Thread[3 * POOL_SIZE];
+        for (int i = 0; i < threads.length; ++i)
+        {
+            threads[i] = new Thread()
+            {
+                public void run()
+                {
+                    for (int j = 0; j < 10; ++j)
+                    {
+                        pool.nextBytes(new byte[16]);
+                    }
+                }
+            };
+        }
+        for (int i = 0; i < threads.length; ++i)
+        {
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; ++i)
+        {
+            threads[i].join();
+        }
+
+        assertTrue(pool.created.size() <= POOL_SIZE);
+
+        // each thread always used the same stripe
+        Set<Long> seen = new HashSet<Long>();
+        int calls = 0;
+        for (int i = 0; i < pool.created.size(); ++i)
+        {
+            RecordingRandom stripe = (RecordingRandom)pool.created.get(i);
+            for (Long id : stripe.threadIDs)
+            {
+                assertTrue(seen.add(id));
+            }
+            calls += stripe.calls;
+        }
+        assertEquals(threads.length, seen.size());
+        assertEquals(10 * threads.length, calls);
+    }
+
+    private static void createAllStripes(final RecordingPool pool)
+        throws InterruptedException
+    {
+        // thread IDs are sequential in practice, but don't rely on landing on every stripe first time
+        for (int i = 0; i < 100 && pool.created.size() < POOL_SIZE; ++i)
+        {
+            Thread thread = new Thread()
+            {
+                public void run()
+                {
+                    pool.nextBytes(new byte[16]);
+                }
+            };
+            thread.start();
+            thread.join();
+        }
+    }
+
+    private static class RecordingPool
+        extends DRBG.PooledSecureRandom
+    {
+        final List<SecureRandom> created = new ArrayList<SecureRandom>();
+
+        RecordingPool()
+        {
+            super(true, POOL_SIZE);
+        }
+
+        SecureRandom createStripeRandom()
+        {
+            RecordingRandom stripe = new RecordingRandom();
+            created.add(stripe);
+            return stripe;
+        }
+    }
+
+    private static class RecordingRandom
+        extends SecureRandom
+    {
+        final List<Object> seeds = new ArrayList<Object>();
+        final Set<Long> threadIDs = new HashSet<Long>();
+        int calls = 0;
+
+        RecordingRandom()
+        {
+            super(null, null);
+        }
+
+        public synchronized void setSeed(byte[] seed)
+        {
+            seeds.add(Arrays.clone(seed));
+        }
+
+        public synchronized void setSeed(long seed)
+        {
+            // called from the SecureRandom constructor, before our fields exist
+            if (seeds != null)
+            {
+                seeds.add(Long.valueOf(seed));
+            }
+        }
+
+        public synchronized void nextBytes(byte[] bytes)
+        {
+            threadIDs.add(Long.valueOf(Thread.currentThread().getId()));
+            ++calls;
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class AllTests
         // lives in org.bouncycastle.jce.provider for package access to ReasonsMask, so it is
         // registered from here rather than carrying its own AllTests
         suite.addTestSuite(org.bouncycastle.jce.provider.ReasonsMaskTest.class);
+        // likewise in org.bouncycastle.jcajce.provider.drbg, next to the DRBG pool it tests
+        suite.addTestSuite(org.bouncycastle.jcajce.provider.drbg.PooledSecureRandomTest.class);
 
         return new BCTestSetup(suite);
     }
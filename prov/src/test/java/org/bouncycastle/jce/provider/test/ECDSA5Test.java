@@ -66,6 +66,7 @@ import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.BigIntegers;
+import org.bouncycastle.util.Properties;
 import org.bouncycastle.util.Strings;
 import org.bouncycastle.util.encoders.Base64;
 import org.bouncycastle.util.encoders.Hex;
@@ -1340,6 +1341,52 @@ public class ECDSA5Test
         return "ECDSA5";
     }
 
+    private void testVerifyKeyCache()
+        throws Exception
+    {
+        System.setProperty(Properties.EC_VERIFY_KEY_CACHE_SIZE, "2");
+        try
+        {
+            KeyPairGenerator kpGen = KeyPairGenerator.getInstance("EC", "BC");
+            KeyFactory keyFact = KeyFactory.getInstance("EC", "BC");
+            Signature sig = Signature.getInstance("SHA256withECDSA", "BC");
+            byte[] msg = Strings.toByteArray("hello, world!");
+
+            // More keys than the cache holds, on curves with and without a GLV endomorphism
+            String[] curves = new String[]{ "P-256", "secp256k1", "P-384" };
+            for (int i = 0; i < curves.length; ++i)
+            {
+                kpGen.initialize(new ECGenParameterSpec(curves[i]), new SecureRandom());
+                KeyPair kp = kpGen.generateKeyPair();
+
+                sig.initSign(kp.getPrivate());
+                sig.update(msg);
+                byte[] sigBytes = sig.sign();
+
+                byte[] badSigBytes = Arrays.clone(sigBytes);
+                badSigBytes[badSigBytes.length - 1] ^= 1;
+
+                for (int j = 0; j < 4; ++j)
+                {
+                    // A new key object each time, as for a key taken from a freshly parsed certificate
+                    PublicKey pub = keyFact.generatePublic(new X509EncodedKeySpec(kp.getPublic().getEncoded()));
+
+                    sig.initVerify(pub);
+                    sig.update(msg);
+                    isTrue("cached key verification failed: " + curves[i], sig.verify(sigBytes));
+
+                    sig.initVerify(pub);
+                    sig.update(msg);
+                    isTrue("cached key verified bad signature: " + curves[i], !sig.verify(badSigBytes));
+                }
+            }
+        }
+        finally
+        {
+            System.clearProperty(Properties.EC_VERIFY_KEY_CACHE_SIZE);
+        }
+    }
+
     public void performTest()
         throws Exception
     {
@@ -1363,6 +1410,7 @@ public class ECDSA5Test
         testKeyFactory();
         pointCompressionTest();
         testSHAKE256DSA();
+        testVerifyKeyCache();
 //        testSHAKE128DSA();
     }
 
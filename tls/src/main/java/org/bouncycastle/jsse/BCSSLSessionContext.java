@@ -0,0 +1,53 @@
+package org.bouncycastle.jsse;
+
+import javax.net.ssl.SSLSessionContext;
+
+import org.bouncycastle.tls.BasicTlsMetrics;
+
+/**
+ * A BCJSSE-specific interface providing access to extended session context functionality, in
+ * particular statistics for the session cache.
+ */
+public interface BCSSLSessionContext
+    extends SSLSessionContext
+{
+    /**
+     * Returns the number of sessions currently held in the session cache.
+     *
+     * @return The number of cached sessions.
+     */
+    int getCachedSessionCount();
+
+    /**
+     * Returns the number of session lookups (e.g. to resume a session) that found a valid cached session.
+     *
+     * @return The number of session cache hits.
+     */
+    long getSessionCacheHits();
+
+    /**
+     * Returns the number of session lookups (e.g. to resume a session) that did not find a valid cached
+     * session.
+     *
+     * @return The number of session cache misses.
+     */
+    long getSessionCacheMisses();
+
+    /**
+     * Returns the number of sessions the session cache has evicted, either to stay within the
+     * {@link #getSessionCacheSize() cache size} or because they exceeded the
+     * {@link #getSessionTimeout() session timeout}.
+     *
+     * @return The number of session cache evictions.
+     */
+    long getSessionCacheEvictions();
+
+    /**
+     * Returns the handshake and record metrics (e.g. p50/p99 handshake latency) for connections using this
+     * session context. Metrics are only collected when the "org.bouncycastle.jsse.enableMetrics" system
+     * property is true.
+     *
+     * @return The {@link BasicTlsMetrics} for this session context, or null if metrics are disabled.
+     */
+    BasicTlsMetrics getMetrics();
+}
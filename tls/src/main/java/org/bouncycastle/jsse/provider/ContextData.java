@@ -13,9 +13,13 @@ import org.bouncycastle.jsse.BCX509ExtendedKeyManager;
 import org.bouncycastle.jsse.BCX509ExtendedTrustManager;
 import org.bouncycastle.jsse.java.security.BCAlgorithmConstraints;
 import org.bouncycastle.jsse.java.security.BCCryptoPrimitive;
+import org.bouncycastle.tls.CachingCertificateCompressor;
 import org.bouncycastle.tls.ProtocolVersion;
 import org.bouncycastle.tls.SignatureAndHashAlgorithm;
+import org.bouncycastle.tls.TlsCertificateCompressor;
+import org.bouncycastle.tls.TlsKeySharePool;
 import org.bouncycastle.tls.TlsUtils;
+import org.bouncycastle.tls.ZlibCertificateCompressor;
 import org.bouncycastle.tls.crypto.impl.jcajce.JcaTlsCrypto;
 
 final class ContextData
@@ -38,6 +42,8 @@ final class ContextData
     private final SignatureSchemeInfo.PerContext signatureSchemes;
     private final int maxHandshakeMessageSize;
     private final int handshakeTimeoutMillis;
+    private final TlsCertificateCompressor[] certificateCompressors;
+    private final TlsKeySharePool keySharePool;
 
     ContextData(boolean fipsMode, JcaTlsCrypto crypto, BCX509ExtendedKeyManager x509KeyManager,
         BCX509ExtendedTrustManager x509TrustManager, Map<String, CipherSuiteInfo> supportedCipherSuites,
@@ -62,6 +68,17 @@ final class ContextData
             "jdk.tls.maxHandshakeMessageSize", 32768, 1024, Integer.MAX_VALUE);
         this.handshakeTimeoutMillis = PropertyUtils.getIntegerSystemProperty(
             "org.bouncycastle.jsse.handshakeTimeoutMillis", 0, 0, Integer.MAX_VALUE);
+
+        // NOTE: Shared by all connections, so each local certificate chain is only compressed once
+        this.certificateCompressors = new TlsCertificateCompressor[]{
+            new CachingCertificateCompressor(new ZlibCertificateCompressor(), 32) };
+
+        // NOTE: Shared by all client connections; the groups pooled are those the clients ask for
+        int keySharePoolSize = PropertyUtils.getIntegerSystemProperty(
+            "org.bouncycastle.jsse.client.keySharePoolSize", 0, 0, 1024);
+        this.keySharePool = keySharePoolSize < 1
+            ?   null
+            :   new TlsKeySharePool(crypto, null, keySharePoolSize, 60 * 1000L);
     }
 
     int[] getActiveCipherSuites(JcaTlsCrypto crypto, ProvSSLParameters sslParameters,
@@ -207,6 +224,16 @@ final class ContextData
         return handshakeTimeoutMillis;
     }
 
+    TlsCertificateCompressor[] getCertificateCompressors()
+    {
+        return certificateCompressors.clone();
+    }
+
+    TlsKeySharePool getKeySharePool()
+    {
+        return keySharePool;
+    }
+
     NamedGroupInfo.PerConnection getNamedGroupsClient(ProvSSLParameters sslParameters,
         ProtocolVersion[] activeProtocolVersions)
     {
@@ -0,0 +1,203 @@
+package org.bouncycastle.jsse.provider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.bouncycastle.tls.Certificate;
+import org.bouncycastle.tls.CertificateEntry;
+import org.bouncycastle.tls.ProtocolVersion;
+import org.bouncycastle.tls.SessionParameters;
+import org.bouncycastle.tls.TlsUtils;
+import org.bouncycastle.tls.crypto.TlsCertificate;
+import org.bouncycastle.tls.crypto.TlsCrypto;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Strings;
+
+/**
+ * The session state carried (encrypted) inside a TLS 1.3 session ticket issued by the server.
+ */
+class JsseSessionTicket
+{
+    private static final short FORMAT_VERSION = 2;
+
+    static JsseSessionTicket decode(TlsCrypto crypto, byte[] encoding) throws IOException
+    {
+        ByteArrayInputStream input = new ByteArrayInputStream(encoding);
+
+        short formatVersion = TlsUtils.readUint8(input);
+        if (FORMAT_VERSION != formatVersion)
+        {
+            return null;
+        }
+
+        int cipherSuite = TlsUtils.readUint16(input);
+        ProtocolVersion negotiatedVersion = TlsUtils.readVersion(input);
+        long issueTime = (TlsUtils.readUint32(input) << 32) | TlsUtils.readUint32(input);
+        long lifetime = TlsUtils.readUint32(input);
+        long ticketAgeAdd = TlsUtils.readUint32(input);
+        byte[] psk = TlsUtils.readOpaque8(input, 1);
+        byte[] endpointID = TlsUtils.readOpaque8(input);
+        byte[] serverName = TlsUtils.readOpaque8(input);
+        Certificate peerCertificate = readCertificate(crypto, input);
+        Certificate localCertificate = readCertificate(crypto, input);
+
+        if (input.available() > 0)
+        {
+            return null;
+        }
+
+        return new JsseSessionTicket(cipherSuite, negotiatedVersion, issueTime, lifetime, ticketAgeAdd, psk,
+            endpointID.length < 1 ? null : Strings.fromUTF8ByteArray(endpointID),
+            serverName.length < 1 ? null : Strings.fromUTF8ByteArray(serverName), peerCertificate, localCertificate);
+    }
+
+    private final int cipherSuite;
+    private final ProtocolVersion negotiatedVersion;
+    private final long issueTime;
+    private final long lifetime;
+    private final long ticketAgeAdd;
+    private final byte[] psk;
+    private final String endpointIDAlgorithm;
+    private final String serverName;
+    private final Certificate peerCertificate;
+    private final Certificate localCertificate;
+
+    JsseSessionTicket(SessionParameters sessionParameters, long issueTime, long lifetime, long ticketAgeAdd,
+        byte[] psk, String endpointIDAlgorithm, String serverName)
+    {
+        this(sessionParameters.getCipherSuite(), sessionParameters.getNegotiatedVersion(), issueTime, lifetime,
+            ticketAgeAdd, psk, endpointIDAlgorithm, serverName, sessionParameters.getPeerCertificate(),
+            sessionParameters.getLocalCertificate());
+    }
+
+    private JsseSessionTicket(int cipherSuite, ProtocolVersion negotiatedVersion, long issueTime, long lifetime,
+        long ticketAgeAdd, byte[] psk, String endpointIDAlgorithm, String serverName, Certificate peerCertificate,
+        Certificate localCertificate)
+    {
+        this.cipherSuite = cipherSuite;
+        this.negotiatedVersion = negotiatedVersion;
+        this.issueTime = issueTime;
+        this.lifetime = lifetime;
+        this.ticketAgeAdd = ticketAgeAdd;
+        this.psk = psk;
+        this.endpointIDAlgorithm = endpointIDAlgorithm;
+        this.serverName = serverName;
+        this.peerCertificate = peerCertificate;
+        this.localCertificate = localCertificate;
+    }
+
+    void clear()
+    {
+        Arrays.fill(psk, (byte)0);
+    }
+
+    byte[] encode() throws IOException
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        TlsUtils.writeUint8(FORMAT_VERSION, output);
+        TlsUtils.writeUint16(cipherSuite, output);
+        TlsUtils.writeVersion(negotiatedVersion, output);
+        TlsUtils.writeUint64(issueTime, output);
+        TlsUtils.writeUint32(lifetime, output);
+        TlsUtils.writeUint32(ticketAgeAdd, output);
+        TlsUtils.writeOpaque8(psk, output);
+        TlsUtils.writeOpaque8(null == endpointIDAlgorithm ? TlsUtils.EMPTY_BYTES
+            : Strings.toUTF8ByteArray(endpointIDAlgorithm), output);
+        TlsUtils.writeOpaque8(null == serverName ? TlsUtils.EMPTY_BYTES : Strings.toUTF8ByteArray(serverName), output);
+        writeCertificate(peerCertificate, output);
+        writeCertificate(localCertificate, output);
+
+        return output.toByteArray();
+    }
+
+    int getCipherSuite()
+    {
+        return cipherSuite;
+    }
+
+    String getEndpointIDAlgorithm()
+    {
+        return endpointIDAlgorithm;
+    }
+
+    long getIssueTime()
+    {
+        return issueTime;
+    }
+
+    long getLifetime()
+    {
+        return lifetime;
+    }
+
+    Certificate getLocalCertificate()
+    {
+        return localCertificate;
+    }
+
+    ProtocolVersion getNegotiatedVersion()
+    {
+        return negotiatedVersion;
+    }
+
+    Certificate getPeerCertificate()
+    {
+        return peerCertificate;
+    }
+
+    byte[] getPSK()
+    {
+        return psk;
+    }
+
+    /**
+     * @return the SNI host name the ticket was issued under, or null if the client sent none.
+     */
+    String getServerName()
+    {
+        return serverName;
+    }
+
+    long getTicketAgeAdd()
+    {
+        return ticketAgeAdd;
+    }
+
+    boolean isExpired(long currentTimeMillis)
+    {
+        return currentTimeMillis < issueTime || currentTimeMillis - issueTime >= lifetime * 1000L;
+    }
+
+    private static Certificate readCertificate(TlsCrypto crypto, InputStream input) throws IOException
+    {
+        int count = TlsUtils.readUint16(input);
+        if (count < 1)
+        {
+            return null;
+        }
+
+        CertificateEntry[] entries = new CertificateEntry[count];
+        for (int i = 0; i < count; ++i)
+        {
+            byte[] encoding = TlsUtils.readOpaque24(input, 1);
+            entries[i] = new CertificateEntry(crypto.createCertificate(encoding), null);
+        }
+        return new Certificate(TlsUtils.EMPTY_BYTES, entries);
+    }
+
+    private static void writeCertificate(Certificate certificate, OutputStream output) throws IOException
+    {
+        int count = null == certificate ? 0 : certificate.getLength();
+
+        TlsUtils.writeUint16(count, output);
+        for (int i = 0; i < count; ++i)
+        {
+            TlsCertificate entry = certificate.getCertificateAt(i);
+            TlsUtils.writeOpaque24(entry.getEncoded(), output);
+        }
+    }
+}
@@ -34,9 +34,11 @@ import org.bouncycastle.tls.TlsServerProtocol;
 
 /*
  * TODO[jsse] Known limitations (relative to SSLEngine javadoc): 1. The wrap() and unwrap() methods
- * are synchronized, so will not execute concurrently with each other. 2. Never delegates tasks i.e.
- * getDelegatedTasks() will always return null; CPU-intensive parts of the handshake will execute
- * during wrap/unwrap calls.
+ * are synchronized, so will not execute concurrently with each other. 2. By default, never delegates
+ * tasks i.e. getDelegatedTasks() will always return null; CPU-intensive parts of the handshake will
+ * execute during wrap/unwrap calls. If "org.bouncycastle.jsse.engine.enableDelegatedTasks" is set,
+ * the processing of each handshake record received (which is where signatures, key exchange and
+ * trust manager callbacks happen) is instead delegated, but generating the initial ClientHello is not.
  */
 class ProvSSLEngine
     extends SSLEngine
@@ -62,6 +64,17 @@ class ProvSSLEngine
 
     protected SSLException deferredException = null;
 
+    protected final boolean enableDelegatedTasks;
+    protected Runnable delegatedTask = null;
+    protected volatile boolean delegatedTaskPending = false;
+
+    // Scratch buffers reused across wrap/unwrap calls. Received records always go through inputScratch, since they are
+    // decrypted in place; the others are only used when the caller's ByteBuffers have no backing array
+    private final byte[] recordHeader = new byte[RecordFormat.FRAGMENT_OFFSET];
+    private byte[] inputScratch = null;
+    private byte[] outputScratch = null;
+    private byte[] appDataScratch = null;
+
     protected ProvSSLEngine(ContextData contextData)
     {
         this(contextData, null, -1);
@@ -73,6 +86,8 @@ class ProvSSLEngine
 
         this.contextData = contextData;
         this.sslParameters = contextData.getDefaultSSLParameters(useClientMode);
+        this.enableDelegatedTasks = PropertyUtils
+            .getBooleanSystemProperty("org.bouncycastle.jsse.engine.enableDelegatedTasks", false);
     }
 
     public ContextData getContextData()
@@ -249,7 +264,9 @@ class ProvSSLEngine
     @Override
     public synchronized Runnable getDelegatedTask()
     {
-        return null;
+        Runnable task = delegatedTask;
+        this.delegatedTask = null;
+        return task;
     }
 
     @Override
@@ -283,20 +300,33 @@ class ProvSSLEngine
     }
 
     @Override
-    public synchronized SSLEngineResult.HandshakeStatus getHandshakeStatus()
+    public SSLEngineResult.HandshakeStatus getHandshakeStatus()
     {
-        if (protocol != null)
+        // NOTE: Checked without locking, since a running delegated task holds the lock
+        if (delegatedTaskPending)
         {
-            if (protocol.getAvailableOutputBytes() > 0 || deferredException != null)
-            {
-                return HandshakeStatus.NEED_WRAP;
-            }
-            if (protocol.isHandshaking())
+            return HandshakeStatus.NEED_TASK;
+        }
+
+        synchronized (this)
+        {
+            if (protocol != null)
             {
-                return HandshakeStatus.NEED_UNWRAP;
+                if (delegatedTaskPending)
+                {
+                    return HandshakeStatus.NEED_TASK;
+                }
+                if (protocol.getAvailableOutputBytes() > 0 || deferredException != null)
+                {
+                    return HandshakeStatus.NEED_WRAP;
+                }
+                if (protocol.isHandshaking())
+                {
+                    return HandshakeStatus.NEED_UNWRAP;
+                }
             }
+            return HandshakeStatus.NOT_HANDSHAKING;
         }
-        return HandshakeStatus.NOT_HANDSHAKING;
     }
 
     @Override
@@ -486,10 +516,26 @@ class ProvSSLEngine
             }
 
             bytesConsumed = preview.getRecordSize();
-            byte[] record = new byte[bytesConsumed];
-            src.get(record);
 
-            protocol.offerInput(record, 0, record.length);
+            if (enableDelegatedTasks && initialHandshakeStatus == HandshakeStatus.NEED_UNWRAP)
+            {
+                byte[] record = new byte[bytesConsumed];
+                src.get(record);
+
+                this.delegatedTask = new DelegatedTask(record);
+                this.delegatedTaskPending = true;
+
+                return new SSLEngineResult(Status.OK, HandshakeStatus.NEED_TASK, bytesConsumed, 0);
+            }
+
+            /*
+             * NOTE: The record is decrypted in place, so it is always copied to an engine-owned buffer first;
+             * the caller's source buffer must not be modified.
+             */
+            byte[] record = inputScratch = getScratch(inputScratch, bytesConsumed);
+            src.get(record, 0, bytesConsumed);
+
+            protocol.offerInput(record, 0, bytesConsumed);
         }
         catch (IOException e)
         {
@@ -564,6 +610,11 @@ class ProvSSLEngine
             beginHandshake();
         }
 
+        if (delegatedTaskPending)
+        {
+            return new SSLEngineResult(Status.OK, HandshakeStatus.NEED_TASK, 0, 0);
+        }
+
         int bytesProduced = 0;
 
         final int outputAvailable = protocol.getAvailableOutputBytes();
@@ -620,28 +671,68 @@ class ProvSSLEngine
                         return new SSLEngineResult(Status.BUFFER_OVERFLOW, HandshakeStatus.NOT_HANDSHAKING, 0, 0);
                     }
 
-                    // TODO Support writing application data using ByteBuffer array directly
+                    byte[] srcBuf;
+                    int srcOff;
 
-                    byte[] buffer = new byte[srcLimit];
+                    ByteBuffer firstSrc = getFirstRemaining(srcs, offset, length);
+                    if (firstSrc.hasArray() && firstSrc.remaining() >= srcLimit)
+                    {
+                        int position = firstSrc.position();
+                        ((java.nio.Buffer)firstSrc).position(position + srcLimit);
 
-                    for (int srcIndex = 0; srcIndex < length && bytesConsumed < srcLimit; ++srcIndex)
+                        srcBuf = firstSrc.array();
+                        srcOff = firstSrc.arrayOffset() + position;
+                        bytesConsumed = srcLimit;
+                    }
+                    else
                     {
-                        ByteBuffer src = srcs[offset + srcIndex];
-                        int count = Math.min(src.remaining(), srcLimit - bytesConsumed);
-                        if (count > 0)
+                        srcBuf = appDataScratch = getScratch(appDataScratch, srcLimit);
+                        srcOff = 0;
+
+                        for (int srcIndex = 0; srcIndex < length && bytesConsumed < srcLimit; ++srcIndex)
                         {
-                            src.get(buffer, bytesConsumed, count);
-                            bytesConsumed += count;
+                            ByteBuffer src = srcs[offset + srcIndex];
+                            int count = Math.min(src.remaining(), srcLimit - bytesConsumed);
+                            if (count > 0)
+                            {
+                                src.get(srcBuf, bytesConsumed, count);
+                                bytesConsumed += count;
+                            }
                         }
                     }
 
-                    protocol.writeApplicationData(buffer, 0, bytesConsumed);
+                    if (dst.hasArray())
+                    {
+                        int position = dst.position();
 
-                    bytesProduced = protocol.getAvailableOutputBytes();
-                    assert bytesProduced <= dstLimit;
+                        bytesProduced = protocol.writeApplicationData(srcBuf, srcOff, bytesConsumed, dst.array(),
+                            dst.arrayOffset() + position, dst.remaining());
+
+                        ((java.nio.Buffer)dst).position(position + bytesProduced);
+                    }
+                    else
+                    {
+                        byte[] output = outputScratch = getScratch(outputScratch, dstLimit);
+
+                        bytesProduced = protocol.writeApplicationData(srcBuf, srcOff, bytesConsumed, output, 0,
+                            dstLimit);
+
+                        dst.put(output, 0, bytesProduced);
+                    }
+
+                    /*
+                     * Any records that were not written directly (e.g. a KeyUpdate message) are still within
+                     * the previewed record size.
+                     */
+                    int outputPending = protocol.getAvailableOutputBytes();
+                    if (outputPending > 0)
+                    {
+                        int numRead = protocol.readOutput(dst, outputPending);
+                        assert numRead == outputPending;
 
-                    int numRead = protocol.readOutput(dst, bytesProduced);
-                    assert numRead == bytesProduced;
+                        bytesProduced += outputPending;
+                    }
+                    assert bytesProduced <= dstLimit;
                 }
 
                 return new SSLEngineResult(getStatus(), HandshakeStatus.NOT_HANDSHAKING, bytesConsumed, bytesProduced);
@@ -738,6 +829,26 @@ class ProvSSLEngine
         return dummySession;
     }
 
+    private synchronized void runDelegatedTask(byte[] record)
+    {
+        try
+        {
+            protocol.offerInput(record, 0, record.length);
+        }
+        catch (IOException e)
+        {
+            // NOTE: As for unwrap during the handshake, the exception is thrown from the next wrap call
+            if (null == deferredException)
+            {
+                this.deferredException = new SSLException(e);
+            }
+        }
+        finally
+        {
+            this.delegatedTaskPending = false;
+        }
+    }
+
     private RecordPreview getRecordPreview(ByteBuffer src)
         throws IOException
     {
@@ -746,8 +857,6 @@ class ProvSSLEngine
             return null;
         }
 
-        byte[] recordHeader = new byte[RecordFormat.FRAGMENT_OFFSET];
-
         int position = src.position();
         src.get(recordHeader);
         ((java.nio.Buffer)src).position(position);
@@ -755,6 +864,24 @@ class ProvSSLEngine
         return protocol.previewInputRecord(recordHeader);
     }
 
+    private static ByteBuffer getFirstRemaining(ByteBuffer[] bufs, int off, int len)
+    {
+        for (int i = 0; i < len; ++i)
+        {
+            ByteBuffer buf = bufs[off + i];
+            if (buf.hasRemaining())
+            {
+                return buf;
+            }
+        }
+        return null;
+    }
+
+    private static byte[] getScratch(byte[] scratch, int length)
+    {
+        return null != scratch && scratch.length >= length ? scratch : new byte[length];
+    }
+
     private Status getStatus()
     {
         return protocol.isClosed() ? Status.CLOSED : Status.OK;
@@ -780,4 +907,20 @@ class ProvSSLEngine
     {
         return getTotalRemaining(dsts, off, len, amount) < amount;
     }
+
+    private class DelegatedTask
+        implements Runnable
+    {
+        private final byte[] record;
+
+        DelegatedTask(byte[] record)
+        {
+            this.record = record;
+        }
+
+        public void run()
+        {
+            runDelegatedTask(record);
+        }
+    }
 }
@@ -5,51 +5,89 @@ import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import javax.net.ssl.SSLSession;
-import javax.net.ssl.SSLSessionContext;
 
 import org.bouncycastle.jsse.BCSNIServerName;
+import org.bouncycastle.jsse.BCSSLSessionContext;
+import org.bouncycastle.tls.BasicTlsMetrics;
+import org.bouncycastle.tls.BasicTlsPSKResumption;
 import org.bouncycastle.tls.SessionID;
 import org.bouncycastle.tls.TlsSession;
 import org.bouncycastle.tls.TlsUtils;
 
 class ProvSSLSessionContext
-    implements SSLSessionContext
+    implements BCSSLSessionContext
 {
     private static final Logger LOG = Logger.getLogger(ProvSSLSessionContext.class.getName());
 
     private static final int provSessionCacheSize = PropertyUtils
         .getIntegerSystemProperty("javax.net.ssl.sessionCacheSize", 20480, 0, Integer.MAX_VALUE);
 
-    // NOTE: This is configured as a simple LRU cache using the "access order" constructor
+    private static final boolean provEnableMetrics = PropertyUtils
+        .getBooleanSystemProperty("org.bouncycastle.jsse.enableMetrics", false);
+
+    private static final int MAX_TICKETS_PER_PEER = 10;
+
+    private static final int DEFAULT_SESSION_TIMEOUT_SECONDS = 86400; // 24hrs (in seconds)
+
+    /*
+     * NOTE: Sessions are looked up without locking; sessionsByID evicts (approximately) least recently used
+     * sessions, and sessions older than the session timeout.
+     */
+    protected final SessionCache<SessionID, SessionEntry> sessionsByID = new SessionCache<SessionID, SessionEntry>(
+        provSessionCacheSize, 1000L * DEFAULT_SESSION_TIMEOUT_SECONDS)
+    {
+        protected void onEvicted(SessionEntry sessionEntry, boolean expired)
+        {
+            if (expired)
+            {
+                ProvSSLSession session = sessionEntry.get();
+                if (null != session)
+                {
+                    session.invalidatedBySessionContext();
+                }
+            }
+            removeSessionByPeer(sessionEntry);
+        }
+    };
+    protected final ConcurrentHashMap<String, SessionEntry> sessionsByPeer = new ConcurrentHashMap<String, SessionEntry>();
+    protected final ReferenceQueue<ProvSSLSession> sessionsQueue = new ReferenceQueue<ProvSSLSession>();
+
+    protected final AtomicLong sessionCacheHits = new AtomicLong(0L);
+    protected final AtomicLong sessionCacheMisses = new AtomicLong(0L);
+
+    protected final BasicTlsMetrics metrics = provEnableMetrics ? new BasicTlsMetrics() : null;
+
+    // NOTE: TLS 1.3 session tickets received by a client, per peer and in access order like sessionsByID
     @SuppressWarnings("serial")
-    protected final Map<SessionID, SessionEntry> sessionsByID = new LinkedHashMap<SessionID, SessionEntry>(16, 0.75f, true)
+    protected final Map<String, LinkedList<TicketEntry>> ticketsByPeer = new LinkedHashMap<String, LinkedList<TicketEntry>>(16, 0.75f, true)
     {
-        protected boolean removeEldestEntry(Map.Entry<SessionID, SessionEntry> eldest)
+        protected boolean removeEldestEntry(Map.Entry<String, LinkedList<TicketEntry>> eldest)
         {
             boolean shouldRemove = sessionCacheSize > 0 && size() > sessionCacheSize;
             if (shouldRemove)
             {
-                removeSessionByPeer(eldest.getValue());
+                destroyTickets(eldest.getValue());
             }
             return shouldRemove;
         }
     };
-    protected final Map<String, SessionEntry> sessionsByPeer = new HashMap<String, SessionEntry>();
-    protected final ReferenceQueue<ProvSSLSession> sessionsQueue = new ReferenceQueue<ProvSSLSession>();
 
     protected final ContextData contextData;
 
-    protected int sessionCacheSize = provSessionCacheSize;
-    protected int sessionTimeoutSeconds = 86400; // 24hrs (in seconds)
+    protected volatile int sessionCacheSize = provSessionCacheSize;
+    protected volatile int sessionTimeoutSeconds = DEFAULT_SESSION_TIMEOUT_SECONDS;
+
+    protected volatile SessionTicketKeys sessionTicketKeys = null;
 
     ProvSSLSessionContext(ContextData contextData)
     {
@@ -61,14 +99,14 @@ class ProvSSLSessionContext
         return contextData;
     }
 
-    synchronized ProvSSLSession getSessionImpl(byte[] sessionID)
+    ProvSSLSession getSessionImpl(byte[] sessionID)
     {
         processQueue();
 
-        return getSessionImpl(mapGet(sessionsByID, makeSessionID(sessionID)));
+        return countLookup(getSessionImpl(cacheGet(makeSessionID(sessionID))));
     }
 
-    synchronized ProvSSLSession getSessionImpl(String hostName, int port)
+    ProvSSLSession getSessionImpl(String hostName, int port)
     {
         processQueue();
 
@@ -76,22 +114,23 @@ class ProvSSLSessionContext
         ProvSSLSession session = getSessionImpl(sessionEntry);
         if (session != null)
         {
-            // NOTE: For the current simple cache implementation, need to 'access' the sessionByIDs entry
+            // NOTE: Mark the sessionByIDs entry as recently used
             sessionsByID.get(sessionEntry.getSessionID());
         }
-        return session;
+        return countLookup(session);
     }
 
-    synchronized void removeSession(byte[] sessionID)
+    void removeSession(byte[] sessionID)
     {
-        SessionEntry sessionEntry = mapRemove(sessionsByID, makeSessionID(sessionID));
+        SessionID key = makeSessionID(sessionID);
+        SessionEntry sessionEntry = null == key ? null : sessionsByID.remove(key);
         if (null != sessionEntry)
         {
             removeSessionByPeer(sessionEntry);
         }
     }
 
-    synchronized ProvSSLSession reportSession(ProvSSLSessionHandshake handshakeSession, String peerHost, int peerPort,
+    ProvSSLSession reportSession(ProvSSLSessionHandshake handshakeSession, String peerHost, int peerPort,
         TlsSession tlsSession, JsseSessionParameters jsseSessionParameters, boolean addToCache)
     {
         processQueue();
@@ -106,7 +145,7 @@ class ProvSSLSessionContext
         }
 
         SessionID sessionID = makeSessionID(tlsSession.getSessionID());
-        SessionEntry sessionEntry = mapGet(sessionsByID, sessionID);
+        SessionEntry sessionEntry = cacheGet(sessionID);
 
         ProvSSLSession session = sessionEntry == null ? null : sessionEntry.get();
         if (null == session || session.getTlsSession() != tlsSession)
@@ -117,7 +156,7 @@ class ProvSSLSessionContext
             if (null != sessionID)
             {
                 sessionEntry = new SessionEntry(sessionID, session, sessionsQueue);
-                sessionsByID.put(sessionID, sessionEntry);
+                sessionsByID.put(sessionID, sessionEntry, session.getCreationTime());
             }
         }
 
@@ -129,12 +168,95 @@ class ProvSSLSessionContext
         return session;
     }
 
-    public synchronized Enumeration<byte[]> getIds()
+    synchronized void addResumptionPSK(String hostName, int port, BasicTlsPSKResumption psk,
+        JsseSessionParameters jsseSessionParameters)
+    {
+        String peerKey = makePeerKey(hostName, port);
+        if (null == peerKey)
+        {
+            psk.getKey().destroy();
+            return;
+        }
+
+        LinkedList<TicketEntry> tickets = ticketsByPeer.get(peerKey);
+        if (null == tickets)
+        {
+            tickets = new LinkedList<TicketEntry>();
+            ticketsByPeer.put(peerKey, tickets);
+        }
+
+        tickets.addFirst(new TicketEntry(psk, jsseSessionParameters));
+
+        while (tickets.size() > MAX_TICKETS_PER_PEER)
+        {
+            tickets.removeLast().psk.getKey().destroy();
+        }
+    }
+
+    SessionTicketKeys getSessionTicketKeys()
+    {
+        SessionTicketKeys result = sessionTicketKeys;
+        if (null == result)
+        {
+            synchronized (this)
+            {
+                result = sessionTicketKeys;
+                if (null == result)
+                {
+                    result = new SessionTicketKeys(contextData.getCrypto());
+                    sessionTicketKeys = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove and return the most recently received, unexpired ticket for the given peer. Tickets are
+     * single-use on the client, so a ticket is never offered twice.
+     */
+    synchronized TicketEntry takeResumptionPSK(String hostName, int port)
+    {
+        String peerKey = makePeerKey(hostName, port);
+        LinkedList<TicketEntry> tickets = mapGet(ticketsByPeer, peerKey);
+        if (null == tickets)
+        {
+            return null;
+        }
+
+        long currentTimeMillis = System.currentTimeMillis();
+        long creationTimeLimit = getCreationTimeLimit();
+
+        TicketEntry result = null;
+        while (null == result && !tickets.isEmpty())
+        {
+            TicketEntry ticket = tickets.removeFirst();
+
+            BasicTlsPSKResumption psk = ticket.psk;
+            if (psk.isExpired(currentTimeMillis) || psk.getTicketIssueTime() < creationTimeLimit)
+            {
+                psk.getKey().destroy();
+                continue;
+            }
+
+            result = ticket;
+        }
+
+        if (tickets.isEmpty())
+        {
+            ticketsByPeer.remove(peerKey);
+        }
+
+        return result;
+    }
+
+    public Enumeration<byte[]> getIds()
     {
         removeAllExpiredSessions();
 
-        ArrayList<byte[]> ids = new ArrayList<byte[]>(sessionsByID.size());
-        for (SessionID sessionID : sessionsByID.keySet())
+        List<SessionID> sessionIDs = sessionsByID.keys();
+        ArrayList<byte[]> ids = new ArrayList<byte[]>(sessionIDs.size());
+        for (SessionID sessionID : sessionIDs)
         {
             ids.add(sessionID.getBytes());
         }
@@ -151,16 +273,41 @@ class ProvSSLSessionContext
         return getSessionImpl(sessionID);
     }
 
-    public synchronized int getSessionCacheSize()
+    public int getSessionCacheSize()
     {
         return sessionCacheSize;
     }
 
-    public synchronized int getSessionTimeout()
+    public int getSessionTimeout()
     {
         return sessionTimeoutSeconds;
     }
 
+    public int getCachedSessionCount()
+    {
+        return sessionsByID.size();
+    }
+
+    public long getSessionCacheHits()
+    {
+        return sessionCacheHits.get();
+    }
+
+    public long getSessionCacheMisses()
+    {
+        return sessionCacheMisses.get();
+    }
+
+    public long getSessionCacheEvictions()
+    {
+        return sessionsByID.getEvictions();
+    }
+
+    public BasicTlsMetrics getMetrics()
+    {
+        return metrics;
+    }
+
     public synchronized void setSessionCacheSize(int size) throws IllegalArgumentException
     {
         if (sessionCacheSize == size)
@@ -177,22 +324,8 @@ class ProvSSLSessionContext
 
         removeAllExpiredSessions();
 
-        // Immediately remove LRU sessions in excess of the new limit
-        if (sessionCacheSize > 0)
-        {
-            int currentSize = sessionsByID.size();
-            if (currentSize > sessionCacheSize)
-            {
-                Iterator<SessionEntry> iter = sessionsByID.values().iterator();
-                while (iter.hasNext() && currentSize > sessionCacheSize)
-                {
-                    SessionEntry sessionEntry = iter.next();
-                    iter.remove();
-                    removeSessionByPeer(sessionEntry);
-                    --currentSize;
-                }
-            }
-        }
+        // Immediately remove (approximately) LRU sessions in excess of the new limit
+        sessionsByID.setMaxSize(size);
     }
 
     public synchronized void setSessionTimeout(int seconds) throws IllegalArgumentException
@@ -209,6 +342,8 @@ class ProvSSLSessionContext
 
         this.sessionTimeoutSeconds = seconds;
 
+        sessionsByID.setTimeoutMillis(1000L * seconds);
+
         removeAllExpiredSessions();
     }
 
@@ -272,28 +407,45 @@ class ProvSSLSessionContext
 
         long creationTimeLimit = getCreationTimeLimit();
 
-        Iterator<SessionEntry> iter = sessionsByID.values().iterator();
-        while (iter.hasNext())
+        for (SessionEntry sessionEntry : sessionsByID.values())
         {
-            SessionEntry sessionEntry = iter.next();
             if (invalidateIfCreatedBefore(sessionEntry, creationTimeLimit))
             {
-                iter.remove();
-                removeSessionByPeer(sessionEntry);
+                removeSession(sessionEntry);
             }
         }
     }
 
     private void removeSession(SessionEntry sessionEntry)
     {
-        mapRemove(sessionsByID, sessionEntry.getSessionID(), sessionEntry);
+        sessionsByID.remove(sessionEntry.getSessionID(), sessionEntry);
 
         removeSessionByPeer(sessionEntry);
     }
 
     private boolean removeSessionByPeer(SessionEntry sessionEntry)
     {
-        return mapRemove(sessionsByPeer, sessionEntry.getPeerKey(), sessionEntry);
+        String peerKey = sessionEntry.getPeerKey();
+        return null != peerKey && sessionsByPeer.remove(peerKey, sessionEntry);
+    }
+
+    private SessionEntry cacheGet(SessionID sessionID)
+    {
+        return null == sessionID ? null : sessionsByID.get(sessionID);
+    }
+
+    private ProvSSLSession countLookup(ProvSSLSession session)
+    {
+        (null == session ? sessionCacheMisses : sessionCacheHits).incrementAndGet();
+        return session;
+    }
+
+    private static void destroyTickets(List<TicketEntry> tickets)
+    {
+        for (TicketEntry ticket : tickets)
+        {
+            ticket.psk.getKey().destroy();
+        }
     }
 
     private static String makePeerKey(ProvSSLSession session)
@@ -332,35 +484,21 @@ class ProvSSLSessionContext
         return key == null ? null : map.get(key);
     }
 
-    private static <K, V> V mapRemove(Map<K, V> map, K key)
+    static final class TicketEntry
     {
-        if (map == null)
-        {
-            throw new NullPointerException();
-        }
-        return key == null ? null : map.remove(key);
-    }
+        final BasicTlsPSKResumption psk;
+        final JsseSessionParameters jsseSessionParameters;
 
-    private static <K, V> boolean mapRemove(Map<K, V> map, K key, V value)
-    {
-        if (map == null || value == null)
+        TicketEntry(BasicTlsPSKResumption psk, JsseSessionParameters jsseSessionParameters)
         {
-            throw new NullPointerException();
-        }
-        if (key != null)
-        {
-            // TODO[jsse] From 1.8 there is a 2-argument remove method to accomplish this 
-            V removed = map.remove(key);
-            if (removed == value)
-            {
-                return true;
-            }
-            if (removed != null)
+            if (psk == null || jsseSessionParameters == null)
             {
-                map.put(key, removed);
+                throw new NullPointerException();
             }
+
+            this.psk = psk;
+            this.jsseSessionParameters = jsseSessionParameters;
         }
-        return false;
     }
 
     private static final class SessionEntry
@@ -19,6 +19,7 @@ import org.bouncycastle.jsse.BCX509Key;
 import org.bouncycastle.jsse.provider.SignatureSchemeInfo.PerConnection;
 import org.bouncycastle.tls.AlertDescription;
 import org.bouncycastle.tls.AlertLevel;
+import org.bouncycastle.tls.BasicTlsPSKResumption;
 import org.bouncycastle.tls.CertificateRequest;
 import org.bouncycastle.tls.CertificateStatusRequest;
 import org.bouncycastle.tls.CertificateStatusRequestItemV2;
@@ -34,11 +35,16 @@ import org.bouncycastle.tls.SessionParameters;
 import org.bouncycastle.tls.SignatureAlgorithm;
 import org.bouncycastle.tls.SignatureAndHashAlgorithm;
 import org.bouncycastle.tls.TlsAuthentication;
+import org.bouncycastle.tls.TlsCertificateCompressor;
 import org.bouncycastle.tls.TlsContext;
 import org.bouncycastle.tls.TlsCredentials;
 import org.bouncycastle.tls.TlsDHGroupVerifier;
 import org.bouncycastle.tls.TlsExtensionsUtils;
 import org.bouncycastle.tls.TlsFatalAlert;
+import org.bouncycastle.tls.TlsKeySharePool;
+import org.bouncycastle.tls.TlsMetricsListener;
+import org.bouncycastle.tls.TlsPSK;
+import org.bouncycastle.tls.TlsPSKResumption;
 import org.bouncycastle.tls.TlsServerCertificate;
 import org.bouncycastle.tls.TlsSession;
 import org.bouncycastle.tls.TlsUtils;
@@ -57,6 +63,9 @@ class ProvTlsClient
     private static final boolean provClientEnableCA = PropertyUtils
         .getBooleanSystemProperty("jdk.tls.client.enableCAExtension", false);
 
+    private static final boolean provClientEnableCertificateCompression = PropertyUtils
+        .getBooleanSystemProperty("org.bouncycastle.jsse.client.enableCertificateCompression", true);
+
     private static final boolean provClientEnableSessionResumption = PropertyUtils
         .getBooleanSystemProperty("org.bouncycastle.jsse.client.enableSessionResumption", true);
 
@@ -405,6 +414,24 @@ class ProvTlsClient
         return super.getEarlyKeyShareGroups();
     }
 
+    @Override
+    public TlsCertificateCompressor[] getCertificateCompressors()
+    {
+        return provClientEnableCertificateCompression ? manager.getContextData().getCertificateCompressors() : null;
+    }
+
+    @Override
+    public TlsKeySharePool getKeySharePool()
+    {
+        return manager.getContextData().getKeySharePool();
+    }
+
+    @Override
+    public TlsMetricsListener getMetricsListener()
+    {
+        return manager.getContextData().getClientSessionContext().getMetrics();
+    }
+
     @Override
     public int getMaxCertificateChainLength()
     {
@@ -423,6 +450,32 @@ class ProvTlsClient
         return manager.getContextData().getMaxHandshakeMessageSize();
     }
 
+    @Override
+    public Vector<TlsPSKResumption> getResumptionPSKs()
+    {
+        if (!provClientEnableSessionResumption)
+        {
+            return null;
+        }
+
+        ProvSSLSessionContext sslSessionContext = manager.getContextData().getClientSessionContext();
+
+        ProvSSLSessionContext.TicketEntry ticket;
+        while (null != (ticket = sslSessionContext.takeResumptionPSK(manager.getPeerHost(), manager.getPeerPort())))
+        {
+            if (isResumable(ticket))
+            {
+                @SuppressWarnings("unchecked")
+                Vector<TlsPSKResumption> result = TlsUtils.vectorOfOne(ticket.psk);
+                return result;
+            }
+
+            ticket.psk.getKey().destroy();
+        }
+
+        return null;
+    }
+
     @Override
     public TlsSession getSessionToResume()
     {
@@ -562,7 +615,7 @@ class ProvTlsClient
             int peerPort = manager.getPeerPort();
             JsseSessionParameters jsseSessionParameters = new JsseSessionParameters(
                 sslParameters.getEndpointIdentificationAlgorithm(), null);
-            // TODO[tls13] Resumption/PSK
+            // NOTE: TLS 1.3 sessions are resumed via the tickets passed to notifyResumptionPSK instead
             boolean addToCache = provClientEnableSessionResumption && !TlsUtils.isTLSv13(context);
 
             this.sslSession = sslSessionContext.reportSession(manager.getBCHandshakeSessionImpl(), peerHost, peerPort,
@@ -572,6 +625,29 @@ class ProvTlsClient
         manager.notifyHandshakeComplete(new ProvSSLConnection(this));
     }
 
+    @Override
+    public void notifyResumptionPSK(TlsPSKResumption resumptionPSK) throws IOException
+    {
+        ProvSSLSession connectionSSLSession = sslSession;
+
+        if (!provClientEnableSessionResumption || null == connectionSSLSession
+            || !(resumptionPSK instanceof BasicTlsPSKResumption))
+        {
+            resumptionPSK.getKey().destroy();
+            return;
+        }
+
+        if (LOG.isLoggable(Level.FINE))
+        {
+            LOG.fine(clientID + " received session ticket valid for "
+                + ((BasicTlsPSKResumption)resumptionPSK).getTicketLifetime() + "s");
+        }
+
+        ProvSSLSessionContext sslSessionContext = manager.getContextData().getClientSessionContext();
+        sslSessionContext.addResumptionPSK(manager.getPeerHost(), manager.getPeerPort(),
+            (BasicTlsPSKResumption)resumptionPSK, connectionSSLSession.getJsseSessionParameters());
+    }
+
     @Override
     public void notifySecureRenegotiation(boolean secureRenegotiation) throws IOException
     {
@@ -602,6 +678,17 @@ class ProvTlsClient
         super.notifySelectedCipherSuite(selectedCipherSuite);
     }
 
+    @Override
+    public void notifySelectedPSK(TlsPSK selectedPSK) throws IOException
+    {
+        if (selectedPSK instanceof TlsPSKResumption && LOG.isLoggable(Level.FINE))
+        {
+            LOG.fine(clientID + ": Server accepted session ticket");
+        }
+
+        super.notifySelectedPSK(selectedPSK);
+    }
+
     @Override
     public void notifyServerVersion(ProtocolVersion serverVersion) throws IOException
     {
@@ -719,6 +806,34 @@ class ProvTlsClient
         return keyTypes;
     }
 
+    protected boolean isResumable(ProvSSLSessionContext.TicketEntry ticket)
+    {
+        SessionParameters sessionParameters = ticket.psk.getSessionParameters();
+
+        if (!Arrays.contains(getCipherSuites(), sessionParameters.getCipherSuite()) ||
+            !ProtocolVersion.contains(getProtocolVersions(), sessionParameters.getNegotiatedVersion()))
+        {
+            return false;
+        }
+
+        String connectionEndpointID = sslParameters.getEndpointIdentificationAlgorithm();
+        if (null != connectionEndpointID)
+        {
+            String sessionEndpointID = ticket.jsseSessionParameters.getEndpointIDAlgorithm();
+            if (!connectionEndpointID.equalsIgnoreCase(sessionEndpointID))
+            {
+                if (LOG.isLoggable(Level.FINER))
+                {
+                    LOG.finer(clientID + ": Ticket not resumable - endpoint ID algorithm mismatch; connection: "
+                        + connectionEndpointID + ", session: " + sessionEndpointID);
+                }
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     protected SessionParameters getResumableSessionParameters(ProvSSLSession provSSLSession, TlsSession tlsSession)
     {
         if (null == tlsSession || !tlsSession.isResumable())
@@ -742,7 +857,7 @@ class ProvTlsClient
                 return null;
             }
 
-            // TODO[tls13] Resumption/PSK 
+            // NOTE: TLS 1.3 sessions are resumed via tickets, see getResumptionPSKs
             if (TlsUtils.isTLSv13(sessionVersion))
             {
                 return null;
@@ -19,12 +19,14 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.jsse.BCSNIHostName;
 import org.bouncycastle.jsse.BCSNIMatcher;
 import org.bouncycastle.jsse.BCSNIServerName;
 import org.bouncycastle.jsse.BCX509Key;
 import org.bouncycastle.jsse.provider.SignatureSchemeInfo.PerConnection;
 import org.bouncycastle.tls.AlertDescription;
 import org.bouncycastle.tls.AlertLevel;
+import org.bouncycastle.tls.BasicTlsPSKResumption;
 import org.bouncycastle.tls.Certificate;
 import org.bouncycastle.tls.CertificateRequest;
 import org.bouncycastle.tls.CertificateStatus;
@@ -32,22 +34,28 @@ import org.bouncycastle.tls.ClientCertificateType;
 import org.bouncycastle.tls.DefaultTlsServer;
 import org.bouncycastle.tls.KeyExchangeAlgorithm;
 import org.bouncycastle.tls.NamedGroup;
+import org.bouncycastle.tls.NewSessionTicket;
 import org.bouncycastle.tls.ProtocolName;
 import org.bouncycastle.tls.ProtocolVersion;
+import org.bouncycastle.tls.PskIdentity;
 import org.bouncycastle.tls.SecurityParameters;
 import org.bouncycastle.tls.ServerName;
 import org.bouncycastle.tls.SessionParameters;
 import org.bouncycastle.tls.SignatureAndHashAlgorithm;
+import org.bouncycastle.tls.TlsCertificateCompressor;
 import org.bouncycastle.tls.TlsContext;
 import org.bouncycastle.tls.TlsCredentials;
 import org.bouncycastle.tls.TlsDHUtils;
 import org.bouncycastle.tls.TlsExtensionsUtils;
 import org.bouncycastle.tls.TlsFatalAlert;
+import org.bouncycastle.tls.TlsMetricsListener;
+import org.bouncycastle.tls.TlsPSKResumption;
 import org.bouncycastle.tls.TlsSession;
 import org.bouncycastle.tls.TlsUtils;
 import org.bouncycastle.tls.TrustedAuthority;
 import org.bouncycastle.tls.crypto.DHGroup;
 import org.bouncycastle.tls.crypto.TlsDHConfig;
+import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.tls.crypto.impl.jcajce.JcaTlsCrypto;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.encoders.Hex;
@@ -68,9 +76,18 @@ class ProvTlsServer
     private static final boolean provServerEnableCA = PropertyUtils
         .getBooleanSystemProperty("jdk.tls.server.enableCAExtension", true);
 
+    private static final boolean provServerEnableCertificateCompression = PropertyUtils
+        .getBooleanSystemProperty("org.bouncycastle.jsse.server.enableCertificateCompression", true);
+
     private static final boolean provServerEnableSessionResumption = PropertyUtils
         .getBooleanSystemProperty("org.bouncycastle.jsse.server.enableSessionResumption", true);
 
+    private static final int provServerNewSessionTicketCount = PropertyUtils
+        .getIntegerSystemProperty("jdk.tls.server.newSessionTicketCount", 1, 0, 10);
+
+    // RFC 8446 4.6.1. Servers MUST NOT use any value greater than 604800 seconds (7 days).
+    private static final long MAX_TICKET_LIFETIME = 604800L;
+
     // TODO[jsse] Support status_request and status_request_v2 extensions
 //    private static final boolean provServerEnableStatusRequest = PropertyUtils.getBooleanSystemProperty(
 //        "jdk.tls.server.enableStatusRequestExtension", false);
@@ -181,9 +198,12 @@ class ProvTlsServer
 
     protected ProvSSLSession sslSession = null;
     protected BCSNIServerName matchedSNIServerName = null;
+    protected String requestedSNIHostName = null;
     protected Set<String> keyManagerMissCache = null;
     protected TlsCredentials credentials = null;
     protected boolean handshakeComplete = false;
+    protected int resumptionPRFAlgorithm = -1;
+    protected int newSessionTicketCount = 0;
 
     ProvTlsServer(ProvTlsManager manager, ProvSSLParameters sslParameters)
     {
@@ -322,6 +342,12 @@ class ProvTlsServer
     @Override
     protected boolean selectCipherSuite(int cipherSuite) throws IOException
     {
+        // A resumed TLS 1.3 session is bound to the hash of its original cipher suite
+        if (resumptionPRFAlgorithm >= 0 && resumptionPRFAlgorithm != TlsUtils.getPRFAlgorithm13(cipherSuite))
+        {
+            return false;
+        }
+
         TlsCredentials cipherSuiteCredentials = null;
 
         int keyExchangeAlgorithm = TlsUtils.getKeyExchangeAlgorithm(cipherSuite);
@@ -443,6 +469,18 @@ class ProvTlsServer
         return JsseUtils.allowLegacyResumption();
     }
 
+    @Override
+    public TlsCertificateCompressor[] getCertificateCompressors()
+    {
+        return provServerEnableCertificateCompression ? manager.getContextData().getCertificateCompressors() : null;
+    }
+
+    @Override
+    public TlsMetricsListener getMetricsListener()
+    {
+        return manager.getContextData().getServerSessionContext().getMetrics();
+    }
+
     @Override
     public int getMaxCertificateChainLength()
     {
@@ -708,6 +746,127 @@ class ProvTlsServer
         return result;
     }
 
+    @Override
+    public NewSessionTicket getNewSessionTicket13(TlsSecret resumptionPSK, long ticketAgeAdd) throws IOException
+    {
+        if (!provServerEnableSessionResumption || newSessionTicketCount >= provServerNewSessionTicketCount)
+        {
+            return null;
+        }
+
+        ProvSSLSessionContext sslSessionContext = manager.getContextData().getServerSessionContext();
+
+        int sessionTimeout = sslSessionContext.getSessionTimeout();
+        long ticketLifetime = (sessionTimeout < 1 || sessionTimeout > MAX_TICKET_LIFETIME)
+            ? MAX_TICKET_LIFETIME
+            : sessionTimeout;
+
+        SessionParameters sessionParameters = context.getSession().exportSessionParameters();
+
+        JsseSessionTicket sessionTicket = new JsseSessionTicket(sessionParameters, System.currentTimeMillis(),
+            ticketLifetime, ticketAgeAdd, resumptionPSK.extract(), sslParameters.getEndpointIdentificationAlgorithm(),
+            requestedSNIHostName);
+
+        byte[] state = sessionTicket.encode();
+        sessionTicket.clear();
+
+        byte[] ticket = sslSessionContext.getSessionTicketKeys().seal(state, ticketLifetime * 1000L);
+        Arrays.fill(state, (byte)0);
+
+        // The ticket is sent (and later offered by the client) as opaque<1..2^16-1>
+        if (null == ticket || ticket.length > 0xFFFF)
+        {
+            return null;
+        }
+
+        ++newSessionTicketCount;
+
+        if (LOG.isLoggable(Level.FINE))
+        {
+            LOG.fine(serverID + " issued session ticket valid for " + ticketLifetime + "s");
+        }
+
+        return new NewSessionTicket(ticketLifetime, ticket);
+    }
+
+    @Override
+    public TlsPSKResumption getResumptionPSK(@SuppressWarnings("rawtypes") Vector identities)
+    {
+        if (!provServerEnableSessionResumption)
+        {
+            return null;
+        }
+
+        SessionTicketKeys sessionTicketKeys = manager.getContextData().getServerSessionContext()
+            .getSessionTicketKeys();
+
+        long currentTimeMillis = System.currentTimeMillis();
+
+        for (int i = 0; i < identities.size(); ++i)
+        {
+            byte[] ticket = ((PskIdentity)identities.elementAt(i)).getIdentity();
+
+            byte[] state = sessionTicketKeys.open(ticket);
+            if (null == state)
+            {
+                continue;
+            }
+
+            JsseSessionTicket sessionTicket;
+            try
+            {
+                sessionTicket = JsseSessionTicket.decode(getCrypto(), state);
+            }
+            catch (IOException e)
+            {
+                sessionTicket = null;
+            }
+            finally
+            {
+                Arrays.fill(state, (byte)0);
+            }
+
+            if (null == sessionTicket)
+            {
+                continue;
+            }
+
+            try
+            {
+                if (isResumable(sessionTicket, currentTimeMillis))
+                {
+                    TlsSecret key = getCrypto().createSecret(sessionTicket.getPSK());
+                    int prfAlgorithm = TlsUtils.getPRFAlgorithm13(sessionTicket.getCipherSuite());
+
+                    SessionParameters sessionParameters = new SessionParameters.Builder()
+                        .setCipherSuite(sessionTicket.getCipherSuite())
+                        .setNegotiatedVersion(sessionTicket.getNegotiatedVersion())
+                        .setExtendedMasterSecret(true)
+                        .setLocalCertificate(sessionTicket.getLocalCertificate())
+                        .setMasterSecret(key)
+                        .setPeerCertificate(sessionTicket.getPeerCertificate())
+                        .build();
+
+                    this.resumptionPRFAlgorithm = prfAlgorithm;
+
+                    if (LOG.isLoggable(Level.FINE))
+                    {
+                        LOG.fine(serverID + " accepted session ticket");
+                    }
+
+                    return new BasicTlsPSKResumption(ticket, key, prfAlgorithm, sessionTicket.getIssueTime(),
+                        sessionTicket.getLifetime(), sessionTicket.getTicketAgeAdd(), sessionParameters);
+                }
+            }
+            finally
+            {
+                sessionTicket.clear();
+            }
+        }
+
+        return null;
+    }
+
     @Override
     public TlsSession getSessionToResume(byte[] sessionID)
     {
@@ -735,7 +894,7 @@ class ProvTlsServer
     @Override
     public byte[] getNewSessionID()
     {
-        // TODO[tls13] Resumption/PSK
+        // NOTE: TLS 1.3 sessions are resumed via stateless tickets, see getNewSessionTicket13
         if (!provServerEnableSessionResumption || TlsUtils.isTLSv13(context))
         {
             return null;
@@ -910,7 +1069,7 @@ class ProvTlsServer
             int peerPort = manager.getPeerPort();
             JsseSessionParameters jsseSessionParameters = new JsseSessionParameters(
                 sslParameters.getEndpointIdentificationAlgorithm(), matchedSNIServerName);
-            // TODO[tls13] Resumption/PSK
+            // NOTE: TLS 1.3 sessions are resumed via stateless tickets, so are never cached by ID
             boolean addToCache = provServerEnableSessionResumption && !TlsUtils.isTLSv13(context);
 
             this.sslSession = sslSessionContext.reportSession(manager.getBCHandshakeSessionImpl(), peerHost, peerPort,
@@ -947,6 +1106,10 @@ class ProvTlsServer
 
         @SuppressWarnings("unchecked")
         Vector<ServerName> serverNameList = context.getSecurityParametersHandshake().getClientServerNames();
+
+        // NOTE: Session tickets are bound to this, whether or not any SNI matchers are configured
+        this.requestedSNIHostName = getSNIHostName(serverNameList);
+
         if (null != serverNameList)
         {
             Collection<BCSNIMatcher> sniMatchers = sslParameters.getSNIMatchers();
@@ -1015,6 +1178,68 @@ class ProvTlsServer
         return sslParameters.getNeedClientAuth() || sslParameters.getWantClientAuth();
     }
 
+    protected boolean isResumable(JsseSessionTicket sessionTicket, long currentTimeMillis)
+    {
+        if (sessionTicket.isExpired(currentTimeMillis))
+        {
+            return false;
+        }
+
+        SecurityParameters securityParameters = context.getSecurityParametersHandshake();
+
+        ProtocolVersion negotiatedVersion = securityParameters.getNegotiatedVersion();
+        if (!negotiatedVersion.equals(sessionTicket.getNegotiatedVersion()) ||
+            !Arrays.contains(getCipherSuites(), sessionTicket.getCipherSuite()) ||
+            !Arrays.contains(offeredCipherSuites, sessionTicket.getCipherSuite()))
+        {
+            return false;
+        }
+
+        if (sslParameters.getNeedClientAuth() && sessionTicket.getPeerCertificate() == null)
+        {
+            return false;
+        }
+
+        String connectionEndpointID = sslParameters.getEndpointIdentificationAlgorithm();
+        if (null != connectionEndpointID)
+        {
+            String sessionEndpointID = sessionTicket.getEndpointIDAlgorithm();
+            if (!connectionEndpointID.equalsIgnoreCase(sessionEndpointID))
+            {
+                if (LOG.isLoggable(Level.FINER))
+                {
+                    LOG.finer(serverID + ": Ticket not resumable - endpoint ID algorithm mismatch; connection: "
+                        + connectionEndpointID + ", session: " + sessionEndpointID);
+                }
+                return false;
+            }
+        }
+
+        /*
+         * A ticket is only resumable under the SNI host name it was issued with (cf. RFC 8446 4.2.11), so a
+         * ticket obtained for one virtual host can't be used to resume a session with another.
+         */
+        {
+            @SuppressWarnings("unchecked")
+            Vector<ServerName> serverNameList = securityParameters.getClientServerNames();
+
+            String connectionSNI = getSNIHostName(serverNameList);
+            String sessionSNI = sessionTicket.getServerName();
+
+            if (null == connectionSNI ? null != sessionSNI : !connectionSNI.equalsIgnoreCase(sessionSNI))
+            {
+                if (LOG.isLoggable(Level.FINER))
+                {
+                    LOG.finer(serverID + ": Ticket not resumable - SNI mismatch; connection: " + connectionSNI
+                        + ", session: " + sessionSNI);
+                }
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     protected boolean isResumable(ProvSSLSession provSSLSession, TlsSession tlsSession)
     {
         if (null == tlsSession || !tlsSession.isResumable())
@@ -1098,6 +1323,12 @@ class ProvTlsServer
         return true;
     }
 
+    protected static String getSNIHostName(Vector<ServerName> serverNameList)
+    {
+        BCSNIHostName sniHostName = JsseUtils.getSNIHostName(JsseUtils.convertSNIServerNames(serverNameList));
+        return null == sniHostName ? null : sniHostName.getAsciiName();
+    }
+
     protected TlsCredentials selectCredentials(Principal[] issuers, int keyExchangeAlgorithm) throws IOException
     {
         switch (keyExchangeAlgorithm)
@@ -0,0 +1,405 @@
+package org.bouncycastle.jsse.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrent cache with a bound on both the number of entries and their age, split into independently
+ * locked segments. Lookups take no lock; they only mark the entry as recently used. Each segment keeps its
+ * entries in insertion order, and evicts from the head: an expired entry is always evicted, while an entry
+ * marked as recently used gets a second chance at the tail (i.e. "CLOCK", an approximation of LRU). Eviction
+ * is therefore O(1) (amortized). It starts in the segment being inserted into, never evicts the entry just
+ * inserted, and when that segment has nothing else to give up, continues round-robin over the other segments.
+ */
+class SessionCache<K, V>
+{
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment<K, V>[] segments;
+    private final AtomicInteger size = new AtomicInteger(0);
+    private final AtomicLong evictions = new AtomicLong(0L);
+    private final AtomicInteger evictionHand = new AtomicInteger(0);
+
+    private volatile int maxSize;
+    private volatile long timeoutMillis;
+
+    /**
+     * @param maxSize       the maximum number of entries, or 0 for no limit.
+     * @param timeoutMillis the maximum age of an entry in milliseconds, or 0 for no limit.
+     */
+    @SuppressWarnings("unchecked")
+    SessionCache(int maxSize, long timeoutMillis)
+    {
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; ++i)
+        {
+            segments[i] = new Segment<K, V>();
+        }
+
+        this.maxSize = maxSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Called (possibly while a segment lock is held) for each entry the cache evicts by itself, but not for
+     * entries removed via {@link #remove(Object)} or {@link #remove(Object, Object)}.
+     *
+     * @param value   the value that was evicted.
+     * @param expired whether the entry was evicted because it was too old (rather than for space).
+     */
+    protected void onEvicted(V value, boolean expired)
+    {
+    }
+
+    V get(K key)
+    {
+        Segment<K, V> segment = getSegment(key);
+
+        Node<K, V> node = segment.map.get(key);
+        if (null == node)
+        {
+            return null;
+        }
+
+        if (isExpired(node, getCreationTimeLimit()))
+        {
+            boolean evicted;
+            synchronized (segment)
+            {
+                evicted = segment.removeNode(node);
+            }
+            if (evicted)
+            {
+                size.decrementAndGet();
+                evictions.incrementAndGet();
+                onEvicted(node.value, true);
+            }
+            return null;
+        }
+
+        // NOTE: Avoid writing to the node (and so invalidating it in other caches) when already marked
+        if (!node.referenced)
+        {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    long getEvictions()
+    {
+        return evictions.get();
+    }
+
+    int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    long getTimeoutMillis()
+    {
+        return timeoutMillis;
+    }
+
+    /**
+     * @return the previous value for the key, if any.
+     */
+    V put(K key, V value, long creationTime)
+    {
+        if (null == key || null == value)
+        {
+            throw new NullPointerException();
+        }
+
+        Segment<K, V> segment = getSegment(key);
+        Node<K, V> node = new Node<K, V>(key, value, creationTime);
+
+        V previous = null;
+        synchronized (segment)
+        {
+            Node<K, V> replaced = segment.map.put(key, node);
+            if (null != replaced)
+            {
+                segment.unlink(replaced);
+                previous = replaced.value;
+            }
+            else
+            {
+                size.incrementAndGet();
+            }
+            segment.linkLast(node);
+
+            evict(segment, node);
+        }
+
+        if (isOverLimit())
+        {
+            evictOverflow(node);
+        }
+        return previous;
+    }
+
+    V remove(K key)
+    {
+        Segment<K, V> segment = getSegment(key);
+
+        synchronized (segment)
+        {
+            Node<K, V> node = segment.map.get(key);
+            if (null != node && segment.removeNode(node))
+            {
+                size.decrementAndGet();
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    boolean remove(K key, V value)
+    {
+        Segment<K, V> segment = getSegment(key);
+
+        synchronized (segment)
+        {
+            Node<K, V> node = segment.map.get(key);
+            if (null != node && node.value == value && segment.removeNode(node))
+            {
+                size.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void setMaxSize(int maxSize)
+    {
+        this.maxSize = maxSize;
+
+        evictAll();
+    }
+
+    void setTimeoutMillis(long timeoutMillis)
+    {
+        this.timeoutMillis = timeoutMillis;
+
+        evictAll();
+    }
+
+    int size()
+    {
+        return size.get();
+    }
+
+    /**
+     * @return a snapshot of the keys currently in the cache.
+     */
+    List<K> keys()
+    {
+        List<K> result = new ArrayList<K>(size());
+        for (int i = 0; i < SEGMENT_COUNT; ++i)
+        {
+            result.addAll(segments[i].map.keySet());
+        }
+        return result;
+    }
+
+    /**
+     * @return a snapshot of the values currently in the cache.
+     */
+    List<V> values()
+    {
+        List<V> result = new ArrayList<V>(size());
+        for (int i = 0; i < SEGMENT_COUNT; ++i)
+        {
+            for (Node<K, V> node : segments[i].map.values())
+            {
+                result.add(node.value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evict expired entries, and entries over the size limit, from the head of the segment. The protected node
+     * (if any) is never chosen; it is moved behind any entries still queued after it.
+     */
+    private void evict(Segment<K, V> segment, Node<K, V> protect)
+    {
+        long creationTimeLimit = getCreationTimeLimit();
+
+        // NOTE: Bounds the second chances given, since lookups may concurrently mark nodes again
+        int secondChances = segment.map.size();
+
+        Node<K, V> node;
+        while (null != (node = segment.head))
+        {
+            if (node == protect)
+            {
+                if (null == node.next || !isOverLimit())
+                {
+                    break;
+                }
+
+                segment.unlink(node);
+                segment.linkLast(node);
+                continue;
+            }
+
+            boolean expired = isExpired(node, creationTimeLimit);
+            if (!expired)
+            {
+                int limit = maxSize;
+                if (limit < 1 || size.get() <= limit)
+                {
+                    break;
+                }
+
+                if (node.referenced && --secondChances >= 0)
+                {
+                    node.referenced = false;
+                    segment.unlink(node);
+                    segment.linkLast(node);
+                    continue;
+                }
+            }
+
+            segment.removeNode(node);
+            size.decrementAndGet();
+            evictions.incrementAndGet();
+            onEvicted(node.value, expired);
+        }
+    }
+
+    private void evictAll()
+    {
+        for (int i = 0; i < SEGMENT_COUNT; ++i)
+        {
+            Segment<K, V> segment = segments[i];
+            synchronized (segment)
+            {
+                evict(segment, null);
+            }
+        }
+    }
+
+    /**
+     * Take the remaining victims from the other segments, round-robin from a shared hand so that successive
+     * inserts don't all drain the same segment. Only one segment lock is held at a time.
+     */
+    private void evictOverflow(Node<K, V> protect)
+    {
+        int start = evictionHand.getAndIncrement();
+        for (int i = 0; i < SEGMENT_COUNT && isOverLimit(); ++i)
+        {
+            Segment<K, V> segment = segments[(start + i) & (SEGMENT_COUNT - 1)];
+            synchronized (segment)
+            {
+                evict(segment, protect);
+            }
+        }
+    }
+
+    private boolean isOverLimit()
+    {
+        int limit = maxSize;
+        return limit > 0 && size.get() > limit;
+    }
+
+    private long getCreationTimeLimit()
+    {
+        long timeout = timeoutMillis;
+        return timeout < 1L ? Long.MIN_VALUE : System.currentTimeMillis() - timeout;
+    }
+
+    private Segment<K, V> getSegment(K key)
+    {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENT_COUNT - 1)];
+    }
+
+    private static boolean isExpired(Node<?, ?> node, long creationTimeLimit)
+    {
+        return node.creationTime < creationTimeLimit;
+    }
+
+    private static final class Node<K, V>
+    {
+        final K key;
+        final V value;
+        final long creationTime;
+
+        volatile boolean referenced = false;
+
+        // Guarded by the segment lock
+        Node<K, V> prev = null, next = null;
+
+        Node(K key, V value, long creationTime)
+        {
+            this.key = key;
+            this.value = value;
+            this.creationTime = creationTime;
+        }
+    }
+
+    private static final class Segment<K, V>
+    {
+        final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<K, Node<K, V>>();
+
+        // Guarded by the segment lock
+        Node<K, V> head = null, tail = null;
+
+        void linkLast(Node<K, V> node)
+        {
+            node.prev = tail;
+            node.next = null;
+            if (null == tail)
+            {
+                head = node;
+            }
+            else
+            {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        /**
+         * @return true if the node was (still) in this segment, and has now been removed.
+         */
+        boolean removeNode(Node<K, V> node)
+        {
+            if (!map.remove(node.key, node))
+            {
+                return false;
+            }
+            unlink(node);
+            return true;
+        }
+
+        void unlink(Node<K, V> node)
+        {
+            Node<K, V> prev = node.prev, next = node.next;
+            if (null == prev)
+            {
+                head = next;
+            }
+            else
+            {
+                prev.next = next;
+            }
+            if (null == next)
+            {
+                tail = prev;
+            }
+            else
+            {
+                next.prev = prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+    }
+}
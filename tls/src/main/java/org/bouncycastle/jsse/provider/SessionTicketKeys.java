@@ -0,0 +1,175 @@
+package org.bouncycastle.jsse.provider;
+
+import java.security.GeneralSecurityException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.tls.crypto.impl.jcajce.JcaTlsCrypto;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Server-side keys protecting stateless TLS 1.3 session tickets. Tickets are sealed with AES-256-GCM
+ * under the current key, which is rotated once per ticket lifetime; the previous key is kept so that
+ * tickets issued just before a rotation remain usable until they expire.
+ * <p>
+ * Ticket format: key_name(16) || uint8 iv_length || iv || ciphertext (including the GCM tag). The
+ * key name is authenticated as additional data.
+ */
+class SessionTicketKeys
+{
+    private static final Logger LOG = Logger.getLogger(SessionTicketKeys.class.getName());
+
+    private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+    private static final int KEY_NAME_LENGTH = 16;
+    private static final int KEY_LENGTH = 32;
+    private static final int TAG_BITS = 128;
+
+    private final JcaTlsCrypto crypto;
+
+    private TicketKey currentKey = null;
+    private TicketKey previousKey = null;
+
+    SessionTicketKeys(JcaTlsCrypto crypto)
+    {
+        this.crypto = crypto;
+    }
+
+    /**
+     * @param state
+     *            the encoded session state to protect.
+     * @param rotationMillis
+     *            the maximum age of the key used to seal a new ticket.
+     * @return the ticket, or null if it could not be created.
+     */
+    byte[] seal(byte[] state, long rotationMillis)
+    {
+        TicketKey ticketKey = getCurrentKey(System.currentTimeMillis(), rotationMillis);
+
+        try
+        {
+            Cipher cipher = crypto.getHelper().createCipher(CIPHER_ALGORITHM);
+            cipher.init(Cipher.ENCRYPT_MODE, ticketKey.key, crypto.getSecureRandom());
+            cipher.updateAAD(ticketKey.name);
+
+            byte[] iv = cipher.getIV();
+            byte[] ciphertext = cipher.doFinal(state);
+
+            byte[] ticket = new byte[KEY_NAME_LENGTH + 1 + iv.length + ciphertext.length];
+            System.arraycopy(ticketKey.name, 0, ticket, 0, KEY_NAME_LENGTH);
+            ticket[KEY_NAME_LENGTH] = (byte)iv.length;
+            System.arraycopy(iv, 0, ticket, KEY_NAME_LENGTH + 1, iv.length);
+            System.arraycopy(ciphertext, 0, ticket, KEY_NAME_LENGTH + 1 + iv.length, ciphertext.length);
+            return ticket;
+        }
+        catch (GeneralSecurityException e)
+        {
+            LOG.log(Level.FINE, "Failed to seal session ticket", e);
+            return null;
+        }
+    }
+
+    /**
+     * @param ticket
+     *            a ticket previously returned by {@link #seal(byte[], long)}.
+     * @return the encoded session state, or null if the ticket is not recognized or fails to decrypt.
+     */
+    byte[] open(byte[] ticket)
+    {
+        if (null == ticket || ticket.length < KEY_NAME_LENGTH + 1)
+        {
+            return null;
+        }
+
+        int ivLength = ticket[KEY_NAME_LENGTH] & 0xFF;
+        int ciphertextPos = KEY_NAME_LENGTH + 1 + ivLength;
+        if (ivLength < 1 || ticket.length < ciphertextPos + TAG_BITS / 8)
+        {
+            return null;
+        }
+
+        TicketKey ticketKey = findKey(ticket);
+        if (null == ticketKey)
+        {
+            return null;
+        }
+
+        try
+        {
+            GCMParameterSpec spec = new GCMParameterSpec(TAG_BITS, ticket, KEY_NAME_LENGTH + 1, ivLength);
+
+            Cipher cipher = crypto.getHelper().createCipher(CIPHER_ALGORITHM);
+            cipher.init(Cipher.DECRYPT_MODE, ticketKey.key, spec);
+            cipher.updateAAD(ticketKey.name);
+
+            return cipher.doFinal(ticket, ciphertextPos, ticket.length - ciphertextPos);
+        }
+        catch (GeneralSecurityException e)
+        {
+            LOG.log(Level.FINER, "Failed to open session ticket", e);
+            return null;
+        }
+    }
+
+    private synchronized TicketKey findKey(byte[] ticket)
+    {
+        if (null != currentKey && currentKey.matches(ticket))
+        {
+            return currentKey;
+        }
+        if (null != previousKey && previousKey.matches(ticket))
+        {
+            return previousKey;
+        }
+        return null;
+    }
+
+    private synchronized TicketKey getCurrentKey(long currentTimeMillis, long rotationMillis)
+    {
+        if (null == currentKey || currentTimeMillis - currentKey.creationTime >= rotationMillis
+            || currentTimeMillis < currentKey.creationTime)
+        {
+            this.previousKey = currentKey;
+            this.currentKey = createKey(currentTimeMillis);
+
+            LOG.fine("Rotated session ticket key");
+        }
+        return currentKey;
+    }
+
+    private TicketKey createKey(long currentTimeMillis)
+    {
+        byte[] name = new byte[KEY_NAME_LENGTH];
+        byte[] key = new byte[KEY_LENGTH];
+
+        crypto.getSecureRandom().nextBytes(name);
+        crypto.getSecureRandom().nextBytes(key);
+
+        TicketKey ticketKey = new TicketKey(name, new SecretKeySpec(key, "AES"), currentTimeMillis);
+        Arrays.fill(key, (byte)0);
+        return ticketKey;
+    }
+
+    private static final class TicketKey
+    {
+        final byte[] name;
+        final SecretKey key;
+        final long creationTime;
+
+        TicketKey(byte[] name, SecretKey key, long creationTime)
+        {
+            this.name = name;
+            this.key = key;
+            this.creationTime = creationTime;
+        }
+
+        boolean matches(byte[] ticket)
+        {
+            return Arrays.constantTimeAreEqual(KEY_NAME_LENGTH, name, 0, ticket, 0);
+        }
+    }
+}
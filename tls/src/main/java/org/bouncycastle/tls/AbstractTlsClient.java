@@ -239,6 +239,16 @@ public abstract class AbstractTlsClient
         return null;
     }
 
+    public Vector getResumptionPSKs()
+    {
+        return null;
+    }
+
+    public byte[] getEarlyData(long maxEarlyDataSize) throws IOException
+    {
+        return null;
+    }
+
     public boolean isFallback()
     {
         /*
@@ -300,6 +310,12 @@ public abstract class AbstractTlsClient
             {
                 TlsExtensionsUtils.addCertificateAuthoritiesExtension(clientExtensions, certificateAuthorities);
             }
+
+            int[] compressionAlgorithms = TlsUtils.getCertificateCompressionAlgorithms(getCertificateCompressors());
+            if (compressionAlgorithms != null)
+            {
+                TlsExtensionsUtils.addCompressCertificateExtension(clientExtensions, compressionAlgorithms);
+            }
         }
 
         if (offeringPreTLSv13)
@@ -430,6 +446,11 @@ public abstract class AbstractTlsClient
         return TlsUtils.vectorOfOne(supportedGroups.elementAt(0));
     }
 
+    public TlsKeySharePool getKeySharePool()
+    {
+        return null;
+    }
+
     public boolean shouldUseCompatibilityMode()
     {
         return true;
@@ -521,4 +542,9 @@ public abstract class AbstractTlsClient
         throws IOException
     {
     }
+
+    public void notifyResumptionPSK(TlsPSKResumption resumptionPSK)
+        throws IOException
+    {
+    }
 }
@@ -44,6 +44,9 @@ abstract class AbstractTlsContext
     private TlsSession session = null;
     private Object userObject = null;
 
+    private TlsMetricsListener metricsListener = null;
+    private long handshakeStartNanos = 0L;
+
     AbstractTlsContext(TlsCrypto crypto, int connectionEnd)
     {
         this.crypto = crypto;
@@ -71,11 +74,24 @@ abstract class AbstractTlsContext
             }
         }
 
+        this.metricsListener = peer.getMetricsListener();
+        this.handshakeStartNanos = Times.nanoTime();
+
         peer.notifyHandshakeBeginning();
     }
 
     void handshakeComplete(TlsPeer peer, TlsSession session) throws IOException
     {
+        handshakeComplete(peer, session, false);
+    }
+
+    /**
+     * @param resumedPSK13 whether a TLS 1.3 handshake resumed a session via a PSK (which, unlike
+     *                     pre-1.3 resumption, isn't reflected in {@link SecurityParameters#isResumedSession()}).
+     */
+    void handshakeComplete(TlsPeer peer, TlsSession session, boolean resumedPSK13) throws IOException
+    {
+        SecurityParameters securityParameters;
         synchronized (this)
         {
             if (null == securityParametersHandshake)
@@ -86,11 +102,26 @@ abstract class AbstractTlsContext
             this.session = session;
             this.securityParametersConnection = securityParametersHandshake;
             this.securityParametersHandshake = null;
+
+            securityParameters = securityParametersConnection;
+        }
+
+        TlsMetricsListener metricsListener = this.metricsListener;
+        if (null != metricsListener)
+        {
+            metricsListener.handshakeCompleted(securityParameters.getNegotiatedVersion(),
+                securityParameters.getCipherSuite(), resumedPSK13 || securityParameters.isResumedSession(),
+                Times.nanoTime() - handshakeStartNanos);
         }
 
         peer.notifyHandshakeComplete();
     }
 
+    TlsMetricsListener getMetricsListener()
+    {
+        return metricsListener;
+    }
+
     synchronized boolean isConnected()
     {
         return null != securityParametersConnection;
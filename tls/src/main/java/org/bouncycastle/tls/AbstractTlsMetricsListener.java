@@ -0,0 +1,45 @@
+package org.bouncycastle.tls;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * Base class for a {@link TlsMetricsListener} that ignores all events, so that subclasses need only
+ * override the callbacks they are interested in.
+ * </p>
+ */
+public abstract class AbstractTlsMetricsListener
+    implements TlsMetricsListener
+{
+    public void handshakeMessageProcessed(short handshakeType, int length, long durationNanos)
+    {
+    }
+
+    public void keyExchangeCalculated(int namedGroup, long durationNanos)
+    {
+    }
+
+    public void signatureGenerated(int signatureScheme, long durationNanos)
+    {
+    }
+
+    public void signatureVerified(int signatureScheme, boolean verified, long durationNanos)
+    {
+    }
+
+    public void handshakeCompleted(ProtocolVersion negotiatedVersion, int cipherSuite, boolean resumed,
+        long durationNanos)
+    {
+    }
+
+    public void recordReceived(short contentType, int length)
+    {
+    }
+
+    public void recordSent(short contentType, int length)
+    {
+    }
+
+    public void alert(short alertLevel, short alertDescription, boolean local)
+    {
+    }
+}
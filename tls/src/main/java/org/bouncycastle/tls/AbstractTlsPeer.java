@@ -136,6 +136,20 @@ public abstract class AbstractTlsPeer
         return new DefaultTlsKeyExchangeFactory();
     }
 
+    public TlsCertificateCompressor[] getCertificateCompressors()
+    {
+        return null;
+    }
+
+    public TlsMetricsListener getMetricsListener()
+    {
+        return null;
+    }
+
+    public void notifyEarlyDataAccepted(boolean accepted) throws IOException
+    {
+    }
+
     public void notifyAlertRaised(short alertLevel, short alertDescription, String message, Throwable cause)
     {
     }
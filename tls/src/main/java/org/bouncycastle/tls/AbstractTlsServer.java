@@ -7,6 +7,7 @@ import java.util.Vector;
 import org.bouncycastle.tls.crypto.TlsCrypto;
 import org.bouncycastle.tls.crypto.TlsDHConfig;
 import org.bouncycastle.tls.crypto.TlsECConfig;
+import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.util.Integers;
 
 /**
@@ -352,6 +353,21 @@ public abstract class AbstractTlsServer
         return null;
     }
 
+    public TlsPSKResumption getResumptionPSK(Vector identities)
+    {
+        return null;
+    }
+
+    public long getMaxEarlyDataSize()
+    {
+        return 0L;
+    }
+
+    public TlsAntiReplay getAntiReplay()
+    {
+        return null;
+    }
+
     public void notifySession(TlsSession session)
     {
     }
@@ -784,4 +800,10 @@ public abstract class AbstractTlsServer
          */
         return new NewSessionTicket(0L, TlsUtils.EMPTY_BYTES);
     }
+
+    public NewSessionTicket getNewSessionTicket13(TlsSecret resumptionPSK, long ticketAgeAdd)
+        throws IOException
+    {
+        return null;
+    }
 }
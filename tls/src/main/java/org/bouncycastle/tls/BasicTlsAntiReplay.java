@@ -0,0 +1,105 @@
+package org.bouncycastle.tls;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bouncycastle.util.Arrays;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * A {@link TlsAntiReplay} combining a freshness check on the ticket age with a bounded in-memory record of
+ * the identities early data has already been accepted for (RFC 8446 8.2, 8.3). Each identity is accepted at
+ * most once while it is remembered. When the record is full, early data is rejected until entries expire.
+ */
+public class BasicTlsAntiReplay
+    implements TlsAntiReplay
+{
+    protected final long windowMillis;
+    protected final int maxEntries;
+
+    // Identity -> expiry time, in insertion (and therefore expiry) order
+    private final LinkedHashMap seen = new LinkedHashMap();
+
+    /**
+     * @param windowMillis the maximum difference between the client and server views of the ticket age, in
+     *                     milliseconds.
+     * @param maxEntries   the maximum number of identities to remember.
+     */
+    public BasicTlsAntiReplay(long windowMillis, int maxEntries)
+    {
+        if (windowMillis < 0L || maxEntries < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.windowMillis = windowMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public synchronized boolean checkAndRecord(byte[] identity, long clientTicketAge, long serverTicketAge)
+    {
+        if (Math.abs(clientTicketAge - serverTicketAge) > windowMillis)
+        {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        purge(now);
+
+        Identity key = new Identity(identity);
+        if (seen.containsKey(key) || seen.size() >= maxEntries)
+        {
+            return false;
+        }
+
+        /*
+         * The age check keeps passing for a replayed ClientHello for at most 2 * windowMillis after the
+         * original was accepted, so the identity only needs remembering for that long.
+         */
+        seen.put(key, Long.valueOf(now + 2 * windowMillis));
+        return true;
+    }
+
+    public synchronized int size()
+    {
+        return seen.size();
+    }
+
+    private void purge(long now)
+    {
+        Iterator it = seen.entrySet().iterator();
+        while (it.hasNext())
+        {
+            long expiry = ((Long)((Map.Entry)it.next()).getValue()).longValue();
+            if (expiry > now)
+            {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    private static final class Identity
+    {
+        private final byte[] identity;
+        private final int hashCode;
+
+        Identity(byte[] identity)
+        {
+            this.identity = Arrays.clone(identity);
+            this.hashCode = Arrays.hashCode(identity);
+        }
+
+        public boolean equals(Object obj)
+        {
+            return obj instanceof Identity && Arrays.areEqual(identity, ((Identity)obj).identity);
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package org.bouncycastle.tls;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.bouncycastle.util.Integers;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * A {@link TlsMetricsListener} that accumulates the events in memory: counters, plus latency histograms from
+ * which percentiles (e.g. p50/p99 handshake latency) can be read at any time. It has no dependencies beyond
+ * the JDK (in particular no JMX or logging), so can be polled and exported by whatever means the application
+ * prefers. A single instance is intended to be shared by all the peers of e.g. a server.
+ * </p>
+ */
+public class BasicTlsMetrics
+    implements TlsMetricsListener
+{
+    private final Histogram handshakeLatency = new Histogram();
+    private final AtomicLong resumedHandshakes = new AtomicLong(0L);
+
+    private final AtomicReferenceArray<Histogram> handshakeMessageLatency = new AtomicReferenceArray<Histogram>(256);
+    private final ConcurrentHashMap<Integer, Histogram> keyExchangeLatency =
+        new ConcurrentHashMap<Integer, Histogram>();
+    private final ConcurrentHashMap<Integer, Histogram> signatureGenerationLatency =
+        new ConcurrentHashMap<Integer, Histogram>();
+    private final ConcurrentHashMap<Integer, Histogram> signatureVerificationLatency =
+        new ConcurrentHashMap<Integer, Histogram>();
+    private final AtomicLong signatureVerificationFailures = new AtomicLong(0L);
+
+    private final AtomicLongArray recordsReceived = new AtomicLongArray(256);
+    private final AtomicLongArray bytesReceived = new AtomicLongArray(256);
+    private final AtomicLongArray recordsSent = new AtomicLongArray(256);
+    private final AtomicLongArray bytesSent = new AtomicLongArray(256);
+
+    private final AtomicLongArray alertsRaised = new AtomicLongArray(256);
+    private final AtomicLongArray alertsReceived = new AtomicLongArray(256);
+
+    public void handshakeMessageProcessed(short handshakeType, int length, long durationNanos)
+    {
+        int index = handshakeType & 0xFF;
+
+        Histogram histogram = handshakeMessageLatency.get(index);
+        if (null == histogram)
+        {
+            handshakeMessageLatency.compareAndSet(index, null, new Histogram());
+            histogram = handshakeMessageLatency.get(index);
+        }
+        histogram.record(durationNanos);
+    }
+
+    public void keyExchangeCalculated(int namedGroup, long durationNanos)
+    {
+        getHistogram(keyExchangeLatency, namedGroup).record(durationNanos);
+    }
+
+    public void signatureGenerated(int signatureScheme, long durationNanos)
+    {
+        getHistogram(signatureGenerationLatency, signatureScheme).record(durationNanos);
+    }
+
+    public void signatureVerified(int signatureScheme, boolean verified, long durationNanos)
+    {
+        getHistogram(signatureVerificationLatency, signatureScheme).record(durationNanos);
+
+        if (!verified)
+        {
+            signatureVerificationFailures.incrementAndGet();
+        }
+    }
+
+    public void handshakeCompleted(ProtocolVersion negotiatedVersion, int cipherSuite, boolean resumed,
+        long durationNanos)
+    {
+        handshakeLatency.record(durationNanos);
+
+        if (resumed)
+        {
+            resumedHandshakes.incrementAndGet();
+        }
+    }
+
+    public void recordReceived(short contentType, int length)
+    {
+        int index = contentType & 0xFF;
+        recordsReceived.incrementAndGet(index);
+        bytesReceived.addAndGet(index, length);
+    }
+
+    public void recordSent(short contentType, int length)
+    {
+        int index = contentType & 0xFF;
+        recordsSent.incrementAndGet(index);
+        bytesSent.addAndGet(index, length);
+    }
+
+    public void alert(short alertLevel, short alertDescription, boolean local)
+    {
+        (local ? alertsRaised : alertsReceived).incrementAndGet(alertDescription & 0xFF);
+    }
+
+    /**
+     * @return the latency of all completed handshakes (full and resumed).
+     */
+    public Histogram getHandshakeLatency()
+    {
+        return handshakeLatency;
+    }
+
+    public long getHandshakeCount()
+    {
+        return handshakeLatency.getCount();
+    }
+
+    public long getResumedHandshakeCount()
+    {
+        return resumedHandshakes.get();
+    }
+
+    /**
+     * @param handshakeType {@link HandshakeType}
+     * @return the processing latency for received messages of the given type, or null if none were received.
+     */
+    public Histogram getHandshakeMessageLatency(short handshakeType)
+    {
+        return handshakeMessageLatency.get(handshakeType & 0xFF);
+    }
+
+    /**
+     * @param namedGroup {@link NamedGroup}
+     * @return the latency of shared secret calculations for the given group, or null if there were none.
+     */
+    public Histogram getKeyExchangeLatency(int namedGroup)
+    {
+        return keyExchangeLatency.get(Integers.valueOf(namedGroup));
+    }
+
+    /**
+     * @param signatureScheme {@link SignatureScheme}
+     * @return the latency of signature generation for the given scheme, or null if there were none.
+     */
+    public Histogram getSignatureGenerationLatency(int signatureScheme)
+    {
+        return signatureGenerationLatency.get(Integers.valueOf(signatureScheme));
+    }
+
+    /**
+     * @param signatureScheme {@link SignatureScheme}
+     * @return the latency of signature verification for the given scheme, or null if there were none.
+     */
+    public Histogram getSignatureVerificationLatency(int signatureScheme)
+    {
+        return signatureVerificationLatency.get(Integers.valueOf(signatureScheme));
+    }
+
+    public long getSignatureVerificationFailures()
+    {
+        return signatureVerificationFailures.get();
+    }
+
+    public long getRecordsReceived(short contentType)
+    {
+        return recordsReceived.get(contentType & 0xFF);
+    }
+
+    public long getBytesReceived(short contentType)
+    {
+        return bytesReceived.get(contentType & 0xFF);
+    }
+
+    public long getRecordsSent(short contentType)
+    {
+        return recordsSent.get(contentType & 0xFF);
+    }
+
+    public long getBytesSent(short contentType)
+    {
+        return bytesSent.get(contentType & 0xFF);
+    }
+
+    public long getAlertsRaised(short alertDescription)
+    {
+        return alertsRaised.get(alertDescription & 0xFF);
+    }
+
+    public long getAlertsReceived(short alertDescription)
+    {
+        return alertsReceived.get(alertDescription & 0xFF);
+    }
+
+    private static Histogram getHistogram(ConcurrentHashMap<Integer, Histogram> histograms, int key)
+    {
+        Integer k = Integers.valueOf(key);
+
+        Histogram histogram = histograms.get(k);
+        if (null == histogram)
+        {
+            Histogram created = new Histogram();
+            histogram = histograms.putIfAbsent(k, created);
+            if (null == histogram)
+            {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * A lock-free histogram of durations in nanoseconds, using logarithmic buckets: each power of two is
+     * split into 4 buckets, so any percentile is reported to within 25% of the true value.
+     */
+    public static final class Histogram
+    {
+        private static final int SUB_BUCKET_BITS = 2;
+        private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (64 - SUB_BUCKET_BITS);
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong count = new AtomicLong(0L);
+        private final AtomicLong total = new AtomicLong(0L);
+        private final AtomicLong max = new AtomicLong(0L);
+
+        Histogram()
+        {
+        }
+
+        public long getCount()
+        {
+            return count.get();
+        }
+
+        public long getMaxNanos()
+        {
+            return max.get();
+        }
+
+        public long getMeanNanos()
+        {
+            long n = count.get();
+            return n < 1L ? 0L : total.get() / n;
+        }
+
+        public long getTotalNanos()
+        {
+            return total.get();
+        }
+
+        /**
+         * Estimate a percentile of the recorded durations. The estimate is the upper bound of the bucket
+         * holding the percentile (but no more than the maximum recorded duration).
+         *
+         * @param percentile the percentile, between 0 and 100 (e.g. 99.0 for p99).
+         * @return the estimated duration in nanoseconds, or 0 if nothing has been recorded.
+         */
+        public long getPercentileNanos(double percentile)
+        {
+            if (!(percentile >= 0.0 && percentile <= 100.0))
+            {
+                throw new IllegalArgumentException("'percentile' must be between 0 and 100");
+            }
+
+            // NOTE: Counts are read without a snapshot, so concurrent updates may make this slightly inexact
+            long[] counts = new long[BUCKET_COUNT];
+            long n = 0L;
+            for (int i = 0; i < BUCKET_COUNT; ++i)
+            {
+                n += (counts[i] = buckets.get(i));
+            }
+            if (n < 1L)
+            {
+                return 0L;
+            }
+
+            long rank = Math.max(1L, (long)Math.ceil(n * percentile / 100.0));
+            long seen = 0L;
+            for (int i = 0; i < BUCKET_COUNT; ++i)
+            {
+                seen += counts[i];
+                if (seen >= rank)
+                {
+                    return Math.min(getBucketUpperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        void record(long durationNanos)
+        {
+            long value = Math.max(0L, durationNanos);
+
+            buckets.incrementAndGet(getBucketIndex(value));
+            count.incrementAndGet();
+            total.addAndGet(value);
+
+            long current;
+            while (value > (current = max.get()) && !max.compareAndSet(current, value))
+            {
+            }
+        }
+
+        static int getBucketIndex(long value)
+        {
+            if (value < SUB_BUCKET_COUNT)
+            {
+                return (int)value;
+            }
+
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            int subBucket = (int)(value >>> shift) & (SUB_BUCKET_COUNT - 1);
+            return SUB_BUCKET_COUNT * (shift + 1) + subBucket;
+        }
+
+        static long getBucketUpperBound(int index)
+        {
+            if (index < SUB_BUCKET_COUNT)
+            {
+                return index;
+            }
+
+            int shift = index / SUB_BUCKET_COUNT - 1;
+            long lowerBound = (long)(SUB_BUCKET_COUNT + (index & (SUB_BUCKET_COUNT - 1))) << shift;
+            return lowerBound + (1L << shift) - 1L;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.bouncycastle.tls;
+
+import org.bouncycastle.tls.crypto.TlsSecret;
+import org.bouncycastle.util.Arrays;
+
+public class BasicTlsPSKResumption
+    implements TlsPSKResumption
+{
+    protected final byte[] identity;
+    protected final TlsSecret key;
+    protected final int prfAlgorithm;
+    protected final long ticketIssueTime;
+    protected final long ticketLifetime;
+    protected final long ticketAgeAdd;
+    protected final SessionParameters sessionParameters;
+    protected final long maxEarlyDataSize;
+
+    /**
+     * @param identity          the ticket.
+     * @param key               the PSK derived from the resumption_master_secret and the ticket_nonce.
+     * @param prfAlgorithm      the {@link PRFAlgorithm} of the session the ticket was issued on.
+     * @param ticketIssueTime   the time the ticket was received (or issued), in milliseconds since the epoch.
+     * @param ticketLifetime    the ticket_lifetime, in seconds.
+     * @param ticketAgeAdd      the ticket_age_add.
+     * @param sessionParameters the parameters of the session the ticket was issued on, or null.
+     */
+    public BasicTlsPSKResumption(byte[] identity, TlsSecret key, int prfAlgorithm, long ticketIssueTime,
+        long ticketLifetime, long ticketAgeAdd, SessionParameters sessionParameters)
+    {
+        this(identity, key, prfAlgorithm, ticketIssueTime, ticketLifetime, ticketAgeAdd, sessionParameters, 0L);
+    }
+
+    /**
+     * @param identity          the ticket.
+     * @param key               the PSK derived from the resumption_master_secret and the ticket_nonce.
+     * @param prfAlgorithm      the {@link PRFAlgorithm} of the session the ticket was issued on.
+     * @param ticketIssueTime   the time the ticket was received (or issued), in milliseconds since the epoch.
+     * @param ticketLifetime    the ticket_lifetime, in seconds.
+     * @param ticketAgeAdd      the ticket_age_add.
+     * @param sessionParameters the parameters of the session the ticket was issued on, or null.
+     * @param maxEarlyDataSize  the max_early_data_size of the ticket, or 0 if early data is not permitted.
+     */
+    public BasicTlsPSKResumption(byte[] identity, TlsSecret key, int prfAlgorithm, long ticketIssueTime,
+        long ticketLifetime, long ticketAgeAdd, SessionParameters sessionParameters, long maxEarlyDataSize)
+    {
+        if (!TlsUtils.isValidUint32(ticketLifetime) || !TlsUtils.isValidUint32(ticketAgeAdd)
+            || !TlsUtils.isValidUint32(maxEarlyDataSize))
+        {
+            throw new IllegalArgumentException();
+        }
+
+        this.identity = Arrays.clone(identity);
+        this.key = key;
+        this.prfAlgorithm = prfAlgorithm;
+        this.ticketIssueTime = ticketIssueTime;
+        this.ticketLifetime = ticketLifetime;
+        this.ticketAgeAdd = ticketAgeAdd;
+        this.sessionParameters = sessionParameters;
+        this.maxEarlyDataSize = maxEarlyDataSize;
+    }
+
+    public byte[] getIdentity()
+    {
+        return identity;
+    }
+
+    public TlsSecret getKey()
+    {
+        return key;
+    }
+
+    public int getPRFAlgorithm()
+    {
+        return prfAlgorithm;
+    }
+
+    public long getMaxEarlyDataSize()
+    {
+        return maxEarlyDataSize;
+    }
+
+    public long getObfuscatedTicketAge()
+    {
+        long ticketAge = Math.max(0L, System.currentTimeMillis() - ticketIssueTime);
+
+        return (ticketAge + ticketAgeAdd) & 0xFFFFFFFFL;
+    }
+
+    public SessionParameters getSessionParameters()
+    {
+        return sessionParameters;
+    }
+
+    public long getTicketAgeAdd()
+    {
+        return ticketAgeAdd;
+    }
+
+    public long getTicketIssueTime()
+    {
+        return ticketIssueTime;
+    }
+
+    public long getTicketLifetime()
+    {
+        return ticketLifetime;
+    }
+
+    /**
+     * @param currentTimeMillis the current time, in milliseconds since the epoch.
+     * @return true if the ticket lifetime has passed.
+     */
+    public boolean isExpired(long currentTimeMillis)
+    {
+        return currentTimeMillis - ticketIssueTime >= ticketLifetime * 1000L;
+    }
+}
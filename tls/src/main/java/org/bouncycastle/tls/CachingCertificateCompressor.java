@@ -0,0 +1,113 @@
+package org.bouncycastle.tls;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bouncycastle.util.Arrays;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * A {@link TlsCertificateCompressor} that remembers the compressed form of the most recently used
+ * Certificate messages. A server typically sends the same few certificate chains on every handshake, so
+ * sharing one instance between connections means each chain is only compressed once.
+ */
+public class CachingCertificateCompressor
+    implements TlsCertificateCompressor
+{
+    protected final TlsCertificateCompressor compressor;
+    protected final int maxEntries;
+
+    // Key -> byte[] (compressed), in access order
+    private final LinkedHashMap cache;
+
+    /**
+     * @param compressor the {@link TlsCertificateCompressor} to delegate to.
+     * @param maxEntries the maximum number of Certificate messages to remember.
+     */
+    public CachingCertificateCompressor(TlsCertificateCompressor compressor, final int maxEntries)
+    {
+        if (null == compressor)
+        {
+            throw new NullPointerException("'compressor' cannot be null");
+        }
+        if (maxEntries < 1)
+        {
+            throw new IllegalArgumentException("'maxEntries' must be positive");
+        }
+
+        this.compressor = compressor;
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap(16, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry eldest)
+            {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public int getAlgorithm()
+    {
+        return compressor.getAlgorithm();
+    }
+
+    public byte[] compress(byte[] certificateMessage) throws IOException
+    {
+        Key key = new Key(certificateMessage);
+
+        byte[] compressed;
+        synchronized (cache)
+        {
+            compressed = (byte[])cache.get(key);
+        }
+
+        if (null == compressed)
+        {
+            compressed = compressor.compress(key.encoding);
+
+            synchronized (cache)
+            {
+                cache.put(key, compressed);
+            }
+        }
+
+        return Arrays.clone(compressed);
+    }
+
+    public byte[] decompress(byte[] compressedCertificateMessage, int uncompressedLength) throws IOException
+    {
+        return compressor.decompress(compressedCertificateMessage, uncompressedLength);
+    }
+
+    public int size()
+    {
+        synchronized (cache)
+        {
+            return cache.size();
+        }
+    }
+
+    private static final class Key
+    {
+        private final byte[] encoding;
+        private final int hashCode;
+
+        Key(byte[] encoding)
+        {
+            this.encoding = Arrays.clone(encoding);
+            this.hashCode = Arrays.hashCode(encoding);
+        }
+
+        public boolean equals(Object obj)
+        {
+            return obj instanceof Key && Arrays.areEqual(encoding, ((Key)obj).encoding);
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -56,6 +56,7 @@ public class CertificateRequest
     protected final Vector supportedSignatureAlgorithms;
     protected final Vector supportedSignatureAlgorithmsCert;
     protected final Vector certificateAuthorities;
+    protected final int[] compressCertificateAlgorithms;
 
     /**
      * @param certificateTypes       see {@link ClientCertificateType} for valid constants.
@@ -64,12 +65,25 @@ public class CertificateRequest
     public CertificateRequest(short[] certificateTypes, Vector supportedSignatureAlgorithms,
         Vector certificateAuthorities)
     {
-        this(null, certificateTypes, supportedSignatureAlgorithms, null, certificateAuthorities);
+        this(null, certificateTypes, supportedSignatureAlgorithms, null, certificateAuthorities, null);
     }
 
     // TODO[tls13] Prefer to manage the certificateRequestContext internally only? 
     public CertificateRequest(byte[] certificateRequestContext, Vector supportedSignatureAlgorithms,
         Vector supportedSignatureAlgorithmsCert, Vector certificateAuthorities) throws IOException
+    {
+        this(certificateRequestContext, supportedSignatureAlgorithms, supportedSignatureAlgorithmsCert,
+            certificateAuthorities, null);
+    }
+
+    /**
+     * @param compressCertificateAlgorithms
+     *            the certificate compression algorithms (RFC 8879) the server can decompress, or null. See
+     *            {@link CertificateCompressionAlgorithm} for valid constants.
+     */
+    public CertificateRequest(byte[] certificateRequestContext, Vector supportedSignatureAlgorithms,
+        Vector supportedSignatureAlgorithmsCert, Vector certificateAuthorities, int[] compressCertificateAlgorithms)
+        throws IOException
     {
         /*
          * TODO[tls13] Removed certificateTypes, added certificate_request_context, added extensions
@@ -79,11 +93,11 @@ public class CertificateRequest
 
         this(certificateRequestContext, null,
             checkSupportedSignatureAlgorithms(supportedSignatureAlgorithms, AlertDescription.internal_error),
-            supportedSignatureAlgorithmsCert, certificateAuthorities);
+            supportedSignatureAlgorithmsCert, certificateAuthorities, compressCertificateAlgorithms);
     }
 
     private CertificateRequest(byte[] certificateRequestContext, short[] certificateTypes, Vector supportedSignatureAlgorithms,
-        Vector supportedSignatureAlgorithmsCert, Vector certificateAuthorities)
+        Vector supportedSignatureAlgorithmsCert, Vector certificateAuthorities, int[] compressCertificateAlgorithms)
     {
         if (null != certificateRequestContext && !TlsUtils.isValidUint8(certificateRequestContext.length))
         {
@@ -100,6 +114,7 @@ public class CertificateRequest
         this.supportedSignatureAlgorithms = supportedSignatureAlgorithms;
         this.supportedSignatureAlgorithmsCert = supportedSignatureAlgorithmsCert;
         this.certificateAuthorities = certificateAuthorities;
+        this.compressCertificateAlgorithms = compressCertificateAlgorithms;
     }
 
     public byte[] getCertificateRequestContext()
@@ -141,6 +156,15 @@ public class CertificateRequest
         return certificateAuthorities;
     }
 
+    /**
+     * @return the certificate compression algorithms (RFC 8879) the server can decompress, or null. May be
+     *         non-null from TLS 1.3 onwards.
+     */
+    public int[] getCompressCertificateAlgorithms()
+    {
+        return compressCertificateAlgorithms;
+    }
+
     public boolean hasCertificateRequestContext(byte[] certificateRequestContext)
     {
         return Arrays.areEqual(this.certificateRequestContext, certificateRequestContext);
@@ -164,7 +188,8 @@ public class CertificateRequest
         if (isTLSv13 != (null != certificateRequestContext) ||
             isTLSv13 != (null == certificateTypes) ||
             isTLSv12 != (null != supportedSignatureAlgorithms) ||
-            (!isTLSv13 && (null != supportedSignatureAlgorithmsCert)))
+            (!isTLSv13 && (null != supportedSignatureAlgorithmsCert)) ||
+            (!isTLSv13 && (null != compressCertificateAlgorithms)))
         {
             throw new IllegalStateException();
         }
@@ -186,6 +211,11 @@ public class CertificateRequest
                 TlsExtensionsUtils.addCertificateAuthoritiesExtension(extensions, certificateAuthorities);
             }
 
+            if (null != compressCertificateAlgorithms)
+            {
+                TlsExtensionsUtils.addCompressCertificateExtension(extensions, compressCertificateAlgorithms);
+            }
+
             byte[] extEncoding = TlsProtocol.writeExtensionsData(extensions);
 
             TlsUtils.writeOpaque16(extEncoding, output);
@@ -262,9 +292,10 @@ public class CertificateRequest
             Vector supportedSignatureAlgorithmsCert = TlsExtensionsUtils
                 .getSignatureAlgorithmsCertExtension(extensions);
             Vector certificateAuthorities = TlsExtensionsUtils.getCertificateAuthoritiesExtension(extensions);
+            int[] compressCertificateAlgorithms = TlsExtensionsUtils.getCompressCertificateExtension(extensions);
 
             return new CertificateRequest(certificateRequestContext, supportedSignatureAlgorithms,
-                supportedSignatureAlgorithmsCert, certificateAuthorities);
+                supportedSignatureAlgorithmsCert, certificateAuthorities, compressCertificateAlgorithms);
         }
 
         final boolean isTLSv12 = TlsUtils.isTLSv12(negotiatedVersion);
@@ -508,6 +508,7 @@ class DTLSRecordLayer
         throws IOException
     {
         peer.notifyAlertRaised(alertLevel, alertDescription, message, cause);
+        notifyMetricsAlert(alertLevel, alertDescription, true);
 
         byte[] error = new byte[2];
         error[0] = (byte)alertLevel;
@@ -516,6 +517,15 @@ class DTLSRecordLayer
         sendRecord(ContentType.alert, error, 0, 2);
     }
 
+    private void notifyMetricsAlert(short alertLevel, short alertDescription, boolean local)
+    {
+        TlsMetricsListener metricsListener = TlsUtils.getMetricsListener(context);
+        if (null != metricsListener)
+        {
+            metricsListener.alert(alertLevel, alertDescription, local);
+        }
+    }
+
     private int receiveDatagram(byte[] buf, int off, int len, int waitMillis)
         throws IOException
     {
@@ -744,6 +754,7 @@ class DTLSRecordLayer
                 short alertDescription = TlsUtils.readUint8(decoded.buf, decoded.off + 1);
 
                 peer.notifyAlertReceived(alertLevel, alertDescription);
+                notifyMetricsAlert(alertLevel, alertDescription, false);
 
                 if (alertLevel == AlertLevel.fatal)
                 {
@@ -0,0 +1,889 @@
+package org.bouncycastle.tls;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.bouncycastle.tls.crypto.TlsCrypto;
+import org.bouncycastle.util.Strings;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * A DTLS server for many clients sharing a single {@link DatagramChannel}. A dedicated I/O thread reads
+ * datagrams from the channel in batches and demultiplexes them to associations (one per client) by the RFC
+ * 9146 connection ID where the record has one, otherwise by source address. New clients are answered with a
+ * stateless {@link DTLSVerifier cookie exchange} before any per-client state is created.
+ * </p>
+ * <p>
+ * Handshakes and the processing of received records run on the supplied {@link Executor}, so a small pool can
+ * serve many associations. Since {@link DTLSServerProtocol} is blocking, a handshake occupies a worker until it
+ * completes, so servers should set a modest {@link TlsPeer#getHandshakeTimeoutMillis() handshake timeout}. Once
+ * established, an association only uses a worker while it has received datagrams to process.
+ * </p>
+ * <p>
+ * To have connection IDs negotiated, set a {@link #setConnectionIDLength(int) connection ID length} and have
+ * each server returned by the {@link ServerFactory} offer the connection ID it is given (by overriding
+ * {@link AbstractTlsServer#getNewConnectionID()}). Clients that use a connection ID can then change address
+ * (e.g. after a NAT rebinding) without a new handshake.
+ * </p>
+ */
+public class DTLSServerMultiplexer
+{
+    /**
+     * Creates the {@link TlsServer} for each new association.
+     */
+    public interface ServerFactory
+    {
+        /**
+         * @param peerAddress  the address of the client.
+         * @param connectionID the connection ID allocated to the association, which the server should offer from
+         *                     {@link AbstractTlsServer#getNewConnectionID()}, or null if connection IDs are
+         *                     disabled.
+         */
+        TlsServer createServer(SocketAddress peerAddress, byte[] connectionID) throws IOException;
+    }
+
+    /**
+     * Receives association events. Received data for a given association is delivered by one worker at a time,
+     * but different associations are served concurrently, and {@link #associationClosed} may be called from any
+     * thread (including the one calling {@link Association#close()}).
+     */
+    public interface Handler
+    {
+        void associationEstablished(Association association);
+
+        void applicationDataReceived(Association association, byte[] buf, int off, int len) throws IOException;
+
+        /**
+         * @param cause the exception that terminated the association, or null if it was closed normally.
+         */
+        void associationClosed(Association association, Exception cause);
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 64;
+    private static final int DEFAULT_MAX_ASSOCIATIONS = 10000;
+    private static final int DEFAULT_MAX_QUEUED_DATAGRAMS = 32;
+
+    // NOTE: In a DTLS 1.2 record with a connection ID, it follows the type, version, epoch and sequence number
+    private static final int CONNECTION_ID_OFFSET = 11;
+
+    private static final int MIN_IP_OVERHEAD = 20;
+    private static final int MAX_IP_OVERHEAD = MIN_IP_OVERHEAD + 64;
+    private static final int UDP_OVERHEAD = 8;
+
+    private static final int STATE_HANDSHAKING = 0;
+    private static final int STATE_ESTABLISHED = 1;
+    private static final int STATE_CLOSED = 2;
+
+    private final DatagramChannel channel;
+    private final int receiveLimit, sendLimit;
+    private final TlsCrypto crypto;
+    private final ServerFactory serverFactory;
+    private final Handler handler;
+    private final Executor executor;
+
+    private final ConcurrentHashMap<SocketAddress, Association> associationsByAddress =
+        new ConcurrentHashMap<SocketAddress, Association>();
+    private final ConcurrentHashMap<ByteBuffer, Association> associationsByConnectionID =
+        new ConcurrentHashMap<ByteBuffer, Association>();
+
+    private int connectionIDLength = 0;
+    private boolean verifyRequests = true;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int maxAssociations = DEFAULT_MAX_ASSOCIATIONS;
+    private int maxQueuedDatagrams = DEFAULT_MAX_QUEUED_DATAGRAMS;
+
+    private DTLSVerifier verifier = null;
+    private Selector selector = null;
+    private volatile boolean closed = false;
+
+    /**
+     * @param channel       a bound {@link DatagramChannel}, which will be switched to non-blocking mode.
+     * @param mtu           the path MTU, used to size datagrams as per {@link UDPTransport}.
+     * @param crypto        the {@link TlsCrypto} used for the cookie exchange and connection IDs.
+     * @param serverFactory creates the {@link TlsServer} for each new association.
+     * @param handler       receives association events.
+     * @param executor      runs handshakes and the processing of received records.
+     */
+    public DTLSServerMultiplexer(DatagramChannel channel, int mtu, TlsCrypto crypto, ServerFactory serverFactory,
+        Handler handler, Executor executor)
+    {
+        if (null == channel)
+        {
+            throw new NullPointerException("'channel' cannot be null");
+        }
+        if (null == crypto)
+        {
+            throw new NullPointerException("'crypto' cannot be null");
+        }
+        if (null == serverFactory)
+        {
+            throw new NullPointerException("'serverFactory' cannot be null");
+        }
+        if (null == handler)
+        {
+            throw new NullPointerException("'handler' cannot be null");
+        }
+        if (null == executor)
+        {
+            throw new NullPointerException("'executor' cannot be null");
+        }
+
+        this.channel = channel;
+        this.receiveLimit = mtu - MIN_IP_OVERHEAD - UDP_OVERHEAD;
+        this.sendLimit = mtu - MAX_IP_OVERHEAD - UDP_OVERHEAD;
+        this.crypto = crypto;
+        this.serverFactory = serverFactory;
+        this.handler = handler;
+        this.executor = executor;
+
+        if (sendLimit < 1)
+        {
+            throw new IllegalArgumentException("'mtu' is too small: " + mtu);
+        }
+    }
+
+    /**
+     * @param connectionIDLength the length of the connection IDs allocated to new associations, or 0 (the
+     *                           default) to not use connection IDs.
+     */
+    public synchronized void setConnectionIDLength(int connectionIDLength)
+    {
+        if (!TlsUtils.isValidUint8(connectionIDLength))
+        {
+            throw new IllegalArgumentException("'connectionIDLength' must be from 0 to 255");
+        }
+
+        checkNotStarted();
+        this.connectionIDLength = connectionIDLength;
+    }
+
+    /**
+     * @param verifyRequests whether new clients must complete a cookie exchange before any state is created for
+     *                       them (the default is true).
+     */
+    public synchronized void setVerifyRequests(boolean verifyRequests)
+    {
+        checkNotStarted();
+        this.verifyRequests = verifyRequests;
+    }
+
+    /**
+     * @param batchSize the maximum number of datagrams read from the channel per wakeup (default 64).
+     */
+    public synchronized void setBatchSize(int batchSize)
+    {
+        if (batchSize < 1)
+        {
+            throw new IllegalArgumentException("'batchSize' must be > 0");
+        }
+
+        checkNotStarted();
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param maxAssociations the maximum number of concurrent associations; datagrams from further new
+     *                        clients are dropped (default 10000).
+     */
+    public synchronized void setMaxAssociations(int maxAssociations)
+    {
+        if (maxAssociations < 1)
+        {
+            throw new IllegalArgumentException("'maxAssociations' must be > 0");
+        }
+
+        checkNotStarted();
+        this.maxAssociations = maxAssociations;
+    }
+
+    /**
+     * @param maxQueuedDatagrams the maximum number of received datagrams held for an association that is
+     *                           falling behind; further datagrams are dropped (default 32).
+     */
+    public synchronized void setMaxQueuedDatagrams(int maxQueuedDatagrams)
+    {
+        if (maxQueuedDatagrams < 1)
+        {
+            throw new IllegalArgumentException("'maxQueuedDatagrams' must be > 0");
+        }
+
+        checkNotStarted();
+        this.maxQueuedDatagrams = maxQueuedDatagrams;
+    }
+
+    public int getAssociationCount()
+    {
+        return associationsByAddress.size();
+    }
+
+    /**
+     * Start the I/O thread.
+     */
+    public synchronized void start() throws IOException
+    {
+        checkNotStarted();
+        if (closed)
+        {
+            throw new IllegalStateException("multiplexer is closed");
+        }
+
+        this.verifier = verifyRequests ? new DTLSVerifier(crypto) : null;
+
+        channel.configureBlocking(false);
+        this.selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+
+        Thread thread = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                runIO();
+            }
+        }, "BC DTLS server multiplexer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop the I/O thread and close all associations. The channel itself is left open.
+     */
+    public void close()
+    {
+        Selector selector;
+        synchronized (this)
+        {
+            if (closed)
+            {
+                return;
+            }
+            this.closed = true;
+            selector = this.selector;
+        }
+
+        if (null != selector)
+        {
+            selector.wakeup();
+        }
+
+        List<Association> associations = new ArrayList<Association>(associationsByAddress.values());
+        for (int i = 0; i < associations.size(); ++i)
+        {
+            associations.get(i).close();
+        }
+    }
+
+    private void checkNotStarted()
+    {
+        if (null != selector)
+        {
+            throw new IllegalStateException("multiplexer already started");
+        }
+    }
+
+    private void runIO()
+    {
+        Exception cause = null;
+        try
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(receiveLimit);
+            List<Association> ready = new ArrayList<Association>();
+
+            while (!closed)
+            {
+                selector.select();
+                selector.selectedKeys().clear();
+
+                for (int count = 0; count < batchSize && !closed; ++count)
+                {
+                    buffer.clear();
+                    SocketAddress source = channel.receive(buffer);
+                    if (null == source)
+                    {
+                        break;
+                    }
+
+                    byte[] datagram = new byte[buffer.position()];
+                    buffer.flip();
+                    buffer.get(datagram);
+
+                    try
+                    {
+                        dispatch(source, datagram, ready);
+                    }
+                    catch (Exception e)
+                    {
+                        // NOTE: A failure handling one datagram (e.g. sending the cookie exchange) only drops it
+                    }
+                }
+
+                // NOTE: Records are processed once per batch, so that a busy association only occupies one worker
+                for (int i = 0; i < ready.size(); ++i)
+                {
+                    scheduleDrain(ready.get(i));
+                }
+                ready.clear();
+            }
+        }
+        catch (Exception e)
+        {
+            // Only a failure of the channel (or selector) itself gets here
+            cause = e;
+        }
+        finally
+        {
+            try
+            {
+                selector.close();
+            }
+            catch (IOException e)
+            {
+                // Ignore
+            }
+
+            if (null != cause)
+            {
+                close();
+            }
+        }
+    }
+
+    private void dispatch(SocketAddress source, byte[] datagram, List<Association> ready) throws IOException
+    {
+        Association association;
+        if (connectionIDLength > 0 && isConnectionIDRecord(datagram))
+        {
+            association = associationsByConnectionID.get(
+                ByteBuffer.wrap(datagram, CONNECTION_ID_OFFSET, connectionIDLength));
+            if (null == association)
+            {
+                // Unknown connection ID; nothing could decrypt it
+                return;
+            }
+        }
+        else
+        {
+            association = associationsByAddress.get(source);
+            if (null == association)
+            {
+                accept(source, datagram);
+                return;
+            }
+        }
+
+        if (association.enqueue(source, datagram))
+        {
+            ready.add(association);
+        }
+    }
+
+    private void accept(SocketAddress source, byte[] datagram) throws IOException
+    {
+        if (associationsByAddress.size() >= maxAssociations)
+        {
+            return;
+        }
+
+        DTLSRequest request = null;
+        if (null != verifier)
+        {
+            byte[] clientID = Strings.toUTF8ByteArray(source.toString());
+            request = verifier.verifyRequest(clientID, datagram, 0, datagram.length, new AddressSender(source));
+            if (null == request)
+            {
+                return;
+            }
+        }
+        else if (!isInitialClientHelloRecord(datagram))
+        {
+            return;
+        }
+
+        byte[] connectionID = allocateConnectionID();
+        Association association = new Association(source, connectionID);
+
+        associationsByAddress.put(source, association);
+        if (null != connectionID)
+        {
+            associationsByConnectionID.put(ByteBuffer.wrap(connectionID), association);
+        }
+
+        if (null == request)
+        {
+            // The handshake will read the ClientHello from the association's queue
+            association.enqueue(source, datagram);
+        }
+
+        try
+        {
+            executor.execute(new HandshakeTask(association, request));
+        }
+        catch (RuntimeException e)
+        {
+            association.closeInternal(e);
+        }
+    }
+
+    private byte[] allocateConnectionID()
+    {
+        if (connectionIDLength < 1)
+        {
+            return null;
+        }
+
+        for (;;)
+        {
+            byte[] connectionID = new byte[connectionIDLength];
+            crypto.getSecureRandom().nextBytes(connectionID);
+
+            if (!associationsByConnectionID.containsKey(ByteBuffer.wrap(connectionID)))
+            {
+                return connectionID;
+            }
+        }
+    }
+
+    private boolean isConnectionIDRecord(byte[] datagram)
+    {
+        return datagram.length >= DTLSRecordLayer.RECORD_HEADER_LENGTH + connectionIDLength
+            && ContentType.tls12_cid == TlsUtils.readUint8(datagram, 0);
+    }
+
+    private static boolean isInitialClientHelloRecord(byte[] datagram)
+    {
+        return datagram.length > DTLSRecordLayer.RECORD_HEADER_LENGTH
+            && ContentType.handshake == TlsUtils.readUint8(datagram, 0)
+            && 0 == TlsUtils.readUint16(datagram, 3)
+            && HandshakeType.client_hello == TlsUtils.readUint8(datagram, DTLSRecordLayer.RECORD_HEADER_LENGTH);
+    }
+
+    private void scheduleDrain(final Association association)
+    {
+        try
+        {
+            executor.execute(new Runnable()
+            {
+                public void run()
+                {
+                    association.drain();
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            association.closeInternal(e);
+        }
+    }
+
+    private void sendTo(SocketAddress address, byte[] buf, int off, int len) throws IOException
+    {
+        if (len > sendLimit)
+        {
+            /*
+             * RFC 4347 4.1.1. "If the application attempts to send a record larger than the MTU,
+             * the DTLS implementation SHOULD generate an error, thus avoiding sending a packet
+             * which will be fragmented."
+             */
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        // NOTE: A full socket send buffer drops the datagram, which DTLS tolerates as packet loss
+        channel.send(ByteBuffer.wrap(buf, off, len), address);
+    }
+
+    private final class AddressSender
+        implements DatagramSender
+    {
+        private final SocketAddress address;
+
+        AddressSender(SocketAddress address)
+        {
+            this.address = address;
+        }
+
+        public int getSendLimit()
+        {
+            return sendLimit;
+        }
+
+        public void send(byte[] buf, int off, int len) throws IOException
+        {
+            sendTo(address, buf, off, len);
+        }
+    }
+
+    private final class HandshakeTask
+        implements Runnable
+    {
+        private final Association association;
+        private final DTLSRequest request;
+
+        HandshakeTask(Association association, DTLSRequest request)
+        {
+            this.association = association;
+            this.request = request;
+        }
+
+        public void run()
+        {
+            try
+            {
+                TlsServer server = serverFactory.createServer(association.getPeerAddress(),
+                    association.getConnectionID());
+
+                DTLSServerProtocol serverProtocol = new DTLSServerProtocol();
+                serverProtocol.setVerifyRequests(false);
+
+                DTLSTransport dtlsTransport = serverProtocol.accept(server, association.transport, request);
+
+                association.established(dtlsTransport);
+            }
+            catch (Exception e)
+            {
+                association.closeInternal(e);
+            }
+        }
+    }
+
+    /**
+     * A DTLS association with a single client.
+     */
+    public final class Association
+    {
+        private final byte[] connectionID;
+        private final AssociationTransport transport = new AssociationTransport();
+        private final DTLSRecordCallback recordCallback = new DTLSRecordCallback()
+        {
+            public void recordAccepted(int flags)
+            {
+                int migrationFlags = DTLSRecordFlags.IS_NEWEST | DTLSRecordFlags.USES_CONNECTION_ID;
+                if (migrationFlags == (flags & migrationFlags))
+                {
+                    updatePeerAddress(transport.currentSource);
+                }
+            }
+        };
+
+        private final LinkedList<Object[]> queue = new LinkedList<Object[]>();
+        private volatile SocketAddress peerAddress;
+        private int state = STATE_HANDSHAKING;
+        private boolean transportClosed = false;
+        private boolean drainScheduled = false;
+        private DTLSTransport dtlsTransport = null;
+        private byte[] receiveBuffer = null;
+
+        Association(SocketAddress peerAddress, byte[] connectionID)
+        {
+            this.peerAddress = peerAddress;
+            this.connectionID = connectionID;
+        }
+
+        /**
+         * @return the current address of the client; this may change if a connection ID is in use.
+         */
+        public SocketAddress getPeerAddress()
+        {
+            return peerAddress;
+        }
+
+        /**
+         * @return the connection ID allocated to this association, or null if connection IDs are disabled.
+         *         NOTE: The client may not have agreed to use it.
+         */
+        public byte[] getConnectionID()
+        {
+            return TlsUtils.clone(connectionID);
+        }
+
+        public synchronized boolean isEstablished()
+        {
+            return STATE_ESTABLISHED == state;
+        }
+
+        public int getSendLimit() throws IOException
+        {
+            return getDTLSTransport().getSendLimit();
+        }
+
+        public void send(byte[] buf, int off, int len) throws IOException
+        {
+            DTLSTransport t = getDTLSTransport();
+            try
+            {
+                t.send(buf, off, len);
+            }
+            catch (IOException e)
+            {
+                if (isTransportClosed())
+                {
+                    closeInternal(e);
+                }
+                throw e;
+            }
+        }
+
+        public void close()
+        {
+            DTLSTransport t;
+            synchronized (this)
+            {
+                if (STATE_CLOSED == state)
+                {
+                    return;
+                }
+                t = dtlsTransport;
+            }
+
+            if (null != t)
+            {
+                try
+                {
+                    // NOTE: Sends close_notify, then closes our transport
+                    t.close();
+                }
+                catch (IOException e)
+                {
+                    // Ignore
+                }
+            }
+
+            closeInternal(null);
+        }
+
+        private synchronized DTLSTransport getDTLSTransport() throws IOException
+        {
+            if (STATE_ESTABLISHED != state)
+            {
+                throw new TlsNoCloseNotifyException();
+            }
+            return dtlsTransport;
+        }
+
+        private synchronized boolean isTransportClosed()
+        {
+            return transportClosed;
+        }
+
+        void closeInternal(Exception cause)
+        {
+            synchronized (this)
+            {
+                if (STATE_CLOSED == state)
+                {
+                    return;
+                }
+                state = STATE_CLOSED;
+                queue.clear();
+                notifyAll();
+            }
+
+            associationsByAddress.remove(peerAddress, this);
+            if (null != connectionID)
+            {
+                associationsByConnectionID.remove(ByteBuffer.wrap(connectionID), this);
+            }
+
+            handler.associationClosed(this, cause);
+        }
+
+        void drain()
+        {
+            try
+            {
+                for (;;)
+                {
+                    synchronized (this)
+                    {
+                        if (STATE_ESTABLISHED != state || transportClosed || queue.isEmpty())
+                        {
+                            drainScheduled = false;
+                            break;
+                        }
+                    }
+
+                    if (null == receiveBuffer)
+                    {
+                        receiveBuffer = new byte[dtlsTransport.getReceiveLimit()];
+                    }
+
+                    // NOTE: A datagram is already queued, so this won't wait (beyond the minimal timeout)
+                    int length = dtlsTransport.receive(receiveBuffer, 0, receiveBuffer.length, 1, recordCallback);
+                    while (length >= 0)
+                    {
+                        handler.applicationDataReceived(this, receiveBuffer, 0, length);
+
+                        length = dtlsTransport.receivePending(receiveBuffer, 0, receiveBuffer.length,
+                            recordCallback);
+                    }
+                }
+            }
+            catch (Exception e)
+            {
+                synchronized (this)
+                {
+                    drainScheduled = false;
+                }
+                closeInternal(e);
+                return;
+            }
+
+            // e.g. close_notify was received
+            if (isTransportClosed())
+            {
+                closeInternal(null);
+            }
+        }
+
+        boolean enqueue(SocketAddress source, byte[] datagram)
+        {
+            synchronized (this)
+            {
+                if (STATE_CLOSED == state || queue.size() >= maxQueuedDatagrams)
+                {
+                    return false;
+                }
+
+                queue.addLast(new Object[]{ source, datagram });
+                notifyAll();
+
+                if (STATE_ESTABLISHED != state || drainScheduled)
+                {
+                    return false;
+                }
+
+                drainScheduled = true;
+                return true;
+            }
+        }
+
+        void established(DTLSTransport dtlsTransport)
+        {
+            boolean drainNow;
+            synchronized (this)
+            {
+                if (STATE_HANDSHAKING != state)
+                {
+                    return;
+                }
+
+                this.dtlsTransport = dtlsTransport;
+                this.state = STATE_ESTABLISHED;
+
+                drainNow = !queue.isEmpty();
+                drainScheduled = drainNow;
+            }
+
+            handler.associationEstablished(this);
+
+            if (drainNow)
+            {
+                scheduleDrain(this);
+            }
+        }
+
+        private void updatePeerAddress(SocketAddress source)
+        {
+            SocketAddress previous = peerAddress;
+            if (null == source || source.equals(previous))
+            {
+                return;
+            }
+
+            /*
+             * RFC 9146 6. Only the newest authenticated record using the connection ID may update the peer
+             * address, which the record layer has already checked.
+             */
+            this.peerAddress = source;
+            associationsByAddress.remove(previous, this);
+            associationsByAddress.put(source, this);
+        }
+
+        private final class AssociationTransport
+            implements DatagramTransport
+        {
+            // NOTE: Only accessed by the thread currently driving the association's record layer
+            SocketAddress currentSource = null;
+
+            public int getReceiveLimit()
+            {
+                return receiveLimit;
+            }
+
+            public int getSendLimit()
+            {
+                return sendLimit;
+            }
+
+            public int receive(byte[] buf, int off, int len, int waitMillis) throws IOException
+            {
+                Object[] entry;
+                synchronized (Association.this)
+                {
+                    long endMillis = System.currentTimeMillis() + waitMillis;
+                    while (queue.isEmpty())
+                    {
+                        if (STATE_CLOSED == state)
+                        {
+                            throw new TlsNoCloseNotifyException();
+                        }
+                        if (transportClosed)
+                        {
+                            return -1;
+                        }
+
+                        long remainingMillis = endMillis - System.currentTimeMillis();
+                        if (waitMillis > 0 && remainingMillis < 1L)
+                        {
+                            return -1;
+                        }
+
+                        try
+                        {
+                            Association.this.wait(waitMillis > 0 ? remainingMillis : 0L);
+                        }
+                        catch (InterruptedException e)
+                        {
+                            Thread.currentThread().interrupt();
+                            throw new TlsFatalAlert(AlertDescription.internal_error, e);
+                        }
+                    }
+                    entry = queue.removeFirst();
+                }
+
+                this.currentSource = (SocketAddress)entry[0];
+
+                byte[] datagram = (byte[])entry[1];
+                int length = Math.min(len, datagram.length);
+                System.arraycopy(datagram, 0, buf, off, length);
+                return length;
+            }
+
+            public void send(byte[] buf, int off, int len) throws IOException
+            {
+                sendTo(peerAddress, buf, off, len);
+            }
+
+            public void close()
+            {
+                /*
+                 * NOTE: The record layer closes the transport before any exception reaches us, so the
+                 * association itself is closed by whoever is driving the record layer (to report the cause).
+                 */
+                synchronized (Association.this)
+                {
+                    transportClosed = true;
+                    Association.this.notifyAll();
+                }
+            }
+        }
+    }
+}
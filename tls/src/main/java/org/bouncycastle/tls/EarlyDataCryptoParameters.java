@@ -0,0 +1,30 @@
+package org.bouncycastle.tls;
+
+import org.bouncycastle.tls.crypto.TlsCryptoParameters;
+
+/**
+ * Crypto parameters for the TLS 1.3 early data cipher, which is keyed (client->server only) from the
+ * cipher suite of the session the PSK was established on, independently of the handshake in progress.
+ */
+class EarlyDataCryptoParameters
+    extends TlsCryptoParameters
+{
+    private final SecurityParameters securityParameters;
+
+    EarlyDataCryptoParameters(TlsContext context, SecurityParameters securityParameters)
+    {
+        super(context);
+
+        this.securityParameters = securityParameters;
+    }
+
+    public SecurityParameters getSecurityParametersConnection()
+    {
+        return securityParameters;
+    }
+
+    public SecurityParameters getSecurityParametersHandshake()
+    {
+        return securityParameters;
+    }
+}
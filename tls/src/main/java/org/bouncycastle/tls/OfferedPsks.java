@@ -11,6 +11,7 @@ import org.bouncycastle.tls.crypto.TlsCryptoUtils;
 import org.bouncycastle.tls.crypto.TlsHash;
 import org.bouncycastle.tls.crypto.TlsHashOutputStream;
 import org.bouncycastle.tls.crypto.TlsSecret;
+import org.bouncycastle.util.Arrays;
 
 public class OfferedPsks
 {
@@ -102,6 +103,22 @@ public class OfferedPsks
         return -1;
     }
 
+    /**
+     * Find an identity ignoring its obfuscated_ticket_age, as for resumption PSKs.
+     */
+    public int getIndexOfIdentity(byte[] identity)
+    {
+        for (int i = 0, count = identities.size(); i < count; ++i)
+        {
+            PskIdentity pskIdentity = (PskIdentity)identities.elementAt(i);
+            if (Arrays.constantTimeAreEqual(identity, pskIdentity.getIdentity()))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public void encode(OutputStream output) throws IOException
     {
         // identities
@@ -160,8 +177,7 @@ public class OfferedPsks
             TlsPSK psk = psks[i];
             TlsSecret earlySecret = earlySecrets[i];
 
-            // TODO[tls13-psk] Handle resumption PSKs
-            boolean isExternalPSK = true;
+            boolean isExternalPSK = !(psk instanceof TlsPSKResumption);
             int pskCryptoHashAlgorithm = TlsCryptoUtils.getHashForPRF(psk.getPRFAlgorithm());
 
             // TODO[tls13-psk] Cache the transcript hashes per algorithm to avoid duplicates for multiple PSKs
@@ -8,6 +8,7 @@ import java.io.OutputStream;
 
 import org.bouncycastle.tls.crypto.TlsCipher;
 import org.bouncycastle.tls.crypto.TlsDecodeResult;
+import org.bouncycastle.tls.crypto.TlsEncodeIntoCipher;
 import org.bouncycastle.tls.crypto.TlsEncodeResult;
 import org.bouncycastle.tls.crypto.TlsNullNullCipher;
 
@@ -34,6 +35,17 @@ class RecordStream
     private int plaintextLimit = DEFAULT_PLAINTEXT_LIMIT;
     private int ciphertextLimit = DEFAULT_PLAINTEXT_LIMIT;
     private boolean ignoreChangeCipherSpec = false;
+    private boolean earlyDataRead = false;
+    private long earlyDataSkipLimit = -1L;
+
+    private byte[] outputTarget = null;
+    private int outputTargetStart = 0, outputTargetPos = 0, outputTargetEnd = 0;
+
+    // Reused for each record written to the output stream, when the write cipher can encode into it
+    private byte[] writeBuffer = null;
+    private volatile long writeAllocations = 0L;
+
+    private TlsMetricsListener metricsListener = null;
 
     RecordStream(TlsProtocol handler, InputStream input, OutputStream output)
     {
@@ -58,6 +70,11 @@ class RecordStream
         this.writeVersion = writeVersion;
     }
 
+    void setMetricsListener(TlsMetricsListener metricsListener)
+    {
+        this.metricsListener = metricsListener;
+    }
+
     void setIgnoreChangeCipherSpec(boolean ignoreChangeCipherSpec)
     {
         this.ignoreChangeCipherSpec = ignoreChangeCipherSpec;
@@ -102,6 +119,41 @@ class RecordStream
         }
     }
 
+    /**
+     * Install the pending (early data) cipher for reading, keeping any deferred read cipher in reserve until
+     * {@link #notifyEndOfEarlyData()}.
+     */
+    void enablePendingCipherReadEarlyData()
+        throws IOException
+    {
+        enablePendingCipherRead(false);
+        this.earlyDataRead = true;
+    }
+
+    void notifyEndOfEarlyData()
+        throws IOException
+    {
+        if (!earlyDataRead || readCipherDeferred == null)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+        this.earlyDataRead = false;
+        enableReadCipherDeferred();
+    }
+
+    /**
+     * Skip over early data the server has rejected (RFC 8446 4.2.10). Until a record decrypts successfully,
+     * application_data records that fail to decrypt (or, after a HelloRetryRequest, that arrive before any
+     * cipher is in place) are discarded, up to the given total length.
+     *
+     * @param limit the maximum total length of records to skip, or -1 to stop skipping.
+     */
+    void setEarlyDataSkipLimit(long limit)
+    {
+        this.earlyDataSkipLimit = limit;
+        updateCiphertextLimit();
+    }
+
     void enablePendingCipherWrite()
         throws IOException
     {
@@ -177,6 +229,48 @@ class RecordStream
         return RecordFormat.FRAGMENT_OFFSET + writeCipher.getCiphertextEncodeLimit(contentLength);        
     }
 
+    /**
+     * @return the number of record buffers allocated so far while reading records.
+     */
+    long getReadAllocations()
+    {
+        return inputRecord.allocations;
+    }
+
+    /**
+     * @return the number of record buffers allocated so far while writing records.
+     */
+    long getWriteAllocations()
+    {
+        return writeAllocations;
+    }
+
+    /**
+     * Direct subsequent application_data records into the given array instead of the output stream, for as
+     * long as each one fits. The first record that can't be written there (and every record after it) goes to
+     * the output stream as usual, so that the records remain in order.
+     */
+    void setOutputTarget(byte[] buf, int off, int len)
+    {
+        this.outputTarget = buf;
+        this.outputTargetStart = off;
+        this.outputTargetPos = off;
+        this.outputTargetEnd = off + len;
+    }
+
+    /**
+     * @return the number of bytes written to the output target since it was set.
+     */
+    int clearOutputTarget()
+    {
+        int count = outputTargetPos - outputTargetStart;
+        this.outputTarget = null;
+        this.outputTargetStart = 0;
+        this.outputTargetPos = 0;
+        this.outputTargetEnd = 0;
+        return count;
+    }
+
     boolean readFullRecord(byte[] input, int inputOff, int inputLen)
         throws IOException
     {
@@ -206,7 +300,10 @@ class RecordStream
         TlsDecodeResult decoded = decodeAndVerify(recordType, recordVersion, input,
             inputOff + RecordFormat.FRAGMENT_OFFSET, length);
 
-        handler.processRecord(decoded.contentType, decoded.buf, decoded.off, decoded.len);
+        if (null != decoded)
+        {
+            handler.processRecord(decoded.contentType, decoded.buf, decoded.off, decoded.len);
+        }
         return true;
     }
 
@@ -244,15 +341,30 @@ class RecordStream
             inputRecord.reset();
         }
 
-        handler.processRecord(decoded.contentType, decoded.buf, decoded.off, decoded.len);
+        if (null != decoded)
+        {
+            handler.processRecord(decoded.contentType, decoded.buf, decoded.off, decoded.len);
+        }
         return true;
     }
 
     TlsDecodeResult decodeAndVerify(short recordType, ProtocolVersion recordVersion, byte[] ciphertext, int off, int len)
         throws IOException
     {
-        long seqNo = readSeqNo.nextValue(AlertDescription.unexpected_message);
-        TlsDecodeResult decoded = readCipher.decodeCiphertext(seqNo, recordType, recordVersion, ciphertext, off, len);
+        TlsDecodeResult decoded;
+        if (earlyDataSkipLimit >= 0L && ContentType.application_data == recordType)
+        {
+            decoded = decodeOrSkipEarlyData(recordType, recordVersion, ciphertext, off, len);
+            if (null == decoded)
+            {
+                return null;
+            }
+        }
+        else
+        {
+            long seqNo = readSeqNo.nextValue(AlertDescription.unexpected_message);
+            decoded = readCipher.decodeCiphertext(seqNo, recordType, recordVersion, ciphertext, off, len);
+        }
 
         checkLength(decoded.len, plaintextLimit, AlertDescription.record_overflow);
 
@@ -265,6 +377,11 @@ class RecordStream
             throw new TlsFatalAlert(AlertDescription.illegal_parameter);
         }
 
+        if (null != metricsListener)
+        {
+            metricsListener.recordReceived(decoded.contentType, decoded.len);
+        }
+
         return decoded;
     }
 
@@ -291,11 +408,46 @@ class RecordStream
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
+        if (null != metricsListener)
+        {
+            metricsListener.recordSent(contentType, plaintextLength);
+        }
+
+        if (null != outputTarget)
+        {
+            if (contentType == ContentType.application_data
+                && previewOutputRecordSize(plaintextLength) <= outputTargetEnd - outputTargetPos)
+            {
+                writeRecordToTarget(contentType, plaintext, plaintextOffset, plaintextLength);
+                return;
+            }
+
+            // Once a record has gone to the output stream, later ones must follow it there
+            this.outputTarget = null;
+        }
+
+        if (writeCipher instanceof TlsEncodeIntoCipher)
+        {
+            int recordSize = previewOutputRecordSize(plaintextLength);
+            if (null == writeBuffer || writeBuffer.length < recordSize)
+            {
+                this.writeBuffer = new byte[Math.max(recordSize, previewOutputRecordSize(plaintextLimit))];
+                ++writeAllocations;
+            }
+
+            int recordLength = encodeRecord(contentType, plaintext, plaintextOffset, plaintextLength, writeBuffer,
+                0);
+
+            writeOutput(writeBuffer, 0, recordLength);
+            return;
+        }
+
         long seqNo = writeSeqNo.nextValue(AlertDescription.internal_error);
         ProtocolVersion recordVersion = writeVersion;
 
         TlsEncodeResult encoded = writeCipher.encodePlaintext(seqNo, contentType, recordVersion,
             RecordFormat.FRAGMENT_OFFSET, plaintext, plaintextOffset, plaintextLength);
+        ++writeAllocations;
 
         int ciphertextLength = encoded.len - RecordFormat.FRAGMENT_OFFSET;
         TlsUtils.checkUint16(ciphertextLength);
@@ -304,9 +456,61 @@ class RecordStream
         TlsUtils.writeVersion(recordVersion, encoded.buf, encoded.off + RecordFormat.VERSION_OFFSET);
         TlsUtils.writeUint16(ciphertextLength, encoded.buf, encoded.off + RecordFormat.LENGTH_OFFSET);
 
+        writeOutput(encoded.buf, encoded.off, encoded.len);
+    }
+
+    private void writeRecordToTarget(short contentType, byte[] plaintext, int plaintextOffset, int plaintextLength)
+        throws IOException
+    {
+        this.outputTargetPos += encodeRecord(contentType, plaintext, plaintextOffset, plaintextLength, outputTarget,
+            outputTargetPos);
+    }
+
+    /**
+     * Encode a record (header included) into the given array, which must have room for at least
+     * {@link #previewOutputRecordSize(int)} bytes.
+     *
+     * @return the length of the record.
+     */
+    private int encodeRecord(short contentType, byte[] plaintext, int plaintextOffset, int plaintextLength,
+        byte[] buf, int off) throws IOException
+    {
+        long seqNo = writeSeqNo.nextValue(AlertDescription.internal_error);
+        ProtocolVersion recordVersion = writeVersion;
+
+        int ciphertextLength;
+        short recordType;
+        if (writeCipher instanceof TlsEncodeIntoCipher)
+        {
+            ciphertextLength = ((TlsEncodeIntoCipher)writeCipher).encodePlaintext(seqNo, contentType, recordVersion,
+                plaintext, plaintextOffset, plaintextLength, buf, off + RecordFormat.FRAGMENT_OFFSET);
+            recordType = ((TlsEncodeIntoCipher)writeCipher).getRecordType(contentType);
+        }
+        else
+        {
+            TlsEncodeResult encoded = writeCipher.encodePlaintext(seqNo, contentType, recordVersion, 0, plaintext,
+                plaintextOffset, plaintextLength);
+            ++writeAllocations;
+
+            System.arraycopy(encoded.buf, encoded.off, buf, off + RecordFormat.FRAGMENT_OFFSET, encoded.len);
+            ciphertextLength = encoded.len;
+            recordType = encoded.recordType;
+        }
+
+        TlsUtils.checkUint16(ciphertextLength);
+
+        TlsUtils.writeUint8(recordType, buf, off + RecordFormat.TYPE_OFFSET);
+        TlsUtils.writeVersion(recordVersion, buf, off + RecordFormat.VERSION_OFFSET);
+        TlsUtils.writeUint16(ciphertextLength, buf, off + RecordFormat.LENGTH_OFFSET);
+
+        return RecordFormat.FRAGMENT_OFFSET + ciphertextLength;
+    }
+
+    private void writeOutput(byte[] buf, int off, int len) throws IOException
+    {
         try
         {
-            output.write(encoded.buf, encoded.off, encoded.len);
+            output.write(buf, off, len);
         }
         catch (InterruptedIOException e)
         {
@@ -318,7 +522,8 @@ class RecordStream
 
     void close() throws IOException
     {
-        inputRecord.reset();
+        inputRecord.release();
+        this.writeBuffer = null;
 
         IOException io = null;
         try
@@ -368,12 +573,9 @@ class RecordStream
     {
         short recordType = TlsUtils.readUint8(buf, off);
 
-        if (null != readCipherDeferred && recordType == ContentType.application_data)
+        if (null != readCipherDeferred && !earlyDataRead && recordType == ContentType.application_data)
         {
-            this.readCipher = readCipherDeferred;
-            this.readCipherDeferred = null;
-            this.ciphertextLimit = readCipher.getCiphertextDecodeLimit(plaintextLimit);
-            readSeqNo.reset();
+            enableReadCipherDeferred();
         }
         else if (readCipher.usesOpaqueRecordTypeDecode())
         {
@@ -396,7 +598,7 @@ class RecordStream
             {
             case ContentType.application_data:
             {
-                if (!handler.isApplicationDataReady())
+                if (!handler.isApplicationDataReady() && earlyDataSkipLimit < 0L)
                 {
                     throw new TlsFatalAlert(AlertDescription.unexpected_message,
                         "Not ready for " + ContentType.getText(ContentType.application_data));
@@ -417,6 +619,58 @@ class RecordStream
         return recordType;
     }
 
+    private TlsDecodeResult decodeOrSkipEarlyData(short recordType, ProtocolVersion recordVersion,
+        byte[] ciphertext, int off, int len) throws IOException
+    {
+        // NOTE: Before the first record decrypts, the next sequence number is only consumed on success
+        if (TlsNullNullCipher.INSTANCE != readCipher)
+        {
+            try
+            {
+                TlsDecodeResult decoded = readCipher.decodeCiphertext(readSeqNo.currentValue(), recordType,
+                    recordVersion, ciphertext, off, len);
+
+                readSeqNo.nextValue(AlertDescription.unexpected_message);
+                setEarlyDataSkipLimit(-1L);
+                return decoded;
+            }
+            catch (TlsFatalAlert e)
+            {
+                if (AlertDescription.bad_record_mac != e.getAlertDescription())
+                {
+                    throw e;
+                }
+            }
+        }
+
+        if (len > earlyDataSkipLimit)
+        {
+            throw new TlsFatalAlert(AlertDescription.unexpected_message, "Rejected early data exceeds limit");
+        }
+
+        this.earlyDataSkipLimit -= len;
+        return null;
+    }
+
+    private void enableReadCipherDeferred()
+    {
+        this.readCipher = readCipherDeferred;
+        this.readCipherDeferred = null;
+        updateCiphertextLimit();
+        readSeqNo.reset();
+    }
+
+    private void updateCiphertextLimit()
+    {
+        this.ciphertextLimit = readCipher.getCiphertextDecodeLimit(plaintextLimit);
+
+        if (earlyDataSkipLimit >= 0L)
+        {
+            // RFC 8446 5.2. The length [of TLSCiphertext] MUST NOT exceed 2^14 + 256 bytes.
+            this.ciphertextLimit = Math.max(ciphertextLimit, plaintextLimit + 256);
+        }
+    }
+
     private static void checkLength(int length, int limit, short alertDescription)
         throws IOException
     {
@@ -432,6 +686,7 @@ class RecordStream
 
         volatile byte[] buf = header;
         volatile int pos = 0;
+        volatile long allocations = 0L;
 
         void fillTo(InputStream input, int length) throws IOException
         {
@@ -491,6 +746,12 @@ class RecordStream
         }
 
         void reset()
+        {
+            // NOTE: Any larger buffer is kept for the next record
+            pos = 0;
+        }
+
+        void release()
         {
             buf = header;
             pos = 0;
@@ -503,6 +764,7 @@ class RecordStream
                 byte[] tmp = new byte[length];
                 System.arraycopy(buf, 0, tmp, 0, pos);
                 buf = tmp;
+                ++allocations;
             }
         }
     }
@@ -27,6 +27,7 @@ public class SecurityParameters
     TlsSecret exporterMasterSecret = null;
     TlsSecret handshakeSecret = null;
     TlsSecret masterSecret = null;
+    TlsSecret resumptionMasterSecret = null;
     TlsSecret trafficSecretClient = null;
     TlsSecret trafficSecretServer = null;
     byte[] clientRandom = null;
@@ -90,6 +91,7 @@ public class SecurityParameters
         this.exporterMasterSecret = clearSecret(exporterMasterSecret);
         this.handshakeSecret = clearSecret(handshakeSecret);
         this.masterSecret = clearSecret(masterSecret);
+        this.resumptionMasterSecret = clearSecret(resumptionMasterSecret);
     }
 
     /**
@@ -263,6 +265,11 @@ public class SecurityParameters
         return masterSecret;
     }
 
+    public TlsSecret getResumptionMasterSecret()
+    {
+        return resumptionMasterSecret;
+    }
+
     public TlsSecret getTrafficSecretClient()
     {
         return trafficSecretClient;
@@ -0,0 +1,22 @@
+package org.bouncycastle.tls;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * Replay protection for TLS 1.3 0-RTT data (RFC 8446 8). A server only accepts early data once this has
+ * judged the ClientHello to be fresh and not seen before.
+ */
+public interface TlsAntiReplay
+{
+    /**
+     * Decide whether early data offered with the given PSK identity may be accepted, recording the attempt
+     * so that any replay of it is rejected.
+     * 
+     * @param identity        the identity (ticket) of the PSK the early data was offered with.
+     * @param clientTicketAge the ticket age according to the client (obfuscated_ticket_age less the
+     *                        ticket_age_add), in milliseconds.
+     * @param serverTicketAge the ticket age according to the server, in milliseconds.
+     * @return true if the early data may be accepted, otherwise false.
+     */
+    boolean checkAndRecord(byte[] identity, long clientTicketAge, long serverTicketAge);
+}
@@ -0,0 +1,32 @@
+package org.bouncycastle.tls;
+
+import java.io.IOException;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * A compression algorithm for TLS 1.3 Certificate messages (RFC 8879).
+ */
+public interface TlsCertificateCompressor
+{
+    /**
+     * @return the algorithm implemented by this compressor, see {@link CertificateCompressionAlgorithm}.
+     */
+    int getAlgorithm();
+
+    /**
+     * @param certificateMessage the encoded body of a Certificate message.
+     * @return the compressed form of the input.
+     * @throws IOException
+     */
+    byte[] compress(byte[] certificateMessage) throws IOException;
+
+    /**
+     * @param compressedCertificateMessage the compressed body of a Certificate message.
+     * @param uncompressedLength           the length of the body once decompressed.
+     * @return exactly uncompressedLength bytes of decompressed output.
+     * @throws IOException if the input is malformed, or does not decompress to exactly uncompressedLength
+     *                     bytes. Implementations must stop once that many bytes have been produced.
+     */
+    byte[] decompress(byte[] compressedCertificateMessage, int uncompressedLength) throws IOException;
+}
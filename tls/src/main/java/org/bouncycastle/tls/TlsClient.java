@@ -32,6 +32,32 @@ public interface TlsClient
      */
     Vector getExternalPSKs();
 
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * 
+     * Return the {@link TlsPSKResumption resumption PSKs} to offer in the ClientHello, as previously
+     * notified by {@link #notifyResumptionPSK(TlsPSKResumption)}. Note that this will only be called when
+     * TLS 1.3 or higher is amongst the offered protocol versions. PSKs incompatible with the offered
+     * cipher suites are ignored.
+     * 
+     * @return a {@link Vector} of {@link TlsPSKResumption} instances, or null if none should be offered.
+     */
+    Vector getResumptionPSKs();
+
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * <p>
+     * Return the early (0-RTT) data to send along with the ClientHello (RFC 8446 4.2.10). Note that this will
+     * only be called when the first PSK offered is a {@link TlsPSKResumption} whose ticket permits early data.
+     * Early data is not forward secret and may be replayed, so must only carry requests that are safe to
+     * repeat. See {@link TlsPeer#notifyEarlyDataAccepted(boolean)} for whether the server accepted it.
+     * 
+     * @param maxEarlyDataSize the maximum number of bytes of early data the ticket permits.
+     * @return the early data to send, or null to send none.
+     * @throws IOException
+     */
+    byte[] getEarlyData(long maxEarlyDataSize) throws IOException;
+
     boolean isFallback();
 
     // Hashtable is (Integer -> byte[])
@@ -48,6 +74,17 @@ public interface TlsClient
      */
     Vector getEarlyKeyShareGroups();
 
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * <p>
+     * If this client is offering TLS 1.3 or higher, this method may be called to get a pool of pre-generated
+     * key shares, from which the key_share extension is preferentially built. The pool is ignored unless it
+     * uses the same {@link org.bouncycastle.tls.crypto.TlsCrypto} as this client.
+     *
+     * @return a {@link TlsKeySharePool}, or null to always generate key shares during the handshake.
+     */
+    TlsKeySharePool getKeySharePool();
+
     default boolean shouldUseCompatibilityMode()
     {
         return true;
@@ -126,4 +163,18 @@ public interface TlsClient
      */
     void notifyNewSessionTicket(NewSessionTicket newSessionTicket)
         throws IOException;
+
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * <p>
+     * RFC 8446 4.6.1. New Session Ticket Message.
+     * <p>
+     * This method will be called for each TLS 1.3 NewSessionTicket message received, with the PSK
+     * established by it. Tickets with a ticket_lifetime of zero are discarded without being notified.
+     *
+     * @param resumptionPSK the {@link TlsPSKResumption} that may be offered to resume the session.
+     * @throws IOException
+     */
+    void notifyResumptionPSK(TlsPSKResumption resumptionPSK)
+        throws IOException;
 }
@@ -10,6 +10,7 @@ import java.util.Vector;
 
 import org.bouncycastle.tls.crypto.TlsAgreement;
 import org.bouncycastle.tls.crypto.TlsCrypto;
+import org.bouncycastle.tls.crypto.TlsNullNullCipher;
 import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.tls.crypto.TlsStreamSigner;
 import org.bouncycastle.util.Arrays;
@@ -30,6 +31,11 @@ public class TlsClientProtocol
     protected CertificateStatus certificateStatus = null;
     protected CertificateRequest certificateRequest = null;
 
+    // TLS 1.3 early data, and the cipher suite it was sent under (-1 once it can no longer be accepted)
+    boolean offeredEarlyData13 = false;
+    boolean acceptedEarlyData13 = false;
+    int earlyDataCipherSuite13 = -1;
+
     /**
      * Constructor for non-blocking mode.<br>
      * <br>
@@ -120,6 +126,10 @@ public class TlsClientProtocol
 
         this.certificateStatus = null;
         this.certificateRequest = null;
+
+        this.offeredEarlyData13 = false;
+        this.acceptedEarlyData13 = false;
+        this.earlyDataCipherSuite13 = -1;
     }
 
     protected TlsContext getContext()
@@ -167,6 +177,26 @@ public class TlsClientProtocol
             }
             break;
         }
+        case HandshakeType.compressed_certificate:
+        {
+            switch (this.connection_state)
+            {
+            case CS_SERVER_ENCRYPTED_EXTENSIONS:
+            {
+                skip13CertificateRequest();
+                // NB: Fall through to next case label
+            }
+            case CS_SERVER_CERTIFICATE_REQUEST:
+            {
+                receive13ServerCompressedCertificate(buf);
+                this.connection_state = CS_SERVER_CERTIFICATE;
+                break;
+            }
+            default:
+                throw new TlsFatalAlert(AlertDescription.unexpected_message);
+            }
+            break;
+        }
         case HandshakeType.certificate_request:
         {
             switch (this.connection_state)
@@ -244,10 +274,16 @@ public class TlsClientProtocol
                 recordStream.setIgnoreChangeCipherSpec(false);
 
                 /*
-                 * TODO[tls13] After receiving the server's Finished message, if the server has accepted early
-                 * data, an EndOfEarlyData message will be sent to indicate the key change. This message will
-                 * be encrypted with the 0-RTT traffic keys.
+                 * RFC 8446 4.5. If the server sent an "early_data" extension in EncryptedExtensions, the
+                 * client MUST send an EndOfEarlyData message after receiving the server Finished.
                  */
+                if (acceptedEarlyData13)
+                {
+                    send13EndOfEarlyDataMessage();
+                    this.connection_state = CS_CLIENT_END_OF_EARLY_DATA;
+
+                    recordStream.enablePendingCipherWrite();
+                }
 
                 if (null != certificateRequest)
                 {
@@ -266,7 +302,8 @@ public class TlsClientProtocol
                         clientCertificate = Certificate.EMPTY_CHAIN_TLS13;
                     }
 
-                    send13CertificateMessage(clientCertificate);
+                    send13CertificateMessage(clientCertificate,
+                        certificateRequest.getCompressCertificateAlgorithms());
                     this.connection_state = CS_CLIENT_CERTIFICATE;
 
                     if (null != clientCredentials)
@@ -282,6 +319,8 @@ public class TlsClientProtocol
                 this.connection_state = CS_CLIENT_FINISHED;
 
                 TlsUtils.establish13PhaseApplication(tlsClientContext, serverFinishedTranscriptHash, recordStream);
+                TlsUtils.establish13ResumptionMasterSecret(tlsClientContext,
+                    TlsUtils.getCurrentPRFHash(handshakeHash));
 
                 recordStream.enablePendingCipherWrite();
                 recordStream.enablePendingCipherRead(false);
@@ -338,7 +377,6 @@ public class TlsClientProtocol
         case HandshakeType.certificate_url:
         case HandshakeType.client_hello:
         case HandshakeType.client_key_exchange:
-        case HandshakeType.compressed_certificate:
         case HandshakeType.end_of_early_data:
         case HandshakeType.hello_request:
         case HandshakeType.hello_verify_request:
@@ -510,6 +548,15 @@ public class TlsClientProtocol
                     }
                     else
                     {
+                        /*
+                         * RFC 8446 D.3. A client that attempts to send 0-RTT data MUST fail a connection if
+                         * it receives a ServerHello with TLS 1.2 or older.
+                         */
+                        if (offeredEarlyData13)
+                        {
+                            throw new TlsFatalAlert(AlertDescription.protocol_version);
+                        }
+
                         // For pre-1.3 wait until ServerHelloDone is received
                     }
 
@@ -1059,9 +1106,20 @@ public class TlsClientProtocol
                 pskEarlySecret = clientBinders.earlySecrets[selected_identity];
 
                 this.selectedPSK13 = true;
+
+                if (selectedPSK instanceof TlsPSKResumption)
+                {
+                    this.resumedSessionParameters13 = ((TlsPSKResumption)selectedPSK).getSessionParameters();
+                }
             }
 
             tlsClient.notifySelectedPSK(selectedPSK);
+
+            // NOTE: Early data can only be accepted for the first PSK offered, under its original cipher suite
+            if (0 != selected_identity || securityParameters.getCipherSuite() != earlyDataCipherSuite13)
+            {
+                this.earlyDataCipherSuite13 = -1;
+            }
         }
 
         TlsSecret sharedSecret = null;
@@ -1093,7 +1151,7 @@ public class TlsClientProtocol
                 }
 
                 agreement.receivePeerValue(serverShare.getKeyExchange());
-                sharedSecret = agreement.calculateSecret();
+                sharedSecret = TlsUtils.calculateSecret(tlsClientContext, namedGroup, agreement);
 
                 if (!afterHelloRetryRequest)
                 {
@@ -1118,14 +1176,10 @@ public class TlsClientProtocol
         TlsUtils.establish13PhaseHandshake(tlsClientContext, serverHelloTranscriptHash, recordStream);
 
         // See RFC 8446 D.4.
-        if (!afterHelloRetryRequest)
+        if (!afterHelloRetryRequest && !offeredEarlyData13)
         {
             recordStream.setIgnoreChangeCipherSpec(true);
 
-            /*
-             * TODO[tls13] If offering early_data, the record is placed immediately after the first
-             * ClientHello.
-             */
             /*
              * TODO[tls13] Ideally wait until just after Server Finished received, but then we'd need to defer
              * the enabling of the pending write cipher
@@ -1133,7 +1187,11 @@ public class TlsClientProtocol
             sendChangeCipherSpecMessage();
         }
 
-        recordStream.enablePendingCipherWrite();
+        // NOTE: When early data was sent, the write cipher changes once we know whether it was accepted
+        if (!offeredEarlyData13)
+        {
+            recordStream.enablePendingCipherWrite();
+        }
         recordStream.enablePendingCipherRead(false);
     }
 
@@ -1574,6 +1632,29 @@ public class TlsClientProtocol
         securityParameters.maxFragmentLength = TlsUtils.processMaxFragmentLengthExtension(sessionClientExtensions,
             sessionServerExtensions, AlertDescription.illegal_parameter);
 
+        if (offeredEarlyData13)
+        {
+            boolean accepted = TlsExtensionsUtils.hasEarlyDataIndication(serverExtensions);
+            if (accepted)
+            {
+                if (earlyDataCipherSuite13 < 0)
+                {
+                    throw new TlsFatalAlert(AlertDescription.illegal_parameter);
+                }
+
+                this.acceptedEarlyData13 = true;
+            }
+            else
+            {
+                recordStream.enablePendingCipherWrite();
+            }
+
+            this.offeredEarlyData13 = false;
+            this.earlyDataCipherSuite13 = -1;
+
+            tlsClient.notifyEarlyDataAccepted(accepted);
+        }
+
         securityParameters.encryptThenMAC = false;
         securityParameters.truncatedHMac = false;
 
@@ -1612,22 +1693,43 @@ public class TlsClientProtocol
             throw new TlsFatalAlert(AlertDescription.unexpected_message);
         }
 
-        // TODO[tls13] Do something more than just ignore them
+        long ticketLifetime = TlsUtils.readUint32(buf);
+        long ticketAgeAdd = TlsUtils.readUint32(buf);
+        byte[] ticketNonce = TlsUtils.readOpaque8(buf);
+        byte[] ticket = TlsUtils.readOpaque16(buf, 1);
+        byte[] extensionsData = TlsUtils.readOpaque16(buf);
+        assertEmpty(buf);
 
-//        struct {
-//            uint32 ticket_lifetime;
-//            uint32 ticket_age_add;
-//            opaque ticket_nonce<0..255>;
-//            opaque ticket<1..2^16-1>;
-//            Extension extensions<0..2^16-2>;
-//        } NewSessionTicket;
+        Hashtable extensions = readExtensionsData13(HandshakeType.new_session_ticket, extensionsData);
 
-        TlsUtils.readUint32(buf);
-        TlsUtils.readUint32(buf);
-        TlsUtils.readOpaque8(buf);
-        TlsUtils.readOpaque16(buf);
-        TlsUtils.readOpaque16(buf);
-        assertEmpty(buf);
+        long maxEarlyDataSize = TlsExtensionsUtils.getEarlyDataMaxSize(extensions);
+
+        /*
+         * RFC 8446 4.6.1. Servers MUST NOT use any value greater than 604800 seconds (7 days). The value of
+         * zero indicates that the ticket should be discarded immediately.
+         */
+        if (ticketLifetime > 604800L)
+        {
+            throw new TlsFatalAlert(AlertDescription.illegal_parameter);
+        }
+        if (ticketLifetime == 0L)
+        {
+            return;
+        }
+
+        SecurityParameters securityParameters = tlsClientContext.getSecurityParametersConnection();
+        TlsSession session = tlsClientContext.getSession();
+        if (null == session)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        TlsSecret key = TlsUtils.derive13ResumptionPSK(securityParameters, resumptionMasterSecret13,
+            ticketNonce);
+
+        tlsClient.notifyResumptionPSK(new BasicTlsPSKResumption(ticket, key, securityParameters.getPRFAlgorithm(),
+            System.currentTimeMillis(), ticketLifetime, ticketAgeAdd, session.exportSessionParameters(),
+            Math.max(0L, maxEarlyDataSize)));
     }
 
     protected void receive13ServerCertificate(ByteArrayInputStream buf)
@@ -1644,6 +1746,19 @@ public class TlsClientProtocol
         handleServerCertificate();
     }
 
+    protected void receive13ServerCompressedCertificate(ByteArrayInputStream buf)
+        throws IOException
+    {
+        if (selectedPSK13)
+        {
+            throw new TlsFatalAlert(AlertDescription.unexpected_message);
+        }
+
+        int[] offeredAlgorithms = TlsExtensionsUtils.getCompressCertificateExtension(clientExtensions);
+
+        receive13ServerCertificate(receive13CompressedCertificate(buf, offeredAlgorithms));
+    }
+
     protected void receive13ServerCertificateVerify(ByteArrayInputStream buf)
         throws IOException
     {
@@ -1752,8 +1867,8 @@ public class TlsClientProtocol
          * - If a "key_share" extension was supplied in the HelloRetryRequest, replacing the list of shares
          * with a list containing a single KeyShareEntry from the indicated group
          */
-        this.clientAgreements = TlsUtils.addKeyShareToClientHelloRetry(tlsClientContext, clientHelloExtensions,
-            retryGroup);
+        this.clientAgreements = TlsUtils.addKeyShareToClientHelloRetry(tlsClientContext, tlsClient,
+            clientHelloExtensions, retryGroup);
 
         /*
          * TODO[tls13] Optionally adding, removing, or changing the length of the "padding"
@@ -1761,13 +1876,20 @@ public class TlsClientProtocol
          */
 
         // See RFC 8446 D.4.
+        if (offeredEarlyData13)
         {
-            recordStream.setIgnoreChangeCipherSpec(true);
+            // NOTE: The change_cipher_spec was already sent after the first ClientHello; early data is discarded
+            recordStream.setPendingCipher(TlsNullNullCipher.INSTANCE);
+            recordStream.enablePendingCipherWrite();
 
-            /*
-             * TODO[tls13] If offering early_data, the record is placed immediately after the first
-             * ClientHello.
-             */
+            this.offeredEarlyData13 = false;
+            this.earlyDataCipherSuite13 = -1;
+
+            tlsClient.notifyEarlyDataAccepted(false);
+        }
+        else
+        {
+            recordStream.setIgnoreChangeCipherSpec(true);
             sendChangeCipherSpecMessage();
         }
 
@@ -1984,7 +2106,11 @@ public class TlsClientProtocol
             offeredCipherSuites = Arrays.append(offeredCipherSuites, CipherSuite.TLS_FALLBACK_SCSV);
         }
 
-
+        byte[] earlyData = get13EarlyData();
+        if (null != earlyData)
+        {
+            TlsExtensionsUtils.addEarlyDataIndication(clientExtensions);
+        }
 
         int bindersSize = null == clientBinders ? 0 : clientBinders.bindersSize;
 
@@ -1992,6 +2118,11 @@ public class TlsClientProtocol
             null, offeredCipherSuites, clientExtensions, bindersSize);
 
         sendClientHelloMessage();
+
+        if (null != earlyData)
+        {
+            send13EarlyData(earlyData);
+        }
     }
 
     protected void sendClientHelloMessage() throws IOException
@@ -2009,6 +2140,39 @@ public class TlsClientProtocol
         message.sendClientHello(this, handshakeHash, clientHello.getBindersSize());
     }
 
+    protected void send13EarlyData(byte[] earlyData)
+        throws IOException
+    {
+        TlsPSKResumption psk = (TlsPSKResumption)clientBinders.psks[0];
+        int cipherSuite = psk.getSessionParameters().getCipherSuite();
+
+        // See RFC 8446 D.4. If offering early data, the record is placed immediately after the first ClientHello.
+        recordStream.setIgnoreChangeCipherSpec(true);
+        sendChangeCipherSpecMessage();
+
+        recordStream.setPendingCipher(TlsUtils.init13EarlyDataCipher(tlsClientContext, handshakeHash, cipherSuite,
+            clientBinders.earlySecrets[0]));
+        recordStream.enablePendingCipherWrite();
+
+        this.offeredEarlyData13 = true;
+        this.earlyDataCipherSuite13 = cipherSuite;
+
+        int off = 0, len = earlyData.length;
+        while (len > 0)
+        {
+            int toWrite = Math.min(len, recordStream.getPlaintextLimit());
+            safeWriteRecord(ContentType.application_data, earlyData, off, toWrite);
+            off += toWrite;
+            len -= toWrite;
+        }
+    }
+
+    protected void send13EndOfEarlyDataMessage()
+        throws IOException
+    {
+        HandshakeMessageOutput.send(this, HandshakeType.end_of_early_data, TlsUtils.EMPTY_BYTES);
+    }
+
     protected void sendClientKeyExchange()
         throws IOException
     {
@@ -2017,6 +2181,37 @@ public class TlsClientProtocol
         message.send(this);
     }
 
+    /**
+     * @return the early data to send with the ClientHello, or null if none may (or should) be sent.
+     */
+    protected byte[] get13EarlyData()
+        throws IOException
+    {
+        if (null == clientBinders || !(clientBinders.psks[0] instanceof TlsPSKResumption))
+        {
+            return null;
+        }
+
+        TlsPSKResumption psk = (TlsPSKResumption)clientBinders.psks[0];
+        long maxEarlyDataSize = psk.getMaxEarlyDataSize();
+        if (maxEarlyDataSize < 1L || null == psk.getSessionParameters())
+        {
+            return null;
+        }
+
+        byte[] earlyData = tlsClient.getEarlyData(maxEarlyDataSize);
+        if (TlsUtils.isNullOrEmpty(earlyData))
+        {
+            return null;
+        }
+        if (earlyData.length > maxEarlyDataSize)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error, "Early data exceeds max_early_data_size");
+        }
+
+        return earlyData;
+    }
+
     protected void skip13CertificateRequest()
         throws IOException
     {
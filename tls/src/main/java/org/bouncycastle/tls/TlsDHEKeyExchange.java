@@ -128,6 +128,6 @@ public class TlsDHEKeyExchange
 
     public TlsSecret generatePreMasterSecret() throws IOException
     {
-        return agreement.calculateSecret();
+        return TlsUtils.calculateSecret(context, dhConfig.getNamedGroup(), agreement);
     }
 }
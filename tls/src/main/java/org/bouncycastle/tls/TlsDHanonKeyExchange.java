@@ -125,6 +125,6 @@ public class TlsDHanonKeyExchange
 
     public TlsSecret generatePreMasterSecret() throws IOException
     {
-        return agreement.calculateSecret();
+        return TlsUtils.calculateSecret(context, dhConfig.getNamedGroup(), agreement);
     }
 }
@@ -128,7 +128,7 @@ public class TlsECDHEKeyExchange
 
     public TlsSecret generatePreMasterSecret() throws IOException
     {
-        return agreement.calculateSecret();
+        return TlsUtils.calculateSecret(context, ecConfig.getNamedGroup(), agreement);
     }
 
     protected void generateEphemeral(OutputStream output) throws IOException
@@ -114,7 +114,7 @@ public class TlsECDHanonKeyExchange
 
     public TlsSecret generatePreMasterSecret() throws IOException
     {
-        return agreement.calculateSecret();
+        return TlsUtils.calculateSecret(context, ecConfig.getNamedGroup(), agreement);
     }
 
     protected void generateEphemeral(OutputStream output) throws IOException
@@ -0,0 +1,394 @@
+package org.bouncycastle.tls;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.LinkedList;
+
+import org.bouncycastle.tls.crypto.TlsAgreement;
+import org.bouncycastle.tls.crypto.TlsCrypto;
+import org.bouncycastle.util.Integers;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * A pool of ephemeral TLS 1.3 client key shares (including KEM and hybrid groups), generated ahead of time by
+ * a background daemon thread so that a client handshake does not have to wait for key generation. Supply it
+ * to the protocol via {@link TlsClient#getKeySharePool()}; each pooled key share is used for at most one
+ * ClientHello, and the protocol falls back to generating a key share itself when the pool has none ready.
+ * </p>
+ * <p>
+ * Groups may be given up front, and any other group requested of the pool is added to those it maintains.
+ * Key shares older than the maximum age are discarded (and regenerated) rather than used, which limits how
+ * long an unused ephemeral private key is kept in memory. The daemon exits when the pool is closed, or is
+ * no longer referenced.
+ * </p>
+ */
+public class TlsKeySharePool
+{
+    private static final long IDLE_WAIT_MILLIS = 1000L;
+
+    private final Store store;
+
+    /**
+     * @param crypto        the {@link TlsCrypto} to generate key shares with. The pool is only used by clients
+     *                      with the same {@link TlsCrypto} instance.
+     * @param namedGroups   {@link NamedGroup named groups} to generate key shares for immediately (may be null).
+     * @param poolSize      the number of key shares to keep ready per group.
+     * @param maxAgeMillis  the maximum age of a pooled key share, in milliseconds.
+     */
+    public TlsKeySharePool(TlsCrypto crypto, int[] namedGroups, int poolSize, long maxAgeMillis)
+    {
+        if (null == crypto)
+        {
+            throw new NullPointerException("'crypto' cannot be null");
+        }
+        if (poolSize < 1)
+        {
+            throw new IllegalArgumentException("'poolSize' must be > 0");
+        }
+        if (maxAgeMillis < 1L)
+        {
+            throw new IllegalArgumentException("'maxAgeMillis' must be > 0");
+        }
+
+        this.store = new Store(crypto, poolSize, maxAgeMillis);
+
+        if (null != namedGroups)
+        {
+            for (int i = 0; i < namedGroups.length; ++i)
+            {
+                store.addGroup(namedGroups[i]);
+            }
+        }
+
+        Thread thread = new Thread(new Refiller(this, store), "BC TLS key share pool");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop the background thread and discard any pooled key shares. Later requests of the pool will miss.
+     */
+    public void close()
+    {
+        store.close();
+    }
+
+    public TlsCrypto getCrypto()
+    {
+        return store.crypto;
+    }
+
+    /**
+     * @param namedGroup a {@link NamedGroup named group}.
+     * @return the number of key shares currently ready for the given group.
+     */
+    public int getAvailable(int namedGroup)
+    {
+        return store.getAvailable(namedGroup);
+    }
+
+    /**
+     * @return the number of requests the pool could satisfy.
+     */
+    public long getHits()
+    {
+        return store.getHits();
+    }
+
+    /**
+     * @return the number of requests the pool could not satisfy (the caller then generates its own key share).
+     */
+    public long getMisses()
+    {
+        return store.getMisses();
+    }
+
+    /**
+     * @return the number of times generating a key share failed (it is retried on a later refill).
+     */
+    public long getFailures()
+    {
+        return store.getFailures();
+    }
+
+    /**
+     * Remove a key share for the given group from the pool, for use in a single ClientHello.
+     *
+     * @return a pooled {@link KeyShare}, or null if none is ready.
+     */
+    KeyShare take(int namedGroup)
+    {
+        return store.take(namedGroup);
+    }
+
+    /**
+     * A client key share whose ephemeral value has already been generated.
+     */
+    static final class KeyShare
+    {
+        final TlsAgreement agreement;
+        final byte[] keyExchange;
+        final long createdMillis;
+
+        KeyShare(TlsAgreement agreement, byte[] keyExchange, long createdMillis)
+        {
+            this.agreement = agreement;
+            this.keyExchange = keyExchange;
+            this.createdMillis = createdMillis;
+        }
+    }
+
+    private static final class Store
+    {
+        final TlsCrypto crypto;
+        final int poolSize;
+        final long maxAgeMillis;
+
+        // Integer (NamedGroup) -> LinkedList of KeyShare, oldest first
+        private final Hashtable shares = new Hashtable();
+        // Integer (NamedGroup) -> Boolean, for groups the crypto couldn't generate key shares for
+        private final Hashtable unsupported = new Hashtable();
+        private boolean closed = false;
+        private long hits = 0L, misses = 0L, failures = 0L;
+
+        Store(TlsCrypto crypto, int poolSize, long maxAgeMillis)
+        {
+            this.crypto = crypto;
+            this.poolSize = poolSize;
+            this.maxAgeMillis = maxAgeMillis;
+        }
+
+        synchronized void addGroup(int namedGroup)
+        {
+            Integer key = Integers.valueOf(namedGroup);
+            if (!closed && !shares.containsKey(key) && !unsupported.containsKey(key))
+            {
+                shares.put(key, new LinkedList());
+                notifyAll();
+            }
+        }
+
+        synchronized void add(int namedGroup, KeyShare keyShare)
+        {
+            LinkedList list = (LinkedList)shares.get(Integers.valueOf(namedGroup));
+            if (null != list && list.size() < poolSize)
+            {
+                list.addLast(keyShare);
+            }
+        }
+
+        synchronized void close()
+        {
+            this.closed = true;
+            shares.clear();
+            notifyAll();
+        }
+
+        synchronized int getAvailable(int namedGroup)
+        {
+            LinkedList list = (LinkedList)shares.get(Integers.valueOf(namedGroup));
+            return null == list ? 0 : list.size();
+        }
+
+        synchronized long getHits()
+        {
+            return hits;
+        }
+
+        synchronized long getMisses()
+        {
+            return misses;
+        }
+
+        synchronized long getFailures()
+        {
+            return failures;
+        }
+
+        synchronized boolean isClosed()
+        {
+            return closed;
+        }
+
+        /**
+         * Wait (up to the given time) until some group needs another key share.
+         *
+         * @return the group to generate a key share for, or -1 if none is needed (or the store is closed).
+         */
+        synchronized int nextGroupToFill(long waitMillis) throws InterruptedException
+        {
+            int namedGroup = findGroupToFill();
+            if (namedGroup < 0 && !closed)
+            {
+                wait(waitMillis);
+                namedGroup = findGroupToFill();
+            }
+            return namedGroup;
+        }
+
+        /**
+         * Record a failure to generate a key share, then wait (up to the given time) for the next request of the
+         * pool, or for it to be closed.
+         */
+        synchronized void failed(long waitMillis) throws InterruptedException
+        {
+            ++failures;
+
+            if (!closed)
+            {
+                wait(waitMillis);
+            }
+        }
+
+        synchronized void setUnsupported(int namedGroup)
+        {
+            Integer key = Integers.valueOf(namedGroup);
+            shares.remove(key);
+            unsupported.put(key, Boolean.TRUE);
+        }
+
+        synchronized KeyShare take(int namedGroup)
+        {
+            if (closed)
+            {
+                ++misses;
+                return null;
+            }
+
+            Integer key = Integers.valueOf(namedGroup);
+            LinkedList list = (LinkedList)shares.get(key);
+            if (null == list)
+            {
+                if (!unsupported.containsKey(key))
+                {
+                    shares.put(key, new LinkedList());
+                }
+            }
+            else
+            {
+                discardExpired(list, System.currentTimeMillis() - maxAgeMillis);
+
+                if (!list.isEmpty())
+                {
+                    ++hits;
+                    notifyAll();
+                    return (KeyShare)list.removeFirst();
+                }
+            }
+
+            ++misses;
+            notifyAll();
+            return null;
+        }
+
+        private void discardExpired(LinkedList list, long createdLimit)
+        {
+            while (!list.isEmpty() && ((KeyShare)list.getFirst()).createdMillis < createdLimit)
+            {
+                list.removeFirst();
+            }
+        }
+
+        private int findGroupToFill()
+        {
+            if (closed)
+            {
+                return -1;
+            }
+
+            long createdLimit = System.currentTimeMillis() - maxAgeMillis;
+
+            Enumeration keys = shares.keys();
+            while (keys.hasMoreElements())
+            {
+                Integer key = (Integer)keys.nextElement();
+                LinkedList list = (LinkedList)shares.get(key);
+
+                discardExpired(list, createdLimit);
+
+                if (list.size() < poolSize)
+                {
+                    return key.intValue();
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class Refiller
+        implements Runnable
+    {
+        // NOTE: Weakly held, so that an unreferenced pool (and this thread) can go away without close()
+        private final WeakReference pool;
+        private final Store store;
+
+        Refiller(TlsKeySharePool pool, Store store)
+        {
+            this.pool = new WeakReference(pool);
+            this.store = store;
+        }
+
+        public void run()
+        {
+            try
+            {
+                while (null != pool.get() && !store.isClosed())
+                {
+                    int namedGroup = store.nextGroupToFill(IDLE_WAIT_MILLIS);
+                    if (namedGroup < 0)
+                    {
+                        continue;
+                    }
+
+                    KeyShare keyShare;
+                    try
+                    {
+                        keyShare = generate(namedGroup);
+                    }
+                    catch (Exception e)
+                    {
+                        // Possibly transient (e.g. entropy or a provider failure), so try again on a later refill
+                        store.failed(IDLE_WAIT_MILLIS);
+                        continue;
+                    }
+
+                    if (null == keyShare)
+                    {
+                        // Not supported by the crypto, so stop trying (requests will keep missing)
+                        store.setUnsupported(namedGroup);
+                    }
+                    else
+                    {
+                        store.add(namedGroup, keyShare);
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                store.close();
+            }
+        }
+
+        /**
+         * @return a new {@link KeyShare}, or null if the crypto doesn't support the group.
+         */
+        private KeyShare generate(int namedGroup) throws IOException
+        {
+            TlsAgreement agreement = TlsUtils.createKeyShare(store.crypto, namedGroup, false);
+            if (null == agreement)
+            {
+                return null;
+            }
+
+            byte[] keyExchange = agreement.generateEphemeral();
+            return new KeyShare(agreement, keyExchange, System.currentTimeMillis());
+        }
+    }
+}
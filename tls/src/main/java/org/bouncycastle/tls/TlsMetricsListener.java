@@ -0,0 +1,98 @@
+package org.bouncycastle.tls;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * Receives timing and size events from the protocol, for performance monitoring. An instance is obtained
+ * from {@link TlsPeer#getMetricsListener()} at the start of each handshake, and is typically shared by many
+ * connections, so implementations MUST be thread-safe. Callbacks are made on the thread driving the
+ * protocol, so implementations should be cheap and MUST NOT block or throw.
+ * </p>
+ * <p>
+ * Durations are in nanoseconds, as measured by {@link System#nanoTime()}.
+ * </p>
+ *
+ * @see AbstractTlsMetricsListener
+ * @see BasicTlsMetrics
+ */
+public interface TlsMetricsListener
+{
+    /**
+     * A handshake message was received and processed.
+     * <p>
+     * NOTE: Currently only reported by the TLS (not DTLS) protocols.
+     * </p>
+     *
+     * @param handshakeType  {@link HandshakeType}
+     * @param length         the length of the message body.
+     * @param durationNanos  the time taken to process the message.
+     */
+    void handshakeMessageProcessed(short handshakeType, int length, long durationNanos);
+
+    /**
+     * A (EC)DH shared secret was calculated as part of the key exchange.
+     *
+     * @param namedGroup     {@link NamedGroup}, or -1 if the group is not a named group.
+     * @param durationNanos  the time taken to calculate the shared secret.
+     */
+    void keyExchangeCalculated(int namedGroup, long durationNanos);
+
+    /**
+     * A handshake signature (CertificateVerify or ServerKeyExchange) was generated.
+     *
+     * @param signatureScheme {@link SignatureScheme}, or -1 for legacy (pre-TLS 1.2) signatures.
+     * @param durationNanos   the time taken to generate the signature.
+     */
+    void signatureGenerated(int signatureScheme, long durationNanos);
+
+    /**
+     * A handshake signature (CertificateVerify or ServerKeyExchange) received from the peer was checked.
+     *
+     * @param signatureScheme {@link SignatureScheme}, or -1 for legacy (pre-TLS 1.2) signatures.
+     * @param verified        whether the signature was valid.
+     * @param durationNanos   the time taken to verify the signature.
+     */
+    void signatureVerified(int signatureScheme, boolean verified, long durationNanos);
+
+    /**
+     * A handshake completed successfully.
+     *
+     * @param negotiatedVersion the negotiated {@link ProtocolVersion}.
+     * @param cipherSuite       the negotiated {@link CipherSuite}.
+     * @param resumed           whether a previous session was resumed.
+     * @param durationNanos     the time since the handshake began.
+     */
+    void handshakeCompleted(ProtocolVersion negotiatedVersion, int cipherSuite, boolean resumed,
+        long durationNanos);
+
+    /**
+     * A record was received and decoded.
+     * <p>
+     * NOTE: Currently only reported by the TLS (not DTLS) protocols.
+     * </p>
+     *
+     * @param contentType {@link ContentType} (the inner content type for TLS 1.3).
+     * @param length      the length of the record plaintext.
+     */
+    void recordReceived(short contentType, int length);
+
+    /**
+     * A record was encoded for sending.
+     * <p>
+     * NOTE: Currently only reported by the TLS (not DTLS) protocols.
+     * </p>
+     *
+     * @param contentType {@link ContentType} (the inner content type for TLS 1.3).
+     * @param length      the length of the record plaintext.
+     */
+    void recordSent(short contentType, int length);
+
+    /**
+     * An alert was raised locally, or received from the peer.
+     *
+     * @param alertLevel       {@link AlertLevel}
+     * @param alertDescription {@link AlertDescription}
+     * @param local            true if the alert was raised locally, false if it was received from the peer.
+     */
+    void alert(short alertLevel, short alertDescription, boolean local);
+}
@@ -305,7 +305,8 @@ public class TlsPSKKeyExchange
         {
             if (agreement != null)
             {
-                return agreement.calculateSecret().extract();
+                int namedGroup = null != dhConfig ? dhConfig.getNamedGroup() : ecConfig.getNamedGroup();
+                return TlsUtils.calculateSecret(context, namedGroup, agreement).extract();
             }
         }
 
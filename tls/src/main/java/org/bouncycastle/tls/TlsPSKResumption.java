@@ -0,0 +1,45 @@
+package org.bouncycastle.tls;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * A TLS 1.3 resumption PSK, as established by a NewSessionTicket (RFC 8446 4.6.1). The identity is the
+ * ticket.
+ */
+public interface TlsPSKResumption
+    extends TlsPSK
+{
+    /**
+     * Return the obfuscated_ticket_age to offer along with this PSK, i.e. the time in milliseconds since the
+     * ticket was received, plus the ticket_age_add value, modulo 2^32.
+     * 
+     * @return the current obfuscated ticket age.
+     */
+    long getObfuscatedTicketAge();
+
+    /**
+     * Return the max_early_data_size the ticket was issued with, i.e. the maximum amount of 0-RTT data that
+     * may be sent when this PSK is offered first (RFC 8446 4.2.10).
+     * 
+     * @return the maximum early data size in bytes, or 0 if the ticket does not permit early data.
+     */
+    long getMaxEarlyDataSize();
+
+    /**
+     * Return the parameters of the session the ticket was issued on. The local and peer certificates are
+     * carried over to a session resumed with this PSK.
+     * 
+     * @return the original {@link SessionParameters}, or null if not available.
+     */
+    SessionParameters getSessionParameters();
+
+    /**
+     * @return the ticket_age_add value the ticket was issued with.
+     */
+    long getTicketAgeAdd();
+
+    /**
+     * @return the time the ticket was issued (or received), in milliseconds since the epoch.
+     */
+    long getTicketIssueTime();
+}
@@ -139,6 +139,41 @@ public interface TlsPeer
 
     TlsKeyExchangeFactory getKeyExchangeFactory() throws IOException;
 
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * <p>
+     * Specify the certificate compression algorithms (RFC 8879) supported for TLS 1.3, in order of
+     * preference. The peer is offered decompression with each of them, and a Certificate message sent to a
+     * peer that offered any of them is compressed with the most preferred of those.
+     *
+     * @return an array of {@link TlsCertificateCompressor}, or null (or empty) to disable certificate
+     *         compression.
+     */
+    TlsCertificateCompressor[] getCertificateCompressors();
+
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * <p>
+     * Specify a {@link TlsMetricsListener} to receive timing and size events for the connection. Called once
+     * at the start of each handshake.
+     *
+     * @return a {@link TlsMetricsListener}, or null to disable metrics.
+     */
+    TlsMetricsListener getMetricsListener();
+
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * <p>
+     * Notifies whether TLS 1.3 early (0-RTT) data was accepted. A client is notified when it has sent early
+     * data, once the server's response is known; a server is notified whenever the ClientHello offered early
+     * data. Accepted early data is delivered to the server as application data ahead of anything sent after
+     * the handshake, and may have been replayed by an attacker (RFC 8446 8).
+     * 
+     * @param accepted true if the early data was accepted, otherwise false.
+     * @throws IOException
+     */
+    void notifyEarlyDataAccepted(boolean accepted) throws IOException;
+
     /**
      * This method will be called when an alert is raised by the protocol.
      *
@@ -16,6 +16,7 @@ import org.bouncycastle.tls.crypto.TlsCrypto;
 import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Integers;
+import org.bouncycastle.util.Times;
 
 public abstract class TlsProtocol
     implements TlsCloseable
@@ -165,6 +166,9 @@ public abstract class TlsProtocol
 
     protected short connection_state = CS_START;
     protected boolean selectedPSK13 = false;
+    protected SessionParameters resumedSessionParameters13 = null;
+    // NOTE: Kept for the lifetime of the connection, since NewSessionTicket may be sent at any time after the handshake
+    protected TlsSecret resumptionMasterSecret13 = null;
     protected boolean receivedChangeCipherSpec = false;
     protected boolean expectSessionTicket = false;
 
@@ -216,6 +220,12 @@ public abstract class TlsProtocol
 
     protected void closeConnection() throws IOException
     {
+        if (null != resumptionMasterSecret13)
+        {
+            resumptionMasterSecret13.destroy();
+            this.resumptionMasterSecret13 = null;
+        }
+
         recordStream.close();
     }
 
@@ -234,6 +244,7 @@ public abstract class TlsProtocol
         throws IOException
     {
         getPeer().notifyAlertReceived(alertLevel, alertDescription);
+        notifyMetricsAlert(alertLevel, alertDescription, false);
 
         if (alertLevel == AlertLevel.warning)
         {
@@ -440,9 +451,12 @@ public abstract class TlsProtocol
         this.handshakeHash = new DeferredHash(context);
         this.connection_state = CS_START;
         this.selectedPSK13 = false;
+        this.resumedSessionParameters13 = null;
 
         context.handshakeBeginning(peer);
 
+        recordStream.setMetricsListener(context.getMetricsListener());
+
         SecurityParameters securityParameters = context.getSecurityParametersHandshake();
         if (renegotiation != securityParameters.isRenegotiating())
         {
@@ -474,6 +488,7 @@ public abstract class TlsProtocol
         this.serverExtensions = null;
 
         this.selectedPSK13 = false;
+        this.resumedSessionParameters13 = null;
         this.receivedChangeCipherSpec = false;
         this.expectSessionTicket = false;
     }
@@ -509,6 +524,10 @@ public abstract class TlsProtocol
 
             this.keyUpdateEnabled = TlsUtils.isTLSv13(negotiatedVersion);
 
+            // Take ownership of the resumption master secret, the handshake cleanup destroys whatever is left
+            this.resumptionMasterSecret13 = securityParameters.resumptionMasterSecret;
+            securityParameters.resumptionMasterSecret = null;
+
             if (blocking)
             {
                 this.tlsInputStream = new TlsInputStream(this);
@@ -517,6 +536,13 @@ public abstract class TlsProtocol
 
             if (this.sessionParameters == null)
             {
+                if (null != resumedSessionParameters13)
+                {
+                    // TLS 1.3 resumption doesn't re-authenticate, the original session's certificates carry over
+                    securityParameters.localCertificate = resumedSessionParameters13.getLocalCertificate();
+                    securityParameters.peerCertificate = resumedSessionParameters13.getPeerCertificate();
+                }
+
                 this.sessionMasterSecret = securityParameters.getMasterSecret();
 
                 this.sessionParameters = new SessionParameters.Builder()
@@ -542,7 +568,7 @@ public abstract class TlsProtocol
                 securityParameters.srpIdentity = sessionParameters.getSRPIdentity();
             }
 
-            context.handshakeComplete(getPeer(), this.tlsSession);
+            context.handshakeComplete(getPeer(), this.tlsSession, null != resumedSessionParameters13);
         }
         finally
         {
@@ -568,7 +594,7 @@ public abstract class TlsProtocol
         {
             if (!appDataReady)
             {
-                throw new TlsFatalAlert(AlertDescription.unexpected_message);
+                processEarlyData(len);
             }
             applicationDataQueue.addData(buf, off, len);
 //            processApplicationDataQueue();
@@ -614,6 +640,18 @@ public abstract class TlsProtocol
         }
     }
 
+    /**
+     * Called for application data received before the handshake completes, which is only permitted for TLS
+     * 1.3 early data that the server has accepted.
+     * 
+     * @param len the length of the early data record.
+     */
+    protected void processEarlyData(int len)
+        throws IOException
+    {
+        throw new TlsFatalAlert(AlertDescription.unexpected_message);
+    }
+
     private void processHandshakeQueue(ByteQueue queue)
         throws IOException
     {
@@ -713,7 +751,17 @@ public abstract class TlsProtocol
 
             buf.skip(4);
 
-            handleHandshakeMessage(type, buf);
+            TlsMetricsListener metricsListener = getContextAdmin().getMetricsListener();
+            if (null == metricsListener)
+            {
+                handleHandshakeMessage(type, buf);
+            }
+            else
+            {
+                long startNanos = Times.nanoTime();
+                handleHandshakeMessage(type, buf);
+                metricsListener.handshakeMessageProcessed(type, length, Times.nanoTime() - startNanos);
+            }
         }
     }
 
@@ -1076,6 +1124,68 @@ public abstract class TlsProtocol
         }
     }
 
+    /**
+     * Write some application data, encrypting records directly into the given output buffer where possible.
+     * Fragmentation is handled internally. Only allowed in non-blocking mode, and only when there is no
+     * output already waiting to be read (see {@link #getAvailableOutputBytes()}).<br>
+     * <br>
+     * Records are written to the output buffer for as long as each fits in the remaining space. Any further
+     * records (e.g. because the output buffer is full, or a KeyUpdate message had to be sent) are queued as
+     * usual, and must be retrieved via {@link #readOutput(byte[], int, int)} after the returned bytes have been
+     * sent. Use {@link #previewOutputRecord(int)} to determine the output space required for a given amount of
+     * application data.
+     *
+     * @param buf       The buffer containing application data to send
+     * @param off       The offset at which the application data begins
+     * @param len       The number of bytes of application data
+     * @param output    The buffer to hold the encrypted data
+     * @param outputOff The start offset in the output buffer at which the encrypted data is written
+     * @param outputLen The maximum number of bytes to write to the output buffer
+     * @return The number of bytes written to the output buffer.
+     * @throws IllegalStateException If called before the initial handshake has completed.
+     * @throws IOException           If connection is already closed, or for encryption errors.
+     */
+    public int writeApplicationData(byte[] buf, int off, int len, byte[] output, int outputOff, int outputLen)
+        throws IOException
+    {
+        if (blocking)
+        {
+            throw new IllegalStateException("Cannot use writeApplicationData() with output buffer in blocking mode!");
+        }
+        if (outputBuffer.getBuffer().available() != 0)
+        {
+            throw new IllegalStateException("Can only write application data to an output buffer when no output is pending.");
+        }
+
+        {
+            if (output == null)
+            {
+                throw new NullPointerException();
+            }
+            int available = output.length - outputOff;
+            int remaining = available - outputLen;
+            if ((outputOff | outputLen | available | remaining) < 0)
+            {
+                throw new IndexOutOfBoundsException();
+            }
+        }
+
+        synchronized (recordWriteLock)
+        {
+            int written = 0;
+            recordStream.setOutputTarget(output, outputOff, outputLen);
+            try
+            {
+                writeApplicationData(buf, off, len);
+            }
+            finally
+            {
+                written = recordStream.clearOutputTarget();
+            }
+            return written;
+        }
+    }
+
     public int getAppDataSplitMode()
     {
         return appDataSplitMode;
@@ -1562,6 +1672,30 @@ public abstract class TlsProtocol
         return bytesToRead;
     }
 
+    /**
+     * Gets the number of buffers the record layer of this connection has allocated while reading records. Once
+     * a connection has reached a steady state (i.e. record sizes are no longer growing) this should not
+     * increase.
+     *
+     * @return The number of record buffer allocations while reading.
+     */
+    public long getRecordReadAllocations()
+    {
+        return recordStream.getReadAllocations();
+    }
+
+    /**
+     * Gets the number of buffers the record layer of this connection has allocated while writing records.
+     * With a cipher that can encode into an existing buffer (as the AEAD ciphers can), this should not
+     * increase once a connection has reached a steady state.
+     *
+     * @return The number of record buffer allocations while writing.
+     */
+    public long getRecordWriteAllocations()
+    {
+        return recordStream.getWriteAllocations();
+    }
+
     protected boolean establishSession(TlsSession sessionToResume)
     {
         this.tlsSession = null;
@@ -1697,10 +1831,21 @@ public abstract class TlsProtocol
         securityParameters.tlsUnique = null;
     }
 
+    private void notifyMetricsAlert(short alertLevel, short alertDescription, boolean local)
+    {
+        AbstractTlsContext context = getContextAdmin();
+        TlsMetricsListener metricsListener = null == context ? null : context.getMetricsListener();
+        if (null != metricsListener)
+        {
+            metricsListener.alert(alertLevel, alertDescription, local);
+        }
+    }
+
     protected void raiseAlertFatal(short alertDescription, String message, Throwable cause)
         throws IOException
     {
         getPeer().notifyAlertRaised(AlertLevel.fatal, alertDescription, message, cause);
+        notifyMetricsAlert(AlertLevel.fatal, alertDescription, true);
 
         byte[] alert = new byte[]{ (byte)AlertLevel.fatal, (byte)alertDescription };
 
@@ -1718,6 +1863,7 @@ public abstract class TlsProtocol
         throws IOException
     {
         getPeer().notifyAlertRaised(AlertLevel.warning, alertDescription, message, null);
+        notifyMetricsAlert(AlertLevel.warning, alertDescription, true);
 
         byte[] alert = new byte[]{ (byte)AlertLevel.warning, (byte)alertDescription };
 
@@ -1782,6 +1928,17 @@ public abstract class TlsProtocol
     }
 
     protected void send13CertificateMessage(Certificate certificate) throws IOException
+    {
+        send13CertificateMessage(certificate, null);
+    }
+
+    /**
+     * @param peerCompressionAlgorithms
+     *            the algorithms from the peer's "compress_certificate" extension (RFC 8879), or null if it
+     *            didn't send one. If any of them is supported, a CompressedCertificate is sent instead.
+     */
+    protected void send13CertificateMessage(Certificate certificate, int[] peerCompressionAlgorithms)
+        throws IOException
     {
         if (null == certificate)
         {
@@ -1795,13 +1952,106 @@ public abstract class TlsProtocol
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
-        HandshakeMessageOutput message = new HandshakeMessageOutput(HandshakeType.certificate);
-        certificate.encode(context, message, null);
-        message.send(this);
+        TlsCertificateCompressor compressor = TlsUtils.selectCertificateCompressor(
+            getPeer().getCertificateCompressors(), peerCompressionAlgorithms);
+
+        if (null == compressor)
+        {
+            HandshakeMessageOutput message = new HandshakeMessageOutput(HandshakeType.certificate);
+            certificate.encode(context, message, null);
+            message.send(this);
+        }
+        else
+        {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            certificate.encode(context, buf, null);
+            byte[] certificateMessage = buf.toByteArray();
+            byte[] compressed = compressor.compress(certificateMessage);
+
+            // NOTE: Compression is optional, so there's no point sending a CompressedCertificate that isn't smaller
+            if (compressed.length < 1 || compressed.length >= certificateMessage.length)
+            {
+                HandshakeMessageOutput.send(this, HandshakeType.certificate, certificateMessage);
+            }
+            else
+            {
+                CompressedCertificate compressedCertificate = new CompressedCertificate(compressor.getAlgorithm(),
+                    certificateMessage.length, compressed);
+
+                HandshakeMessageOutput message = new HandshakeMessageOutput(HandshakeType.compressed_certificate);
+                compressedCertificate.encode(message);
+                message.send(this);
+            }
+        }
 
         securityParameters.localCertificate = certificate;
     }
 
+    /**
+     * @param offeredCompressionAlgorithms
+     *            the algorithms we sent in our "compress_certificate" extension (RFC 8879).
+     * @return the decompressed body of the Certificate message.
+     */
+    protected ByteArrayInputStream receive13CompressedCertificate(ByteArrayInputStream buf,
+        int[] offeredCompressionAlgorithms) throws IOException
+    {
+        CompressedCertificate compressedCertificate = CompressedCertificate.parse(buf);
+
+        assertEmpty(buf);
+
+        int algorithm = compressedCertificate.getAlgorithm();
+        if (null == offeredCompressionAlgorithms || !Arrays.contains(offeredCompressionAlgorithms, algorithm))
+        {
+            throw new TlsFatalAlert(AlertDescription.illegal_parameter,
+                "CompressedCertificate uses an algorithm we didn't offer: "
+                    + CertificateCompressionAlgorithm.getText(algorithm));
+        }
+
+        TlsCertificateCompressor compressor = TlsUtils.getCertificateCompressor(
+            getPeer().getCertificateCompressors(), algorithm);
+        if (null == compressor)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        // NOTE: The decompressed message is subject to the same limit as an uncompressed one
+        int uncompressedLength = compressedCertificate.getUncompressedLength();
+        if (uncompressedLength > maxHandshakeMessageSize)
+        {
+            throw new TlsFatalAlert(AlertDescription.bad_certificate,
+                "CompressedCertificate 'uncompressed_length' exceeds the maximum: " + uncompressedLength + " > "
+                    + maxHandshakeMessageSize);
+        }
+
+        /*
+         * RFC 8879 4. If the received CompressedCertificate message cannot be decompressed, the
+         * connection MUST be terminated with the "bad_certificate" alert. [..] If the specified length
+         * does not match the actual length of the message after decompression, the receiver MUST abort
+         * the connection with the "bad_certificate" alert.
+         */
+        byte[] certificateMessage;
+        try
+        {
+            certificateMessage = compressor.decompress(compressedCertificate.getCompressedCertificateMessage(),
+                uncompressedLength);
+        }
+        catch (IOException e)
+        {
+            throw new TlsFatalAlert(AlertDescription.bad_certificate, e);
+        }
+        catch (RuntimeException e)
+        {
+            throw new TlsFatalAlert(AlertDescription.bad_certificate, e);
+        }
+
+        if (null == certificateMessage || certificateMessage.length != uncompressedLength)
+        {
+            throw new TlsFatalAlert(AlertDescription.bad_certificate);
+        }
+
+        return new ByteArrayInputStream(certificateMessage);
+    }
+
     protected void send13CertificateVerifyMessage(DigitallySigned certificateVerify)
         throws IOException
     {
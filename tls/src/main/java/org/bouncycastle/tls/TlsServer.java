@@ -6,6 +6,7 @@ import java.util.Vector;
 
 import org.bouncycastle.tls.crypto.TlsDHConfig;
 import org.bouncycastle.tls.crypto.TlsECConfig;
+import org.bouncycastle.tls.crypto.TlsSecret;
 
 /**
  * Interface describing a TLS server endpoint.
@@ -44,6 +45,41 @@ public interface TlsServer
      */
     TlsPSKExternal getExternalPSK(Vector identities);
 
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * 
+     * Return the {@link TlsPSKResumption resumption PSK} to select from the ClientHello, typically recovered
+     * from one of the tickets issued via {@link #getNewSessionTicket13(TlsSecret, long)}. Note that this will
+     * only be called when TLS 1.3 or higher is amongst the offered protocol versions, one or more PSKs are
+     * actually offered, and {@link #getExternalPSK(Vector)} did not select one.
+     * 
+     * @param identities a {@link Vector} of {@link PskIdentity} instances.
+     * @return the {@link TlsPSKResumption} corresponding to the selected identity, or null to not select any.
+     */
+    TlsPSKResumption getResumptionPSK(Vector identities);
+
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * <p>
+     * Return the maximum amount of TLS 1.3 early (0-RTT) data to accept. When greater than 0 (and
+     * {@link #getAntiReplay()} is not null), it is advertised as the max_early_data_size of each ticket
+     * issued, and early data offered with a resumption PSK may be accepted. Rejected early data is skipped,
+     * up to the larger of this value and 2^14 bytes.
+     * 
+     * @return the maximum early data size in bytes, or 0 to never accept early data.
+     */
+    long getMaxEarlyDataSize();
+
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * <p>
+     * Return the {@link TlsAntiReplay} that decides whether early data may be accepted. Typically the same
+     * instance is shared by all connections the server accepts.
+     * 
+     * @return the anti-replay mechanism, or null to never accept early data.
+     */
+    TlsAntiReplay getAntiReplay();
+
     void notifySession(TlsSession session);
 
     void notifyClientVersion(ProtocolVersion clientVersion) throws IOException;
@@ -140,4 +176,22 @@ public interface TlsServer
      */
     NewSessionTicket getNewSessionTicket()
         throws IOException;
+
+    /**
+     * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+     * <p>
+     * RFC 8446 4.6.1. New Session Ticket Message.
+     * <p>
+     * Called once a TLS 1.3 handshake has completed, repeatedly until it returns null (at most 256 times), to
+     * issue tickets for resumption of the session. The ticket is the identity the client will offer for the
+     * given PSK and so must allow the server to recover the PSK, see {@link #getResumptionPSK(Vector)}. The
+     * returned ticket lifetime hint is sent as the ticket_lifetime, in seconds.
+     *
+     * @param resumptionPSK the PSK the ticket is for, destroyed once this method returns.
+     * @param ticketAgeAdd  the ticket_age_add value that will be sent with the ticket.
+     * @return the ticket, or null to issue no (further) tickets.
+     * @throws IOException
+     */
+    NewSessionTicket getNewSessionTicket13(TlsSecret resumptionPSK, long ticketAgeAdd)
+        throws IOException;
 }
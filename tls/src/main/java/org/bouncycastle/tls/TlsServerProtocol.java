@@ -9,9 +9,11 @@ import java.util.Hashtable;
 import java.util.Vector;
 
 import org.bouncycastle.tls.crypto.TlsAgreement;
+import org.bouncycastle.tls.crypto.TlsCipher;
 import org.bouncycastle.tls.crypto.TlsCrypto;
 import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Objects;
 
 public class TlsServerProtocol
     extends TlsProtocol
@@ -23,6 +25,10 @@ public class TlsServerProtocol
     protected TlsKeyExchange keyExchange = null;
     protected CertificateRequest certificateRequest = null;
 
+    // TLS 1.3 accepted early data: the cipher to read it with, and how much more may be received (or -1)
+    TlsCipher earlyDataCipher13 = null;
+    long earlyDataRemaining13 = -1L;
+
     /**
      * Constructor for non-blocking mode.<br>
      * <br>
@@ -100,6 +106,53 @@ public class TlsServerProtocol
         this.offeredCipherSuites = null;
         this.keyExchange = null;
         this.certificateRequest = null;
+
+        this.earlyDataCipher13 = null;
+        this.earlyDataRemaining13 = -1L;
+    }
+
+    boolean accept13EarlyData(Hashtable clientHelloExtensions, OfferedPsks.SelectedConfig selectedPSK)
+        throws IOException
+    {
+        // NOTE: Early data is only supported for resumption PSKs, and only for the first one offered
+        if (null == selectedPSK || 0 != selectedPSK.index || !(selectedPSK.psk instanceof TlsPSKResumption))
+        {
+            return false;
+        }
+
+        TlsPSKResumption psk = (TlsPSKResumption)selectedPSK.psk;
+        SessionParameters sessionParameters = psk.getSessionParameters();
+        SecurityParameters securityParameters = tlsServerContext.getSecurityParametersHandshake();
+
+        /*
+         * RFC 8446 4.2.10. In order to accept early data, the server MUST have accepted a PSK cipher suite
+         * and selected the first key offered in the client's "pre_shared_key" extension. In addition, it MUST
+         * verify that the following values are the same as those associated with the selected PSK: [..] The
+         * selected cipher suite [..] The selected ALPN protocol, if any.
+         */
+        if (null == sessionParameters || sessionParameters.getCipherSuite() != securityParameters.getCipherSuite())
+        {
+            return false;
+        }
+        if (!Objects.areEqual(securityParameters.getApplicationProtocol(),
+            TlsExtensionsUtils.getALPNExtensionServer(sessionParameters.readServerExtensions())))
+        {
+            return false;
+        }
+
+        TlsAntiReplay antiReplay = tlsServer.getAntiReplay();
+        if (tlsServer.getMaxEarlyDataSize() < 1L || null == antiReplay)
+        {
+            return false;
+        }
+
+        OfferedPsks offeredPsks = TlsExtensionsUtils.getPreSharedKeyClientHello(clientHelloExtensions);
+        PskIdentity identity = (PskIdentity)offeredPsks.getIdentities().elementAt(0);
+
+        long clientTicketAge = (identity.getObfuscatedTicketAge() - psk.getTicketAgeAdd()) & 0xFFFFFFFFL;
+        long serverTicketAge = System.currentTimeMillis() - psk.getTicketIssueTime();
+
+        return antiReplay.checkAndRecord(identity.getIdentity(), clientTicketAge, serverTicketAge);
     }
 
     protected boolean expectCertificateVerifyMessage()
@@ -165,6 +218,9 @@ public class TlsServerProtocol
         ProtocolVersion serverVersion = securityParameters.getNegotiatedVersion();
         TlsCrypto crypto = tlsServerContext.getCrypto();
 
+        // NOTE: Set before PSK selection, so that resumption can be refused for a different server name
+        securityParameters.clientServerNames = TlsExtensionsUtils.getServerNameExtensionClient(clientHelloExtensions);
+
         // NOTE: Will only select for psk_dhe_ke
         OfferedPsks.SelectedConfig selectedPSK = TlsUtils.selectPreSharedKey(tlsServerContext, tlsServer,
             clientHelloExtensions, clientHelloMessage, handshakeHash, afterHelloRetryRequest);
@@ -216,6 +272,13 @@ public class TlsServerProtocol
             }
             this.retryCookie = null;
 
+            // RFC 8446 4.1.2. Early data is not permitted after a HelloRetryRequest.
+            if (TlsExtensionsUtils.hasEarlyDataIndication(clientHelloExtensions))
+            {
+                throw new TlsFatalAlert(AlertDescription.illegal_parameter);
+            }
+            recordStream.setEarlyDataSkipLimit(-1L);
+
             clientShare = TlsUtils.getRetryKeyShare(clientShares, retryGroup);
             if (null == clientShare)
             {
@@ -240,9 +303,6 @@ public class TlsServerProtocol
             // NOTE: Validates the padding extension data, if present
             TlsExtensionsUtils.getPaddingExtension(clientHelloExtensions);
 
-            securityParameters.clientServerNames = TlsExtensionsUtils
-                .getServerNameExtensionClient(clientHelloExtensions);
-
             TlsUtils.establishClientSigAlgs(securityParameters, clientHelloExtensions);
 
             /*
@@ -289,6 +349,12 @@ public class TlsServerProtocol
                 }
 
                 TlsUtils.negotiatedCipherSuite(securityParameters, cipherSuite);
+
+                if (null != selectedPSK && selectedPSK.psk.getPRFAlgorithm() != securityParameters.getPRFAlgorithm())
+                {
+                    throw new TlsFatalAlert(AlertDescription.internal_error,
+                        "Selected cipher suite incompatible with selected PSK");
+                }
             }
 
             int[] clientSupportedGroups = securityParameters.getClientSupportedGroups();
@@ -312,6 +378,11 @@ public class TlsServerProtocol
 
                 this.retryCookie = tlsServerContext.getNonceGenerator().generateNonce(16);
 
+                if (TlsExtensionsUtils.hasEarlyDataIndication(clientHelloExtensions))
+                {
+                    skip13EarlyData();
+                }
+
                 return generate13HelloRetryRequest(clientHello);
             }
         }
@@ -394,9 +465,32 @@ public class TlsServerProtocol
 
             this.selectedPSK13 = true;
 
+            if (selectedPSK.psk instanceof TlsPSKResumption)
+            {
+                this.resumedSessionParameters13 = ((TlsPSKResumption)selectedPSK.psk).getSessionParameters();
+            }
+
             TlsExtensionsUtils.addPreSharedKeyServerHello(serverHelloExtensions, selectedPSK.index);
         }
 
+        if (!afterHelloRetryRequest && TlsExtensionsUtils.hasEarlyDataIndication(clientHelloExtensions))
+        {
+            if (accept13EarlyData(clientHelloExtensions, selectedPSK))
+            {
+                this.earlyDataCipher13 = TlsUtils.init13EarlyDataCipher(tlsServerContext, handshakeHash,
+                    securityParameters.getCipherSuite(), pskEarlySecret);
+                this.earlyDataRemaining13 = tlsServer.getMaxEarlyDataSize();
+
+                TlsExtensionsUtils.addEarlyDataIndication(serverEncryptedExtensions);
+
+                tlsServer.notifyEarlyDataAccepted(true);
+            }
+            else
+            {
+                skip13EarlyData();
+            }
+        }
+
         TlsSecret sharedSecret;
         {
             int negotiatedGroup = securityParameters.getNegotiatedGroup();
@@ -418,7 +512,7 @@ public class TlsServerProtocol
             KeyShareEntry serverShare = new KeyShareEntry(negotiatedGroup, key_exchange);
             TlsExtensionsUtils.addKeyShareServerHello(serverHelloExtensions, serverShare);
 
-            sharedSecret = agreement.calculateSecret();
+            sharedSecret = TlsUtils.calculateSecret(tlsServerContext, negotiatedGroup, agreement);
         }
 
         TlsUtils.establish13PhaseSecrets(tlsServerContext, pskEarlySecret, sharedSecret);
@@ -880,6 +974,12 @@ public class TlsServerProtocol
          * might now send EndOfEarlyData after receiving server Finished message.
          */
 
+        // NOTE: Once early data has been accepted, the next handshake message must be EndOfEarlyData
+        if (earlyDataRemaining13 >= 0L && type != HandshakeType.end_of_early_data)
+        {
+            throw new TlsFatalAlert(AlertDescription.unexpected_message);
+        }
+
         switch (type)
         {
         case HandshakeType.certificate:
@@ -887,6 +987,7 @@ public class TlsServerProtocol
             switch (this.connection_state)
             {
             case CS_SERVER_FINISHED:
+            case CS_CLIENT_END_OF_EARLY_DATA:
             {
                 receive13ClientCertificate(buf);
                 this.connection_state = CS_CLIENT_CERTIFICATE;
@@ -897,6 +998,22 @@ public class TlsServerProtocol
             }
             break;
         }
+        case HandshakeType.compressed_certificate:
+        {
+            switch (this.connection_state)
+            {
+            case CS_SERVER_FINISHED:
+            case CS_CLIENT_END_OF_EARLY_DATA:
+            {
+                receive13ClientCompressedCertificate(buf);
+                this.connection_state = CS_CLIENT_CERTIFICATE;
+                break;
+            }
+            default:
+                throw new TlsFatalAlert(AlertDescription.unexpected_message);
+            }
+            break;
+        }
         case HandshakeType.certificate_verify:
         {
             switch (this.connection_state)
@@ -939,11 +1056,32 @@ public class TlsServerProtocol
             }
             break;
         }
+        case HandshakeType.end_of_early_data:
+        {
+            switch (this.connection_state)
+            {
+            case CS_SERVER_FINISHED:
+            {
+                if (earlyDataRemaining13 < 0L)
+                {
+                    throw new TlsFatalAlert(AlertDescription.unexpected_message);
+                }
+
+                receive13EndOfEarlyData(buf);
+                this.connection_state = CS_CLIENT_END_OF_EARLY_DATA;
+                break;
+            }
+            default:
+                throw new TlsFatalAlert(AlertDescription.unexpected_message);
+            }
+            break;
+        }
         case HandshakeType.finished:
         {
             switch (this.connection_state)
             {
             case CS_SERVER_FINISHED:
+            case CS_CLIENT_END_OF_EARLY_DATA:
             {
                 skip13ClientCertificate();
                 // NB: Fall through to next case label
@@ -956,8 +1094,12 @@ public class TlsServerProtocol
             case CS_CLIENT_CERTIFICATE_VERIFY:
             {
                 receive13ClientFinished(buf);
+                buf.updateHash(handshakeHash);
                 this.connection_state = CS_CLIENT_FINISHED;
 
+                TlsUtils.establish13ResumptionMasterSecret(tlsServerContext,
+                    TlsUtils.getCurrentPRFHash(handshakeHash));
+
                 // See RFC 8446 D.4.
                 recordStream.setIgnoreChangeCipherSpec(false);
 
@@ -965,6 +1107,8 @@ public class TlsServerProtocol
                 recordStream.enablePendingCipherRead(false);
 
                 completeHandshake();
+
+                send13NewSessionTickets();
                 break;
             }
             default:
@@ -982,9 +1126,7 @@ public class TlsServerProtocol
         case HandshakeType.certificate_status:
         case HandshakeType.certificate_url:
         case HandshakeType.client_key_exchange:
-        case HandshakeType.compressed_certificate:
         case HandshakeType.encrypted_extensions:
-        case HandshakeType.end_of_early_data:
         case HandshakeType.hello_request:
         case HandshakeType.hello_verify_request:
         case HandshakeType.message_hash:
@@ -1464,6 +1606,19 @@ public class TlsServerProtocol
         notifyClientCertificate(clientCertificate);
     }
 
+    protected void receive13ClientCompressedCertificate(ByteArrayInputStream buf)
+        throws IOException
+    {
+        if (null == certificateRequest)
+        {
+            throw new TlsFatalAlert(AlertDescription.unexpected_message);
+        }
+
+        int[] offeredAlgorithms = certificateRequest.getCompressCertificateAlgorithms();
+
+        receive13ClientCertificate(receive13CompressedCertificate(buf, offeredAlgorithms));
+    }
+
     protected void receive13ClientCertificateVerify(ByteArrayInputStream buf)
         throws IOException
     {
@@ -1480,6 +1635,30 @@ public class TlsServerProtocol
         TlsUtils.verify13CertificateVerifyClient(tlsServerContext, handshakeHash, certificateVerify);
     }
 
+    protected void processEarlyData(int len)
+        throws IOException
+    {
+        /*
+         * RFC 8446 4.6.1. A server receiving more than max_early_data_size bytes of 0-RTT data SHOULD
+         * terminate the connection with an "unexpected_message" alert.
+         */
+        if (earlyDataRemaining13 < len)
+        {
+            throw new TlsFatalAlert(AlertDescription.unexpected_message);
+        }
+
+        this.earlyDataRemaining13 -= len;
+    }
+
+    protected void receive13EndOfEarlyData(ByteArrayInputStream buf) throws IOException
+    {
+        assertEmpty(buf);
+
+        this.earlyDataRemaining13 = -1L;
+
+        recordStream.notifyEndOfEarlyData();
+    }
+
     protected void receive13ClientFinished(ByteArrayInputStream buf) throws IOException
     {
         process13FinishedMessage(buf);
@@ -1571,6 +1750,14 @@ public class TlsServerProtocol
 
         byte[] serverHelloTranscriptHash = TlsUtils.getCurrentPRFHash(handshakeHash);
 
+        // NOTE: Accepted early data is read until EndOfEarlyData, then the (deferred) handshake cipher takes over
+        if (null != earlyDataCipher13)
+        {
+            recordStream.setPendingCipher(earlyDataCipher13);
+            recordStream.enablePendingCipherReadEarlyData();
+            this.earlyDataCipher13 = null;
+        }
+
         TlsUtils.establish13PhaseHandshake(tlsServerContext, serverHelloTranscriptHash, recordStream);
 
         recordStream.enablePendingCipherWrite();
@@ -1597,6 +1784,17 @@ public class TlsServerProtocol
                         throw new TlsFatalAlert(AlertDescription.internal_error);
                     }
     
+                    int[] compressionAlgorithms = TlsUtils.getCertificateCompressionAlgorithms(
+                        tlsServer.getCertificateCompressors());
+                    if (null != compressionAlgorithms && null == certificateRequest.getCompressCertificateAlgorithms())
+                    {
+                        this.certificateRequest = new CertificateRequest(
+                            certificateRequest.getCertificateRequestContext(),
+                            certificateRequest.getSupportedSignatureAlgorithms(),
+                            certificateRequest.getSupportedSignatureAlgorithmsCert(),
+                            certificateRequest.getCertificateAuthorities(), compressionAlgorithms);
+                    }
+
                     TlsUtils.establishServerSigAlgs(securityParameters, certificateRequest);
     
                     sendCertificateRequestMessage(certificateRequest);
@@ -1622,7 +1820,8 @@ public class TlsServerProtocol
                  */
 
                 Certificate serverCertificate = serverCredentials.getCertificate();
-                send13CertificateMessage(serverCertificate);
+                send13CertificateMessage(serverCertificate,
+                    TlsExtensionsUtils.getCompressCertificateExtension(clientExtensions));
                 securityParameters.tlsServerEndPoint = null;
                 this.connection_state = CS_SERVER_CERTIFICATE;
             }
@@ -1672,6 +1871,68 @@ public class TlsServerProtocol
         HandshakeMessageOutput.send(this, HandshakeType.hello_request, TlsUtils.EMPTY_BYTES);
     }
 
+    protected void send13NewSessionTickets()
+        throws IOException
+    {
+        SecurityParameters securityParameters = tlsServerContext.getSecurityParametersConnection();
+
+        // NOTE: The ticket_nonce only has to be unique per connection, so a one-byte counter will do
+        for (int i = 0; i < 256; ++i)
+        {
+            byte[] ticketNonce = new byte[]{ (byte)i };
+            long ticketAgeAdd = TlsUtils.readUint32(tlsServerContext.getNonceGenerator().generateNonce(4), 0);
+
+            TlsSecret resumptionPSK = TlsUtils.derive13ResumptionPSK(securityParameters,
+                resumptionMasterSecret13, ticketNonce);
+
+            NewSessionTicket newSessionTicket;
+            try
+            {
+                newSessionTicket = tlsServer.getNewSessionTicket13(resumptionPSK, ticketAgeAdd);
+            }
+            finally
+            {
+                resumptionPSK.destroy();
+            }
+
+            if (null == newSessionTicket)
+            {
+                break;
+            }
+
+            send13NewSessionTicketMessage(newSessionTicket, ticketAgeAdd, ticketNonce);
+        }
+    }
+
+    protected void send13NewSessionTicketMessage(NewSessionTicket newSessionTicket, long ticketAgeAdd,
+        byte[] ticketNonce) throws IOException
+    {
+        long ticketLifetime = newSessionTicket.getTicketLifetimeHint();
+        byte[] ticket = newSessionTicket.getTicket();
+
+        // RFC 8446 4.6.1. Servers MUST NOT use any value greater than 604800 seconds (7 days).
+        if (ticketLifetime < 0L || ticketLifetime > 604800L || TlsUtils.isNullOrEmpty(ticket))
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        Hashtable extensions = new Hashtable();
+
+        long maxEarlyDataSize = tlsServer.getMaxEarlyDataSize();
+        if (maxEarlyDataSize > 0L && null != tlsServer.getAntiReplay())
+        {
+            TlsExtensionsUtils.addEarlyDataMaxSize(extensions, maxEarlyDataSize);
+        }
+
+        HandshakeMessageOutput message = new HandshakeMessageOutput(HandshakeType.new_session_ticket);
+        TlsUtils.writeUint32(ticketLifetime, message);
+        TlsUtils.writeUint32(ticketAgeAdd, message);
+        TlsUtils.writeOpaque8(ticketNonce, message);
+        TlsUtils.writeOpaque16(ticket, message);
+        TlsUtils.writeOpaque16(writeExtensionsData(extensions), message);
+        message.send(this);
+    }
+
     protected void sendNewSessionTicketMessage(NewSessionTicket newSessionTicket)
         throws IOException
     {
@@ -1705,6 +1966,16 @@ public class TlsServerProtocol
         HandshakeMessageOutput.send(this, HandshakeType.server_key_exchange, serverKeyExchange);
     }
 
+    protected void skip13EarlyData() throws IOException
+    {
+        // NOTE: Rejected early data is skipped, up to the larger of the configured limit and one full record
+        long skipLimit = Math.max(tlsServer.getMaxEarlyDataSize(), 1 << 14);
+
+        recordStream.setEarlyDataSkipLimit(skipLimit);
+
+        tlsServer.notifyEarlyDataAccepted(false);
+    }
+
     protected void skip13ClientCertificate() throws IOException
     {
         if (null != certificateRequest)
@@ -50,6 +50,7 @@ import org.bouncycastle.tls.crypto.TlsVerifier;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Integers;
 import org.bouncycastle.util.Shorts;
+import org.bouncycastle.util.Times;
 import org.bouncycastle.util.encoders.Hex;
 import org.bouncycastle.util.io.Streams;
 
@@ -1955,6 +1956,49 @@ public class TlsUtils
             clientHelloTranscriptHash);
     }
 
+    /**
+     * Create the cipher for TLS 1.3 early data, keyed from the cipher suite of the session the PSK was
+     * established on. Must be called while the handshake hash still buffers just the first ClientHello.
+     */
+    static TlsCipher init13EarlyDataCipher(TlsContext context, TlsHandshakeHash handshakeHash, int cipherSuite,
+        TlsSecret pskEarlySecret) throws IOException
+    {
+        int encryptionAlgorithm = getEncryptionAlgorithm(cipherSuite);
+        int macAlgorithm = getMACAlgorithm(cipherSuite);
+
+        if (encryptionAlgorithm < 0 || macAlgorithm < 0)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        SecurityParameters securityParameters = new SecurityParameters();
+        securityParameters.negotiatedVersion = ProtocolVersion.TLSv13;
+        negotiatedCipherSuite(securityParameters, cipherSuite);
+
+        TlsCrypto crypto = context.getCrypto();
+
+        byte[] clientHelloTranscriptHash;
+        {
+            TlsHash hash = crypto.createHash(securityParameters.getPRFCryptoHashAlgorithm());
+            handshakeHash.copyBufferTo(new TlsHashOutputStream(hash));
+            clientHelloTranscriptHash = hash.calculateHash();
+        }
+
+        TlsSecret trafficSecret = deriveSecret(securityParameters, pskEarlySecret, "c e traffic",
+            clientHelloTranscriptHash);
+        securityParameters.trafficSecretClient = trafficSecret;
+
+        try
+        {
+            return crypto.createCipher(new EarlyDataCryptoParameters(context, securityParameters),
+                encryptionAlgorithm, macAlgorithm);
+        }
+        finally
+        {
+            trafficSecret.destroy();
+        }
+    }
+
     static void establish13PhaseHandshake(TlsContext context, byte[] serverHelloTranscriptHash,
         RecordStream recordStream) throws IOException
     {
@@ -1968,6 +2012,31 @@ public class TlsUtils
         securityParameters.baseKeyServer = securityParameters.getTrafficSecretServer();
     }
 
+    static void establish13ResumptionMasterSecret(TlsContext context, byte[] clientFinishedTranscriptHash)
+        throws IOException
+    {
+        SecurityParameters securityParameters = context.getSecurityParametersHandshake();
+        TlsSecret phaseSecret = securityParameters.getMasterSecret();
+
+        securityParameters.resumptionMasterSecret = deriveSecret(securityParameters, phaseSecret, "res master",
+            clientFinishedTranscriptHash);
+    }
+
+    static TlsSecret derive13ResumptionPSK(SecurityParameters securityParameters,
+        TlsSecret resumptionMasterSecret, byte[] ticketNonce) throws IOException
+    {
+        if (null == resumptionMasterSecret)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        int prfCryptoHashAlgorithm = securityParameters.getPRFCryptoHashAlgorithm();
+        int prfHashLength = securityParameters.getPRFHashLength();
+
+        return TlsCryptoUtils.hkdfExpandLabel(resumptionMasterSecret, prfCryptoHashAlgorithm, "resumption",
+            ticketNonce, prfHashLength);
+    }
+
     static void update13TrafficSecretLocal(TlsContext context) throws IOException
     {
         update13TrafficSecret(context, context.isServer());
@@ -2322,7 +2391,7 @@ public class TlsUtils
         }
     }
 
-    static int getPRFAlgorithm13(int cipherSuite)
+    public static int getPRFAlgorithm13(int cipherSuite)
     {
         // NOTE: getPRFAlgorithms13 relies on the number of distinct return values
         switch (cipherSuite)
@@ -2405,6 +2474,9 @@ public class TlsUtils
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
+        TlsMetricsListener metricsListener = getMetricsListener(clientContext);
+        long startNanos = null == metricsListener ? 0L : Times.nanoTime();
+
         byte[] signature;
         if (clientAuthStreamSigner != null)
         {
@@ -2426,6 +2498,12 @@ public class TlsUtils
             signature = clientAuthSigner.generateRawSignature(hash);
         }
 
+        if (null != metricsListener)
+        {
+            metricsListener.signatureGenerated(getSignatureSchemeForMetrics(clientAuthAlgorithm),
+                Times.nanoTime() - startNanos);
+        }
+
         return new DigitallySigned(clientAuthAlgorithm, signature);
     }
 
@@ -2442,9 +2520,18 @@ public class TlsUtils
             ? "TLS 1.3, server CertificateVerify"
             : "TLS 1.3, client CertificateVerify";
 
+        TlsMetricsListener metricsListener = getMetricsListener(context);
+        long startNanos = null == metricsListener ? 0L : Times.nanoTime();
+
         byte[] signature = generate13CertificateVerify(context.getCrypto(), credentialedSigner, contextString,
             handshakeHash, signatureAndHashAlgorithm);
 
+        if (null != metricsListener)
+        {
+            metricsListener.signatureGenerated(SignatureScheme.from(signatureAndHashAlgorithm),
+                Times.nanoTime() - startNanos);
+        }
+
         return new DigitallySigned(signatureAndHashAlgorithm, signature);
     }
 
@@ -2501,6 +2588,9 @@ public class TlsUtils
                 SignatureAlgorithm.getClientCertificateType(signatureAlgorithm), AlertDescription.illegal_parameter);
         }
 
+        TlsMetricsListener metricsListener = getMetricsListener(serverContext);
+        long startNanos = null == metricsListener ? 0L : Times.nanoTime();
+
         // Verify the CertificateVerify message contains a correct signature.
         boolean verified;
         try
@@ -2537,6 +2627,12 @@ public class TlsUtils
             throw new TlsFatalAlert(AlertDescription.decrypt_error, e);
         }
 
+        if (null != metricsListener)
+        {
+            metricsListener.signatureVerified(getSignatureSchemeForMetrics(sigAndHashAlg), verified,
+                Times.nanoTime() - startNanos);
+        }
+
         if (!verified)
         {
             throw new TlsFatalAlert(AlertDescription.decrypt_error);
@@ -2551,8 +2647,8 @@ public class TlsUtils
         Vector supportedAlgorithms = securityParameters.getServerSigAlgs();
         TlsCertificate certificate = securityParameters.getPeerCertificate().getCertificateAt(0);
 
-        verify13CertificateVerify(supportedAlgorithms, "TLS 1.3, client CertificateVerify", handshakeHash, certificate,
-            certificateVerify);
+        verify13CertificateVerify(serverContext, supportedAlgorithms, "TLS 1.3, client CertificateVerify",
+            handshakeHash, certificate, certificateVerify);
     }
 
     static void verify13CertificateVerifyServer(TlsClientContext clientContext, TlsHandshakeHash handshakeHash,
@@ -2563,14 +2659,17 @@ public class TlsUtils
         Vector supportedAlgorithms = securityParameters.getClientSigAlgs();
         TlsCertificate certificate = securityParameters.getPeerCertificate().getCertificateAt(0);
 
-        verify13CertificateVerify(supportedAlgorithms, "TLS 1.3, server CertificateVerify", handshakeHash, certificate,
-            certificateVerify);
+        verify13CertificateVerify(clientContext, supportedAlgorithms, "TLS 1.3, server CertificateVerify",
+            handshakeHash, certificate, certificateVerify);
     }
 
-    private static void verify13CertificateVerify(Vector supportedAlgorithms, String contextString,
-        TlsHandshakeHash handshakeHash, TlsCertificate certificate, CertificateVerify certificateVerify)
-        throws IOException
+    private static void verify13CertificateVerify(TlsContext context, Vector supportedAlgorithms,
+        String contextString, TlsHandshakeHash handshakeHash, TlsCertificate certificate,
+        CertificateVerify certificateVerify) throws IOException
     {
+        TlsMetricsListener metricsListener = getMetricsListener(context);
+        long startNanos = null == metricsListener ? 0L : Times.nanoTime();
+
         // Verify the CertificateVerify message contains a correct signature.
         boolean verified;
         try
@@ -2599,6 +2698,12 @@ public class TlsUtils
             throw new TlsFatalAlert(AlertDescription.decrypt_error, e);
         }
 
+        if (null != metricsListener)
+        {
+            metricsListener.signatureVerified(certificateVerify.getAlgorithm(), verified,
+                Times.nanoTime() - startNanos);
+        }
+
         if (!verified)
         {
             throw new TlsFatalAlert(AlertDescription.decrypt_error);
@@ -2631,6 +2736,9 @@ public class TlsUtils
         SignatureAndHashAlgorithm algorithm = getSignatureAndHashAlgorithm(context.getServerVersion(), credentials);
         TlsStreamSigner streamSigner = credentials.getStreamSigner();
 
+        TlsMetricsListener metricsListener = getMetricsListener(context);
+        long startNanos = null == metricsListener ? 0L : Times.nanoTime();
+
         byte[] signature;
         if (streamSigner != null)
         {
@@ -2643,6 +2751,11 @@ public class TlsUtils
             signature = credentials.generateRawSignature(hash);
         }
 
+        if (null != metricsListener)
+        {
+            metricsListener.signatureGenerated(getSignatureSchemeForMetrics(algorithm), Times.nanoTime() - startNanos);
+        }
+
         DigitallySigned digitallySigned = new DigitallySigned(algorithm, signature);
 
         digitallySigned.encode(digestBuffer);
@@ -2679,6 +2792,9 @@ public class TlsUtils
                 AlertDescription.illegal_parameter);
         }
 
+        TlsMetricsListener metricsListener = getMetricsListener(context);
+        long startNanos = null == metricsListener ? 0L : Times.nanoTime();
+
         TlsVerifier verifier = serverCertificate.createVerifier(signatureAlgorithm);
         TlsStreamVerifier streamVerifier = verifier.getStreamVerifier(digitallySigned);
 
@@ -2694,12 +2810,46 @@ public class TlsUtils
             verified = verifier.verifyRawSignature(digitallySigned, hash);
         }
 
+        if (null != metricsListener)
+        {
+            metricsListener.signatureVerified(getSignatureSchemeForMetrics(sigAndHashAlg), verified,
+                Times.nanoTime() - startNanos);
+        }
+
         if (!verified)
         {
             throw new TlsFatalAlert(AlertDescription.decrypt_error);
         }
     }
 
+    static TlsMetricsListener getMetricsListener(TlsContext context)
+    {
+        return context instanceof AbstractTlsContext ? ((AbstractTlsContext)context).getMetricsListener() : null;
+    }
+
+    private static int getSignatureSchemeForMetrics(SignatureAndHashAlgorithm sigAndHashAlg)
+    {
+        return null == sigAndHashAlg ? -1 : SignatureScheme.from(sigAndHashAlg);
+    }
+
+    /**
+     * Calculate the shared secret of the given agreement, reporting the time taken to any
+     * {@link TlsMetricsListener}.
+     */
+    static TlsSecret calculateSecret(TlsContext context, int namedGroup, TlsAgreement agreement) throws IOException
+    {
+        TlsMetricsListener metricsListener = getMetricsListener(context);
+        if (null == metricsListener)
+        {
+            return agreement.calculateSecret();
+        }
+
+        long startNanos = Times.nanoTime();
+        TlsSecret secret = agreement.calculateSecret();
+        metricsListener.keyExchangeCalculated(namedGroup, Times.nanoTime() - startNanos);
+        return secret;
+    }
+
     static void trackHashAlgorithmClient(TlsHandshakeHash handshakeHash,
         SignatureAndHashAlgorithm signatureAndHashAlgorithm)
     {
@@ -5393,7 +5543,8 @@ public class TlsUtils
         Hashtable clientAgreements = new Hashtable(3);
         Vector clientShares = new Vector(2);
 
-        collectKeyShares(clientContext.getCrypto(), supportedGroups, keyShareGroups, clientAgreements, clientShares);
+        collectKeyShares(clientContext.getCrypto(), client.getKeySharePool(), supportedGroups, keyShareGroups,
+            clientAgreements, clientShares);
 
         // TODO[tls13-psk] When clientShares empty, consider not adding extension if pre_shared_key in use
         TlsExtensionsUtils.addKeyShareClientHello(clientExtensions, clientShares);
@@ -5401,15 +5552,16 @@ public class TlsUtils
         return clientAgreements;
     }
 
-    static Hashtable addKeyShareToClientHelloRetry(TlsClientContext clientContext, Hashtable clientExtensions,
-        int keyShareGroup) throws IOException
+    static Hashtable addKeyShareToClientHelloRetry(TlsClientContext clientContext, TlsClient client,
+        Hashtable clientExtensions, int keyShareGroup) throws IOException
     {
         int[] supportedGroups = new int[]{ keyShareGroup };
         Vector keyShareGroups = vectorOfOne(Integers.valueOf(keyShareGroup));
         Hashtable clientAgreements = new Hashtable(1, 1.0f);
         Vector clientShares = new Vector(1);
 
-        collectKeyShares(clientContext.getCrypto(), supportedGroups, keyShareGroups, clientAgreements, clientShares);
+        collectKeyShares(clientContext.getCrypto(), client.getKeySharePool(), supportedGroups, keyShareGroups,
+            clientAgreements, clientShares);
 
         TlsExtensionsUtils.addKeyShareClientHello(clientExtensions, clientShares);
 
@@ -5422,8 +5574,8 @@ public class TlsUtils
         return clientAgreements;
     }
 
-    private static void collectKeyShares(TlsCrypto crypto, int[] supportedGroups, Vector keyShareGroups,
-        Hashtable clientAgreements, Vector clientShares) throws IOException
+    private static void collectKeyShares(TlsCrypto crypto, TlsKeySharePool keySharePool, int[] supportedGroups,
+        Vector keyShareGroups, Hashtable clientAgreements, Vector clientShares) throws IOException
     {
         if (isNullOrEmpty(supportedGroups))
         {
@@ -5433,6 +5585,10 @@ public class TlsUtils
         {
             return;
         }
+        if (null != keySharePool && keySharePool.getCrypto() != crypto)
+        {
+            keySharePool = null;
+        }
 
         for (int i = 0; i < supportedGroups.length; ++i)
         {
@@ -5445,6 +5601,14 @@ public class TlsUtils
                 continue;
             }
 
+            TlsKeySharePool.KeyShare pooled = null == keySharePool ? null : keySharePool.take(supportedGroup);
+            if (null != pooled)
+            {
+                clientShares.addElement(new KeyShareEntry(supportedGroup, pooled.keyExchange));
+                clientAgreements.put(supportedGroupElement, pooled.agreement);
+                continue;
+            }
+
             TlsAgreement agreement = createKeyShare(crypto, supportedGroup, false);
             if (agreement != null)
             {
@@ -5693,6 +5857,63 @@ public class TlsUtils
         }
     }
 
+    static int[] getCertificateCompressionAlgorithms(TlsCertificateCompressor[] compressors)
+    {
+        if (isNullOrEmpty(compressors))
+        {
+            return null;
+        }
+
+        int[] algorithms = new int[compressors.length];
+        int count = 0;
+        for (int i = 0; i < compressors.length; ++i)
+        {
+            int algorithm = compressors[i].getAlgorithm();
+            if (null == getCertificateCompressor(compressors, algorithm, i))
+            {
+                algorithms[count++] = algorithm;
+            }
+        }
+        return truncate(algorithms, count);
+    }
+
+    static TlsCertificateCompressor getCertificateCompressor(TlsCertificateCompressor[] compressors,
+        int algorithm)
+    {
+        return null == compressors ? null : getCertificateCompressor(compressors, algorithm, compressors.length);
+    }
+
+    private static TlsCertificateCompressor getCertificateCompressor(TlsCertificateCompressor[] compressors,
+        int algorithm, int count)
+    {
+        for (int i = 0; i < count; ++i)
+        {
+            TlsCertificateCompressor compressor = compressors[i];
+            if (compressor.getAlgorithm() == algorithm)
+            {
+                return compressor;
+            }
+        }
+        return null;
+    }
+
+    static TlsCertificateCompressor selectCertificateCompressor(TlsCertificateCompressor[] compressors,
+        int[] peerAlgorithms)
+    {
+        if (null != compressors && null != peerAlgorithms)
+        {
+            for (int i = 0; i < compressors.length; ++i)
+            {
+                TlsCertificateCompressor compressor = compressors[i];
+                if (Arrays.contains(peerAlgorithms, compressor.getAlgorithm()))
+                {
+                    return compressor;
+                }
+            }
+        }
+        return null;
+    }
+
     static TlsCredentials validateCredentials(TlsCredentials credentials) throws IOException
     {
         if (null != credentials)
@@ -6057,8 +6278,13 @@ public class TlsUtils
         {
             TlsPSK psk = psks[i];
 
-            // TODO[tls13-psk] Handle obfuscated_ticket_age for resumption PSKs
-            identities.add(new PskIdentity(psk.getIdentity(), 0L));
+            long obfuscatedTicketAge = 0L;
+            if (psk instanceof TlsPSKResumption)
+            {
+                obfuscatedTicketAge = ((TlsPSKResumption)psk).getObfuscatedTicketAge();
+            }
+
+            identities.add(new PskIdentity(psk.getIdentity(), obfuscatedTicketAge));
         }
 
         TlsExtensionsUtils.addPreSharedKeyClientHello(clientExtensions, new OfferedPsks(identities));
@@ -6073,7 +6299,8 @@ public class TlsUtils
         }
 
         TlsPSKExternal[] pskExternals = getPSKExternalsClient(client, offeredCipherSuites);
-        if (null == pskExternals)
+        TlsPSKResumption[] pskResumptions = getPSKResumptionsClient(client, offeredCipherSuites);
+        if (null == pskExternals && null == pskResumptions)
         {
             return null;
         }
@@ -6082,17 +6309,31 @@ public class TlsUtils
         if (isNullOrEmpty(pskKeyExchangeModes))
         {
             throw new TlsFatalAlert(AlertDescription.internal_error,
-                "External PSKs configured but no PskKeyExchangeMode available");
+                "PSKs configured but no PskKeyExchangeMode available");
+        }
+
+        // NOTE: External PSKs are offered first so their indices don't depend on the resumption PSKs
+        int externalCount = null == pskExternals ? 0 : pskExternals.length;
+        int resumptionCount = null == pskResumptions ? 0 : pskResumptions.length;
+
+        TlsPSK[] psks = new TlsPSK[externalCount + resumptionCount];
+        if (externalCount > 0)
+        {
+            System.arraycopy(pskExternals, 0, psks, 0, externalCount);
+        }
+        if (resumptionCount > 0)
+        {
+            System.arraycopy(pskResumptions, 0, psks, externalCount, resumptionCount);
         }
 
-        TlsSecret[] pskEarlySecrets = getPSKEarlySecrets(clientContext.getCrypto(), pskExternals);
+        TlsSecret[] pskEarlySecrets = getPSKEarlySecrets(clientContext.getCrypto(), psks);
 
-        int bindersSize = OfferedPsks.getBindersSize(pskExternals);
+        int bindersSize = OfferedPsks.getBindersSize(psks);
 
-        addPreSharedKeyToClientExtensions(pskExternals, clientExtensions);
+        addPreSharedKeyToClientExtensions(psks, clientExtensions);
         TlsExtensionsUtils.addPSKKeyExchangeModesExtension(clientExtensions, pskKeyExchangeModes);
 
-        return new OfferedPsks.BindersConfig(pskExternals, pskKeyExchangeModes, pskEarlySecrets, bindersSize);
+        return new OfferedPsks.BindersConfig(psks, pskKeyExchangeModes, pskEarlySecrets, bindersSize);
     }
 
     static OfferedPsks.BindersConfig addPreSharedKeyToClientHelloRetry(TlsClientContext clientContext,
@@ -6158,10 +6399,19 @@ public class TlsUtils
             if (PskKeyExchangeMode.psk_dhe_ke == selectedMode)
             {
                 // TODO[tls13] Prefer to get the exact index from the server?
-                TlsPSKExternal psk = server.getExternalPSK(offeredPsks.getIdentities());
+                TlsPSK psk = server.getExternalPSK(offeredPsks.getIdentities());
+                boolean isExternalPSK = true;
+                if (null == psk)
+                {
+                    psk = server.getResumptionPSK(offeredPsks.getIdentities());
+                    isExternalPSK = false;
+                }
+
                 if (null != psk)
                 {
-                    int index = offeredPsks.getIndexOfIdentity(new PskIdentity(psk.getIdentity(), 0L));
+                    int index = isExternalPSK
+                        ?   offeredPsks.getIndexOfIdentity(new PskIdentity(psk.getIdentity(), 0L))
+                        :   offeredPsks.getIndexOfIdentity(psk.getIdentity());
                     if (index >= 0)
                     {
                         /*
@@ -6177,8 +6427,6 @@ public class TlsUtils
                         TlsCrypto crypto = serverContext.getCrypto();
                         TlsSecret earlySecret = getPSKEarlySecret(crypto, psk);
 
-                        // TODO[tls13-psk] Handle resumption PSKs
-                        boolean isExternalPSK = true;
                         int pskCryptoHashAlgorithm = TlsCryptoUtils.getHashForPRF(psk.getPRFAlgorithm());
 
                         byte[] transcriptHash;
@@ -6295,6 +6543,45 @@ public class TlsUtils
         return result;
     }
 
+    static TlsPSKResumption[] getPSKResumptionsClient(TlsClient client, int[] offeredCipherSuites)
+        throws IOException
+    {
+        Vector resumptionPSKs = client.getResumptionPSKs();
+        if (isNullOrEmpty(resumptionPSKs))
+        {
+            return null;
+        }
+
+        int[] prfAlgorithms = getPRFAlgorithms13(offeredCipherSuites);
+
+        Vector v = new Vector(resumptionPSKs.size());
+        for (int i = 0; i < resumptionPSKs.size(); ++i)
+        {
+            Object element = resumptionPSKs.elementAt(i);
+            if (!(element instanceof TlsPSKResumption))
+            {
+                throw new TlsFatalAlert(AlertDescription.internal_error,
+                    "Resumption PSKs element is not a TlsPSKResumption");
+            }
+
+            // NOTE: A ticket is only usable with a cipher suite having the same hash as the original session
+            TlsPSKResumption pskResumption = (TlsPSKResumption)element;
+            if (Arrays.contains(prfAlgorithms, pskResumption.getPRFAlgorithm()))
+            {
+                v.addElement(pskResumption);
+            }
+        }
+
+        if (v.isEmpty())
+        {
+            return null;
+        }
+
+        TlsPSKResumption[] result = new TlsPSKResumption[v.size()];
+        v.copyInto(result);
+        return result;
+    }
+
     static Vector getPSKIndices(TlsPSK[] psks, int prfAlgorithm)
     {
         Vector v = new Vector(psks.length);
@@ -0,0 +1,111 @@
+package org.bouncycastle.tls;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * WARNING: EXPERIMENTAL FEATURE, UNSTABLE API
+ * <p>
+ * {@link TlsCertificateCompressor} for the zlib algorithm (RFC 1950), using {@link Deflater} and
+ * {@link Inflater}.
+ */
+public class ZlibCertificateCompressor
+    implements TlsCertificateCompressor
+{
+    protected final int level;
+
+    public ZlibCertificateCompressor()
+    {
+        this(Deflater.BEST_COMPRESSION);
+    }
+
+    /**
+     * @param level the compression level, see {@link Deflater#setLevel(int)}.
+     */
+    public ZlibCertificateCompressor(int level)
+    {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+        {
+            throw new IllegalArgumentException("'level' must be from 0 to 9, or -1 for the default level");
+        }
+
+        this.level = level;
+    }
+
+    public int getAlgorithm()
+    {
+        return CertificateCompressionAlgorithm.zlib;
+    }
+
+    public byte[] compress(byte[] certificateMessage) throws IOException
+    {
+        Deflater deflater = new Deflater(level);
+        try
+        {
+            deflater.setInput(certificateMessage);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(certificateMessage.length / 2 + 64);
+            byte[] buf = new byte[4096];
+            while (!deflater.finished())
+            {
+                int count = deflater.deflate(buf);
+                output.write(buf, 0, count);
+            }
+            return output.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    public byte[] decompress(byte[] compressedCertificateMessage, int uncompressedLength) throws IOException
+    {
+        if (uncompressedLength < 0)
+        {
+            throw new IllegalArgumentException("'uncompressedLength' cannot be negative");
+        }
+
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(compressedCertificateMessage);
+
+            byte[] result = new byte[uncompressedLength];
+            int pos = 0;
+            while (pos < uncompressedLength)
+            {
+                int count = inflater.inflate(result, pos, uncompressedLength - pos);
+                if (count < 1)
+                {
+                    throw new IOException("Compressed certificate message is shorter than 'uncompressed_length'");
+                }
+                pos += count;
+            }
+
+            // The stream must end exactly here, with no further output and no trailing input
+            if (!inflater.finished() && inflater.inflate(new byte[1]) > 0)
+            {
+                throw new IOException("Compressed certificate message is longer than 'uncompressed_length'");
+            }
+            if (!inflater.finished() || inflater.getRemaining() > 0)
+            {
+                throw new IOException("Compressed certificate message is malformed");
+            }
+
+            return result;
+        }
+        catch (DataFormatException e)
+        {
+            throw new IOException("Compressed certificate message is malformed: " + e.getMessage());
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.bouncycastle.tls.crypto;
+
+import java.io.IOException;
+
+import org.bouncycastle.tls.ProtocolVersion;
+
+/**
+ * A {@link TlsCipher} that can also encode a record directly into a caller-supplied array, avoiding the
+ * allocation of a new array for every record.
+ */
+public interface TlsEncodeIntoCipher
+    extends TlsCipher
+{
+    /**
+     * Encode the passed in plaintext using the current bulk cipher, writing the result to the given output
+     * array. Unlike {@link #encodePlaintext(long, short, ProtocolVersion, int, byte[], int, int)}, the record
+     * type is not returned; use {@link #getRecordType(short)} for it.
+     *
+     * @param seqNo sequence number of the message represented by plaintext.
+     * @param contentType content type of the message represented by plaintext.
+     * @param recordVersion {@link ProtocolVersion} used for the record.
+     * @param plaintext array holding input plaintext to the cipher.
+     * @param offset offset into input array the plaintext starts at.
+     * @param len length of the plaintext in the array.
+     * @param output array to write the ciphertext to, which must have room for at least
+     *            {@link #getCiphertextEncodeLimit(int)} bytes from outputOffset. It may be the same array as
+     *            plaintext, but the regions must not overlap.
+     * @param outputOffset offset into output array the ciphertext should start at.
+     * @return the length of the ciphertext written to the output array.
+     * @throws IOException
+     */
+    int encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion, byte[] plaintext, int offset,
+        int len, byte[] output, int outputOffset) throws IOException;
+
+    /**
+     * Return the (outer) record type for a record of the given content type encoded by this cipher. This is the
+     * content type itself, unless {@link #usesOpaqueRecordTypeEncode()}, in which case it is application_data
+     * for TLS 1.3, or tls12_cid when a connection ID is in use.
+     *
+     * @param contentType content type of the message represented by the plaintext.
+     * @return the record type to write in the record header.
+     */
+    short getRecordType(short contentType);
+}
@@ -10,7 +10,7 @@ import org.bouncycastle.tls.TlsFatalAlert;
  * The cipher for TLS_NULL_WITH_NULL_NULL.
  */
 public class TlsNullNullCipher
-    implements TlsCipher
+    implements TlsEncodeIntoCipher
 {
     public static final TlsNullNullCipher INSTANCE = new TlsNullNullCipher();
 
@@ -42,6 +42,13 @@ public class TlsNullNullCipher
         return new TlsEncodeResult(result, 0, result.length, contentType);
     }
 
+    public int encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion, byte[] plaintext,
+        int offset, int len, byte[] output, int outputOffset) throws IOException
+    {
+        System.arraycopy(plaintext, offset, output, outputOffset, len);
+        return len;
+    }
+
     public TlsDecodeResult decodeCiphertext(long seqNo, short recordType, ProtocolVersion recordVersion,
         byte[] ciphertext, int offset, int len) throws IOException
     {
@@ -67,4 +74,9 @@ public class TlsNullNullCipher
     {
         return false;
     }
+
+    public short getRecordType(short contentType)
+    {
+        return contentType;
+    }
 }
@@ -46,9 +46,19 @@ public final class Tls13NullCipher
         this.readNonce = new byte[readHMAC.getMacLength()];
         this.writeNonce = new byte[writeHMAC.getMacLength()];
 
+        /*
+         * An early data cipher only has a client traffic secret; the direction without a secret is
+         * left unkeyed (and must never be used).
+         */
         final boolean isServer = cryptoParams.isServer();
-        rekeyHmac(securityParameters, readHMAC, readNonce, !isServer);
-        rekeyHmac(securityParameters, writeHMAC, writeNonce, isServer);
+        if (null != getTrafficSecret(securityParameters, !isServer))
+        {
+            rekeyHmac(securityParameters, readHMAC, readNonce, !isServer);
+        }
+        if (null != getTrafficSecret(securityParameters, isServer))
+        {
+            rekeyHmac(securityParameters, writeHMAC, writeNonce, isServer);
+        }
     }
 
     public int getCiphertextDecodeLimit(int plaintextLimit)
@@ -195,11 +205,7 @@ public final class Tls13NullCipher
     private void rekeyHmac(SecurityParameters securityParameters, TlsHMAC hmac, byte[] nonce, boolean serverSecret)
         throws IOException
     {
-        TlsSecret secret = serverSecret
-            ?   securityParameters.getTrafficSecretServer()
-            :   securityParameters.getTrafficSecretClient();
-
-        // TODO[tls13] For early data, have to disable server->client
+        TlsSecret secret = getTrafficSecret(securityParameters, serverSecret);
         if (null == secret)
         {
             throw new TlsFatalAlert(AlertDescription.internal_error);
@@ -208,6 +214,13 @@ public final class Tls13NullCipher
         setupHmac(hmac, nonce, secret, securityParameters.getPRFCryptoHashAlgorithm());
     }
 
+    private static TlsSecret getTrafficSecret(SecurityParameters securityParameters, boolean serverSecret)
+    {
+        return serverSecret
+            ?   securityParameters.getTrafficSecretServer()
+            :   securityParameters.getTrafficSecretClient();
+    }
+
     private void setupHmac(TlsHMAC hmac, byte[] nonce, TlsSecret secret, int cryptoHashAlgorithm)
         throws IOException
     {
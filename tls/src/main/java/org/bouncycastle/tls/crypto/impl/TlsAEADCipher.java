@@ -8,10 +8,10 @@ import org.bouncycastle.tls.ProtocolVersion;
 import org.bouncycastle.tls.SecurityParameters;
 import org.bouncycastle.tls.TlsFatalAlert;
 import org.bouncycastle.tls.TlsUtils;
-import org.bouncycastle.tls.crypto.TlsCipher;
 import org.bouncycastle.tls.crypto.TlsCryptoParameters;
 import org.bouncycastle.tls.crypto.TlsCryptoUtils;
 import org.bouncycastle.tls.crypto.TlsDecodeResult;
+import org.bouncycastle.tls.crypto.TlsEncodeIntoCipher;
 import org.bouncycastle.tls.crypto.TlsEncodeResult;
 import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.util.Arrays;
@@ -20,7 +20,7 @@ import org.bouncycastle.util.Arrays;
  * A generic TLS 1.2 AEAD cipher.
  */
 public final class TlsAEADCipher
-    implements TlsCipher
+    implements TlsEncodeIntoCipher
 {
     public static final int AEAD_CCM = 1;
     public static final int AEAD_CHACHA20_POLY1305 = 2;
@@ -47,6 +47,10 @@ public final class TlsAEADCipher
     private final int nonceMode;
     private final AEADNonceGenerator nonceGenerator;
 
+    // Per-record working buffers, reused so that steady-state record protection doesn't allocate
+    private final byte[] decryptRecordNonce, encryptRecordNonce;
+    private final byte[] decryptAdditionalData, encryptAdditionalData;
+
     /** @deprecated Use version with extra 'nonceGeneratorFactory' parameter */
     @Deprecated
     @SuppressWarnings("InlineMeSuggester")
@@ -101,12 +105,29 @@ public final class TlsAEADCipher
         this.decryptNonce = new byte[fixed_iv_length];
         this.encryptNonce = new byte[fixed_iv_length];
 
+        this.decryptRecordNonce = new byte[fixed_iv_length + record_iv_length];
+        this.encryptRecordNonce = new byte[fixed_iv_length + record_iv_length];
+
+        this.decryptAdditionalData = new byte[getAdditionalDataLength(decryptConnectionID)];
+        this.encryptAdditionalData = new byte[getAdditionalDataLength(encryptConnectionID)];
+
         final boolean isServer = cryptoParams.isServer();
         if (isTLSv13)
         {
             nonceGenerator = null;
-            rekeyCipher(securityParameters, decryptCipher, decryptNonce, !isServer);
-            rekeyCipher(securityParameters, encryptCipher, encryptNonce, isServer);
+
+            /*
+             * An early data cipher only has a client traffic secret; the direction without a secret is
+             * left unkeyed (and must never be used).
+             */
+            if (null != getTrafficSecret(securityParameters, !isServer))
+            {
+                rekeyCipher(securityParameters, decryptCipher, decryptNonce, !isServer);
+            }
+            if (null != getTrafficSecret(securityParameters, isServer))
+            {
+                rekeyCipher(securityParameters, encryptCipher, encryptNonce, isServer);
+            }
             return;
         }
 
@@ -190,7 +211,23 @@ public final class TlsAEADCipher
     public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion,
         int headerAllocation, byte[] plaintext, int plaintextOffset, int plaintextLength) throws IOException
     {
-        byte[] nonce = new byte[encryptNonce.length + record_iv_length];
+        byte[] output = new byte[headerAllocation + getCiphertextEncodeLimit(plaintextLength)];
+
+        int ciphertextLength = encodePlaintext(seqNo, contentType, recordVersion, plaintext, plaintextOffset,
+            plaintextLength, output, headerAllocation);
+
+        if (headerAllocation + ciphertextLength != output.length)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        return new TlsEncodeResult(output, 0, output.length, getRecordType(contentType));
+    }
+
+    public int encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion, byte[] plaintext,
+        int plaintextOffset, int plaintextLength, byte[] output, int outputOffset) throws IOException
+    {
+        byte[] nonce = encryptRecordNonce;
 
         if (null != nonceGenerator)
         {
@@ -206,6 +243,7 @@ public final class TlsAEADCipher
                 TlsUtils.writeUint64(seqNo, nonce, encryptNonce.length);
                 break;
             case NONCE_RFC7905:
+                Arrays.fill(nonce, 0, nonce.length - 8, (byte)0);
                 TlsUtils.writeUint64(seqNo, nonce, nonce.length - 8);
                 for (int i = 0; i < encryptNonce.length; ++i)
                 {
@@ -225,8 +263,7 @@ public final class TlsAEADCipher
         int encryptionLength = encryptCipher.getOutputSize(innerPlaintextLength);
         int ciphertextLength = record_iv_length + encryptionLength;
 
-        byte[] output = new byte[headerAllocation + ciphertextLength];
-        int outputPos = headerAllocation;
+        int outputPos = outputOffset;
 
         if (record_iv_length != 0)
         {
@@ -234,14 +271,10 @@ public final class TlsAEADCipher
             outputPos += record_iv_length;
         }
 
-        short recordType = contentType;
-        if (encryptUseInnerPlaintext)
-        {
-            recordType = isTLSv13 ? ContentType.application_data : ContentType.tls12_cid;
-        }
+        short recordType = getRecordType(contentType);
 
         byte[] additionalData = getAdditionalData(seqNo, recordType, recordVersion, ciphertextLength,
-            innerPlaintextLength, encryptConnectionID);
+            innerPlaintextLength, encryptConnectionID, encryptAdditionalData);
 
         try
         {
@@ -259,13 +292,13 @@ public final class TlsAEADCipher
             throw new TlsFatalAlert(AlertDescription.internal_error, e);
         }
 
-        if (outputPos != output.length)
+        if (outputPos - outputOffset != ciphertextLength)
         {
             // NOTE: The additional data mechanism for AEAD ciphers requires exact output size prediction.
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
-        return new TlsEncodeResult(output, 0, output.length, recordType);
+        return ciphertextLength;
     }
 
     public TlsDecodeResult decodeCiphertext(long seqNo, short recordType, ProtocolVersion recordVersion,
@@ -276,7 +309,7 @@ public final class TlsAEADCipher
             throw new TlsFatalAlert(AlertDescription.decode_error);
         }
 
-        byte[] nonce = new byte[decryptNonce.length + record_iv_length];
+        byte[] nonce = decryptRecordNonce;
 
         switch (nonceMode)
         {
@@ -285,6 +318,7 @@ public final class TlsAEADCipher
             System.arraycopy(ciphertext, ciphertextOffset, nonce, nonce.length - record_iv_length, record_iv_length);
             break;
         case NONCE_RFC7905:
+            Arrays.fill(nonce, 0, nonce.length - 8, (byte)0);
             TlsUtils.writeUint64(seqNo, nonce, nonce.length - 8);
             for (int i = 0; i < decryptNonce.length; ++i)
             {
@@ -302,7 +336,7 @@ public final class TlsAEADCipher
         int innerPlaintextLength = decryptCipher.getOutputSize(encryptionLength);
 
         byte[] additionalData = getAdditionalData(seqNo, recordType, recordVersion, ciphertextLength,
-            innerPlaintextLength, decryptConnectionID);
+            innerPlaintextLength, decryptConnectionID, decryptAdditionalData);
 
         int outputPos;
         try
@@ -366,8 +400,34 @@ public final class TlsAEADCipher
         return encryptUseInnerPlaintext;
     }
 
+    public short getRecordType(short contentType)
+    {
+        if (!encryptUseInnerPlaintext)
+        {
+            return contentType;
+        }
+
+        return isTLSv13 ? ContentType.application_data : ContentType.tls12_cid;
+    }
+
+    private int getAdditionalDataLength(byte[] connectionID)
+    {
+        if (!Arrays.isNullOrEmpty(connectionID))
+        {
+            return 23 + connectionID.length;
+        }
+        else if (isTLSv13)
+        {
+            return 5;
+        }
+        else
+        {
+            return 13;
+        }
+    }
+
     private byte[] getAdditionalData(long seqNo, short recordType, ProtocolVersion recordVersion,
-        int ciphertextLength, int plaintextLength, byte[] connectionID) throws IOException
+        int ciphertextLength, int plaintextLength, byte[] connectionID, byte[] additional_data) throws IOException
     {
         if (!Arrays.isNullOrEmpty(connectionID))
         {
@@ -376,7 +436,6 @@ public final class TlsAEADCipher
              *     + sequence_number + cid + length_of_DTLSInnerPlaintext
              */
             int cidLength = connectionID.length;
-            byte[] additional_data = new byte[23 + cidLength];
             TlsUtils.writeUint64(SEQUENCE_NUMBER_PLACEHOLDER, additional_data, 0);
             TlsUtils.writeUint8(ContentType.tls12_cid, additional_data, 8);
             TlsUtils.writeUint8(cidLength, additional_data, 9);
@@ -385,31 +444,27 @@ public final class TlsAEADCipher
             TlsUtils.writeUint64(seqNo, additional_data, 13);
             System.arraycopy(connectionID, 0, additional_data, 21, cidLength);
             TlsUtils.writeUint16(plaintextLength, additional_data, 21 + cidLength);
-            return additional_data;
         }
         else if (isTLSv13)
         {
             /*
              * TLSCiphertext.opaque_type || TLSCiphertext.legacy_record_version || TLSCiphertext.length
              */
-            byte[] additional_data = new byte[5];
             TlsUtils.writeUint8(recordType, additional_data, 0);
             TlsUtils.writeVersion(recordVersion, additional_data, 1);
             TlsUtils.writeUint16(ciphertextLength, additional_data, 3);
-            return additional_data;
         }
         else
         {
             /*
              * seq_num + TLSCompressed.type + TLSCompressed.version + TLSCompressed.length
              */
-            byte[] additional_data = new byte[13];
             TlsUtils.writeUint64(seqNo, additional_data, 0);
             TlsUtils.writeUint8(recordType, additional_data, 8);
             TlsUtils.writeVersion(recordVersion, additional_data, 9);
             TlsUtils.writeUint16(plaintextLength, additional_data, 11);
-            return additional_data;
         }
+        return additional_data;
     }
 
     private void rekeyCipher(SecurityParameters securityParameters, TlsAEADCipherImpl cipher, byte[] nonce,
@@ -420,11 +475,7 @@ public final class TlsAEADCipher
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
-        TlsSecret secret = serverSecret
-            ?   securityParameters.getTrafficSecretServer()
-            :   securityParameters.getTrafficSecretClient();
-
-        // TODO[tls13] For early data, have to disable server->client
+        TlsSecret secret = getTrafficSecret(securityParameters, serverSecret);
         if (null == secret)
         {
             throw new TlsFatalAlert(AlertDescription.internal_error);
@@ -443,6 +494,13 @@ public final class TlsAEADCipher
         System.arraycopy(iv, 0, nonce, 0, fixed_iv_length);
     }
 
+    private static TlsSecret getTrafficSecret(SecurityParameters securityParameters, boolean serverSecret)
+    {
+        return serverSecret
+            ?   securityParameters.getTrafficSecretServer()
+            :   securityParameters.getTrafficSecretClient();
+    }
+
     private static int getNonceMode(boolean isTLSv13, int aeadType) throws IOException
     {
         switch (aeadType)
@@ -24,6 +24,7 @@ public class AllTests
         suite.addTestSuite(BasicClientAuthTlsTest.class);
         suite.addTestSuite(BasicTlsTest.class);
         suite.addTestSuite(ConfigTest.class);
+        suite.addTestSuite(DelegatedTaskEngineTest.class);
         suite.addTestSuite(ECDSACredentialsTest.class);
         suite.addTestSuite(EdDSACredentialsTest.class);
         suite.addTestSuite(InstanceTest.class);
@@ -33,6 +34,8 @@ public class AllTests
         suite.addTestSuite(SLHDSACredentialsTest.class);
         suite.addTestSuite(SSLServerSocketTest.class);
         suite.addTestSuite(SSLSocketTest.class);
+        suite.addTestSuite(SessionCacheTest.class);
+        suite.addTestSuite(SessionTicketTest.class);
 
 
         if (hasClass("javax.net.ssl.CertPathTrustManagerParameters"))
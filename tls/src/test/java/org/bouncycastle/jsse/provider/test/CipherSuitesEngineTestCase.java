@@ -110,10 +110,10 @@ public class CipherSuitesEngineTestCase extends TestCase
             ((java.nio.Buffer)clientToServer).flip();
             ((java.nio.Buffer)serverToClient).flip();
 
-            clientResult = clientEngine.unwrap(serverToClient, clientIn);
+            clientResult = unwrap(clientEngine, serverToClient, clientIn);
             runDelegatedTasks(clientEngine, clientResult);
 
-            serverResult = serverEngine.unwrap(clientToServer, serverIn);
+            serverResult = unwrap(serverEngine, clientToServer, serverIn);
             runDelegatedTasks(serverEngine, serverResult);
 
             clientToServer.compact();
@@ -142,6 +142,23 @@ public class CipherSuitesEngineTestCase extends TestCase
         TestCase.assertTrue(Arrays.areEqual(clientTlsUnique, serverTlsUnique));
     }
 
+    private static SSLEngineResult unwrap(SSLEngine engine, ByteBuffer src, ByteBuffer dst) throws Exception
+    {
+        int position = src.position();
+        byte[] received = new byte[src.remaining()];
+        src.duplicate().get(received);
+
+        SSLEngineResult result = engine.unwrap(src, dst);
+
+        // The records consumed from the source must be left as they were (i.e. not decrypted in place)
+        assertEquals(position + result.bytesConsumed(), src.position());
+        byte[] after = new byte[received.length];
+        ((ByteBuffer)src.duplicate().position(position)).get(after);
+        assertTrue(Arrays.areEqual(received, after));
+
+        return result;
+    }
+
     private static void checkData(ByteBuffer a, ByteBuffer b) throws Exception
     {
         ((java.nio.Buffer)a).flip();
@@ -0,0 +1,185 @@
+package org.bouncycastle.jsse.provider.test;
+
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.TrustManagerFactory;
+
+import junit.framework.TestCase;
+import org.bouncycastle.util.Strings;
+
+/**
+ * SSLEngine handshakes with "org.bouncycastle.jsse.engine.enableDelegatedTasks" set, running the delegated tasks
+ * on an executor rather than the thread calling wrap/unwrap.
+ */
+public class DelegatedTaskEngineTest
+    extends TestCase
+{
+    private static final String PROPERTY_NAME = "org.bouncycastle.jsse.engine.enableDelegatedTasks";
+
+    private KeyStore serverKeyStore;
+    private KeyStore clientTrustStore;
+    private char[] serverPassword = "serverPassword".toCharArray();
+
+    private ExecutorService executor;
+    private String previousValue;
+
+    protected void setUp() throws Exception
+    {
+        ProviderUtils.setupLowPriority(false);
+
+        KeyPair caKeyPair = TestUtils.generateECKeyPair();
+        X509Certificate caCert = TestUtils.generateRootCert(caKeyPair);
+
+        serverKeyStore = KeyStore.getInstance("JKS");
+        serverKeyStore.load(null, null);
+        serverKeyStore.setKeyEntry("server", caKeyPair.getPrivate(), serverPassword, new X509Certificate[]{ caCert });
+
+        clientTrustStore = KeyStore.getInstance("JKS");
+        clientTrustStore.load(null, null);
+        clientTrustStore.setCertificateEntry("ca", caCert);
+
+        executor = Executors.newFixedThreadPool(2);
+
+        // NOTE: Read when each engine is created
+        previousValue = System.setProperty(PROPERTY_NAME, "true");
+    }
+
+    protected void tearDown() throws Exception
+    {
+        if (null == previousValue)
+        {
+            System.clearProperty(PROPERTY_NAME);
+        }
+        else
+        {
+            System.setProperty(PROPERTY_NAME, previousValue);
+        }
+
+        executor.shutdownNow();
+    }
+
+    public void testTLSv12() throws Exception
+    {
+        implTestConnection("TLSv1.2");
+    }
+
+    public void testTLSv13() throws Exception
+    {
+        implTestConnection("TLSv1.3");
+    }
+
+    private void implTestConnection(String protocol) throws Exception
+    {
+        SSLEngine clientEngine = createSSLContextClient().createSSLEngine();
+        clientEngine.setEnabledProtocols(new String[]{ protocol });
+        clientEngine.setUseClientMode(true);
+
+        SSLEngine serverEngine = createSSLContextServer().createSSLEngine();
+        serverEngine.setEnabledProtocols(new String[]{ protocol });
+        serverEngine.setUseClientMode(false);
+
+        int appBufSize = clientEngine.getSession().getApplicationBufferSize();
+        int netBufSize = clientEngine.getSession().getPacketBufferSize();
+
+        ByteBuffer clientIn = ByteBuffer.allocate(appBufSize);
+        ByteBuffer serverIn = ByteBuffer.allocate(appBufSize);
+        ByteBuffer clientToServer = ByteBuffer.allocate(netBufSize);
+        ByteBuffer serverToClient = ByteBuffer.allocate(netBufSize);
+
+        byte[] clientData = Strings.toUTF8ByteArray("Dear Prudence, won't you come out to play?");
+        byte[] serverData = Strings.toUTF8ByteArray("Impudence! I won't come out to today.");
+        ByteBuffer clientOut = ByteBuffer.wrap(clientData);
+        ByteBuffer serverOut = ByteBuffer.wrap(serverData);
+
+        int[] taskCounts = new int[2];
+
+        for (int i = 0; i < 100 && (clientIn.position() < serverData.length || serverIn.position() < clientData.length);
+            ++i)
+        {
+            taskCounts[0] += runDelegatedTasks(clientEngine, clientEngine.wrap(clientOut, clientToServer));
+            taskCounts[1] += runDelegatedTasks(serverEngine, serverEngine.wrap(serverOut, serverToClient));
+
+            ((java.nio.Buffer)clientToServer).flip();
+            ((java.nio.Buffer)serverToClient).flip();
+
+            taskCounts[0] += runDelegatedTasks(clientEngine, clientEngine.unwrap(serverToClient, clientIn));
+            taskCounts[1] += runDelegatedTasks(serverEngine, serverEngine.unwrap(clientToServer, serverIn));
+
+            clientToServer.compact();
+            serverToClient.compact();
+        }
+
+        assertEquals(protocol, clientEngine.getSession().getProtocol());
+        assertEquals(protocol, serverEngine.getSession().getProtocol());
+
+        // The handshake records received were processed by delegated tasks
+        assertTrue(taskCounts[0] > 0);
+        assertTrue(taskCounts[1] > 0);
+
+        checkData(serverData, clientIn);
+        checkData(clientData, serverIn);
+    }
+
+    private int runDelegatedTasks(SSLEngine engine, SSLEngineResult result) throws Exception
+    {
+        if (HandshakeStatus.NEED_TASK != result.getHandshakeStatus())
+        {
+            return 0;
+        }
+
+        int count = 0;
+
+        Runnable runnable;
+        while ((runnable = engine.getDelegatedTask()) != null)
+        {
+            Future<?> future = executor.submit(runnable);
+            future.get(10, TimeUnit.SECONDS);
+            ++count;
+        }
+
+        assertTrue(count > 0);
+        assertTrue(HandshakeStatus.NEED_TASK != engine.getHandshakeStatus());
+        return count;
+    }
+
+    private static void checkData(byte[] expected, ByteBuffer received)
+    {
+        ((java.nio.Buffer)received).flip();
+        assertEquals(ByteBuffer.wrap(expected), received);
+    }
+
+    private SSLContext createSSLContextClient() throws Exception
+    {
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance("PKIX", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        tmf.init(clientTrustStore);
+
+        SSLContext clientContext = SSLContext.getInstance("TLS", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        clientContext.init(null, tmf.getTrustManagers(), SecureRandom.getInstance("DEFAULT",
+            ProviderUtils.PROVIDER_NAME_BC));
+        return clientContext;
+    }
+
+    private SSLContext createSSLContextServer() throws Exception
+    {
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance("PKIX", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        kmf.init(serverKeyStore, serverPassword);
+
+        SSLContext serverContext = SSLContext.getInstance("TLS", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        serverContext.init(kmf.getKeyManagers(), null, SecureRandom.getInstance("DEFAULT",
+            ProviderUtils.PROVIDER_NAME_BC));
+        return serverContext;
+    }
+}
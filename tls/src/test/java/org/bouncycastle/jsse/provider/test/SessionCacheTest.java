@@ -0,0 +1,218 @@
+package org.bouncycastle.jsse.provider.test;
+
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.TrustManagerFactory;
+
+import junit.framework.TestCase;
+import org.bouncycastle.jsse.BCSSLSessionContext;
+
+public class SessionCacheTest
+    extends TestCase
+{
+    private static final String PROTOCOL = "TLSv1.2";
+
+    private KeyStore serverKeyStore;
+    private KeyStore clientTrustStore;
+    private char[] serverPassword = "serverPassword".toCharArray();
+
+    protected void setUp() throws Exception
+    {
+        ProviderUtils.setupLowPriority(false);
+
+        KeyPair caKeyPair = TestUtils.generateECKeyPair();
+        X509Certificate caCert = TestUtils.generateRootCert(caKeyPair);
+
+        serverKeyStore = KeyStore.getInstance("JKS");
+        serverKeyStore.load(null, null);
+        serverKeyStore.setKeyEntry("server", caKeyPair.getPrivate(), serverPassword, new X509Certificate[]{ caCert });
+
+        clientTrustStore = KeyStore.getInstance("JKS");
+        clientTrustStore.load(null, null);
+        clientTrustStore.setCertificateEntry("ca", caCert);
+    }
+
+    public void testContextStatistics() throws Exception
+    {
+        SSLContext clientContext = createSSLContextClient();
+        SSLContext serverContext = createSSLContextServer();
+
+        BCSSLSessionContext clientSessions = (BCSSLSessionContext)clientContext.getClientSessionContext();
+        BCSSLSessionContext serverSessions = (BCSSLSessionContext)serverContext.getServerSessionContext();
+
+        assertEquals(0, serverSessions.getCachedSessionCount());
+        assertEquals(0L, serverSessions.getSessionCacheHits());
+        assertEquals(0L, serverSessions.getSessionCacheEvictions());
+
+        // Metrics are disabled unless "org.bouncycastle.jsse.enableMetrics" is set
+        assertNull(serverSessions.getMetrics());
+
+        SSLSession first = handshake(clientContext, serverContext);
+        SSLSession second = handshake(clientContext, serverContext);
+
+        // The second connection resumes the session established by the first
+        assertTrue(java.util.Arrays.equals(first.getId(), second.getId()));
+
+        assertEquals(1, clientSessions.getCachedSessionCount());
+        assertEquals(1, serverSessions.getCachedSessionCount());
+        assertEquals(1L, clientSessions.getSessionCacheHits());
+        assertEquals(1L, serverSessions.getSessionCacheHits());
+        assertEquals(1L, clientSessions.getSessionCacheMisses());
+        assertEquals(0L, serverSessions.getSessionCacheEvictions());
+    }
+
+    public void testSizeEviction() throws Exception
+    {
+        SSLContext serverContext = createSSLContextServer();
+        BCSSLSessionContext serverSessions = (BCSSLSessionContext)serverContext.getServerSessionContext();
+
+        for (int i = 0; i < 4; ++i)
+        {
+            // A new client context each time, so that no session is resumed
+            handshake(createSSLContextClient(), serverContext);
+        }
+        assertEquals(4, serverSessions.getCachedSessionCount());
+
+        serverSessions.setSessionCacheSize(2);
+        assertEquals(2, serverSessions.getCachedSessionCount());
+        assertEquals(2L, serverSessions.getSessionCacheEvictions());
+
+        handshake(createSSLContextClient(), serverContext);
+        assertEquals(2, serverSessions.getCachedSessionCount());
+        assertEquals(3L, serverSessions.getSessionCacheEvictions());
+    }
+
+    public void testSmallCacheKeepsNewestSession() throws Exception
+    {
+        checkSmallCacheKeepsNewestSession(1);
+        checkSmallCacheKeepsNewestSession(2);
+    }
+
+    private void checkSmallCacheKeepsNewestSession(int cacheSize) throws Exception
+    {
+        SSLContext serverContext = createSSLContextServer();
+        BCSSLSessionContext serverSessions = (BCSSLSessionContext)serverContext.getServerSessionContext();
+        serverSessions.setSessionCacheSize(cacheSize);
+
+        // Session IDs are random, so over several inserts the new entry lands in segments holding no older entries
+        byte[][] ids = new byte[8][];
+        for (int i = 0; i < ids.length; ++i)
+        {
+            ids[i] = handshake(createSSLContextClient(), serverContext).getId();
+
+            assertEquals(Math.min(i + 1, cacheSize), serverSessions.getCachedSessionCount());
+            assertNotNull(serverSessions.getSession(ids[i]));
+        }
+        assertEquals((long)(ids.length - cacheSize), serverSessions.getSessionCacheEvictions());
+    }
+
+    public void testTimeoutEviction() throws Exception
+    {
+        SSLContext clientContext = createSSLContextClient();
+        SSLContext serverContext = createSSLContextServer();
+
+        BCSSLSessionContext serverSessions = (BCSSLSessionContext)serverContext.getServerSessionContext();
+
+        SSLSession session = handshake(clientContext, serverContext);
+        assertEquals(1, serverSessions.getCachedSessionCount());
+
+        Thread.sleep(1100L);
+        serverSessions.setSessionTimeout(1);
+
+        assertEquals(0, serverSessions.getCachedSessionCount());
+        assertEquals(1L, serverSessions.getSessionCacheEvictions());
+        assertNull(serverSessions.getSession(session.getId()));
+    }
+
+    private SSLContext createSSLContextClient() throws Exception
+    {
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance("PKIX", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        tmf.init(clientTrustStore);
+
+        SSLContext clientContext = SSLContext.getInstance("TLS", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        clientContext.init(null, tmf.getTrustManagers(), SecureRandom.getInstance("DEFAULT",
+            ProviderUtils.PROVIDER_NAME_BC));
+        return clientContext;
+    }
+
+    private SSLContext createSSLContextServer() throws Exception
+    {
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance("PKIX", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        kmf.init(serverKeyStore, serverPassword);
+
+        SSLContext serverContext = SSLContext.getInstance("TLS", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        serverContext.init(kmf.getKeyManagers(), null, SecureRandom.getInstance("DEFAULT",
+            ProviderUtils.PROVIDER_NAME_BC));
+        return serverContext;
+    }
+
+    private static SSLSession handshake(SSLContext clientContext, SSLContext serverContext) throws Exception
+    {
+        SSLEngine clientEngine = clientContext.createSSLEngine("localhost", 443);
+        clientEngine.setEnabledProtocols(new String[]{ PROTOCOL });
+        clientEngine.setUseClientMode(true);
+
+        SSLEngine serverEngine = serverContext.createSSLEngine();
+        serverEngine.setEnabledProtocols(new String[]{ PROTOCOL });
+        serverEngine.setUseClientMode(false);
+
+        int appBufSize = clientEngine.getSession().getApplicationBufferSize();
+        int netBufSize = clientEngine.getSession().getPacketBufferSize();
+
+        ByteBuffer empty = ByteBuffer.allocate(0);
+        ByteBuffer clientIn = ByteBuffer.allocate(appBufSize);
+        ByteBuffer serverIn = ByteBuffer.allocate(appBufSize);
+        ByteBuffer clientToServer = ByteBuffer.allocate(netBufSize);
+        ByteBuffer serverToClient = ByteBuffer.allocate(netBufSize);
+
+        clientEngine.beginHandshake();
+        serverEngine.beginHandshake();
+
+        for (int i = 0; i < 100 && (isHandshaking(clientEngine) || isHandshaking(serverEngine)); ++i)
+        {
+            runDelegatedTasks(clientEngine, clientEngine.wrap(empty, clientToServer));
+            runDelegatedTasks(serverEngine, serverEngine.wrap(empty, serverToClient));
+
+            ((java.nio.Buffer)clientToServer).flip();
+            ((java.nio.Buffer)serverToClient).flip();
+
+            runDelegatedTasks(clientEngine, clientEngine.unwrap(serverToClient, clientIn));
+            runDelegatedTasks(serverEngine, serverEngine.unwrap(clientToServer, serverIn));
+
+            clientToServer.compact();
+            serverToClient.compact();
+        }
+
+        assertFalse(isHandshaking(clientEngine));
+        assertFalse(isHandshaking(serverEngine));
+
+        return clientEngine.getSession();
+    }
+
+    private static boolean isHandshaking(SSLEngine engine)
+    {
+        return HandshakeStatus.NOT_HANDSHAKING != engine.getHandshakeStatus();
+    }
+
+    private static void runDelegatedTasks(SSLEngine engine, SSLEngineResult result)
+    {
+        if (HandshakeStatus.NEED_TASK == result.getHandshakeStatus())
+        {
+            Runnable runnable;
+            while ((runnable = engine.getDelegatedTask()) != null)
+            {
+                runnable.run();
+            }
+        }
+    }
+}
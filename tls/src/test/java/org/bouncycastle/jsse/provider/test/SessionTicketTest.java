@@ -0,0 +1,233 @@
+package org.bouncycastle.jsse.provider.test;
+
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+import junit.framework.TestCase;
+import org.bouncycastle.jsse.BCSNIHostName;
+import org.bouncycastle.jsse.BCSNIServerName;
+import org.bouncycastle.jsse.BCSSLEngine;
+import org.bouncycastle.jsse.BCSSLParameters;
+
+/**
+ * TLS 1.3 session ticket resumption.
+ */
+public class SessionTicketTest
+    extends TestCase
+{
+    private static final String PROTOCOL = "TLSv1.3";
+
+    private KeyStore serverKeyStore;
+    private KeyStore clientTrustStore;
+    private char[] serverPassword = "serverPassword".toCharArray();
+
+    protected void setUp() throws Exception
+    {
+        ProviderUtils.setupLowPriority(false);
+
+        KeyPair caKeyPair = TestUtils.generateECKeyPair();
+        X509Certificate caCert = TestUtils.generateRootCert(caKeyPair);
+
+        serverKeyStore = KeyStore.getInstance("JKS");
+        serverKeyStore.load(null, null);
+        serverKeyStore.setKeyEntry("server", caKeyPair.getPrivate(), serverPassword, new X509Certificate[]{ caCert });
+
+        clientTrustStore = KeyStore.getInstance("JKS");
+        clientTrustStore.load(null, null);
+        clientTrustStore.setCertificateEntry("ca", caCert);
+    }
+
+    public void testResumption() throws Exception
+    {
+        CountingTrustManager trustManager = new CountingTrustManager();
+        SSLContext clientContext = createSSLContextClient(trustManager);
+        SSLContext serverContext = createSSLContextServer();
+
+        handshake(clientContext, serverContext, "a.example.com");
+        assertEquals(1, trustManager.count);
+
+        // The ticket from the first connection is used, so the server is not authenticated again
+        handshake(clientContext, serverContext, "a.example.com");
+        assertEquals(1, trustManager.count);
+    }
+
+    public void testResumptionRefusedForOtherServerName() throws Exception
+    {
+        CountingTrustManager trustManager = new CountingTrustManager();
+        SSLContext clientContext = createSSLContextClient(trustManager);
+        SSLContext serverContext = createSSLContextServer();
+
+        handshake(clientContext, serverContext, "a.example.com");
+        assertEquals(1, trustManager.count);
+
+        // The client offers the ticket (it is cached by peer host and port), but the server must not accept it
+        handshake(clientContext, serverContext, "b.example.com");
+        assertEquals(2, trustManager.count);
+
+        // ... and a ticket issued under the new name is accepted under that name
+        handshake(clientContext, serverContext, "b.example.com");
+        assertEquals(2, trustManager.count);
+    }
+
+    private SSLContext createSSLContextClient(CountingTrustManager trustManager) throws Exception
+    {
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance("PKIX", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        tmf.init(clientTrustStore);
+
+        trustManager.delegate = (X509ExtendedTrustManager)tmf.getTrustManagers()[0];
+
+        SSLContext clientContext = SSLContext.getInstance("TLS", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        clientContext.init(null, new X509ExtendedTrustManager[]{ trustManager }, SecureRandom.getInstance("DEFAULT",
+            ProviderUtils.PROVIDER_NAME_BC));
+        return clientContext;
+    }
+
+    private SSLContext createSSLContextServer() throws Exception
+    {
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance("PKIX", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        kmf.init(serverKeyStore, serverPassword);
+
+        SSLContext serverContext = SSLContext.getInstance("TLS", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        serverContext.init(kmf.getKeyManagers(), null, SecureRandom.getInstance("DEFAULT",
+            ProviderUtils.PROVIDER_NAME_BC));
+        return serverContext;
+    }
+
+    private static void handshake(SSLContext clientContext, SSLContext serverContext, String serverName)
+        throws Exception
+    {
+        SSLEngine clientEngine = clientContext.createSSLEngine("server.example.com", 443);
+        clientEngine.setEnabledProtocols(new String[]{ PROTOCOL });
+        clientEngine.setUseClientMode(true);
+
+        BCSSLEngine bcClientEngine = (BCSSLEngine)clientEngine;
+        BCSSLParameters clientParameters = bcClientEngine.getParameters();
+        clientParameters.setServerNames(
+            Collections.<BCSNIServerName>singletonList(new BCSNIHostName(serverName)));
+        bcClientEngine.setParameters(clientParameters);
+
+        SSLEngine serverEngine = serverContext.createSSLEngine();
+        serverEngine.setEnabledProtocols(new String[]{ PROTOCOL });
+        serverEngine.setUseClientMode(false);
+
+        int appBufSize = clientEngine.getSession().getApplicationBufferSize();
+        int netBufSize = clientEngine.getSession().getPacketBufferSize();
+
+        ByteBuffer empty = ByteBuffer.allocate(0);
+        ByteBuffer clientIn = ByteBuffer.allocate(appBufSize);
+        ByteBuffer serverIn = ByteBuffer.allocate(appBufSize);
+        ByteBuffer clientToServer = ByteBuffer.allocate(netBufSize);
+        ByteBuffer serverToClient = ByteBuffer.allocate(netBufSize);
+
+        clientEngine.beginHandshake();
+        serverEngine.beginHandshake();
+
+        // NOTE: Keep going for a few rounds after the handshake, so the client receives the NewSessionTicket
+        int extraRounds = 4;
+        for (int i = 0; i < 100 && extraRounds > 0; ++i)
+        {
+            if (!isHandshaking(clientEngine) && !isHandshaking(serverEngine))
+            {
+                --extraRounds;
+            }
+
+            runDelegatedTasks(clientEngine, clientEngine.wrap(empty, clientToServer));
+            runDelegatedTasks(serverEngine, serverEngine.wrap(empty, serverToClient));
+
+            ((java.nio.Buffer)clientToServer).flip();
+            ((java.nio.Buffer)serverToClient).flip();
+
+            runDelegatedTasks(clientEngine, clientEngine.unwrap(serverToClient, clientIn));
+            runDelegatedTasks(serverEngine, serverEngine.unwrap(clientToServer, serverIn));
+
+            clientToServer.compact();
+            serverToClient.compact();
+        }
+
+        assertFalse(isHandshaking(clientEngine));
+        assertFalse(isHandshaking(serverEngine));
+    }
+
+    private static boolean isHandshaking(SSLEngine engine)
+    {
+        return HandshakeStatus.NOT_HANDSHAKING != engine.getHandshakeStatus();
+    }
+
+    private static void runDelegatedTasks(SSLEngine engine, SSLEngineResult result)
+    {
+        if (HandshakeStatus.NEED_TASK == result.getHandshakeStatus())
+        {
+            Runnable runnable;
+            while ((runnable = engine.getDelegatedTask()) != null)
+            {
+                runnable.run();
+            }
+        }
+    }
+
+    /**
+     * Counts server certificate checks, which only a full (not resumed) handshake makes.
+     */
+    private static class CountingTrustManager
+        extends X509ExtendedTrustManager
+    {
+        X509ExtendedTrustManager delegate;
+        int count = 0;
+
+        public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException
+        {
+            delegate.checkClientTrusted(chain, authType);
+        }
+
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException
+        {
+            delegate.checkClientTrusted(chain, authType, socket);
+        }
+
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException
+        {
+            delegate.checkClientTrusted(chain, authType, engine);
+        }
+
+        public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException
+        {
+            delegate.checkServerTrusted(chain, authType);
+            ++count;
+        }
+
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException
+        {
+            delegate.checkServerTrusted(chain, authType, socket);
+            ++count;
+        }
+
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException
+        {
+            delegate.checkServerTrusted(chain, authType, engine);
+            ++count;
+        }
+
+        public X509Certificate[] getAcceptedIssuers()
+        {
+            return delegate.getAcceptedIssuers();
+        }
+    }
+}
@@ -21,21 +21,25 @@ public class AllTests
     {
         TestSuite suite = new TestSuite("TLS tests");
 
+        suite.addTestSuite(BasicTlsMetricsTest.class);
         suite.addTestSuite(BasicTlsTest.class);
         suite.addTestSuite(BcTlsProtocolHybridTest.class);
         suite.addTestSuite(BcTlsProtocolKemTest.class);
         suite.addTestSuite(ByteQueueInputStreamTest.class);
+        suite.addTestSuite(CertificateCompressionTest.class);
         suite.addTestSuite(DTLSAggregatedHandshakeRetransmissionTest.class);
         suite.addTestSuite(DTLSHandshakeRetransmissionTest.class);
         suite.addTestSuite(DTLSProtocolTest.class);
         suite.addTestSuite(DTLSPSKProtocolTest.class);
         suite.addTestSuite(DTLSRawKeysProtocolTest.class);
+        suite.addTestSuite(DTLSServerMultiplexerTest.class);
         suite.addTestSuite(JcaTlsProtocolHybridTest.class);
         suite.addTestSuite(JcaTlsProtocolKemTest.class);
         suite.addTestSuite(SM2Tls13Test.class);
         suite.addTestSuite(OCSPTest.class);
         suite.addTestSuite(PRFTest.class);
         suite.addTestSuite(Tls13PSKProtocolTest.class);
+        suite.addTestSuite(TlsKeySharePoolTest.class);
         suite.addTestSuite(TlsProtocolNonBlockingTest.class);
         suite.addTestSuite(TlsProtocolTest.class);
         suite.addTestSuite(TlsPSKProtocolTest.class);
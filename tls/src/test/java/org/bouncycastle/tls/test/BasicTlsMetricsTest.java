@@ -0,0 +1,79 @@
+package org.bouncycastle.tls.test;
+
+import org.bouncycastle.tls.BasicTlsMetrics;
+import org.bouncycastle.tls.CipherSuite;
+import org.bouncycastle.tls.ProtocolVersion;
+
+import junit.framework.TestCase;
+
+public class BasicTlsMetricsTest
+    extends TestCase
+{
+    public void testEmptyHistogram()
+    {
+        BasicTlsMetrics metrics = new BasicTlsMetrics();
+        BasicTlsMetrics.Histogram histogram = metrics.getHandshakeLatency();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMeanNanos());
+        assertEquals(0L, histogram.getPercentileNanos(50.0));
+        assertEquals(0L, histogram.getPercentileNanos(99.0));
+    }
+
+    public void testPercentiles()
+    {
+        BasicTlsMetrics metrics = new BasicTlsMetrics();
+
+        for (int i = 1000; i >= 1; --i)
+        {
+            metrics.handshakeCompleted(ProtocolVersion.TLSv13, CipherSuite.TLS_AES_128_GCM_SHA256, false,
+                i * 1000L);
+        }
+
+        BasicTlsMetrics.Histogram histogram = metrics.getHandshakeLatency();
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(1000000L, histogram.getMaxNanos());
+        assertEquals(500500L, histogram.getMeanNanos());
+
+        implCheckEstimate(500000L, histogram.getPercentileNanos(50.0));
+        implCheckEstimate(990000L, histogram.getPercentileNanos(99.0));
+        assertEquals(1000000L, histogram.getPercentileNanos(100.0));
+    }
+
+    public void testSmallValues()
+    {
+        BasicTlsMetrics metrics = new BasicTlsMetrics();
+
+        for (int i = 0; i < 8; ++i)
+        {
+            metrics.keyExchangeCalculated(-1, i);
+        }
+
+        BasicTlsMetrics.Histogram histogram = metrics.getKeyExchangeLatency(-1);
+        assertEquals(8L, histogram.getCount());
+        assertEquals(3L, histogram.getPercentileNanos(50.0));
+        assertEquals(7L, histogram.getPercentileNanos(100.0));
+    }
+
+    public void testInvalidPercentile()
+    {
+        BasicTlsMetrics.Histogram histogram = new BasicTlsMetrics().getHandshakeLatency();
+
+        try
+        {
+            histogram.getPercentileNanos(100.1);
+            fail("percentile outside [0, 100] should be rejected");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    private static void implCheckEstimate(long expected, long estimate)
+    {
+        // Estimates are the upper bound of a bucket no wider than 25% of its lower bound
+        assertTrue(estimate >= expected);
+        assertTrue(estimate <= expected + expected / 4);
+    }
+}
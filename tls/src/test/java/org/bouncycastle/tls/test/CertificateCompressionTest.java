@@ -0,0 +1,121 @@
+package org.bouncycastle.tls.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.SecureRandom;
+
+import junit.framework.TestCase;
+import org.bouncycastle.tls.CachingCertificateCompressor;
+import org.bouncycastle.tls.CertificateCompressionAlgorithm;
+import org.bouncycastle.tls.CompressedCertificate;
+import org.bouncycastle.tls.TlsCertificateCompressor;
+import org.bouncycastle.tls.ZlibCertificateCompressor;
+import org.bouncycastle.util.Arrays;
+
+public class CertificateCompressionTest
+    extends TestCase
+{
+    private static byte[] createMessage()
+    {
+        // Compressible, but not trivially so
+        byte[] message = new byte[8192];
+        byte[] block = new byte[16];
+        SecureRandom random = new SecureRandom();
+        for (int i = 0; i < message.length; i += 64)
+        {
+            random.nextBytes(block);
+            System.arraycopy(block, 0, message, i, block.length);
+        }
+        return message;
+    }
+
+    public void testZlibRoundTrip() throws IOException
+    {
+        TlsCertificateCompressor compressor = new ZlibCertificateCompressor();
+        assertEquals(CertificateCompressionAlgorithm.zlib, compressor.getAlgorithm());
+
+        byte[] message = createMessage();
+        byte[] compressed = compressor.compress(message);
+        assertTrue(compressed.length < message.length);
+
+        assertTrue(Arrays.areEqual(message, compressor.decompress(compressed, message.length)));
+    }
+
+    public void testZlibLengthMismatch() throws IOException
+    {
+        TlsCertificateCompressor compressor = new ZlibCertificateCompressor();
+
+        byte[] message = createMessage();
+        byte[] compressed = compressor.compress(message);
+
+        implTestDecompressFails(compressor, compressed, message.length - 1);
+        implTestDecompressFails(compressor, compressed, message.length + 1);
+    }
+
+    public void testZlibMalformed() throws IOException
+    {
+        TlsCertificateCompressor compressor = new ZlibCertificateCompressor();
+
+        byte[] message = createMessage();
+        byte[] compressed = compressor.compress(message);
+
+        implTestDecompressFails(compressor, Arrays.copyOf(compressed, compressed.length - 1), message.length);
+        implTestDecompressFails(compressor, Arrays.append(compressed, (byte)0), message.length);
+
+        byte[] corrupted = Arrays.clone(compressed);
+        corrupted[corrupted.length - 1] ^= 1;
+        implTestDecompressFails(compressor, corrupted, message.length);
+    }
+
+    public void testCaching() throws IOException
+    {
+        CachingCertificateCompressor compressor = new CachingCertificateCompressor(new ZlibCertificateCompressor(),
+            2);
+
+        byte[] m1 = createMessage(), m2 = createMessage(), m3 = createMessage();
+
+        byte[] c1 = compressor.compress(m1);
+        assertEquals(1, compressor.size());
+        assertTrue(Arrays.areEqual(c1, compressor.compress(Arrays.clone(m1))));
+        assertEquals(1, compressor.size());
+
+        compressor.compress(m2);
+        compressor.compress(m3);
+        assertEquals(2, compressor.size());
+
+        assertTrue(Arrays.areEqual(m1, compressor.decompress(c1, m1.length)));
+    }
+
+    public void testCompressedCertificateEncoding() throws IOException
+    {
+        byte[] compressed = new byte[]{ 1, 2, 3 };
+        CompressedCertificate original = new CompressedCertificate(CertificateCompressionAlgorithm.zlib, 1000,
+            compressed);
+
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        original.encode(buf);
+        byte[] encoding = buf.toByteArray();
+
+        assertTrue(Arrays.areEqual(new byte[]{ 0, 1, 0, 3, (byte)0xE8, 0, 0, 3, 1, 2, 3 }, encoding));
+
+        CompressedCertificate parsed = CompressedCertificate.parse(new ByteArrayInputStream(encoding));
+        assertEquals(CertificateCompressionAlgorithm.zlib, parsed.getAlgorithm());
+        assertEquals(1000, parsed.getUncompressedLength());
+        assertTrue(Arrays.areEqual(compressed, parsed.getCompressedCertificateMessage()));
+    }
+
+    private static void implTestDecompressFails(TlsCertificateCompressor compressor, byte[] compressed,
+        int uncompressedLength)
+    {
+        try
+        {
+            compressor.decompress(compressed, uncompressedLength);
+            fail("decompression should fail");
+        }
+        catch (IOException e)
+        {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package org.bouncycastle.tls.test;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.bouncycastle.tls.DTLSClientProtocol;
+import org.bouncycastle.tls.DTLSServerMultiplexer;
+import org.bouncycastle.tls.DTLSTransport;
+import org.bouncycastle.tls.DatagramTransport;
+import org.bouncycastle.tls.TlsServer;
+import org.bouncycastle.tls.UDPTransport;
+import org.bouncycastle.util.Arrays;
+
+import junit.framework.TestCase;
+
+public class DTLSServerMultiplexerTest
+    extends TestCase
+{
+    private static final int MTU = 1500;
+
+    private DatagramChannel channel;
+    private ExecutorService executor;
+    private DTLSServerMultiplexer multiplexer;
+    private EchoHandler handler;
+
+    protected void setUp() throws Exception
+    {
+        channel = DatagramChannel.open();
+        channel.socket().bind(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0));
+
+        executor = Executors.newFixedThreadPool(2);
+        handler = new EchoHandler();
+
+        multiplexer = new DTLSServerMultiplexer(channel, MTU, new MockPSKDTLSServer().getCrypto(),
+            new DTLSServerMultiplexer.ServerFactory()
+            {
+                public TlsServer createServer(SocketAddress peerAddress, final byte[] connectionID)
+                {
+                    return new MockPSKDTLSServer()
+                    {
+                        protected byte[] getNewConnectionID()
+                        {
+                            return connectionID;
+                        }
+                    };
+                }
+            }, handler, executor);
+    }
+
+    protected void tearDown() throws Exception
+    {
+        multiplexer.close();
+        executor.shutdownNow();
+        channel.close();
+    }
+
+    public void testConcurrentClients() throws Exception
+    {
+        multiplexer.setConnectionIDLength(4);
+        multiplexer.start();
+
+        DatagramSocket[] sockets = new DatagramSocket[3];
+        DTLSTransport[] clients = new DTLSTransport[sockets.length];
+        for (int i = 0; i < sockets.length; ++i)
+        {
+            sockets[i] = createClientSocket();
+            clients[i] = connect(new UDPTransport(sockets[i], MTU));
+        }
+
+        for (int i = 0; i < clients.length; ++i)
+        {
+            checkEcho(clients[i], i + 1);
+        }
+
+        // Received data is only processed once the server has seen the association established
+        assertEquals(sockets.length, multiplexer.getAssociationCount());
+        assertEquals(sockets.length, handler.getEstablished());
+
+        for (int i = 0; i < clients.length; ++i)
+        {
+            clients[i].close();
+            sockets[i].close();
+        }
+
+        // The server closes each association on receiving the client's close_notify
+        assertTrue(waitForAssociationCount(0));
+        assertEquals(sockets.length, handler.getClosed());
+    }
+
+    public void testConnectionIDAddressChange() throws Exception
+    {
+        multiplexer.setConnectionIDLength(8);
+        multiplexer.start();
+
+        SwitchableUDPTransport transport = new SwitchableUDPTransport(createClientSocket());
+        DTLSTransport client = connect(transport);
+
+        checkEcho(client, 1);
+
+        // Simulate a NAT rebinding: the records carry the connection ID, so still reach the association
+        transport.switchSocket(createClientSocket());
+
+        checkEcho(client, 2);
+        assertEquals(1, multiplexer.getAssociationCount());
+
+        client.close();
+        transport.close();
+
+        assertTrue(waitForAssociationCount(0));
+    }
+
+    public void testNoConnectionID() throws Exception
+    {
+        multiplexer.setVerifyRequests(false);
+        multiplexer.start();
+
+        DatagramSocket socket = createClientSocket();
+        DTLSTransport client = connect(new UDPTransport(socket, MTU));
+
+        checkEcho(client, 1);
+        assertNull(handler.getLastConnectionID());
+
+        client.close();
+        socket.close();
+
+        assertTrue(waitForAssociationCount(0));
+    }
+
+    private void checkEcho(DTLSTransport client, int seed) throws IOException
+    {
+        byte[] data = new byte[100];
+        Arrays.fill(data, (byte)seed);
+        client.send(data, 0, data.length);
+
+        byte[] buf = new byte[client.getReceiveLimit()];
+        int length = client.receive(buf, 0, buf.length, 5000);
+        assertTrue(Arrays.areEqual(data, Arrays.copyOf(buf, length)));
+    }
+
+    private DTLSTransport connect(DatagramTransport transport) throws IOException
+    {
+        MockPSKDTLSClient client = new MockPSKDTLSClient(null)
+        {
+            protected byte[] getNewConnectionID()
+            {
+                // Offer connection IDs, though we don't need the server to use one
+                return new byte[0];
+            }
+        };
+
+        return new DTLSClientProtocol().connect(client, transport);
+    }
+
+    private DatagramSocket createClientSocket() throws IOException
+    {
+        DatagramSocket socket = new DatagramSocket();
+        socket.connect(channel.socket().getLocalSocketAddress());
+        return socket;
+    }
+
+    private boolean waitForAssociationCount(int count) throws InterruptedException
+    {
+        for (int i = 0; i < 100; ++i)
+        {
+            if (count == multiplexer.getAssociationCount())
+            {
+                return true;
+            }
+            Thread.sleep(50L);
+        }
+        return false;
+    }
+
+    static class EchoHandler
+        implements DTLSServerMultiplexer.Handler
+    {
+        private int established = 0, closed = 0;
+        private byte[] lastConnectionID = null;
+
+        public synchronized void associationEstablished(DTLSServerMultiplexer.Association association)
+        {
+            ++established;
+            lastConnectionID = association.getConnectionID();
+        }
+
+        public void applicationDataReceived(DTLSServerMultiplexer.Association association, byte[] buf, int off,
+            int len) throws IOException
+        {
+            association.send(buf, off, len);
+        }
+
+        public synchronized void associationClosed(DTLSServerMultiplexer.Association association,
+            Exception cause)
+        {
+            ++closed;
+        }
+
+        synchronized int getEstablished()
+        {
+            return established;
+        }
+
+        synchronized int getClosed()
+        {
+            return closed;
+        }
+
+        synchronized byte[] getLastConnectionID()
+        {
+            return lastConnectionID;
+        }
+    }
+
+    static class SwitchableUDPTransport
+        implements DatagramTransport
+    {
+        private volatile DatagramSocket socket;
+
+        SwitchableUDPTransport(DatagramSocket socket)
+        {
+            this.socket = socket;
+        }
+
+        void switchSocket(DatagramSocket socket)
+        {
+            DatagramSocket previous = this.socket;
+            this.socket = socket;
+            previous.close();
+        }
+
+        public int getReceiveLimit()
+        {
+            return MTU - 20 - 8;
+        }
+
+        public int getSendLimit()
+        {
+            return MTU - 84 - 8;
+        }
+
+        public int receive(byte[] buf, int off, int len, int waitMillis) throws IOException
+        {
+            DatagramSocket s = socket;
+            s.setSoTimeout(waitMillis);
+            DatagramPacket packet = new DatagramPacket(buf, off, len);
+            s.receive(packet);
+            return packet.getLength();
+        }
+
+        public void send(byte[] buf, int off, int len) throws IOException
+        {
+            socket.send(new DatagramPacket(buf, off, len));
+        }
+
+        public void close()
+        {
+            socket.close();
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.bouncycastle.tls.SecurityParameters;
 import org.bouncycastle.tls.TlsAuthentication;
 import org.bouncycastle.tls.TlsFatalAlert;
 import org.bouncycastle.tls.TlsPSK;
+import org.bouncycastle.tls.TlsPSKResumption;
 import org.bouncycastle.tls.TlsUtils;
 import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.tls.crypto.impl.bc.BcTlsCrypto;
@@ -27,6 +28,11 @@ class MockPSKTls13Client
     extends AbstractTlsClient
 {
     private final boolean badKey;
+    private final Vector resumptionPSKs;
+
+    TlsPSK selectedPSK = null;
+    byte[] earlyData = null;
+    Boolean earlyDataAccepted = null;
 
     MockPSKTls13Client()
     {
@@ -34,10 +40,20 @@ class MockPSKTls13Client
     }
 
     MockPSKTls13Client(boolean badKey)
+    {
+        this(badKey, null);
+    }
+
+    /**
+     * @param resumptionPSKs if not null, collects the tickets received and offers them (instead of the
+     *                       external PSK) once there are any.
+     */
+    MockPSKTls13Client(boolean badKey, Vector resumptionPSKs)
     {
         super(new BcTlsCrypto());
 
         this.badKey = badKey;
+        this.resumptionPSKs = resumptionPSKs;
     }
 
 //    public Vector getEarlyKeyShareGroups()
@@ -70,6 +86,11 @@ class MockPSKTls13Client
 
     public Vector getExternalPSKs()
     {
+        if (null != resumptionPSKs && !resumptionPSKs.isEmpty())
+        {
+            return null;
+        }
+
         byte[] identity = Strings.toUTF8ByteArray("client");
         TlsSecret key = getCrypto().createSecret(TlsTestUtils.getPSKPasswordUTF8(badKey));
         int prfAlgorithm = PRFAlgorithm.tls13_hkdf_sha256;
@@ -99,12 +120,37 @@ class MockPSKTls13Client
             + ", " + AlertDescription.getText(alertDescription));
     }
 
+    public Vector getResumptionPSKs()
+    {
+        return resumptionPSKs;
+    }
+
+    public byte[] getEarlyData(long maxEarlyDataSize) throws IOException
+    {
+        return earlyData;
+    }
+
+    public void notifyEarlyDataAccepted(boolean accepted) throws IOException
+    {
+        this.earlyDataAccepted = Boolean.valueOf(accepted);
+    }
+
+    public void notifyResumptionPSK(TlsPSKResumption resumptionPSK) throws IOException
+    {
+        if (null != resumptionPSKs)
+        {
+            resumptionPSKs.addElement(resumptionPSK);
+        }
+    }
+
     public void notifySelectedPSK(TlsPSK selectedPSK) throws IOException
     {
         if (null == selectedPSK)
         {
             throw new TlsFatalAlert(AlertDescription.handshake_failure);
         }
+
+        this.selectedPSK = selectedPSK;
     }
 
     public void notifyServerVersion(ProtocolVersion serverVersion) throws IOException
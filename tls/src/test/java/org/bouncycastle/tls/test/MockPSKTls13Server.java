@@ -9,25 +9,35 @@ import org.bouncycastle.tls.AbstractTlsServer;
 import org.bouncycastle.tls.AlertDescription;
 import org.bouncycastle.tls.AlertLevel;
 import org.bouncycastle.tls.BasicTlsPSKExternal;
+import org.bouncycastle.tls.BasicTlsPSKResumption;
 import org.bouncycastle.tls.CipherSuite;
 import org.bouncycastle.tls.NamedGroup;
+import org.bouncycastle.tls.NewSessionTicket;
 import org.bouncycastle.tls.PRFAlgorithm;
 import org.bouncycastle.tls.ProtocolName;
 import org.bouncycastle.tls.ProtocolVersion;
 import org.bouncycastle.tls.PskIdentity;
 import org.bouncycastle.tls.SecurityParameters;
+import org.bouncycastle.tls.SessionParameters;
+import org.bouncycastle.tls.TlsAntiReplay;
 import org.bouncycastle.tls.TlsCredentials;
 import org.bouncycastle.tls.TlsFatalAlert;
 import org.bouncycastle.tls.TlsPSKExternal;
+import org.bouncycastle.tls.TlsPSKResumption;
 import org.bouncycastle.tls.TlsUtils;
 import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.tls.crypto.impl.bc.BcTlsCrypto;
 import org.bouncycastle.util.Strings;
+import org.bouncycastle.util.encoders.Hex;
 
 class MockPSKTls13Server
     extends AbstractTlsServer
 {
     private final boolean badKey;
+    private final Hashtable tickets;
+    private final TlsAntiReplay antiReplay;
+
+    Boolean earlyDataAccepted = null;
 
     MockPSKTls13Server()
     {
@@ -35,10 +45,29 @@ class MockPSKTls13Server
     }
 
     MockPSKTls13Server(boolean badKey)
+    {
+        this(badKey, null);
+    }
+
+    /**
+     * @param tickets if not null, a ticket is issued for each connection and its PSK stored here (keyed by
+     *                the hex encoding of the ticket) for later resumption.
+     */
+    MockPSKTls13Server(boolean badKey, Hashtable tickets)
+    {
+        this(badKey, tickets, null);
+    }
+
+    /**
+     * @param antiReplay if not null, tickets permit early data and it is accepted subject to this check.
+     */
+    MockPSKTls13Server(boolean badKey, Hashtable tickets, TlsAntiReplay antiReplay)
     {
         super(new BcTlsCrypto());
 
         this.badKey = badKey;
+        this.tickets = tickets;
+        this.antiReplay = antiReplay;
     }
 
     public TlsCredentials getCredentials() throws IOException
@@ -95,6 +124,61 @@ class MockPSKTls13Server
         return null;
     }
 
+    public TlsPSKResumption getResumptionPSK(Vector identities)
+    {
+        if (null != tickets)
+        {
+            for (int i = 0, count = identities.size(); i < count; ++i)
+            {
+                PskIdentity identity = (PskIdentity)identities.elementAt(i);
+
+                TlsPSKResumption psk = (TlsPSKResumption)tickets.get(Hex.toHexString(identity.getIdentity()));
+                if (null != psk)
+                {
+                    return psk;
+                }
+            }
+        }
+        return null;
+    }
+
+    public long getMaxEarlyDataSize()
+    {
+        return null == antiReplay ? 0L : 1024L;
+    }
+
+    public TlsAntiReplay getAntiReplay()
+    {
+        return antiReplay;
+    }
+
+    public void notifyEarlyDataAccepted(boolean accepted) throws IOException
+    {
+        this.earlyDataAccepted = Boolean.valueOf(accepted);
+    }
+
+    public NewSessionTicket getNewSessionTicket13(TlsSecret resumptionPSK, long ticketAgeAdd) throws IOException
+    {
+        if (null == tickets || !tickets.isEmpty())
+        {
+            return null;
+        }
+
+        byte[] ticket = new byte[16];
+        getCrypto().getSecureRandom().nextBytes(ticket);
+
+        long ticketLifetime = 3600L;
+        TlsSecret key = getCrypto().adoptSecret(resumptionPSK);
+        int prfAlgorithm = context.getSecurityParametersConnection().getPRFAlgorithm();
+
+        SessionParameters sessionParameters = context.getSession().exportSessionParameters();
+
+        tickets.put(Hex.toHexString(ticket), new BasicTlsPSKResumption(ticket, key, prfAlgorithm,
+            System.currentTimeMillis(), ticketLifetime, ticketAgeAdd, sessionParameters));
+
+        return new NewSessionTicket(ticketLifetime, ticket);
+    }
+
     public void notifyAlertRaised(short alertLevel, short alertDescription, String message, Throwable cause)
     {
         PrintStream out = (alertLevel == AlertLevel.fatal) ? System.err : System.out;
@@ -1,15 +1,30 @@
 package org.bouncycastle.tls.test;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.Hashtable;
+import java.util.Vector;
 
 import org.bouncycastle.tls.AlertDescription;
+import org.bouncycastle.tls.BasicTlsAntiReplay;
+import org.bouncycastle.tls.BasicTlsMetrics;
+import org.bouncycastle.tls.ContentType;
+import org.bouncycastle.tls.HandshakeType;
+import org.bouncycastle.tls.NamedGroup;
 import org.bouncycastle.tls.TlsClientProtocol;
 import org.bouncycastle.tls.TlsFatalAlertReceived;
+import org.bouncycastle.tls.TlsMetricsListener;
+import org.bouncycastle.tls.TlsPSK;
+import org.bouncycastle.tls.TlsPSKExternal;
+import org.bouncycastle.tls.TlsPSKResumption;
+import org.bouncycastle.tls.TlsProtocol;
 import org.bouncycastle.tls.TlsServer;
 import org.bouncycastle.tls.TlsServerProtocol;
+import org.bouncycastle.tls.TlsUtils;
 import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Integers;
 import org.bouncycastle.util.io.Streams;
 
 import junit.framework.TestCase;
@@ -38,6 +53,311 @@ public class Tls13PSKProtocolTest
         MockPSKTls13Client client = new MockPSKTls13Client();
         MockPSKTls13Server server = new MockPSKTls13Server();
 
+        implTestClientServer(client, server);
+    }
+
+    public void testResumption() throws Exception
+    {
+        Hashtable tickets = new Hashtable();
+        Vector resumptionPSKs = new Vector();
+
+        MockPSKTls13Client client = new MockPSKTls13Client(false, resumptionPSKs);
+        implTestClientServer(client, new MockPSKTls13Server(false, tickets));
+
+        assertTrue(client.selectedPSK instanceof TlsPSKExternal);
+        assertEquals(1, tickets.size());
+        assertEquals(1, resumptionPSKs.size());
+
+        client = new MockPSKTls13Client(false, resumptionPSKs);
+        implTestClientServer(client, new MockPSKTls13Server(false, tickets));
+
+        assertTrue(client.selectedPSK instanceof TlsPSKResumption);
+        assertTrue(Arrays.areEqual(((TlsPSK)resumptionPSKs.elementAt(0)).getIdentity(),
+            client.selectedPSK.getIdentity()));
+    }
+
+    public void testEarlyData() throws Exception
+    {
+        Hashtable tickets = new Hashtable();
+        Vector resumptionPSKs = new Vector();
+        BasicTlsAntiReplay antiReplay = new BasicTlsAntiReplay(10000L, 100);
+
+        implTestClientServer(new MockPSKTls13Client(false, resumptionPSKs),
+            new MockPSKTls13Server(false, tickets, antiReplay));
+
+        assertEquals(1, resumptionPSKs.size());
+        assertEquals(1024L, ((TlsPSKResumption)resumptionPSKs.elementAt(0)).getMaxEarlyDataSize());
+
+        byte[] earlyData = new byte[100];
+
+        MockPSKTls13Client client = new MockPSKTls13Client(false, resumptionPSKs);
+        MockPSKTls13Server server = new MockPSKTls13Server(false, tickets, antiReplay);
+        client.earlyData = earlyData;
+        implTestClientServer(client, server, earlyData);
+
+        assertEquals(Boolean.TRUE, client.earlyDataAccepted);
+        assertEquals(Boolean.TRUE, server.earlyDataAccepted);
+
+        // NOTE: Offering the same ticket again is a replay, so the early data is rejected (and skipped)
+        client = new MockPSKTls13Client(false, resumptionPSKs);
+        server = new MockPSKTls13Server(false, tickets, antiReplay);
+        client.earlyData = earlyData;
+        implTestClientServer(client, server);
+
+        assertTrue(client.selectedPSK instanceof TlsPSKResumption);
+        assertEquals(Boolean.FALSE, client.earlyDataAccepted);
+        assertEquals(Boolean.FALSE, server.earlyDataAccepted);
+    }
+
+    public void testEarlyDataDecryptedBeforeHandshake() throws Exception
+    {
+        Hashtable tickets = new Hashtable();
+        Vector resumptionPSKs = new Vector();
+        BasicTlsAntiReplay antiReplay = new BasicTlsAntiReplay(10000L, 100);
+
+        implTestClientServer(new MockPSKTls13Client(false, resumptionPSKs),
+            new MockPSKTls13Server(false, tickets, antiReplay));
+
+        assertEquals(1, resumptionPSKs.size());
+
+        MockPSKTls13Client client = new MockPSKTls13Client(false, resumptionPSKs);
+        MockPSKTls13Server server = new MockPSKTls13Server(false, tickets, antiReplay);
+
+        byte[] earlyData = new byte[100];
+        client.getCrypto().getSecureRandom().nextBytes(earlyData);
+        client.earlyData = earlyData;
+
+        TlsClientProtocol clientProtocol = new TlsClientProtocol();
+        TlsServerProtocol serverProtocol = new TlsServerProtocol();
+
+        clientProtocol.connect(client);
+        serverProtocol.accept(server);
+
+        /*
+         * The first flight is just the ClientHello and the early data, so the server can only decrypt the early data
+         * if the early traffic secret it derived covers exactly the ClientHello (including the PSK binders).
+         */
+        assertTrue(pumpData(clientProtocol, serverProtocol));
+        assertFalse(serverProtocol.isConnected());
+        assertEquals(Boolean.TRUE, server.earlyDataAccepted);
+
+        byte[] received = new byte[earlyData.length];
+        assertEquals(earlyData.length, serverProtocol.getAvailableInputBytes());
+        assertEquals(earlyData.length, serverProtocol.readInput(received, 0, received.length));
+        assertTrue(Arrays.areEqual(earlyData, received));
+
+        while (pumpData(clientProtocol, serverProtocol) | pumpData(serverProtocol, clientProtocol))
+        {
+        }
+
+        assertTrue(clientProtocol.isConnected());
+        assertTrue(serverProtocol.isConnected());
+        assertEquals(Boolean.TRUE, client.earlyDataAccepted);
+        assertEquals(0, serverProtocol.getAvailableInputBytes());
+
+        byte[] data = new byte[100];
+        clientProtocol.writeApplicationData(data, 0, data.length);
+        pumpData(clientProtocol, serverProtocol);
+        assertEquals(data.length, serverProtocol.readInput(received, 0, received.length));
+
+        clientProtocol.close();
+        serverProtocol.close();
+    }
+
+    public void testEarlyDataRejectedAfterHelloRetryRequest() throws Exception
+    {
+        Hashtable tickets = new Hashtable();
+        Vector resumptionPSKs = new Vector();
+        BasicTlsAntiReplay antiReplay = new BasicTlsAntiReplay(10000L, 100);
+
+        implTestClientServer(new MockPSKTls13Client(false, resumptionPSKs),
+            new MockPSKTls13Server(false, tickets, antiReplay));
+
+        assertEquals(1, resumptionPSKs.size());
+
+        final int[] negotiatedGroup = new int[]{ -1 };
+
+        // NOTE: The server picks x25519 (the client's first supported group), so it must send a HelloRetryRequest
+        MockPSKTls13Client client = new MockPSKTls13Client(false, resumptionPSKs)
+        {
+            public Vector getEarlyKeyShareGroups()
+            {
+                return TlsUtils.vectorOfOne(Integers.valueOf(NamedGroup.secp256r1));
+            }
+
+            public void notifyHandshakeComplete() throws IOException
+            {
+                super.notifyHandshakeComplete();
+
+                negotiatedGroup[0] = context.getSecurityParametersConnection().getNegotiatedGroup();
+            }
+        };
+        MockPSKTls13Server server = new MockPSKTls13Server(false, tickets, antiReplay);
+        client.earlyData = new byte[100];
+
+        /*
+         * By the time the server could accept early data, its transcript already covers the HelloRetryRequest, so
+         * the early data is skipped rather than decrypted (and the echo is only of the application data).
+         */
+        implTestClientServer(client, server);
+
+        assertTrue(client.selectedPSK instanceof TlsPSKResumption);
+        assertEquals(NamedGroup.x25519, negotiatedGroup[0]);
+        assertEquals(Boolean.FALSE, client.earlyDataAccepted);
+        assertEquals(Boolean.FALSE, server.earlyDataAccepted);
+    }
+
+    public void testNonBlockingRecordAllocations() throws Exception
+    {
+        TlsClientProtocol clientProtocol = new TlsClientProtocol();
+        TlsServerProtocol serverProtocol = new TlsServerProtocol();
+
+        MockPSKTls13Client client = new MockPSKTls13Client();
+        clientProtocol.connect(client);
+        serverProtocol.accept(new MockPSKTls13Server());
+
+        while (pumpData(clientProtocol, serverProtocol) | pumpData(serverProtocol, clientProtocol))
+        {
+        }
+
+        byte[] data = new byte[1000];
+        byte[] output = new byte[2048];
+        byte[] echo = new byte[data.length];
+
+        long[] allocations = null;
+        for (int i = 0; i < 100; ++i)
+        {
+            client.getCrypto().getSecureRandom().nextBytes(data);
+
+            // Client encrypts directly into 'output'; server writes to its own output queue
+            int count = clientProtocol.writeApplicationData(data, 0, data.length, output, 0, output.length);
+            assertTrue(count > data.length);
+            assertEquals(0, clientProtocol.getAvailableOutputBytes());
+            serverProtocol.offerInput(output, 0, count);
+
+            assertEquals(data.length, serverProtocol.readInput(echo, 0, echo.length));
+            serverProtocol.writeApplicationData(echo, 0, echo.length);
+            pumpData(serverProtocol, clientProtocol);
+
+            assertEquals(data.length, clientProtocol.readInput(echo, 0, echo.length));
+            assertTrue(Arrays.areEqual(data, echo));
+
+            long[] current = new long[]{ clientProtocol.getRecordReadAllocations(),
+                clientProtocol.getRecordWriteAllocations(), serverProtocol.getRecordReadAllocations(),
+                serverProtocol.getRecordWriteAllocations() };
+
+            // NOTE: The first exchange may still grow some buffers
+            if (null != allocations)
+            {
+                assertTrue(Arrays.areEqual(allocations, current));
+            }
+            allocations = current;
+        }
+
+        clientProtocol.close();
+        serverProtocol.close();
+    }
+
+    public void testMetrics() throws Exception
+    {
+        final BasicTlsMetrics clientMetrics = new BasicTlsMetrics();
+        final BasicTlsMetrics serverMetrics = new BasicTlsMetrics();
+        final int[] negotiatedGroup = new int[]{ -1 };
+
+        Hashtable tickets = new Hashtable();
+        Vector resumptionPSKs = new Vector();
+
+        for (int i = 0; i < 2; ++i)
+        {
+            TlsClientProtocol clientProtocol = new TlsClientProtocol();
+            TlsServerProtocol serverProtocol = new TlsServerProtocol();
+
+            clientProtocol.connect(new MockPSKTls13Client(false, resumptionPSKs)
+            {
+                public TlsMetricsListener getMetricsListener()
+                {
+                    return clientMetrics;
+                }
+
+                public void notifyHandshakeComplete() throws IOException
+                {
+                    super.notifyHandshakeComplete();
+
+                    negotiatedGroup[0] = context.getSecurityParametersConnection().getNegotiatedGroup();
+                }
+            });
+            serverProtocol.accept(new MockPSKTls13Server(false, tickets)
+            {
+                public TlsMetricsListener getMetricsListener()
+                {
+                    return serverMetrics;
+                }
+            });
+
+            while (pumpData(clientProtocol, serverProtocol) | pumpData(serverProtocol, clientProtocol))
+            {
+            }
+
+            byte[] data = new byte[100];
+            clientProtocol.writeApplicationData(data, 0, data.length);
+            pumpData(clientProtocol, serverProtocol);
+            assertEquals(data.length, serverProtocol.readInput(data, 0, data.length));
+
+            clientProtocol.close();
+            pumpData(clientProtocol, serverProtocol);
+        }
+
+        assertEquals(2L, clientMetrics.getHandshakeCount());
+        assertEquals(2L, serverMetrics.getHandshakeCount());
+        assertEquals(1L, clientMetrics.getResumedHandshakeCount());
+        assertEquals(1L, serverMetrics.getResumedHandshakeCount());
+
+        long p50 = serverMetrics.getHandshakeLatency().getPercentileNanos(50.0);
+        assertTrue(p50 > 0L);
+        assertTrue(serverMetrics.getHandshakeLatency().getPercentileNanos(99.0) >= p50);
+
+        assertEquals(2L, serverMetrics.getHandshakeMessageLatency(HandshakeType.client_hello).getCount());
+        assertEquals(2L, clientMetrics.getHandshakeMessageLatency(HandshakeType.finished).getCount());
+        assertNull(serverMetrics.getHandshakeMessageLatency(HandshakeType.certificate));
+
+        assertEquals(2L, clientMetrics.getKeyExchangeLatency(negotiatedGroup[0]).getCount());
+        assertEquals(2L, serverMetrics.getKeyExchangeLatency(negotiatedGroup[0]).getCount());
+
+        assertEquals(2L, serverMetrics.getRecordsReceived(ContentType.application_data));
+        assertEquals(200L, serverMetrics.getBytesReceived(ContentType.application_data));
+        assertEquals(clientMetrics.getRecordsSent(ContentType.handshake),
+            serverMetrics.getRecordsReceived(ContentType.handshake));
+
+        assertEquals(2L, clientMetrics.getAlertsRaised(AlertDescription.close_notify));
+        assertEquals(2L, serverMetrics.getAlertsReceived(AlertDescription.close_notify));
+    }
+
+    private static boolean pumpData(TlsProtocol from, TlsProtocol to) throws IOException
+    {
+        int byteCount = from.getAvailableOutputBytes();
+        if (byteCount == 0)
+        {
+            return false;
+        }
+
+        byte[] buffer = new byte[byteCount];
+        from.readOutput(buffer, 0, buffer.length);
+        to.offerInput(buffer);
+        return true;
+    }
+
+    private void implTestClientServer(MockPSKTls13Client client, MockPSKTls13Server server) throws Exception
+    {
+        implTestClientServer(client, server, null);
+    }
+
+    /**
+     * @param earlyData if not null, the early data the server is expected to echo ahead of the
+     *                  application data.
+     */
+    private void implTestClientServer(MockPSKTls13Client client, MockPSKTls13Server server, byte[] earlyData)
+        throws Exception
+    {
         PipedInputStream clientRead = TlsTestUtils.createPipedInputStream();
         PipedInputStream serverRead = TlsTestUtils.createPipedInputStream();
         PipedOutputStream clientWrite = new PipedOutputStream(serverRead);
@@ -60,11 +380,13 @@ public class Tls13PSKProtocolTest
         OutputStream output = clientProtocol.getOutputStream();
         output.write(data);
 
-        byte[] echo = new byte[data.length];
+        byte[] expected = null == earlyData ? data : Arrays.concatenate(earlyData, data);
+
+        byte[] echo = new byte[expected.length];
         int count = Streams.readFully(clientProtocol.getInputStream(), echo);
 
-        assertEquals(count, data.length);
-        assertTrue(Arrays.areEqual(data, echo));
+        assertEquals(count, expected.length);
+        assertTrue(Arrays.areEqual(expected, echo));
 
         output.close();
 
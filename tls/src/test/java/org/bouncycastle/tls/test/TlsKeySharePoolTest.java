@@ -0,0 +1,140 @@
+package org.bouncycastle.tls.test;
+
+import java.io.IOException;
+import java.util.Vector;
+
+import org.bouncycastle.tls.NamedGroup;
+import org.bouncycastle.tls.TlsClientProtocol;
+import org.bouncycastle.tls.TlsKeySharePool;
+import org.bouncycastle.tls.TlsProtocol;
+import org.bouncycastle.tls.TlsServerProtocol;
+import org.bouncycastle.tls.crypto.TlsECConfig;
+import org.bouncycastle.tls.crypto.TlsECDomain;
+import org.bouncycastle.tls.crypto.impl.bc.BcTlsCrypto;
+
+import junit.framework.TestCase;
+
+public class TlsKeySharePoolTest
+    extends TestCase
+{
+    public void testKeySharePool() throws Exception
+    {
+        final TlsKeySharePool[] pool = new TlsKeySharePool[1];
+
+        MockPSKTls13Client client = new MockPSKTls13Client()
+        {
+            public TlsKeySharePool getKeySharePool()
+            {
+                return pool[0];
+            }
+        };
+        pool[0] = new TlsKeySharePool(client.getCrypto(), new int[]{ NamedGroup.MLKEM768,
+            NamedGroup.X25519MLKEM768 }, 2, 60 * 1000L);
+
+        try
+        {
+            // The first handshake misses, but registers the client's key share group(s) with the pool
+            implTestNonBlockingHandshake(client, new MockPSKTls13Server());
+            assertEquals(0L, pool[0].getHits());
+            assertTrue(pool[0].getMisses() > 0L);
+
+            long misses = pool[0].getMisses();
+            Vector groups = client.getEarlyKeyShareGroups();
+            for (int i = 0; i < groups.size(); ++i)
+            {
+                implWaitForKeyShares(pool[0], ((Integer)groups.elementAt(i)).intValue(), 2);
+            }
+            implWaitForKeyShares(pool[0], NamedGroup.MLKEM768, 2);
+            implWaitForKeyShares(pool[0], NamedGroup.X25519MLKEM768, 2);
+
+            implTestNonBlockingHandshake(client, new MockPSKTls13Server());
+            assertEquals(groups.size(), pool[0].getHits());
+            assertEquals(misses, pool[0].getMisses());
+            assertEquals(0L, pool[0].getFailures());
+        }
+        finally
+        {
+            pool[0].close();
+        }
+
+        assertEquals(0, pool[0].getAvailable(NamedGroup.MLKEM768));
+    }
+
+    public void testKeySharePoolRetriesAfterFailure() throws Exception
+    {
+        final int[] failures = new int[]{ 2 };
+
+        // Fails to generate the first two key shares, as a transient provider error would
+        BcTlsCrypto crypto = new BcTlsCrypto()
+        {
+            public TlsECDomain createECDomain(TlsECConfig ecConfig)
+            {
+                synchronized (failures)
+                {
+                    if (failures[0] > 0)
+                    {
+                        --failures[0];
+                        throw new IllegalStateException("transient failure");
+                    }
+                }
+                return super.createECDomain(ecConfig);
+            }
+        };
+
+        TlsKeySharePool pool = new TlsKeySharePool(crypto, new int[]{ NamedGroup.secp256r1 }, 1, 60 * 1000L);
+        try
+        {
+            implWaitForKeyShares(pool, NamedGroup.secp256r1, 1);
+            assertEquals(0, failures[0]);
+            assertEquals(2L, pool.getFailures());
+        }
+        finally
+        {
+            pool.close();
+        }
+    }
+
+    private static void implTestNonBlockingHandshake(MockPSKTls13Client client, MockPSKTls13Server server)
+        throws IOException
+    {
+        TlsClientProtocol clientProtocol = new TlsClientProtocol();
+        TlsServerProtocol serverProtocol = new TlsServerProtocol();
+
+        clientProtocol.connect(client);
+        serverProtocol.accept(server);
+
+        while (pumpData(clientProtocol, serverProtocol) | pumpData(serverProtocol, clientProtocol))
+        {
+        }
+
+        assertTrue(clientProtocol.isConnected());
+        assertTrue(serverProtocol.isConnected());
+
+        clientProtocol.close();
+        serverProtocol.close();
+    }
+
+    private static void implWaitForKeyShares(TlsKeySharePool pool, int namedGroup, int count)
+        throws InterruptedException
+    {
+        for (int i = 0; i < 200 && pool.getAvailable(namedGroup) < count; ++i)
+        {
+            Thread.sleep(50L);
+        }
+        assertEquals(count, pool.getAvailable(namedGroup));
+    }
+
+    private static boolean pumpData(TlsProtocol from, TlsProtocol to) throws IOException
+    {
+        int byteCount = from.getAvailableOutputBytes();
+        if (byteCount == 0)
+        {
+            return false;
+        }
+
+        byte[] buffer = new byte[byteCount];
+        from.readOutput(buffer, 0, buffer.length);
+        to.offerInput(buffer);
+        return true;
+    }
+}